@@ -0,0 +1,75 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.BatchOperationType;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.service.ContactService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Скорость загрузки контактов: пакетный запрос и часть импорта файла против цикла одиночных созданий.
+ * Результат нормирован на один контакт.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchIngestBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private List<ContactRequestDto> requests;
+    private List<ContactBatchOperationDto> operations;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        contactService = context.getBean(ContactService.class);
+        requests = new ArrayList<>(BATCH_SIZE);
+        operations = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            ContactRequestDto request = BenchmarkApplication.request(i);
+            requests.add(request);
+            ContactBatchOperationDto operation = new ContactBatchOperationDto();
+            operation.setOperation(BatchOperationType.CREATE);
+            operation.setContact(request);
+            operations.add(operation);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<ContactBatchResultDto> batch() {
+        return contactService.processBatch(operations);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public List<String> importChunk() {
+        return contactService.importContacts(requests);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public void loop(Blackhole blackhole) {
+        for (ContactRequestDto request : requests) {
+            blackhole.consume(contactService.createContact(request));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.ContactBookApplication;
+import com.example.contactbook.dto.BatchOperationType;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.service.ContactService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Запуск приложения для бенчмарков, работающих с реальной базой H2.
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * Запуск контекста приложения с отключенным подробным логированием.
+     *
+     * @param properties Дополнительные свойства в формате {@code key=value}, переопределяющие application.yml
+     * @return Контекст приложения
+     */
+    static ConfigurableApplicationContext start(String... properties) {
+        return run(WebApplicationType.NONE, properties);
+    }
+
+    /**
+     * Запуск приложения со встроенным Tomcat на случайном порту.
+     * Порт доступен в свойстве {@code local.server.port}.
+     *
+     * @param properties Дополнительные свойства в формате {@code key=value}, переопределяющие application.yml
+     * @return Контекст приложения
+     */
+    static ConfigurableApplicationContext startServer(String... properties) {
+        return run(WebApplicationType.SERVLET, properties);
+    }
+
+    private static ConfigurableApplicationContext run(WebApplicationType webApplicationType, String... properties) {
+        return new SpringApplicationBuilder(ContactBookApplication.class)
+                .web(webApplicationType)
+                .properties("logging.level.root=WARN", "logging.level.com.example.contactbook=WARN", "server.port=0",
+                        "contact-book.admission.enabled=false")
+                .run(Arrays.stream(properties).map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    /**
+     * Заполнение книги контактами пакетами через {@link ContactService#processBatch(List)}.
+     *
+     * @param contactService Сервис контактов
+     * @param count          Количество создаваемых контактов
+     */
+    static void seed(ContactService contactService, int count) {
+        List<ContactBatchOperationDto> batch = new ArrayList<>(ContactService.MAX_BATCH_SIZE);
+        for (int i = 0; i < count; i++) {
+            ContactBatchOperationDto operation = new ContactBatchOperationDto();
+            operation.setOperation(BatchOperationType.CREATE);
+            operation.setContact(request(i));
+            batch.add(operation);
+            if (batch.size() == ContactService.MAX_BATCH_SIZE) {
+                contactService.processBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            contactService.processBatch(batch);
+        }
+    }
+
+    /**
+     * Данные контакта с номером {@code i}.
+     *
+     * @param i Порядковый номер
+     * @return Объект {@link ContactRequestDto}
+     */
+    static ContactRequestDto request(int i) {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setName("Contact " + i);
+        request.setPhoneNumber("+1 555 " + (1_000_000 + i));
+        request.setEmail("contact" + i + "@example.com");
+        return request;
+    }
+}
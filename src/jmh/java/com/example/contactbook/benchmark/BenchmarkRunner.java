@@ -0,0 +1,35 @@
+package com.example.contactbook.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Точка входа JMH-бенчмарков.
+ * <p>
+ * Всегда включает профилировщик GC (скорость аллокаций) и пишет результаты в JSON,
+ * чтобы их можно было сравнивать между коммитами. Путь к файлу задается свойством
+ * {@code jmh.result} (по умолчанию {@code target/jmh-result.json}); аргументы командной
+ * строки передаются JMH как есть.
+ * </p>
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        Options options = new OptionsBuilder()
+                .parent(new CommandLineOptions(args))
+                .addProfiler(GCProfiler.class)
+                .resultFormat(ResultFormatType.JSON)
+                .result(System.getProperty("jmh.result", "target/jmh-result.json"))
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactPageDto;
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.service.ContactService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Операции {@link ContactService} на встроенной базе H2 при разных размерах книги.
+ * <p>
+ * {@code firstPage} и {@code deepPage} показывают, что время выборки страницы не зависит
+ * от глубины пролистывания; {@code createContact} включает валидацию.
+ * </p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContactServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private String deepCursor;
+    private ContactRequestDto request;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        contactService = context.getBean(ContactService.class);
+        BenchmarkApplication.seed(contactService, tableSize);
+        ContactPageDto page = contactService.getAllContacts(null, (long) tableSize - ContactService.DEFAULT_PAGE_SIZE * 2, null, null);
+        deepCursor = page.getNextCursor();
+        request = BenchmarkApplication.request(tableSize + 1);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ContactResponseDto getContactById() {
+        return contactService.getContactById(ThreadLocalRandom.current().nextLong(1, tableSize) + 1);
+    }
+
+    @Benchmark
+    public ContactPageDto firstPage() {
+        return contactService.getAllContacts(null, null, null, null);
+    }
+
+    @Benchmark
+    public ContactPageDto deepPage() {
+        return contactService.getAllContacts(deepCursor, null, null, null);
+    }
+
+    @Benchmark
+    public ContactResponseDto createContact() {
+        return contactService.createContact(request);
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dedupe.DuplicateDetector;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Поиск дубликатов на синтетической книге: имена из ограниченного набора (большие блоки
+ * распространенных имен) и 2% дубликатов с другим регистром, форматом номера или опечаткой.
+ * Параметр {@code parallelism} задает размер пула fork/join для оценки масштабирования по ядрам.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class DuplicateDetectionBenchmark {
+
+    private static final String[] FIRST_NAMES = {"John", "Mary", "James", "Patricia", "Robert", "Jennifer",
+            "Michael", "Linda", "William", "Elizabeth", "David", "Barbara", "Richard", "Susan", "Joseph", "Jessica",
+            "Thomas", "Sarah", "Charles", "Karen", "Ivan", "Olga", "Dmitry", "Anna", "Sergey", "Elena"};
+
+    @Param({"100000", "1000000"})
+    public int contacts;
+
+    @Param({"1", "4"})
+    public int parallelism;
+
+    private List<ContactResponseDto> book;
+    private ForkJoinPool pool;
+    private DuplicateDetector detector;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        book = new ArrayList<>(contacts);
+        int duplicates = contacts / 50;
+        for (int i = 0; i < contacts - duplicates; i++) {
+            String name = FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " " + lastName(random.nextInt(20_000));
+            String email = random.nextBoolean() ? null : "user" + i + "@example.com";
+            book.add(contact(i, name, "+1 " + (200_000_0000L + random.nextInt(800_000_000)), email));
+        }
+        for (int i = 0; i < duplicates; i++) {
+            ContactResponseDto original = book.get(random.nextInt(contacts - duplicates));
+            String name = switch (i % 3) {
+                case 0 -> original.getName().toUpperCase(Locale.ROOT);
+                case 1 -> original.getName().substring(0, original.getName().length() - 1);
+                default -> original.getName();
+            };
+            String phone = i % 3 == 2
+                    ? original.getPhoneNumber().substring(0, original.getPhoneNumber().length() - 1) + "9"
+                    : original.getPhoneNumber().replace("+1 ", "+1-");
+            book.add(contact(book.size(), name, phone, original.getEmail()));
+        }
+        pool = new ForkJoinPool(parallelism);
+        detector = new DuplicateDetector(pool, 20);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<DuplicateGroupDto> findDuplicates() {
+        return detector.findDuplicates(book, DuplicateDetector.DEFAULT_THRESHOLD);
+    }
+
+    private static String lastName(int n) {
+        StringBuilder name = new StringBuilder();
+        name.append((char) ('A' + n % 26));
+        for (n /= 26; n > 0; n /= 26) {
+            name.append("aeioulmnrst".charAt(n % 11));
+        }
+        return name.append("son").toString();
+    }
+
+    private static ContactResponseDto contact(long id, String name, String phoneNumber, String email) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email);
+        return contact;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.contactbook.benchmark;
+
+import ch.qos.logback.classic.Level;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.logging.LogDropCounters;
+import com.example.contactbook.service.ContactService;
+import lombok.extern.slf4j.Slf4j;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость журналирования на горячем пути: запрос контакта по идентификатору из кэша
+ * напрямую через сервис и по HTTP при включенном уровне INFO с настройками по умолчанию (синхронный вывод в консоль)
+ * и в рабочем режиме ({@code prod}: кольцевой буфер, журнал доступа, выборка сообщений сервиса).
+ * <p>
+ * Вывод форка JMH передается родительскому процессу, поэтому консоль здесь ведет себя
+ * как медленный приемник, что близко к перенаправлению журнала в файл или сборщик логов.
+ * </p>
+ */
+@Slf4j
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class LoggingBenchmark {
+
+    private static final int TABLE_SIZE = 1_000;
+
+    @Param({"default", "prod"})
+    private String logging;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.startServer(
+                "logging.level.root=INFO", "logging.level.com.example.contactbook=INFO",
+                "spring.profiles.active=" + logging);
+        contactService = context.getBean(ContactService.class);
+        BenchmarkApplication.seed(contactService, TABLE_SIZE);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        log.warn("Dropped log events: queue_full={}, sampled={}",
+                LogDropCounters.queueFullCount(Level.INFO), LogDropCounters.sampledCount(Level.INFO));
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public ContactResponseDto serviceGetContactById() {
+        return contactService.getContactById(1 + ThreadLocalRandom.current().nextLong(TABLE_SIZE));
+    }
+
+    @Benchmark
+    public int httpGetContactById() throws IOException, InterruptedException {
+        long id = 1 + ThreadLocalRandom.current().nextLong(TABLE_SIZE);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/contacts/" + id)).GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
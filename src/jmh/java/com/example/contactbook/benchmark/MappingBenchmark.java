@@ -0,0 +1,50 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.mapper.ContactMapper;
+import com.example.contactbook.mapper.DirectContactMapper;
+import com.example.contactbook.mapper.ModelMapperContactMapper;
+import com.example.contactbook.model.Contact;
+import org.modelmapper.ModelMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение прямого преобразования DTO с ModelMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MappingBenchmark {
+
+    @Param({"direct", "modelmapper"})
+    private String mapper;
+
+    private ContactMapper contactMapper;
+    private Contact contact;
+    private ContactRequestDto request;
+
+    @Setup
+    public void setUp() {
+        contactMapper = mapper.equals("direct")
+                ? new DirectContactMapper()
+                : new ModelMapperContactMapper(new ModelMapper());
+        contact = new Contact(1L, "John Doe", "1234567890", "john.doe@example.com");
+        request = BenchmarkApplication.request(1);
+    }
+
+    @Benchmark
+    public ContactResponseDto toResponse() {
+        return contactMapper.toResponse(contact);
+    }
+
+    @Benchmark
+    public Contact toEntity() {
+        return contactMapper.toEntity(request);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.service.ContactService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Пропускная способность и задержка HTTP-запросов к приложению при обслуживании запросов
+ * на платформенных потоках Tomcat ({@code platform}) и на виртуальных потоках ({@code virtual-threads}).
+ * <p>
+ * Каждый запрос читает страницу контактов из базы данных, минуя кэш. Процентили задержки
+ * (в том числе p0.99) выводятся режимом {@link Mode#SampleTime}; число одновременных клиентов
+ * задается параметром JMH {@code -t}.
+ * </p>
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(256)
+@State(Scope.Benchmark)
+public class RequestThreadingBenchmark {
+
+    private static final int TABLE_SIZE = 10_000;
+
+    @Param({"platform", "virtual-threads"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private String baseUrl;
+
+    @Setup
+    public void setUp() {
+        context = "platform".equals(mode)
+                ? BenchmarkApplication.startServer()
+                : BenchmarkApplication.startServer("spring.profiles.active=" + mode);
+        BenchmarkApplication.seed(context.getBean(ContactService.class), TABLE_SIZE);
+        baseUrl = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int getContactsPage() throws IOException, InterruptedException {
+        long after = ThreadLocalRandom.current().nextLong(TABLE_SIZE - ContactService.DEFAULT_PAGE_SIZE);
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/contacts?after=" + after)).GET().build();
+        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Unexpected status " + response.statusCode());
+        }
+        return response.statusCode();
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.mapper.DirectContactMapper;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.search.ContactSearchIndex;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.tenancy.OwnerContext;
+import jakarta.persistence.EntityManager;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка поиска по индексу {@link ContactSearchIndex} на синтетической книге.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class SearchBenchmark {
+
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "ten", "vo", "shi", "an", "el", "dor", "bu", "ne",
+            "sa", "ril", "go", "pe", "tha", "wen", "yu", "zo"};
+
+    @Param({"100000", "1000000"})
+    private int size;
+
+    private ContactSearchIndex searchIndex;
+    private String[] names;
+
+    @Setup
+    public void setUp() {
+        searchIndex = new ContactSearchIndex(Mockito.mock(ContactRepository.class), new DirectContactMapper(),
+                Mockito.mock(EntityManager.class), Mockito.mock(PlatformTransactionManager.class),
+                ShardDirectory.single(Mockito.mock(DataSource.class)));
+        Random random = new Random(42);
+        names = new String[size];
+        for (int i = 0; i < size; i++) {
+            names[i] = word(random, 2) + " " + word(random, 3);
+            ContactResponseDto contact = new ContactResponseDto();
+            contact.setId((long) i);
+            contact.setName(names[i]);
+            contact.setPhoneNumber("+1 555 " + (1_000_000 + i));
+            contact.setEmail("user" + i + "@example.com");
+            contact.setOwner(OwnerContext.DEFAULT_OWNER);
+            searchIndex.onContactChanged(new ContactChangedEvent(contact.getId(), contact));
+        }
+    }
+
+    private static String word(Random random, int syllables) {
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < syllables; i++) {
+            word.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+        }
+        return Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    @Benchmark
+    public List<ContactResponseDto> fullName() {
+        return searchIndex.search(OwnerContext.DEFAULT_OWNER, names[ThreadLocalRandom.current().nextInt(size)], 20);
+    }
+
+    @Benchmark
+    public List<ContactResponseDto> namePrefix() {
+        return searchIndex.search(OwnerContext.DEFAULT_OWNER, names[ThreadLocalRandom.current().nextInt(size)].substring(0, 3), 20);
+    }
+
+    @Benchmark
+    public List<ContactResponseDto> typo() {
+        String name = names[ThreadLocalRandom.current().nextInt(size)];
+        int position = name.length() / 2;
+        return searchIndex.search(OwnerContext.DEFAULT_OWNER, name.substring(0, position) + name.charAt(position + 1) + name.charAt(position)
+                + name.substring(position + 2), 20);
+    }
+
+    @Benchmark
+    public List<ContactResponseDto> phoneDigits() {
+        return searchIndex.search(OwnerContext.DEFAULT_OWNER, String.valueOf(1_000_000 + ThreadLocalRandom.current().nextInt(size)), 20);
+    }
+}
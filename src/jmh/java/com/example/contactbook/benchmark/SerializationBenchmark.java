@@ -0,0 +1,86 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Сериализация списков {@link ContactResponseDto} в JSON, CBOR и Smile с помощью Jackson,
+ * без сжатия и со сжатием gzip. Размер тела в байтах выводится вспомогательным счетчиком {@code bytes}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+    @Param({"50", "500", "10000", "100000"})
+    private int size;
+
+    @Param({"json", "cbor", "smile"})
+    private String format;
+
+    private ObjectWriter writer;
+    private ContactResponseDto[] contacts;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "cbor" -> new CBORMapper();
+            case "smile" -> new SmileMapper();
+            default -> new ObjectMapper();
+        };
+        writer = mapper.writerFor(ContactResponseDto[].class);
+        List<ContactResponseDto> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ContactResponseDto contact = new ContactResponseDto();
+            contact.setId((long) i);
+            contact.setName("Contact " + i);
+            contact.setPhoneNumber("+1 555 " + (1_000_000 + i));
+            contact.setEmail("contact" + i + "@example.com");
+            contact.setVersion(0L);
+            list.add(contact);
+        }
+        contacts = list.toArray(ContactResponseDto[]::new);
+    }
+
+    @Benchmark
+    public byte[] encode(Payload payload) throws IOException {
+        byte[] body = writer.writeValueAsBytes(contacts);
+        payload.bytes = body.length;
+        return body;
+    }
+
+    @Benchmark
+    public byte[] encodeGzip(Payload payload) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            writer.writeValue(gzip, contacts);
+        }
+        byte[] body = bytes.toByteArray();
+        payload.bytes = body.length;
+        return body;
+    }
+
+    /**
+     * Размер последнего закодированного тела.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Payload {
+
+        public long bytes;
+    }
+}
@@ -0,0 +1,85 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.service.ContactService;
+import com.example.contactbook.snapshot.ContactSnapshotWriter;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Время запуска приложения с заполненной книгой: восстановление из снимка против загрузки
+ * тех же контактов через {@link ContactService#importContacts(List)} после запуска.
+ * В обоих случаях время включает построение индексов поиска.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx3g")
+@State(Scope.Benchmark)
+public class SnapshotRestoreBenchmark {
+
+    @Param({"100000", "1000000"})
+    public int contacts;
+
+    private Path snapshot;
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void writeSnapshot() throws IOException {
+        snapshot = Files.createTempFile("contacts-", ".snapshot");
+        try (ContactSnapshotWriter writer = new ContactSnapshotWriter(snapshot)) {
+            for (int i = 0; i < contacts; i++) {
+                ContactRequestDto request = BenchmarkApplication.request(i);
+                ContactResponseDto contact = new ContactResponseDto();
+                contact.setId(i + 1L);
+                contact.setVersion(0L);
+                contact.setName(request.getName());
+                contact.setPhoneNumber(request.getPhoneNumber());
+                contact.setEmail(request.getEmail());
+                writer.write(contact);
+            }
+        }
+    }
+
+    @TearDown(Level.Invocation)
+    public void stop() {
+        context.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteSnapshot() throws IOException {
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public long restoreFromSnapshot() {
+        context = BenchmarkApplication.start("contact-book.snapshot.path=" + snapshot);
+        return context.getBean(ContactRepository.class).count();
+    }
+
+    @Benchmark
+    public long reloadByImport() {
+        context = BenchmarkApplication.start("contact-book.snapshot.restore-on-startup=false");
+        ContactService contactService = context.getBean(ContactService.class);
+        List<ContactRequestDto> chunk = new ArrayList<>(ContactService.MAX_BATCH_SIZE);
+        for (int i = 0; i < contacts; i++) {
+            chunk.add(BenchmarkApplication.request(i));
+            if (chunk.size() == ContactService.MAX_BATCH_SIZE) {
+                contactService.importContacts(chunk);
+                chunk.clear();
+            }
+        }
+        contactService.importContacts(chunk);
+        return context.getBean(ContactRepository.class).count();
+    }
+}
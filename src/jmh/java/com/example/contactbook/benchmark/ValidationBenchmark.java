@@ -0,0 +1,66 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.validation.BeanContactValidator;
+import com.example.contactbook.validation.ContactValidator;
+import com.example.contactbook.validation.DirectContactValidator;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Сравнение проверки контакта ограничениями в коде с Hibernate Validator.
+ * Выделение памяти на операцию видно с {@code -prof gc}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ValidationBenchmark {
+
+    @Param({"direct", "bean"})
+    private String validator;
+
+    private ContactValidator contactValidator;
+    private ContactRequestDto valid;
+    private ContactRequestDto invalid;
+    private List<ContactRequestDto> batch;
+
+    @Setup
+    public void setUp() {
+        Validator beanValidator = Validation.buildDefaultValidatorFactory().getValidator();
+        contactValidator = validator.equals("direct")
+                ? new DirectContactValidator(beanValidator)
+                : new BeanContactValidator(beanValidator);
+        valid = BenchmarkApplication.request(1);
+        invalid = BenchmarkApplication.request(2);
+        invalid.setName(" ");
+        invalid.setEmail("contact2@example..com");
+        batch = new ArrayList<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            batch.add(i % 10 == 0 ? invalid : BenchmarkApplication.request(i));
+        }
+    }
+
+    @Benchmark
+    public String validContact() {
+        return contactValidator.findViolations(valid);
+    }
+
+    @Benchmark
+    public String invalidContact() {
+        return contactValidator.findViolations(invalid);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(1000)
+    public String[] batchOf1000() {
+        return contactValidator.findViolations(batch);
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.contactbook.benchmark;
+
+import com.example.contactbook.cache.ContactCache;
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.service.ContactService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Запись контактов на встроенной базе H2: полное обновление контакта, который есть в кэше
+ * ({@code updateCachedContact}) и которого в кэше нет ({@code updateUncachedContact}), частичное
+ * обновление и удаление. Удаляется контакт, созданный в той же операции, поэтому {@code createAndDelete}
+ * нужно сравнивать с {@link ContactServiceBenchmark#createContact()}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class WritePathBenchmark {
+
+    private static final int HOT_CONTACTS = 100;
+
+    @Param({"100000"})
+    private int tableSize;
+
+    private ConfigurableApplicationContext context;
+    private ContactService contactService;
+    private ContactCache contactCache;
+    private ContactRequestDto request;
+    private ContactRequestDto patch;
+
+    @Setup
+    public void setUp() {
+        context = BenchmarkApplication.start();
+        contactService = context.getBean(ContactService.class);
+        contactCache = context.getBean(ContactCache.class);
+        BenchmarkApplication.seed(contactService, tableSize);
+        request = BenchmarkApplication.request(tableSize + 1);
+        patch = new ContactRequestDto();
+        patch.setEmail("patched@example.com");
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public ContactResponseDto updateCachedContact() {
+        return contactService.saveOrUpdateContact(ThreadLocalRandom.current().nextLong(1, HOT_CONTACTS + 1), request, null);
+    }
+
+    @Benchmark
+    public ContactResponseDto updateUncachedContact() {
+        long id = ThreadLocalRandom.current().nextLong(HOT_CONTACTS + 1, tableSize + 1);
+        contactCache.invalidate(id);
+        return contactService.saveOrUpdateContact(id, request, null);
+    }
+
+    @Benchmark
+    public ContactResponseDto patchCachedContact() {
+        return contactService.patchContact(ThreadLocalRandom.current().nextLong(1, HOT_CONTACTS + 1), patch, null);
+    }
+
+    @Benchmark
+    public void createAndDelete() {
+        contactService.deleteContact(contactService.createContact(request).getId());
+    }
+}
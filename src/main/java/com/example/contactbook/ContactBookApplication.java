@@ -7,6 +7,8 @@ import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
 
+import java.util.List;
+
 @SpringBootApplication
 public class ContactBookApplication {
 
@@ -17,15 +19,16 @@ public class ContactBookApplication {
     @Bean
     public CommandLineRunner loadData(ContactRepository contactRepository) {
         return args -> {
-            // Создаем три контакта
-            Contact contact1 = new Contact(null, "Alice Johnson", "1234567890", "alice@example.com");
-            Contact contact2 = new Contact(null, "Bob Smith", "0987654321", "bob@example.com");
-            Contact contact3 = new Contact(null, "Charlie Brown", "1122334455", "charlie@example.com");
+            // Книга уже заполнена, например восстановлена из снимка при запуске
+            if (contactRepository.count() > 0) {
+                return;
+            }
 
-            // Сохраняем контакты в базу данных
-            contactRepository.save(contact1);
-            contactRepository.save(contact2);
-            contactRepository.save(contact3);
+            // Создаем три контакта и сохраняем их одним пакетом
+            contactRepository.saveAll(List.of(
+                    new Contact(null, "Alice Johnson", "1234567890", "alice@example.com"),
+                    new Contact(null, "Bob Smith", "0987654321", "bob@example.com"),
+                    new Contact(null, "Charlie Brown", "1122334455", "charlie@example.com")));
         };
     }
 
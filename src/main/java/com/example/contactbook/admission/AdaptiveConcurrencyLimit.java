@@ -0,0 +1,143 @@
+package com.example.contactbook.admission;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.LongSupplier;
+
+/**
+ * Лимит одновременных запросов, подстраиваемый по задержке (AIMD).
+ * <p>
+ * Запрос, выполнявшийся дольше целевой задержки своего класса, уменьшает лимит в
+ * {@value #DECREASE_FACTOR} раза, но не чаще раза за {@link #DECREASE_INTERVAL}: одна волна медленных
+ * ответов дает одно снижение. Быстрый запрос при занятой хотя бы наполовину емкости увеличивает
+ * лимит на 1/лимит, то есть примерно на единицу за каждый полный лимит быстрых запросов.
+ * Класс запроса допускается, пока число выполняемых запросов меньше его доли лимита
+ * ({@link RequestClass#getLimitShare()}). Счетчики меняются через CAS, без блокировок.
+ * </p>
+ */
+public class AdaptiveConcurrencyLimit {
+
+    static final double DECREASE_FACTOR = 0.9;
+    static final Duration DECREASE_INTERVAL = Duration.ofMillis(100);
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<RequestClass, Long> latencyTargetNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong limitBits;
+    private final AtomicLong lastDecrease;
+
+    /**
+     * @param initialLimit   Начальный лимит
+     * @param minLimit       Минимальный лимит
+     * @param maxLimit       Максимальный лимит
+     * @param latencyTargets Целевая задержка каждого класса запросов
+     * @param nanoTime       Источник монотонного времени в наносекундах
+     */
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit,
+                                    Map<RequestClass, Duration> latencyTargets, LongSupplier nanoTime) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= min <= initial <= max.");
+        }
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTargetNanos = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            Duration target = latencyTargets.get(requestClass);
+            if (target == null || !target.isPositive()) {
+                throw new IllegalArgumentException("Latency target of " + requestClass + " must be positive.");
+            }
+            latencyTargetNanos.put(requestClass, target.toNanos());
+        }
+        this.nanoTime = nanoTime;
+        this.limitBits = new AtomicLong(Double.doubleToLongBits(initialLimit));
+        this.lastDecrease = new AtomicLong(nanoTime.getAsLong() - DECREASE_INTERVAL.toNanos());
+    }
+
+    /**
+     * Попытка начать запрос.
+     *
+     * @param requestClass Класс запроса
+     * @return {@code true}, если запрос допущен; тогда после него нужно вызвать {@link #release}
+     */
+    public boolean tryAcquire(RequestClass requestClass) {
+        int allowed = allowed(requestClass);
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Завершение допущенного запроса.
+     *
+     * @param requestClass Класс запроса
+     * @param latencyNanos Время выполнения запроса
+     * @param adaptive     Учитывать ли время выполнения при подстройке лимита
+     */
+    public void release(RequestClass requestClass, long latencyNanos, boolean adaptive) {
+        int running = inFlight.getAndDecrement();
+        if (!adaptive) {
+            return;
+        }
+        if (latencyNanos > latencyTargetNanos.get(requestClass)) {
+            decrease();
+        } else if (running * 2 >= getLimit()) {
+            increase();
+        }
+    }
+
+    /**
+     * @return Текущий лимит одновременных запросов
+     */
+    public double getLimit() {
+        return Double.longBitsToDouble(limitBits.get());
+    }
+
+    /**
+     * @return Число выполняемых запросов
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * @return Сколько запросов класса может выполняться одновременно при текущем лимите
+     */
+    int allowed(RequestClass requestClass) {
+        return Math.max(1, (int) (getLimit() * requestClass.getLimitShare()));
+    }
+
+    private void decrease() {
+        long now = nanoTime.getAsLong();
+        long last = lastDecrease.get();
+        if (now - last < DECREASE_INTERVAL.toNanos() || !lastDecrease.compareAndSet(last, now)) {
+            return;
+        }
+        update(limit -> Math.max(minLimit, limit * DECREASE_FACTOR));
+    }
+
+    private void increase() {
+        update(limit -> Math.min(maxLimit, limit + 1 / limit));
+    }
+
+    private void update(DoubleUnaryOperator function) {
+        while (true) {
+            long current = limitBits.get();
+            long next = Double.doubleToLongBits(function.applyAsDouble(Double.longBitsToDouble(current)));
+            if (current == next || limitBits.compareAndSet(current, next)) {
+                return;
+            }
+        }
+    }
+}
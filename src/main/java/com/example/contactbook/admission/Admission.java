@@ -0,0 +1,27 @@
+package com.example.contactbook.admission;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Класс запроса обработчика для {@link AdmissionInterceptor}; обработчики без аннотации не ограничиваются.
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface Admission {
+
+    /**
+     * @return Класс запроса
+     */
+    RequestClass value();
+
+    /**
+     * @return Учитывать ли время выполнения при подстройке лимита; {@code false} для потоковых ответов,
+     * длительность которых определяет скорость клиента, а не нагрузка на сервис
+     */
+    boolean adaptive() default true;
+}
@@ -0,0 +1,83 @@
+package com.example.contactbook.admission;
+
+import com.example.contactbook.exceptions.RateLimitExceededException;
+import com.example.contactbook.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.security.Principal;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Контроль допуска запросов к обработчикам, помеченным {@link Admission}.
+ * <p>
+ * Запрос сначала расходует токены клиента в {@link ClientRateLimiter}, затем занимает место в
+ * {@link AdaptiveConcurrencyLimit}. Клиент определяется аутентифицированным пользователем, а без него —
+ * адресом отправителя; заголовок владельца книги клиент задает сам, поэтому он лимит не выбирает.
+ * За прокси адрес клиента берется из {@code X-Forwarded-For} при {@code server.forward-headers-strategy}. Отказ не
+ * ставит запрос в очередь: клиент сразу получает 429 или 503 с заголовком {@code Retry-After}.
+ * Место освобождается по завершении запроса, для асинхронных ответов — после их отправки.
+ * </p>
+ */
+@RequiredArgsConstructor
+public class AdmissionInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String PERMIT_ATTRIBUTE = AdmissionInterceptor.class.getName() + ".permit";
+    private static final long OVERLOAD_RETRY_AFTER_SECONDS = 1;
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || !(handler instanceof HandlerMethod method)) {
+            return true;
+        }
+        Admission admission = method.getMethodAnnotation(Admission.class);
+        if (admission == null) {
+            return true;
+        }
+        RequestClass requestClass = admission.value();
+        long waitNanos = rateLimiter.tryAcquire(client(request), requestClass.getCost());
+        if (waitNanos > 0) {
+            count(requestClass, "rate_limited");
+            throw new RateLimitExceededException("Rate limit exceeded.",
+                    Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1)));
+        }
+        if (!concurrencyLimit.tryAcquire(requestClass)) {
+            count(requestClass, "overloaded");
+            throw new ServiceOverloadedException("Too many " + requestClass.name().toLowerCase(Locale.ROOT)
+                    + " requests in progress.", OVERLOAD_RETRY_AFTER_SECONDS);
+        }
+        request.setAttribute(PERMIT_ATTRIBUTE, new Permit(requestClass, admission.adaptive(), System.nanoTime()));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (request.getAttribute(PERMIT_ATTRIBUTE) instanceof Permit permit) {
+            request.removeAttribute(PERMIT_ATTRIBUTE);
+            concurrencyLimit.release(permit.requestClass(), System.nanoTime() - permit.startNanos(), permit.adaptive());
+        }
+    }
+
+    private static String client(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "address:" + request.getRemoteAddr();
+    }
+
+    private void count(RequestClass requestClass, String outcome) {
+        meterRegistry.counter("contact.admission.rejected",
+                "class", requestClass.name().toLowerCase(Locale.ROOT), "reason", outcome).increment();
+    }
+
+    private record Permit(RequestClass requestClass, boolean adaptive, long startNanos) {
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.contactbook.admission;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Лимит частоты запросов каждого клиента (token bucket).
+ * <p>
+ * Ведро клиента — одно число {@link AtomicLong}: время, к которому ведро снова станет полным
+ * (алгоритм GCRA). Запрос сдвигает это время на свою стоимость одной операцией CAS, без блокировок
+ * и без фонового пополнения. Ведра клиентов, переставших присылать запросы, вытесняются.
+ * </p>
+ */
+public class ClientRateLimiter {
+
+    private static final long MAXIMUM_CLIENTS = 100_000;
+
+    private final long emissionIntervalNanos;
+    private final long capacityNanos;
+    private final LongSupplier nanoTime;
+    private final Cache<String, AtomicLong> buckets;
+
+    /**
+     * @param permitsPerSecond Токенов в секунду на клиента
+     * @param burst            Емкость ведра: сколько токенов клиент может израсходовать сразу
+     * @param nanoTime         Источник монотонного времени в наносекундах
+     */
+    public ClientRateLimiter(double permitsPerSecond, int burst, LongSupplier nanoTime) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limit must allow at least one request.");
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.capacityNanos = emissionIntervalNanos * burst;
+        this.nanoTime = nanoTime;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_CLIENTS)
+                // за это время ведро любого клиента наполняется полностью, и его можно забыть
+                .expireAfterAccess(Duration.ofNanos(Math.max(capacityNanos, TimeUnit.SECONDS.toNanos(1))))
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Расход токенов клиента.
+     *
+     * @param client Клиент
+     * @param cost   Стоимость запроса в токенах; больше емкости ведра считается полной емкостью
+     * @return 0, если токены списаны, иначе через сколько наносекунд их будет достаточно
+     */
+    public long tryAcquire(String client, int cost) {
+        long now = nanoTime.getAsLong();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        long increment = Math.min(cost * emissionIntervalNanos, capacityNanos);
+        while (true) {
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + increment;
+            long excess = next - now - capacityNanos;
+            if (excess > 0) {
+                return excess;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.contactbook.admission;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Классы запросов для контроля допуска.
+ * <p>
+ * Класс может занять только свою долю общего лимита одновременных запросов, поэтому дорогие
+ * запросы оставляют место дешевым: поиск контакта по ID допускается, пока занят не весь лимит,
+ * а выгрузки и пакеты — пока занята меньшая его часть. Стоимость — число токенов, которое запрос
+ * расходует из лимита частоты клиента.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum RequestClass {
+
+    /**
+     * Чтение одного контакта, поиск по индексу, состояние задания импорта.
+     */
+    LOOKUP(1.0, 1),
+
+    /**
+     * Создание, изменение и удаление одного контакта.
+     */
+    WRITE(0.75, 1),
+
+    /**
+     * Страницы списка, выгрузка, поиск дубликатов и журнал изменений.
+     */
+    SCAN(0.5, 5),
+
+    /**
+     * Пакеты операций, объединение контактов и импорт файлов.
+     */
+    BULK(0.25, 10);
+
+    /**
+     * Доля общего лимита одновременных запросов, до которой допускаются запросы класса.
+     */
+    private final double limitShare;
+
+    /**
+     * Стоимость запроса в токенах лимита частоты клиента.
+     */
+    private final int cost;
+}
@@ -0,0 +1,122 @@
+package com.example.contactbook.cache;
+
+import com.example.contactbook.dto.CacheStatsDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+
+/**
+ * Ограниченный кэш контактов по идентификатору.
+ * <p>
+ * Записи вытесняются по размеру и по времени с момента записи. Одновременные промахи по одному
+ * идентификатору объединяются: загрузка из базы данных выполняется один раз, остальные потоки
+ * ждут ее результата. Загрузка выполняется вне блокировок хеш-таблицы кэша, поэтому блокирующий
+ * вызов JDBC не закрепляет виртуальный поток за потоком-носителем. Кэш обновляется по событиям {@link ContactChangedEvent} после фиксации
+ * транзакции, в которой изменился контакт.
+ * </p>
+ */
+@Component
+public class ContactCache {
+
+    private final AsyncCache<Long, ContactResponseDto> asyncCache;
+    private final Cache<Long, ContactResponseDto> cache;
+
+    public ContactCache(@Value("${contact-book.cache.maximum-size:100000}") long maximumSize,
+                        @Value("${contact-book.cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this.asyncCache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                // Обслуживание и уведомления о замене выполняются вызывающим потоком: при одном ядре
+                // CompletableFuture подменяет общий пул ForkJoinPool новым потоком на каждую задачу
+                .executor(Runnable::run)
+                .buildAsync();
+        this.cache = asyncCache.synchronous();
+    }
+
+    /**
+     * Получение контакта из кэша или загрузка при промахе.
+     *
+     * @param id     Идентификатор контакта
+     * @param loader Функция загрузки; исключение из нее передается вызывающему, и ничего не кэшируется
+     * @return Объект {@link ContactResponseDto}
+     */
+    public ContactResponseDto get(Long id, Function<Long, ContactResponseDto> loader) {
+        // В хеш-таблицу под ее блокировкой кладется только незавершенный future; загрузку выполняет
+        // вызывающий поток уже после выхода из compute, остальные потоки ждут future без блокировок монитора.
+        CompletableFuture<ContactResponseDto> pending = new CompletableFuture<>();
+        CompletableFuture<ContactResponseDto> future = asyncCache.get(id, (key, executor) -> pending);
+        if (future == pending) {
+            try {
+                pending.complete(loader.apply(id));
+            } catch (RuntimeException e) {
+                pending.completeExceptionally(e);
+            }
+        }
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Получение контакта только из кэша.
+     *
+     * @param id Идентификатор контакта
+     * @return Объект {@link ContactResponseDto} или {@code null}, если его нет в кэше
+     */
+    public ContactResponseDto getIfPresent(Long id) {
+        CompletableFuture<ContactResponseDto> future = asyncCache.getIfPresent(id);
+        return future != null && future.isDone() && !future.isCompletedExceptionally() ? future.join() : null;
+    }
+
+    /**
+     * Удаление контакта из кэша.
+     *
+     * @param id Идентификатор контакта
+     */
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    /**
+     * Обновление кэша после изменения контакта.
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        if (event.isDeleted()) {
+            cache.invalidate(event.id());
+        } else {
+            cache.put(event.id(), event.contact());
+        }
+    }
+
+    /**
+     * Текущая статистика кэша.
+     *
+     * @return Объект {@link CacheStatsDto}
+     */
+    public CacheStatsDto stats() {
+        CacheStats stats = cache.stats();
+        return new CacheStatsDto(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.hitRate(), stats.missRate(), stats.evictionCount(),
+                stats.averageLoadPenalty() / 1_000_000.0);
+    }
+}
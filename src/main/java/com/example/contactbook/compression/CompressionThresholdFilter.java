@@ -0,0 +1,261 @@
+package com.example.contactbook.compression;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * Порог сжатия ответов ({@code server.compression.min-response-size}) для ответов без длины.
+ * <p>
+ * Tomcat сравнивает с порогом только {@code Content-Length}, а Jackson пишет тело без длины,
+ * поэтому сжимался бы любой ответ. Фильтр задерживает первые байты тела, не больше порога:
+ * если тело уместилось, оно отправляется с {@code Content-Length} и не сжимается, иначе байты
+ * передаются дальше без изменений и Tomcat сжимает ответ. Асинхронные ответы (экспорт)
+ * передаются дальше сразу после начала асинхронной обработки, неблокирующая запись
+ * ({@link WriteListener}) — с момента регистрации слушателя.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@ConditionalOnProperty(name = "server.compression.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class CompressionThresholdFilter extends OncePerRequestFilter {
+
+    private final int threshold;
+
+    public CompressionThresholdFilter(ServerProperties serverProperties) {
+        this.threshold = (int) serverProperties.getCompression().getMinResponseSize().toBytes();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding == null || !acceptEncoding.contains("gzip")) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        ThresholdResponse thresholdResponse = new ThresholdResponse(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, thresholdResponse);
+            completed = !request.isAsyncStarted();
+        } finally {
+            thresholdResponse.release(completed);
+        }
+    }
+
+    /**
+     * Ответ, задерживающий начало тела до порога.
+     */
+    private final class ThresholdResponse extends HttpServletResponseWrapper {
+
+        private final ThresholdOutputStream outputStream;
+        private PrintWriter writer;
+
+        ThresholdResponse(HttpServletResponse response) {
+            super(response);
+            this.outputStream = new ThresholdOutputStream(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (outputStream.isPassingThrough()) {
+                super.flushBuffer();
+            }
+        }
+
+        @Override
+        public void setContentLength(int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(long length) {
+            // длина известна, и Tomcat сам сравнит ее с порогом
+            super.setContentLengthLong(length);
+            try {
+                outputStream.passThrough();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void sendError(int status, String message) throws IOException {
+            outputStream.discard();
+            super.sendError(status, message);
+        }
+
+        @Override
+        public void sendError(int status) throws IOException {
+            outputStream.discard();
+            super.sendError(status);
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            outputStream.clear();
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            outputStream.clear();
+        }
+
+        /**
+         * Передача задержанных байтов; для завершенного ответа — с длиной тела.
+         */
+        void release(boolean completed) throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (completed) {
+                outputStream.complete();
+            } else {
+                outputStream.passThrough();
+            }
+        }
+    }
+
+    /**
+     * Поток тела; методы синхронизированы, так как асинхронное тело пишется в другом потоке.
+     */
+    private final class ThresholdOutputStream extends ServletOutputStream {
+
+        private final HttpServletResponse response;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        private ServletOutputStream target;
+
+        ThresholdOutputStream(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public synchronized void write(int b) throws IOException {
+            if (target == null && buffer.size() < threshold) {
+                buffer.write(b);
+            } else {
+                passThrough();
+                target.write(b);
+            }
+        }
+
+        @Override
+        public synchronized void write(byte[] bytes, int offset, int length) throws IOException {
+            if (target == null && buffer.size() + length <= threshold) {
+                buffer.write(bytes, offset, length);
+            } else {
+                passThrough();
+                target.write(bytes, offset, length);
+            }
+        }
+
+        @Override
+        public synchronized void flush() throws IOException {
+            if (target != null) {
+                target.flush();
+            }
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            complete();
+            target.close();
+        }
+
+        /**
+         * Пока тело задерживается, запись не блокируется; после передачи готовность определяет контейнер.
+         */
+        @Override
+        public synchronized boolean isReady() {
+            return target == null || target.isReady();
+        }
+
+        /**
+         * Неблокирующая запись идет напрямую в поток контейнера: задержанные байты передаются
+         * до регистрации слушателя, и ответ сжимается как ответ без длины.
+         */
+        @Override
+        public synchronized void setWriteListener(WriteListener writeListener) {
+            try {
+                passThrough();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            target.setWriteListener(writeListener);
+        }
+
+        synchronized boolean isPassingThrough() {
+            return target != null;
+        }
+
+        /**
+         * Тело уместилось в порог: длина известна, и Tomcat не сжимает ответ.
+         */
+        synchronized void complete() throws IOException {
+            if (target == null) {
+                if (buffer.size() > 0 && !response.isCommitted()) {
+                    response.setContentLength(buffer.size());
+                }
+                passThrough();
+            }
+        }
+
+        synchronized void passThrough() throws IOException {
+            if (target == null) {
+                target = response.getOutputStream();
+                buffer.writeTo(target);
+                buffer.reset();
+            }
+        }
+
+        synchronized void clear() {
+            buffer.reset();
+        }
+
+        /**
+         * Тело ответа с ошибкой пишет контейнер; задержанные байты больше не нужны.
+         */
+        synchronized void discard() throws IOException {
+            buffer.reset();
+            passThrough();
+        }
+    }
+}
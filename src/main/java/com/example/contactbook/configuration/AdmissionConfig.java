@@ -0,0 +1,69 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.admission.AdaptiveConcurrencyLimit;
+import com.example.contactbook.admission.AdmissionInterceptor;
+import com.example.contactbook.admission.ClientRateLimiter;
+import com.example.contactbook.admission.RequestClass;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Контроль допуска запросов к {@code /contacts} ({@code contact-book.admission.enabled}).
+ * <p>
+ * Лимит частоты задается на клиента (пользователя или адрес), лимит одновременных запросов — общий для приложения;
+ * текущий лимит и число выполняемых запросов публикуются метриками {@code contact.admission.*}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "contact-book.admission.enabled", havingValue = "true")
+public class AdmissionConfig implements WebMvcConfigurer {
+
+    private final ClientRateLimiter rateLimiter;
+    private final AdaptiveConcurrencyLimit concurrencyLimit;
+    private final MeterRegistry meterRegistry;
+
+    public AdmissionConfig(@Value("${contact-book.admission.rate}") double rate,
+                           @Value("${contact-book.admission.burst}") int burst,
+                           @Value("${contact-book.admission.concurrency.initial}") int initialLimit,
+                           @Value("${contact-book.admission.concurrency.min}") int minLimit,
+                           @Value("${contact-book.admission.concurrency.max}") int maxLimit,
+                           @Value("${contact-book.admission.latency-target.lookup}") Duration lookupTarget,
+                           @Value("${contact-book.admission.latency-target.write}") Duration writeTarget,
+                           @Value("${contact-book.admission.latency-target.scan}") Duration scanTarget,
+                           @Value("${contact-book.admission.latency-target.bulk}") Duration bulkTarget,
+                           MeterRegistry meterRegistry) {
+        this.rateLimiter = new ClientRateLimiter(rate, burst, System::nanoTime);
+        this.concurrencyLimit = new AdaptiveConcurrencyLimit(initialLimit, minLimit, maxLimit, Map.of(
+                RequestClass.LOOKUP, lookupTarget,
+                RequestClass.WRITE, writeTarget,
+                RequestClass.SCAN, scanTarget,
+                RequestClass.BULK, bulkTarget), System::nanoTime);
+        this.meterRegistry = meterRegistry;
+        Gauge.builder("contact.admission.limit", concurrencyLimit, AdaptiveConcurrencyLimit::getLimit)
+                .register(meterRegistry);
+        Gauge.builder("contact.admission.in-flight", concurrencyLimit, AdaptiveConcurrencyLimit::getInFlight)
+                .register(meterRegistry);
+    }
+
+    @Bean
+    public AdaptiveConcurrencyLimit adaptiveConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new AdmissionInterceptor(rateLimiter, concurrencyLimit, meterRegistry))
+                .addPathPatterns("/contacts", "/contacts/**");
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.mapper.ContactMapper;
+import com.example.contactbook.mapper.DirectContactMapper;
+import com.example.contactbook.mapper.ModelMapperContactMapper;
+import org.modelmapper.ModelMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Выбор реализации {@link ContactMapper} по свойству {@code contact-book.mapper}.
+ */
+@Configuration
+public class ContactMapperConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "contact-book.mapper", havingValue = "direct", matchIfMissing = true)
+    public ContactMapper directContactMapper() {
+        return new DirectContactMapper();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "contact-book.mapper", havingValue = "modelmapper")
+    public ContactMapper modelMapperContactMapper(ModelMapper modelMapper) {
+        return new ModelMapperContactMapper(modelMapper);
+    }
+}
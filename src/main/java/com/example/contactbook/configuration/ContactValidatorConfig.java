@@ -0,0 +1,28 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.validation.BeanContactValidator;
+import com.example.contactbook.validation.ContactValidator;
+import com.example.contactbook.validation.DirectContactValidator;
+import jakarta.validation.Validator;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Выбор реализации {@link ContactValidator} по свойству {@code contact-book.validator}.
+ */
+@Configuration
+public class ContactValidatorConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "contact-book.validator", havingValue = "direct", matchIfMissing = true)
+    public ContactValidator directContactValidator(Validator validator) {
+        return new DirectContactValidator(validator);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "contact-book.validator", havingValue = "bean")
+    public ContactValidator beanContactValidator(Validator validator) {
+        return new BeanContactValidator(validator);
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.contactbook.configuration;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+
+/**
+ * Пулы соединений, которые создаются конфигурацией приложения, а не автоконфигурацией Spring Boot.
+ */
+final class HikariPools {
+
+    private HikariPools() {
+    }
+
+    /**
+     * Пул с учетными данными {@code spring.datasource} и настройками {@code spring.datasource.hikari}.
+     *
+     * @param url           Адрес базы данных или {@code null} для адреса {@code spring.datasource}
+     * @param name          Имя пула, тег {@code pool} его метрик {@code hikaricp.*}
+     * @param meterRegistry Реестр метрик пула
+     * @return Пул; соединения открываются при первом запросе
+     */
+    static HikariDataSource create(DataSourceProperties properties, Environment environment, String url, String name,
+                                   MeterRegistry meterRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        if (url != null) {
+            dataSource.setJdbcUrl(url);
+        }
+        Binder.get(environment).bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(name);
+        dataSource.setMetricRegistry(meterRegistry);
+        return dataSource;
+    }
+}
@@ -0,0 +1,39 @@
+package com.example.contactbook.configuration;
+
+import ch.qos.logback.classic.Level;
+import com.example.contactbook.logging.LogDropCounters;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.function.ToLongFunction;
+
+/**
+ * Метрики журналирования: число событий, отброшенных из-за переполнения буфера
+ * ({@code reason=queue_full}) и выборкой ({@code reason=sampled}), по уровням.
+ */
+@Configuration
+public class LoggingMetricsConfig {
+
+    static final String DROPPED_COUNTER = "logging.events.dropped";
+
+    @Bean
+    public MeterBinder loggingDropMetrics() {
+        return registry -> {
+            for (Level level : LogDropCounters.LEVELS) {
+                register(registry, level, "queue_full", LogDropCounters::queueFullCount);
+                register(registry, level, "sampled", LogDropCounters::sampledCount);
+            }
+        };
+    }
+
+    private static void register(MeterRegistry registry, Level level,
+                                 String reason, ToLongFunction<Level> count) {
+        FunctionCounter.builder(DROPPED_COUNTER, level, l -> count.applyAsLong(l))
+                .description("Log events dropped before reaching an appender")
+                .tags("reason", reason, "level", level.levelStr.toLowerCase())
+                .register(registry);
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.contactbook.configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Настройка метрик Micrometer.
+ * Регистрирует аспект, записывающий длительность методов, помеченных {@link Timed}.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.reactive.ReactiveConnectionPool;
+import com.example.contactbook.reactive.ReactiveContactRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.r2dbc.ConnectionFactoryBuilder;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.r2dbc.core.R2dbcEntityTemplate;
+import org.springframework.data.r2dbc.repository.config.EnableR2dbcRepositories;
+
+/**
+ * Реактивный API контактов (профиль {@code reactive}, {@code spring.main.web-application-type=reactive}).
+ * <p>
+ * Запросы обслуживает WebFlux на Netty: в classpath есть и Tomcat, которого Spring Boot предпочел бы,
+ * поэтому фабрика сервера задается явно. Контакты читаются через R2DBC из той же базы
+ * ({@code contact-book.reactive.url}), изменения выполняются сервисами приложения на JDBC.
+ * Автоконфигурация R2DBC отключена в {@code application.yml}: ее бины заменили бы {@code DataSource}
+ * и менеджер транзакций JPA.
+ * </p>
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@EnableR2dbcRepositories(basePackageClasses = ReactiveContactRepository.class,
+        entityOperationsRef = "reactiveContactOperations")
+public class ReactiveConfig {
+
+    public ReactiveConfig(@Value("${contact-book.sharding.enabled:false}") boolean sharding) {
+        if (sharding) {
+            throw new IllegalStateException("The reactive API reads a single database and does not support "
+                    + "contact-book.sharding.");
+        }
+    }
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ReactiveConnectionPool reactiveConnectionPool(@Value("${contact-book.reactive.url}") String url,
+                                                         @Value("${contact-book.reactive.username:sa}") String username,
+                                                         @Value("${contact-book.reactive.password:}") String password) {
+        return new ReactiveConnectionPool(ConnectionFactoryBuilder.withUrl(url)
+                .username(username)
+                .password(password)
+                .build());
+    }
+
+    @Bean
+    public R2dbcEntityTemplate reactiveContactOperations(ReactiveConnectionPool connectionPool) {
+        return new R2dbcEntityTemplate(connectionPool.connectionFactory());
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.replica.ReplicaRoutingDataSource;
+import com.example.contactbook.replica.ReplicaStickiness;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+
+/**
+ * Чтение с реплики ({@code contact-book.replica.enabled}).
+ * <p>
+ * Без шардирования приложение получает {@link ReplicaRoutingDataSource} над пулом {@code primary}
+ * базы {@code spring.datasource} и пулом {@code replica} базы {@code contact-book.replica.url};
+ * с шардированием реплики шардов настраивает {@link ShardingConfig}.
+ * </p>
+ */
+@Configuration
+@ConditionalOnProperty(name = "contact-book.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    public ReplicaConfig(@Value("${spring.jpa.open-in-view:true}") boolean openInView) {
+        if (openInView) {
+            throw new IllegalStateException(
+                    "contact-book.replica requires spring.jpa.open-in-view=false: a session held for the whole "
+                            + "request would keep the connection of its first transaction.");
+        }
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "contact-book.sharding.enabled", havingValue = "false", matchIfMissing = true)
+    public DataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                               @Value("${contact-book.replica.url}") String replicaUrl,
+                                               MeterRegistry meterRegistry, ReplicaStickiness stickiness) {
+        DataSource primary = HikariPools.create(properties, environment, null, "primary", meterRegistry);
+        DataSource replica = HikariPools.create(properties, environment, replicaUrl, "replica", meterRegistry);
+        return new ReplicaRoutingDataSource(primary, replica, stickiness);
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.contactbook.configuration;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Включение периодических задач ({@code @Scheduled}).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
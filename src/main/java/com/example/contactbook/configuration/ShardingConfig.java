@@ -0,0 +1,92 @@
+package com.example.contactbook.configuration;
+
+import com.example.contactbook.replica.ReplicaRoutingDataSource;
+import com.example.contactbook.replica.ReplicaStickiness;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.sharding.ShardInitializer;
+import com.example.contactbook.sharding.ShardRoutingDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Размещение книг контактов по шардам ({@code contact-book.sharding.enabled}).
+ * <p>
+ * Без шардирования все книги лежат в базе {@code spring.datasource}. С шардированием каждая база
+ * из {@code contact-book.sharding.urls} — отдельный шард со своим пулом соединений (к каждому
+ * применяются учетные данные {@code spring.datasource} и настройки {@code spring.datasource.hikari}),
+ * а соединения приложению выдает {@link ShardRoutingDataSource}. Если включена реплика
+ * ({@code contact-book.replica.enabled}), у каждого шарда может быть своя реплика из
+ * {@code contact-book.sharding.replica-urls} в том же порядке.
+ * </p>
+ */
+@Configuration
+public class ShardingConfig {
+
+    private static final String ENABLED = "contact-book.sharding.enabled";
+
+    @Bean(destroyMethod = "")
+    @ConditionalOnProperty(name = ENABLED, havingValue = "false", matchIfMissing = true)
+    public ShardDirectory singleShardDirectory(DataSource dataSource) {
+        return ShardDirectory.single(dataSource);
+    }
+
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public ShardDirectory shardDirectory(@Value("${contact-book.sharding.virtual-nodes:"
+                                                 + ShardDirectory.DEFAULT_VIRTUAL_NODES + "}") int virtualNodes,
+                                         DataSourceProperties properties, Environment environment,
+                                         MeterRegistry meterRegistry, ObjectProvider<ReplicaStickiness> stickiness) {
+        Binder binder = Binder.get(environment);
+        List<String> urls = binder.bind("contact-book.sharding.urls", Bindable.listOf(String.class))
+                .orElseThrow(() -> new IllegalStateException("contact-book.sharding.urls must list the shard databases."));
+        List<String> replicaUrls = stickiness.getIfAvailable() == null ? List.of()
+                : binder.bind("contact-book.sharding.replica-urls", Bindable.listOf(String.class)).orElse(List.of());
+        if (!replicaUrls.isEmpty() && replicaUrls.size() != urls.size()) {
+            throw new IllegalStateException("contact-book.sharding.replica-urls must list one replica per shard.");
+        }
+        List<String> names = new ArrayList<>();
+        List<DataSource> dataSources = new ArrayList<>();
+        for (int i = 0; i < urls.size(); i++) {
+            String name = "shard-" + i;
+            DataSource dataSource = HikariPools.create(properties, environment, urls.get(i), name, meterRegistry);
+            if (!replicaUrls.isEmpty()) {
+                DataSource replica = HikariPools.create(properties, environment, replicaUrls.get(i),
+                        name + "-replica", meterRegistry);
+                dataSource = new ReplicaRoutingDataSource(dataSource, replica, stickiness.getObject());
+            }
+            names.add(name);
+            dataSources.add(dataSource);
+        }
+        return new ShardDirectory(names, dataSources, virtualNodes);
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public DataSource shardRoutingDataSource(ShardDirectory shardDirectory) {
+        return new ShardRoutingDataSource(shardDirectory);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = ENABLED, havingValue = "true")
+    public HibernatePropertiesCustomizer shardInitializerCustomizer(
+            ShardDirectory shardDirectory, @Value("${contact-book.sharding.create-schema:true}") boolean createSchema) {
+        ShardInitializer initializer = new ShardInitializer(shardDirectory, createSchema);
+        return hibernateProperties -> hibernateProperties.put(AvailableSettings.SESSION_FACTORY_OBSERVER, initializer);
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.contactbook.configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.reactivestreams.Publisher;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ResolvableType;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferFactory;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.util.MimeType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+/**
+ * Двоичные форматы ответов и запросов: CBOR ({@code application/cbor}) и Smile
+ * ({@code application/x-jackson-smile}) наряду с JSON.
+ * <p>
+ * Формат выбирается по заголовкам {@code Accept} и {@code Content-Type}. Преобразователи строятся
+ * из того же {@link Jackson2ObjectMapperBuilder}, что и JSON, поэтому настройки {@code spring.jackson}
+ * и модули одинаковы для всех форматов.
+ * </p>
+ */
+@Configuration
+public class WireFormatConfig {
+
+    private static final MediaType SMILE = new MediaType("application", "x-jackson-smile");
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.cbor().build());
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.smile().build());
+    }
+
+    @Bean
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    public CodecCustomizer binaryCodecCustomizer(ObjectMapper objectMapper,
+                                                 Jackson2ObjectMapperBuilder cborBuilder,
+                                                 Jackson2ObjectMapperBuilder smileBuilder) {
+        ObjectMapper cborMapper = cborBuilder.cbor().build();
+        ObjectMapper smileMapper = smileBuilder.smile().build();
+        return configurer -> {
+            // Smile стоит среди кодеков по умолчанию после JSON; для CBOR такого места нет, а свои кодеки
+            // идут раньше кодеков по умолчанию, поэтому перед CBOR повторяется JSON: он остается
+            // форматом для Accept: */*. Без явных типов содержимого кодеки Jackson заявляют типы JSON.
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(smileMapper, SMILE));
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(smileMapper, SMILE));
+            configurer.customCodecs().register(new Jackson2JsonEncoder(objectMapper));
+            configurer.customCodecs().register(new SingleValueCborEncoder(cborMapper));
+            configurer.customCodecs().register(new Jackson2CborDecoder(cborMapper, MediaType.APPLICATION_CBOR));
+        };
+    }
+
+    /**
+     * {@link Jackson2CborEncoder} не кодирует потоки и WebFlux вызывает его даже для {@link Mono}; одно
+     * значение кодируется через {@link #encodeValue}. Потоки контактов (выгрузка) передаются в NDJSON.
+     */
+    static final class SingleValueCborEncoder extends Jackson2CborEncoder {
+
+        SingleValueCborEncoder(ObjectMapper mapper) {
+            super(mapper, MediaType.APPLICATION_CBOR);
+        }
+
+        @Override
+        public Flux<DataBuffer> encode(Publisher<?> inputStream, DataBufferFactory bufferFactory,
+                                       ResolvableType elementType, MimeType mimeType, Map<String, Object> hints) {
+            if (inputStream instanceof Mono<?> mono) {
+                return mono.map(value -> encodeValue(value, bufferFactory, elementType, mimeType, hints)).flux();
+            }
+            return super.encode(inputStream, bufferFactory, elementType, mimeType, hints);
+        }
+    }
+}
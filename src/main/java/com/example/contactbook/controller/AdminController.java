@@ -0,0 +1,83 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.cache.ContactCache;
+import com.example.contactbook.dto.CacheStatsDto;
+import com.example.contactbook.dto.ShardRebalanceDto;
+import com.example.contactbook.dto.ShardStatsDto;
+import com.example.contactbook.dto.SnapshotDto;
+import com.example.contactbook.service.ContactSnapshotService;
+import com.example.contactbook.sharding.ShardRebalancer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Контроллер служебных операций.
+ * <p>
+ * Все запросы маршрутизируются на путь "/admin".
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/admin")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AdminController {
+
+    private final ContactCache contactCache;
+    private final ContactSnapshotService contactSnapshotService;
+    private final ShardRebalancer shardRebalancer;
+
+    /**
+     * Получить статистику кэша контактов.
+     *
+     * @return Объект {@link CacheStatsDto} со счетчиками попаданий, промахов и вытеснений.
+     */
+    @GetMapping("/cache/stats")
+    public CacheStatsDto getCacheStats() {
+        log.info("GET /admin/cache/stats request - Fetching cache statistics");
+        return contactCache.stats();
+    }
+
+    /**
+     * Создать снимок книги контактов, из которого она будет восстановлена при следующем запуске.
+     *
+     * @return Объект {@link SnapshotDto} с путем, количеством контактов и размером файла.
+     * @throws IOException Если не удалось записать файл снимка
+     */
+    @PostMapping("/snapshot")
+    public SnapshotDto createSnapshot() throws IOException {
+        log.info("POST /admin/snapshot request - Creating contact book snapshot");
+        return contactSnapshotService.createSnapshot();
+    }
+
+    /**
+     * Получить количество книг и контактов на каждом шарде.
+     *
+     * @return Список объектов {@link ShardStatsDto} в порядке шардов.
+     */
+    @GetMapping("/shards")
+    public List<ShardStatsDto> getShardStats() {
+        log.info("GET /admin/shards request - Fetching shard statistics");
+        return shardRebalancer.getShardStats();
+    }
+
+    /**
+     * Перенести книги контактов на шарды, которые им назначает кольцо согласованного хеширования,
+     * например после добавления шарда. Остальные книги во время переноса доступны.
+     *
+     * @return Объект {@link ShardRebalanceDto} с количеством перенесенных книг и контактов.
+     */
+    @PostMapping("/shards/rebalance")
+    public ShardRebalanceDto rebalanceShards() {
+        log.info("POST /admin/shards/rebalance request - Rebalancing shards");
+        return shardRebalancer.rebalance();
+    }
+}
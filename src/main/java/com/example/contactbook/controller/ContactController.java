@@ -1,14 +1,45 @@
 package com.example.contactbook.controller;
 
+import com.example.contactbook.admission.Admission;
+import com.example.contactbook.admission.RequestClass;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactChangesDto;
+import com.example.contactbook.dto.ContactFieldsPageDto;
+import com.example.contactbook.dto.ContactMergeRequestDto;
+import com.example.contactbook.dto.ContactPageDto;
 import com.example.contactbook.dto.ContactRequestDto;
 import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import com.example.contactbook.exceptions.ContactVersionMismatchException;
+import com.example.contactbook.repository.ContactField;
+import com.example.contactbook.service.ContactDeduplicationService;
+import com.example.contactbook.service.ContactFields;
 import com.example.contactbook.service.ContactService;
+import com.example.contactbook.service.ContactWriteBehind;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * Контроллер для обработки запросов, связанных с контактами.
@@ -19,36 +50,249 @@ import java.util.List;
  * <p>
  * Все запросы маршрутизируются на путь "/contacts".
  * </p>
+ * <p>
+ * Ответы с контактом содержат сильный ETag (версию контакта), страницы контактов — слабый ETag (версию книги).
+ * По заголовку {@code If-None-Match} возвращается 304 без чтения и сериализации данных,
+ * по заголовку {@code If-Match} обновление выполняется только для ожидаемой версии контакта.
+ * </p>
+ * <p>
+ * Тела запросов и ответов передаются в JSON, CBOR или Smile по заголовкам {@code Content-Type} и
+ * {@code Accept} ({@link com.example.contactbook.configuration.WireFormatConfig}); ответы с ETag
+ * содержат {@code Vary: Accept}, так как версия одна для всех форматов.
+ * </p>
+ * <p>
+ * Параметр {@code fields} у списка и контакта по ID ограничивает ответ перечисленными полями;
+ * из базы данных читаются только соответствующие столбцы.
+ * </p>
+ * <p>
+ * Запросы работают с книгой владельца из заголовка {@value OwnerContext#OWNER_HEADER}
+ * (без заголовка — с книгой {@value OwnerContext#DEFAULT_OWNER}); контакты других владельцев не видны.
+ * </p>
  */
 @Slf4j
 @RequiredArgsConstructor
 @RequestMapping("/contacts")
 @RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class ContactController {
 
+    /**
+     * Заголовок ответа с курсором следующей страницы.
+     */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final ContactService contactService;
+    private final ContactDeduplicationService deduplicationService;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<ContactWriteBehind> writeBehind;
 
     /**
-     * Получить список всех контактов.
+     * Получить страницу контактов.
+     * <p>
+     * Курсор следующей страницы возвращается в заголовке {@value #NEXT_CURSOR_HEADER};
+     * если заголовка нет, страница последняя. ETag страницы — версия всей книги контактов.
+     * </p>
      *
-     * @return Список объектов {@link ContactResponseDto}, представляющих все контакты.
+     * @param cursor  Курсор следующей страницы из предыдущего ответа.
+     * @param after   ID, после которого начинается страница (только для сортировки по ID).
+     * @param limit   Размер страницы.
+     * @param sort    Порядок сортировки: {@code id} или {@code name}.
+     * @param request Текущий запрос для проверки заголовка {@code If-None-Match}.
+     * @return Список объектов {@link ContactResponseDto}, представляющих контакты страницы.
      */
     @GetMapping
-    public List<ContactResponseDto> getAllContacts() {
-        log.info("GET /contacts request - Fetching all contacts");
-        return contactService.getAllContacts();
+    @Admission(RequestClass.SCAN)
+    public ResponseEntity<List<ContactResponseDto>> getAllContacts(@RequestParam(required = false) String cursor,
+                                                                   @RequestParam(required = false) Long after,
+                                                                   @RequestParam(required = false) Integer limit,
+                                                                   @RequestParam(required = false) String sort,
+                                                                   WebRequest request) {
+        log.info("GET /contacts request - Fetching contacts page");
+        // Версия читается до данных, чтобы страница не получила ETag новее своего содержимого
+        String eTag = weakETag(contactService.getContactsVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ContactPageDto page = contactService.getAllContacts(cursor, after, limit, sort);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContacts());
+    }
+
+    /**
+     * Получить страницу контактов только с перечисленными полями, например {@code fields=id,name}.
+     * <p>
+     * Читаются только нужные столбцы, без загрузки сущностей; в ответ попадают только запрошенные поля.
+     * Курсор и ETag такие же, как у полной страницы.
+     * </p>
+     *
+     * @param fields  Поля через запятую: {@code id}, {@code name}, {@code phoneNumber}, {@code email}, {@code version}.
+     * @param cursor  Курсор следующей страницы из предыдущего ответа.
+     * @param after   ID, после которого начинается страница (только для сортировки по ID).
+     * @param limit   Размер страницы.
+     * @param sort    Порядок сортировки: {@code id} или {@code name}.
+     * @param request Текущий запрос для проверки заголовка {@code If-None-Match}.
+     * @return Список контактов с запрошенными полями.
+     */
+    @GetMapping(params = "fields")
+    @Admission(RequestClass.SCAN)
+    public ResponseEntity<List<Map<String, Object>>> getAllContactFields(@RequestParam String fields,
+                                                                         @RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Long after,
+                                                                         @RequestParam(required = false) Integer limit,
+                                                                         @RequestParam(required = false) String sort,
+                                                                         WebRequest request) {
+        log.info("GET /contacts request - Fetching contacts page with fields {}", fields);
+        Set<ContactField> selected = ContactField.fromParameter(fields);
+        String eTag = weakETag(contactService.getContactsVersion());
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        ContactFieldsPageDto page = contactService.getAllContactFields(cursor, after, limit, sort, selected);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT);
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getContacts());
+    }
+
+    /**
+     * Найти контакты по имени, email или номеру телефона.
+     *
+     * @param q     Строка запроса; допускаются префиксы и опечатки.
+     * @param limit Максимальное количество результатов.
+     * @return Список объектов {@link ContactResponseDto}, наиболее релевантные первыми.
+     */
+    @GetMapping("/search")
+    @Admission(RequestClass.LOOKUP)
+    public List<ContactResponseDto> searchContacts(@RequestParam String q, @RequestParam(required = false) Integer limit) {
+        log.info("GET /contacts/search request - Searching contacts");
+        return contactService.searchContacts(q, limit);
+    }
+
+    /**
+     * Найти группы вероятных дубликатов: один человек с разным написанием имени или форматом номера.
+     *
+     * @param threshold Минимальная оценка сходства пары от 0 до 1.
+     * @param limit     Максимальное количество групп.
+     * @return Список объектов {@link DuplicateGroupDto}, наиболее похожие первыми.
+     */
+    @GetMapping("/duplicates")
+    @Admission(RequestClass.SCAN)
+    public List<DuplicateGroupDto> findDuplicates(@RequestParam(required = false) Double threshold,
+                                                  @RequestParam(required = false) Integer limit) {
+        log.info("GET /contacts/duplicates request - Searching for duplicates");
+        return deduplicationService.findDuplicates(threshold, limit);
+    }
+
+    /**
+     * Получить изменения контактов после токена синхронизации.
+     * <p>
+     * Без токена возвращается только токен текущего конца журнала изменений. Если токен устарел,
+     * возвращается 410 (Gone), и клиенту нужна полная синхронизация.
+     * </p>
+     *
+     * @param since Токен из предыдущего ответа.
+     * @param limit Максимальное количество читаемых записей журнала.
+     * @return Объект {@link ContactChangesDto} с изменениями и токеном следующего запроса.
+     */
+    @GetMapping("/changes")
+    @Admission(RequestClass.SCAN)
+    public ContactChangesDto getChanges(@RequestParam(required = false) String since,
+                                        @RequestParam(required = false) Integer limit) {
+        log.info("GET /contacts/changes request - Fetching contact changes");
+        return contactService.getChanges(since, limit);
+    }
+
+    /**
+     * Найти контакты по номеру телефона.
+     *
+     * @param number Номер телефона в произвольном формате; сравнивается после нормализации.
+     * @return Список объектов {@link ContactResponseDto} с этим номером.
+     */
+    @GetMapping("/by-phone/{number}")
+    @Admission(RequestClass.LOOKUP)
+    public List<ContactResponseDto> getContactsByPhone(@PathVariable String number) {
+        log.info("GET /contacts/by-phone request - Fetching contacts by phone number");
+        return contactService.getContactsByPhone(number);
+    }
+
+    /**
+     * Выгрузить все контакты в формате NDJSON (один JSON-объект на строку).
+     * <p>
+     * Ответ пишется потоково по мере чтения из базы данных, без накопления списка в памяти.
+     * </p>
+     *
+     * @return Потоковое тело ответа со всеми контактами.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Admission(value = RequestClass.SCAN, adaptive = false)
+    public ResponseEntity<StreamingResponseBody> exportContacts() {
+        log.info("GET /contacts/export request - Exporting all contacts");
+        ObjectWriter writer = objectMapper.writerFor(ContactResponseDto.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        // Тело пишется в другом потоке, поэтому владелец книги передается ему явно
+        String owner = OwnerContext.current();
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.setRootValueSeparator(null);
+                OwnerContext.runAs(owner, () -> contactService.exportContacts(contact -> {
+                    try {
+                        writer.writeValue(generator, contact);
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     /**
      * Получить контакт по ID.
      *
-     * @param id Идентификатор контакта, который требуется получить.
+     * @param id      Идентификатор контакта, который требуется получить.
+     * @param request Текущий запрос для проверки заголовка {@code If-None-Match}.
      * @return Объект {@link ContactResponseDto}, представляющий контакт с указанным ID.
      */
     @GetMapping("/{id}")
-    public ContactResponseDto getContactById(@PathVariable Long id) {
+    @Admission(RequestClass.LOOKUP)
+    public ResponseEntity<ContactResponseDto> getContactById(@PathVariable Long id, WebRequest request) {
         log.info("GET /contacts/{} request - Fetching contact", id);
-        return contactService.getContactById(id);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(contactService.getContactVersion(id)))) {
+            return null;
+        }
+        ContactResponseDto contact = contactService.getContactById(id);
+        return ResponseEntity.ok().eTag(eTag(contact.getVersion())).varyBy(HttpHeaders.ACCEPT).body(contact);
+    }
+
+    /**
+     * Получить только перечисленные поля контакта по ID, например {@code fields=id,name}.
+     * ETag — версия контакта, как у полного ответа.
+     *
+     * @param id      Идентификатор контакта, который требуется получить.
+     * @param fields  Поля через запятую: {@code id}, {@code name}, {@code phoneNumber}, {@code email}, {@code version}.
+     * @param request Текущий запрос для проверки заголовка {@code If-None-Match}.
+     * @return Контакт с запрошенными полями.
+     */
+    @GetMapping(value = "/{id}", params = "fields")
+    @Admission(RequestClass.LOOKUP)
+    public ResponseEntity<Map<String, Object>> getContactFieldsById(@PathVariable Long id, @RequestParam String fields,
+                                                                    WebRequest request) {
+        log.info("GET /contacts/{} request - Fetching contact fields {}", id, fields);
+        Set<ContactField> selected = ContactField.fromParameter(fields);
+        if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null
+                && request.checkNotModified(eTag(contactService.getContactVersion(id)))) {
+            return null;
+        }
+        ContactFields contact = contactService.getContactFieldsById(id, selected);
+        return ResponseEntity.ok().eTag(eTag(contact.version())).varyBy(HttpHeaders.ACCEPT).body(contact.values());
     }
 
     /**
@@ -58,24 +302,92 @@ public class ContactController {
      * @return Ответ с созданным контактным объектом {@link ContactResponseDto}.
      */
     @PostMapping
+    @Admission(RequestClass.WRITE)
     public ResponseEntity<ContactResponseDto> createContact(@RequestBody ContactRequestDto contactRequestDto) {
         log.info("POST /contacts request - Creating contact.");
         ContactResponseDto createdContact = contactService.createContact(contactRequestDto);
         return ResponseEntity.status(201).body(createdContact);
     }
 
+    /**
+     * Выполнить пакет операций создания, обновления и удаления в одной транзакции.
+     *
+     * @param operations Список объектов {@link ContactBatchOperationDto}.
+     * @return Результаты операций {@link ContactBatchResultDto} в порядке запроса.
+     */
+    @PostMapping("/batch")
+    @Admission(RequestClass.BULK)
+    public List<ContactBatchResultDto> processBatch(@RequestBody List<ContactBatchOperationDto> operations) {
+        log.info("POST /contacts/batch request - Processing {} operations.", operations.size());
+        flushPending(operations.stream().map(ContactBatchOperationDto::getId).filter(Objects::nonNull).toList());
+        return contactService.processBatch(operations);
+    }
+
+    /**
+     * Объединить контакты: первый из списка сохраняется, остальные удаляются в той же транзакции.
+     *
+     * @param mergeRequest Объект {@link ContactMergeRequestDto} с идентификаторами и данными объединенного контакта.
+     * @return Ответ с объединенным контактным объектом {@link ContactResponseDto}.
+     */
+    @PostMapping("/merge")
+    @Admission(RequestClass.BULK)
+    public ResponseEntity<ContactResponseDto> mergeContacts(@RequestBody ContactMergeRequestDto mergeRequest) {
+        log.info("POST /contacts/merge request - Merging contacts.");
+        if (mergeRequest.getIds() != null) {
+            flushPending(mergeRequest.getIds());
+        }
+        ContactResponseDto mergedContact = contactService.mergeContacts(mergeRequest.getIds(), mergeRequest.getContact());
+        return ResponseEntity.ok().eTag(eTag(mergedContact.getVersion())).body(mergedContact);
+    }
+
     /**
      * Обновить или создать контакт.
+     * <p>
+     * При отложенной записи ({@code contact-book.write-behind.enabled}) обновление существующего контакта
+     * без {@code If-Match} принимается с кодом 202 и сохраняется позже; ответ содержит состояние и версию,
+     * которые контакт получит после сохранения.
+     * </p>
      *
      * @param id Идентификатор контакта, который необходимо обновить.
      * @param contactRequestDto Объект {@link ContactRequestDto}, содержащий обновленные данные контакта.
+     * @param ifMatch ETag ожидаемой версии контакта или {@code *} (необязательно).
      * @return Ответ с обновленным или созданным контактным объектом {@link ContactResponseDto}.
      */
     @PutMapping("/{id}")
-    public ResponseEntity<ContactResponseDto> createOrUpdateContact(@PathVariable Long id, @RequestBody ContactRequestDto contactRequestDto) {
+    @Admission(RequestClass.WRITE)
+    public ResponseEntity<ContactResponseDto> createOrUpdateContact(@PathVariable Long id, @RequestBody ContactRequestDto contactRequestDto,
+                                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         log.info("PUT /contacts/{} - Updating contact.", id);
-        ContactResponseDto updatedContact = contactService.saveOrUpdateContact(id, contactRequestDto);
-        return ResponseEntity.ok(updatedContact);
+        Long expectedVersion = expectedVersion(ifMatch);
+        ContactWriteBehind writeBehind = this.writeBehind.getIfAvailable();
+        if (writeBehind != null && expectedVersion == null) {
+            ContactResponseDto acceptedContact = writeBehind.submit(id, contactRequestDto);
+            if (acceptedContact != null) {
+                return ResponseEntity.accepted().eTag(eTag(acceptedContact.getVersion())).body(acceptedContact);
+            }
+        } else if (writeBehind != null) {
+            writeBehind.flush(List.of(id));
+        }
+        ContactResponseDto updatedContact = contactService.saveOrUpdateContact(id, contactRequestDto, expectedVersion);
+        return ResponseEntity.ok().eTag(eTag(updatedContact.getVersion())).body(updatedContact);
+    }
+
+    /**
+     * Частично обновить контакт: меняются только переданные поля, поля со значением {@code null} не меняются.
+     *
+     * @param id Идентификатор контакта, который необходимо обновить.
+     * @param contactRequestDto Объект {@link ContactRequestDto} с изменяемыми полями.
+     * @param ifMatch ETag ожидаемой версии контакта или {@code *} (необязательно).
+     * @return Ответ с обновленным контактным объектом {@link ContactResponseDto}.
+     */
+    @PatchMapping("/{id}")
+    @Admission(RequestClass.WRITE)
+    public ResponseEntity<ContactResponseDto> patchContact(@PathVariable Long id, @RequestBody ContactRequestDto contactRequestDto,
+                                                           @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        log.info("PATCH /contacts/{} - Patching contact.", id);
+        flushPending(List.of(id));
+        ContactResponseDto patchedContact = contactService.patchContact(id, contactRequestDto, expectedVersion(ifMatch));
+        return ResponseEntity.ok().eTag(eTag(patchedContact.getVersion())).body(patchedContact);
     }
 
     /**
@@ -85,9 +397,55 @@ public class ContactController {
      * @return Ответ с кодом 204 (No Content), если контакт был успешно удален.
      */
     @DeleteMapping("/{id}")
+    @Admission(RequestClass.WRITE)
     public ResponseEntity<Void> deleteContact(@PathVariable Long id) {
         log.info("DELETE /contacts/{} - Deleting contact", id);
+        flushPending(List.of(id));
         contactService.deleteContact(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Сохранение отложенных обновлений контактов перед другими их изменениями.
+     */
+    private void flushPending(Collection<Long> ids) {
+        ContactWriteBehind pending = writeBehind.getIfAvailable();
+        if (pending != null) {
+            pending.flush(ids);
+        }
+    }
+
+    static String eTag(Object version) {
+        return "\"" + version + "\"";
+    }
+
+    /**
+     * Слабый ETag страницы: версия книги одна для всех форматов и сжатий страницы, а Tomcat
+     * не сжимает ответы с сильным ETag.
+     */
+    static String weakETag(Object version) {
+        return "W/" + eTag(version);
+    }
+
+    /**
+     * Разбор заголовка {@code If-Match}: поддерживается один сильный ETag контакта или {@code *}.
+     * ETag, который не может соответствовать ни одной версии, сразу дает 412.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return null;
+        }
+        String value = ifMatch.trim();
+        if (value.equals("*")) {
+            return ContactService.ANY_VERSION;
+        }
+        if (value.length() > 2 && value.startsWith("\"") && value.endsWith("\"")) {
+            try {
+                return Long.parseLong(value.substring(1, value.length() - 1));
+            } catch (NumberFormatException e) {
+                // не версия контакта
+            }
+        }
+        throw new ContactVersionMismatchException("If-Match does not match the current contact version.");
+    }
 }
@@ -0,0 +1,69 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.admission.Admission;
+import com.example.contactbook.admission.RequestClass;
+import com.example.contactbook.dto.ImportJobDto;
+import com.example.contactbook.importer.ImportFormat;
+import com.example.contactbook.service.ContactImportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Контроллер заданий импорта контактов из файлов CSV и vCard.
+ * <p>
+ * Файл передается телом запроса; формат задается параметром {@code format} ({@code csv} или {@code vcard})
+ * или типом содержимого ({@code text/csv}, {@code text/vcard}). Задание выполняется асинхронно,
+ * его состояние доступно по адресу из заголовка {@code Location}.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/contacts/imports")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class ContactImportController {
+
+    private final ContactImportService importService;
+
+    /**
+     * Запустить импорт контактов из файла.
+     *
+     * @param format      Формат файла (необязательно, если указан тип содержимого).
+     * @param contentType Тип содержимого запроса.
+     * @param content     Содержимое файла в UTF-8.
+     * @return Ответ 202 (Accepted) с состоянием задания {@link ImportJobDto}.
+     * @throws IOException Если не удалось принять файл.
+     */
+    @PostMapping
+    @Admission(RequestClass.BULK)
+    public ResponseEntity<ImportJobDto> startImport(@RequestParam(required = false) String format,
+                                                    @RequestHeader(value = HttpHeaders.CONTENT_TYPE, required = false) String contentType,
+                                                    InputStream content) throws IOException {
+        log.info("POST /contacts/imports request - Starting import");
+        ImportJobDto job = importService.startImport(content, ImportFormat.resolve(format, contentType));
+        return ResponseEntity.accepted()
+                .location(URI.create("/contacts/imports/" + job.getId()))
+                .body(job);
+    }
+
+    /**
+     * Получить состояние задания импорта.
+     *
+     * @param id Идентификатор задания.
+     * @return Объект {@link ImportJobDto} с прогрессом и ошибками в записях.
+     */
+    @GetMapping("/{id}")
+    @Admission(RequestClass.LOOKUP)
+    public ImportJobDto getImport(@PathVariable String id) {
+        log.info("GET /contacts/imports/{} request - Fetching import job", id);
+        return importService.getImport(id);
+    }
+}
@@ -0,0 +1,392 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.cache.ContactCache;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactChangesDto;
+import com.example.contactbook.dto.ContactMergeRequestDto;
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import com.example.contactbook.exceptions.ContactNotFoundException;
+import com.example.contactbook.mapper.ContactMapper;
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.reactive.ContactRow;
+import com.example.contactbook.reactive.ReactiveContactRepository;
+import com.example.contactbook.search.ContactSearchIndex;
+import com.example.contactbook.service.ContactCursor;
+import com.example.contactbook.service.ContactDeduplicationService;
+import com.example.contactbook.service.ContactService;
+import com.example.contactbook.service.ContactSort;
+import com.example.contactbook.tenancy.OwnerContext;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * Реактивный вариант {@link ContactController} с тем же контрактом "/contacts" (профиль {@code reactive}).
+ * <p>
+ * Чтение контакта, страниц, поиск по номеру телефона и выгрузка выполняются через R2DBC и не занимают
+ * поток на время ожидания базы данных: выгрузка отдается потоком {@link Flux} с учетом запроса клиента,
+ * поэтому медленный клиент не заставляет читать книгу быстрее, чем он принимает ответ. Полнотекстовый
+ * поиск обслуживается индексом в памяти {@link ContactSearchIndex} прямо в потоке запроса.
+ * </p>
+ * <p>
+ * Остальное выполняется блокирующими сервисами приложения (JPA и JDBC) на пуле
+ * {@link Schedulers#boundedElastic()}, чтобы сохранить их проверки, версии, журнал и события:
+ * создание, обновление, частичное обновление, удаление, пакеты, объединение, поиск дубликатов,
+ * журнал изменений и версия книги для ETag страницы. Эти запросы занимают поток пула на время
+ * обращения к базе данных.
+ * </p>
+ * <p>
+ * В отличие от {@link ContactController} здесь нет выборки полей {@code fields=} и управления
+ * допуском {@code @Admission}: ответы всегда содержат все поля, а перегрузка не отсекается.
+ * </p>
+ * <p>
+ * Владелец книги берется из заголовка {@value OwnerContext#OWNER_HEADER} и передается запросам
+ * явно: {@link OwnerContext} привязан к потоку, а реактивный запрос выполняется на разных потоках.
+ * Ошибки преобразует тот же {@code GlobalExceptionHandler}.
+ * </p>
+ */
+@Slf4j
+@RequiredArgsConstructor
+@RequestMapping("/contacts")
+@RestController
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveContactController {
+
+    private final ReactiveContactRepository contactRepository;
+    private final ContactService contactService;
+    private final ContactDeduplicationService deduplicationService;
+    private final ContactMapper mapper;
+    private final ContactCache contactCache;
+    private final ContactSearchIndex searchIndex;
+
+    /**
+     * Получить страницу контактов.
+     * <p>
+     * Курсор следующей страницы возвращается в заголовке {@value ContactController#NEXT_CURSOR_HEADER},
+     * ETag страницы — версия всей книги контактов. Страница ограничена
+     * {@link ContactService#MAX_PAGE_SIZE} и собирается целиком, так как курсор передается в заголовке.
+     * </p>
+     *
+     * @param cursor   Курсор следующей страницы из предыдущего ответа.
+     * @param after    ID, после которого начинается страница (только для сортировки по ID).
+     * @param limit    Размер страницы.
+     * @param sort     Порядок сортировки: {@code id} или {@code name}.
+     * @param owner    Владелец книги из заголовка.
+     * @param exchange Текущий обмен для проверки заголовка {@code If-None-Match}.
+     * @return Список объектов {@link ContactResponseDto}, представляющих контакты страницы.
+     */
+    @GetMapping
+    public Mono<ResponseEntity<List<ContactResponseDto>>> getAllContacts(@RequestParam(required = false) String cursor,
+                                                                         @RequestParam(required = false) Long after,
+                                                                         @RequestParam(required = false) Integer limit,
+                                                                         @RequestParam(required = false) String sort,
+                                                                         @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                         ServerWebExchange exchange) {
+        log.info("GET /contacts request - Fetching contacts page");
+        String bookOwner = owner(owner, exchange);
+        int pageSize = ContactService.resolvePageSize(limit);
+        ContactCursor position = ContactCursor.resolve(cursor, after, sort);
+        // Версия читается до данных, чтобы страница не получила ETag новее своего содержимого
+        String eTag = ContactController.weakETag(OwnerContext.callAs(bookOwner, contactService::getContactsVersion));
+        varyByAccept(exchange);
+        if (exchange.checkNotModified(eTag)) {
+            return Mono.empty();
+        }
+        return page(bookOwner, position, pageSize + 1)
+                .map(ContactRow::toContact)
+                .collectList()
+                .map(page -> {
+                    ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(eTag);
+                    if (page.size() > pageSize) {
+                        page = page.subList(0, pageSize);
+                        response.header(ContactController.NEXT_CURSOR_HEADER,
+                                ContactCursor.after(position.sort(), page.get(pageSize - 1)).encode());
+                    }
+                    return response.body(page.stream().map(mapper::toResponse).toList());
+                });
+    }
+
+    /**
+     * Найти контакты по имени, email или номеру телефона.
+     *
+     * @param q     Строка запроса; допускаются префиксы и опечатки.
+     * @param limit Максимальное количество результатов.
+     * @param owner Владелец книги из заголовка.
+     * @return Список объектов {@link ContactResponseDto}, наиболее релевантные первыми.
+     */
+    @GetMapping("/search")
+    public Mono<List<ContactResponseDto>> searchContacts(@RequestParam String q, @RequestParam(required = false) Integer limit,
+                                                         @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                         ServerWebExchange exchange) {
+        log.info("GET /contacts/search request - Searching contacts");
+        String bookOwner = owner(owner, exchange);
+        // индекс в памяти не обращается к базе данных, поэтому поиск выполняется без пула блокирующих задач
+        return Mono.fromSupplier(() -> searchIndex.search(bookOwner, q, ContactService.resolveSearchLimit(q, limit)));
+    }
+
+    /**
+     * Найти группы вероятных дубликатов.
+     *
+     * @param threshold Минимальная оценка сходства пары от 0 до 1.
+     * @param limit     Максимальное количество групп.
+     * @param owner     Владелец книги из заголовка.
+     * @return Список объектов {@link DuplicateGroupDto}, наиболее похожие первыми.
+     */
+    @GetMapping("/duplicates")
+    public Mono<List<DuplicateGroupDto>> findDuplicates(@RequestParam(required = false) Double threshold,
+                                                        @RequestParam(required = false) Integer limit,
+                                                        @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                        ServerWebExchange exchange) {
+        log.info("GET /contacts/duplicates request - Searching for duplicates");
+        return blocking(owner(owner, exchange), () -> deduplicationService.findDuplicates(threshold, limit));
+    }
+
+    /**
+     * Получить изменения контактов после токена синхронизации.
+     *
+     * @param since Токен из предыдущего ответа.
+     * @param limit Максимальное количество читаемых записей журнала.
+     * @param owner Владелец книги из заголовка.
+     * @return Объект {@link ContactChangesDto} с изменениями и токеном следующего запроса.
+     */
+    @GetMapping("/changes")
+    public Mono<ContactChangesDto> getChanges(@RequestParam(required = false) String since,
+                                              @RequestParam(required = false) Integer limit,
+                                              @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                              ServerWebExchange exchange) {
+        log.info("GET /contacts/changes request - Fetching contact changes");
+        return blocking(owner(owner, exchange), () -> contactService.getChanges(since, limit));
+    }
+
+    /**
+     * Найти контакты по номеру телефона.
+     * <p>
+     * Номер нормализуется так же, как при записи, и ищется по столбцу {@code phone_key} через R2DBC.
+     * </p>
+     *
+     * @param number Номер телефона в произвольном формате; сравнивается после нормализации.
+     * @param owner  Владелец книги из заголовка.
+     * @return Список объектов {@link ContactResponseDto} с этим номером.
+     */
+    @GetMapping("/by-phone/{number}")
+    public Mono<List<ContactResponseDto>> getContactsByPhone(@PathVariable String number,
+                                                             @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                             ServerWebExchange exchange) {
+        log.info("GET /contacts/by-phone request - Fetching contacts by phone number");
+        String bookOwner = owner(owner, exchange);
+        long phoneKey = PhoneNumbers.normalize(number);
+        if (phoneKey == PhoneNumbers.INVALID) {
+            return Mono.error(new IllegalArgumentException(PhoneNumbers.INVALID_MESSAGE));
+        }
+        return contactRepository.findByPhoneKey(bookOwner, phoneKey, ContactService.MAX_PHONE_MATCHES)
+                .map(row -> mapper.toResponse(row.toContact()))
+                .collectList()
+                .filter(contacts -> !contacts.isEmpty())
+                .switchIfEmpty(Mono.error(() -> new ContactNotFoundException("No contacts found for phone number " + number + ".")));
+    }
+
+    /**
+     * Выгрузить все контакты в формате NDJSON (один JSON-объект на строку).
+     * <p>
+     * Строки читаются из базы данных по мере того, как клиент принимает ответ.
+     * </p>
+     *
+     * @param owner Владелец книги из заголовка.
+     * @return Поток всех контактов книги.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<ContactResponseDto> exportContacts(@RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                   ServerWebExchange exchange) {
+        log.info("GET /contacts/export request - Exporting all contacts");
+        return contactRepository.findByOwnerOrderByIdAsc(owner(owner, exchange))
+                .map(row -> mapper.toResponse(row.toContact()));
+    }
+
+    /**
+     * Получить контакт по ID.
+     * <p>
+     * Контакт берется из {@link ContactCache}, а при промахе читается через R2DBC.
+     * </p>
+     *
+     * @param id       Идентификатор контакта, который требуется получить.
+     * @param owner    Владелец книги из заголовка.
+     * @param exchange Текущий обмен для проверки заголовка {@code If-None-Match}.
+     * @return Объект {@link ContactResponseDto}, представляющий контакт с указанным ID.
+     */
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ContactResponseDto>> getContactById(@PathVariable Long id,
+                                                                   @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                   ServerWebExchange exchange) {
+        log.info("GET /contacts/{} request - Fetching contact", id);
+        String bookOwner = owner(owner, exchange);
+        ContactResponseDto cached = contactCache.getIfPresent(id);
+        Mono<ContactResponseDto> contact = cached != null && bookOwner.equals(cached.getOwner())
+                ? Mono.just(cached)
+                : contactRepository.findByIdAndOwner(id, bookOwner)
+                        .map(row -> mapper.toResponse(row.toContact()))
+                        .switchIfEmpty(Mono.error(() -> new ContactNotFoundException("Contact with ID " + id + " not found.")));
+        varyByAccept(exchange);
+        return contact.flatMap(found -> {
+            String eTag = ContactController.eTag(found.getVersion());
+            return exchange.checkNotModified(eTag)
+                    ? Mono.empty()
+                    : Mono.just(ResponseEntity.ok().eTag(eTag).body(found));
+        });
+    }
+
+    /**
+     * Создать новый контакт.
+     *
+     * @param contactRequestDto Объект {@link ContactRequestDto}, содержащий данные для создания контакта.
+     * @param owner             Владелец книги из заголовка.
+     * @return Ответ с созданным контактным объектом {@link ContactResponseDto}.
+     */
+    @PostMapping
+    public Mono<ResponseEntity<ContactResponseDto>> createContact(@RequestBody ContactRequestDto contactRequestDto,
+                                                                  @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                  ServerWebExchange exchange) {
+        log.info("POST /contacts request - Creating contact.");
+        return blocking(owner(owner, exchange), () -> contactService.createContact(contactRequestDto))
+                .map(createdContact -> ResponseEntity.status(201).body(createdContact));
+    }
+
+    /**
+     * Выполнить пакет операций создания, обновления и удаления в одной транзакции.
+     *
+     * @param operations Список объектов {@link ContactBatchOperationDto}.
+     * @param owner      Владелец книги из заголовка.
+     * @return Результаты операций {@link ContactBatchResultDto} в порядке запроса.
+     */
+    @PostMapping("/batch")
+    public Mono<List<ContactBatchResultDto>> processBatch(@RequestBody List<ContactBatchOperationDto> operations,
+                                                          @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                          ServerWebExchange exchange) {
+        log.info("POST /contacts/batch request - Processing {} operations.", operations.size());
+        return blocking(owner(owner, exchange), () -> contactService.processBatch(operations));
+    }
+
+    /**
+     * Объединить контакты: первый из списка сохраняется, остальные удаляются в той же транзакции.
+     *
+     * @param mergeRequest Объект {@link ContactMergeRequestDto} с идентификаторами и данными объединенного контакта.
+     * @param owner        Владелец книги из заголовка.
+     * @return Ответ с объединенным контактным объектом {@link ContactResponseDto}.
+     */
+    @PostMapping("/merge")
+    public Mono<ResponseEntity<ContactResponseDto>> mergeContacts(@RequestBody ContactMergeRequestDto mergeRequest,
+                                                                  @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                  ServerWebExchange exchange) {
+        log.info("POST /contacts/merge request - Merging contacts.");
+        return blocking(owner(owner, exchange), () -> contactService.mergeContacts(mergeRequest.getIds(), mergeRequest.getContact()))
+                .map(ReactiveContactController::withETag);
+    }
+
+    /**
+     * Обновить или создать контакт.
+     *
+     * @param id                Идентификатор контакта, который необходимо обновить.
+     * @param contactRequestDto Объект {@link ContactRequestDto}, содержащий обновленные данные контакта.
+     * @param ifMatch           ETag ожидаемой версии контакта или {@code *} (необязательно).
+     * @param owner             Владелец книги из заголовка.
+     * @return Ответ с обновленным или созданным контактным объектом {@link ContactResponseDto}.
+     */
+    @PutMapping("/{id}")
+    public Mono<ResponseEntity<ContactResponseDto>> createOrUpdateContact(@PathVariable Long id, @RequestBody ContactRequestDto contactRequestDto,
+                                                                          @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                          @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                          ServerWebExchange exchange) {
+        log.info("PUT /contacts/{} - Updating contact.", id);
+        Long expectedVersion = ContactController.expectedVersion(ifMatch);
+        return blocking(owner(owner, exchange), () -> contactService.saveOrUpdateContact(id, contactRequestDto, expectedVersion))
+                .map(ReactiveContactController::withETag);
+    }
+
+    /**
+     * Частично обновить контакт: меняются только переданные поля, поля со значением {@code null} не меняются.
+     *
+     * @param id                Идентификатор контакта, который необходимо обновить.
+     * @param contactRequestDto Объект {@link ContactRequestDto} с изменяемыми полями.
+     * @param ifMatch           ETag ожидаемой версии контакта или {@code *} (необязательно).
+     * @param owner             Владелец книги из заголовка.
+     * @return Ответ с обновленным контактным объектом {@link ContactResponseDto}.
+     */
+    @PatchMapping("/{id}")
+    public Mono<ResponseEntity<ContactResponseDto>> patchContact(@PathVariable Long id, @RequestBody ContactRequestDto contactRequestDto,
+                                                                 @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                                 @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                                 ServerWebExchange exchange) {
+        log.info("PATCH /contacts/{} - Patching contact.", id);
+        Long expectedVersion = ContactController.expectedVersion(ifMatch);
+        return blocking(owner(owner, exchange), () -> contactService.patchContact(id, contactRequestDto, expectedVersion))
+                .map(ReactiveContactController::withETag);
+    }
+
+    /**
+     * Удалить контакт по ID.
+     *
+     * @param id    Идентификатор контакта, который необходимо удалить.
+     * @param owner Владелец книги из заголовка.
+     * @return Ответ с кодом 204 (No Content), если контакт был успешно удален.
+     */
+    @DeleteMapping("/{id}")
+    public Mono<ResponseEntity<Void>> deleteContact(@PathVariable Long id,
+                                                    @RequestHeader(value = OwnerContext.OWNER_HEADER, required = false) String owner,
+                                                    ServerWebExchange exchange) {
+        log.info("DELETE /contacts/{} - Deleting contact", id);
+        return blocking(owner(owner, exchange), () -> {
+            contactService.deleteContact(id);
+            return ResponseEntity.noContent().<Void>build();
+        });
+    }
+
+    private Flux<ContactRow> page(String owner, ContactCursor position, int limit) {
+        if (position.sort() == ContactSort.NAME) {
+            return position.lastName() == null
+                    ? contactRepository.findFirstNamePage(owner, limit)
+                    : contactRepository.findNameSeekPage(owner, position.lastName(), position.lastId(), limit);
+        }
+        return contactRepository.findIdPage(owner, position.lastId(), limit);
+    }
+
+    /**
+     * Владелец книги запроса; ответ зависит от заголовка, поэтому он добавляется в {@code Vary}.
+     */
+    private static String owner(String header, ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, OwnerContext.OWNER_HEADER);
+        return header == null ? OwnerContext.DEFAULT_OWNER : OwnerContext.validate(header);
+    }
+
+    /**
+     * Формат ответа с ETag выбирается по {@code Accept}, а версия одна для всех форматов. Заголовок
+     * добавляется в ответ, а не в {@link ResponseEntity}: заголовки сущности заменили бы {@code Vary} владельца.
+     */
+    private static void varyByAccept(ServerWebExchange exchange) {
+        exchange.getResponse().getHeaders().add(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+    }
+
+    /**
+     * Вызов блокирующего сервиса от имени владельца на пуле потоков для блокирующих задач.
+     */
+    private static <T> Mono<T> blocking(String owner, Supplier<T> call) {
+        return Mono.fromSupplier(() -> OwnerContext.callAs(owner, call))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private static ResponseEntity<ContactResponseDto> withETag(ContactResponseDto contact) {
+        return ResponseEntity.ok().eTag(ContactController.eTag(contact.getVersion())).body(contact);
+    }
+}
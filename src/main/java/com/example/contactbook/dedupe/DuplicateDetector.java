@@ -0,0 +1,345 @@
+package com.example.contactbook.dedupe;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import com.example.contactbook.model.PhoneNumbers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+/**
+ * Поиск групп вероятных дубликатов среди контактов.
+ * <p>
+ * Контакты раскладываются по блокам с общим ключом: email, нормализованный номер телефона
+ * ({@link PhoneNumbers#normalize(CharSequence)}) и фонетический ключ имени. Пары сравниваются только
+ * внутри блока, причем в блоке, упорядоченном по имени, каждый контакт сравнивается не более чем
+ * с {@code window} следующими (sorted neighbourhood), поэтому работа растет линейно с размером книги,
+ * даже если у тысяч контактов одно распространенное имя. Блоки режутся на отрезки, которые оцениваются
+ * задачами fork/join; пары с оценкой не ниже порога объединяются в группы системой непересекающихся
+ * множеств.
+ * </p>
+ * <p>
+ * Оценка пары — взвешенная сумма сходства имени (0.5) и email (0.2) по Джаро — Винклеру и сходства
+ * номера телефона (0.3): 1 при совпадающем ключе номера, 0.8 при одной опечатке в цифрах, иначе 0.
+ * Если email есть не у обоих контактов, он не учитывается, а веса остальных полей нормируются.
+ * </p>
+ */
+public class DuplicateDetector {
+
+    /**
+     * Порог оценки пары по умолчанию.
+     */
+    public static final double DEFAULT_THRESHOLD = 0.9;
+
+    private static final double NAME_WEIGHT = 0.5;
+    private static final double PHONE_WEIGHT = 0.3;
+    private static final double EMAIL_WEIGHT = 0.2;
+
+    /**
+     * Сходство номеров с одной опечаткой.
+     */
+    private static final double TYPO_SIMILARITY = 0.8;
+
+    /**
+     * Количество начальных позиций блока в одной задаче.
+     */
+    private static final int SEGMENT_SIZE = 512;
+
+    /**
+     * Количество отрезков, которые задача оценивает сама, не разделяясь.
+     */
+    private static final int SEQUENTIAL_SEGMENTS = 4;
+
+    private final ForkJoinPool pool;
+    private final int window;
+
+    /**
+     * @param pool   Пул fork/join для параллельной оценки
+     * @param window Количество соседей по имени, с которыми сравнивается контакт внутри блока
+     */
+    public DuplicateDetector(ForkJoinPool pool, int window) {
+        if (window < 1) {
+            throw new IllegalArgumentException("Dedupe window must be positive.");
+        }
+        this.pool = pool;
+        this.window = window;
+    }
+
+    /**
+     * Поиск групп дубликатов.
+     *
+     * @param contacts  Контакты
+     * @param threshold Минимальная оценка пары от 0 до 1
+     * @return Группы из двух и более контактов в порядке убывания оценки; контакты группы упорядочены по ID
+     */
+    public List<DuplicateGroupDto> findDuplicates(List<ContactResponseDto> contacts, double threshold) {
+        Profile[] profiles = new Profile[contacts.size()];
+        pool.submit(() -> IntStream.range(0, profiles.length).parallel()
+                .forEach(i -> profiles[i] = Profile.of(contacts.get(i)))).join();
+
+        // порядок по имени вычисляется один раз; внутри каждого ключа сортируются примитивные long
+        int[] byName = IntStream.range(0, profiles.length).boxed()
+                .sorted(Comparator.comparing(i -> profiles[i].name))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        List<Segment> segments = new ArrayList<>();
+        for (BlockingKey key : BlockingKey.values()) {
+            addSegments(profiles, byName, key, segments);
+        }
+        Matches matches = pool.invoke(new ScoreTask(profiles, segments, 0, segments.size(), threshold));
+        return group(contacts, matches);
+    }
+
+    /**
+     * Режет блоки ключа на отрезки. Элемент сортируемого массива — номер значения ключа в старших
+     * 32 битах и позиция контакта в порядке по имени в младших.
+     */
+    private void addSegments(Profile[] profiles, int[] byName, BlockingKey key, List<Segment> segments) {
+        Map<String, Integer> keyIds = new HashMap<>();
+        long[] order = new long[profiles.length];
+        int size = 0;
+        for (int rank = 0; rank < byName.length; rank++) {
+            String value = key.of(profiles[byName[rank]]);
+            if (value != null) {
+                long keyId = keyIds.computeIfAbsent(value, v -> keyIds.size());
+                order[size++] = keyId << 32 | rank;
+            }
+        }
+        keyIds.clear();
+        Arrays.parallelSort(order, 0, size);
+        int start = 0;
+        while (start < size) {
+            long block = order[start] >>> 32;
+            int end = start + 1;
+            while (end < size && order[end] >>> 32 == block) {
+                end++;
+            }
+            if (end - start > 1) {
+                int[] members = new int[end - start];
+                for (int i = 0; i < members.length; i++) {
+                    members[i] = byName[(int) order[start + i]];
+                }
+                for (int from = 0; from < members.length - 1; from += SEGMENT_SIZE) {
+                    segments.add(new Segment(key, members, from, Math.min(members.length - 1, from + SEGMENT_SIZE)));
+                }
+            }
+            start = end;
+        }
+    }
+
+    private static List<DuplicateGroupDto> group(List<ContactResponseDto> contacts, Matches matches) {
+        UnionFind sets = new UnionFind(contacts.size());
+        for (int i = 0; i < matches.size; i++) {
+            sets.union(matches.first[i], matches.second[i]);
+        }
+        Map<Integer, List<ContactResponseDto>> members = new HashMap<>();
+        Map<Integer, Double> scores = new HashMap<>();
+        boolean[] added = new boolean[contacts.size()];
+        for (int i = 0; i < matches.size; i++) {
+            int root = sets.find(matches.first[i]);
+            scores.merge(root, matches.score[i], Math::min);
+            for (int member : new int[]{matches.first[i], matches.second[i]}) {
+                if (!added[member]) {
+                    added[member] = true;
+                    members.computeIfAbsent(root, r -> new ArrayList<>()).add(contacts.get(member));
+                }
+            }
+        }
+        List<DuplicateGroupDto> groups = new ArrayList<>(members.size());
+        members.forEach((root, group) -> {
+            group.sort(Comparator.comparing(ContactResponseDto::getId));
+            groups.add(new DuplicateGroupDto(Math.round(scores.get(root) * 1000) / 1000.0, group));
+        });
+        groups.sort(Comparator.comparingDouble(DuplicateGroupDto::getScore).reversed()
+                .thenComparing(group -> group.getContacts().get(0).getId()));
+        return groups;
+    }
+
+    private static double score(Profile first, Profile second, double threshold) {
+        double name = JaroWinkler.similarity(first.name, second.name);
+        // даже при полном совпадении телефона и email пара не наберет порог
+        if (NAME_WEIGHT * name + PHONE_WEIGHT + EMAIL_WEIGHT < threshold) {
+            return 0;
+        }
+        double phone = first.samePhone(second) ? 1.0 : oneDigitTypo(first.digits, second.digits) ? TYPO_SIMILARITY : 0.0;
+        if (first.email == null || second.email == null) {
+            return (NAME_WEIGHT * name + PHONE_WEIGHT * phone) / (NAME_WEIGHT + PHONE_WEIGHT);
+        }
+        double email = first.sameEmail(second) ? 1.0 : JaroWinkler.similarity(first.email, second.email);
+        return NAME_WEIGHT * name + PHONE_WEIGHT * phone + EMAIL_WEIGHT * email;
+    }
+
+    /**
+     * Номера одинаковой длины, отличающиеся одной цифрой или перестановкой соседних цифр.
+     * Сходство строк с общим префиксом здесь не подходит: соседние номера одной АТС почти всегда
+     * принадлежат разным людям.
+     */
+    private static boolean oneDigitTypo(String first, String second) {
+        if (first.length() != second.length() || first.isEmpty()) {
+            return false;
+        }
+        int i = 0;
+        while (i < first.length() && first.charAt(i) == second.charAt(i)) {
+            i++;
+        }
+        if (i == first.length()) {
+            return true;
+        }
+        if (first.regionMatches(i + 1, second, i + 1, first.length() - i - 1)) {
+            return true;
+        }
+        return i + 1 < first.length()
+                && first.charAt(i) == second.charAt(i + 1) && first.charAt(i + 1) == second.charAt(i)
+                && first.regionMatches(i + 2, second, i + 2, first.length() - i - 2);
+    }
+
+    private enum BlockingKey {
+        EMAIL(profile -> profile.email),
+        PHONE(profile -> profile.phoneBlock),
+        NAME(profile -> profile.nameKey);
+
+        private final Function<Profile, String> extractor;
+
+        BlockingKey(Function<Profile, String> extractor) {
+            this.extractor = extractor;
+        }
+
+        String of(Profile profile) {
+            return extractor.apply(profile);
+        }
+
+        /**
+         * Пара уже оценена в блоке предыдущего ключа.
+         */
+        boolean scoredEarlier(Profile first, Profile second) {
+            return switch (this) {
+                case EMAIL -> false;
+                case PHONE -> first.sameEmail(second);
+                case NAME -> first.sameEmail(second) || first.samePhone(second);
+            };
+        }
+    }
+
+    private record Profile(String name, String nameKey, long phoneKey, String phoneBlock, String digits, String email) {
+
+        static Profile of(ContactResponseDto contact) {
+            long phoneKey = PhoneNumbers.normalize(contact.getPhoneNumber());
+            String email = contact.getEmail() == null || contact.getEmail().isBlank()
+                    ? null
+                    : contact.getEmail().trim().toLowerCase(Locale.ROOT);
+            String nameKey = NameKeys.phonetic(contact.getName());
+            return new Profile(NameKeys.normalize(contact.getName()), nameKey.isEmpty() ? null : nameKey, phoneKey,
+                    phoneKey == PhoneNumbers.INVALID ? null : Long.toString(phoneKey),
+                    NameKeys.digits(contact.getPhoneNumber()), email);
+        }
+
+        boolean samePhone(Profile other) {
+            return phoneKey != PhoneNumbers.INVALID && phoneKey == other.phoneKey;
+        }
+
+        boolean sameEmail(Profile other) {
+            return email != null && email.equals(other.email);
+        }
+    }
+
+    /**
+     * Начальные позиции {@code [from, to)} блока; каждая сравнивается со следующими контактами блока.
+     */
+    private record Segment(BlockingKey key, int[] members, int from, int to) {
+    }
+
+    private final class ScoreTask extends RecursiveTask<Matches> {
+
+        private final Profile[] profiles;
+        private final List<Segment> segments;
+        private final int from;
+        private final int to;
+        private final double threshold;
+
+        ScoreTask(Profile[] profiles, List<Segment> segments, int from, int to, double threshold) {
+            this.profiles = profiles;
+            this.segments = segments;
+            this.from = from;
+            this.to = to;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected Matches compute() {
+            if (to - from <= SEQUENTIAL_SEGMENTS) {
+                Matches matches = new Matches();
+                for (int i = from; i < to; i++) {
+                    score(segments.get(i), matches);
+                }
+                return matches;
+            }
+            int middle = (from + to) >>> 1;
+            ScoreTask left = new ScoreTask(profiles, segments, from, middle, threshold);
+            left.fork();
+            Matches right = new ScoreTask(profiles, segments, middle, to, threshold).compute();
+            return left.join().addAll(right);
+        }
+
+        private void score(Segment segment, Matches matches) {
+            int[] members = segment.members();
+            for (int i = segment.from(); i < segment.to(); i++) {
+                Profile first = profiles[members[i]];
+                int last = Math.min(members.length - 1, i + window);
+                for (int j = i + 1; j <= last; j++) {
+                    Profile second = profiles[members[j]];
+                    if (segment.key().scoredEarlier(first, second)) {
+                        continue;
+                    }
+                    double score = DuplicateDetector.score(first, second, threshold);
+                    if (score >= threshold) {
+                        matches.add(members[i], members[j], score);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Matches {
+
+        private int[] first = new int[16];
+        private int[] second = new int[16];
+        private double[] score = new double[16];
+        private int size;
+
+        void add(int firstIndex, int secondIndex, double pairScore) {
+            if (size == first.length) {
+                grow(size * 2);
+            }
+            first[size] = firstIndex;
+            second[size] = secondIndex;
+            score[size] = pairScore;
+            size++;
+        }
+
+        Matches addAll(Matches other) {
+            if (size + other.size > first.length) {
+                grow(Math.max(size + other.size, size * 2));
+            }
+            System.arraycopy(other.first, 0, first, size, other.size);
+            System.arraycopy(other.second, 0, second, size, other.size);
+            System.arraycopy(other.score, 0, score, size, other.size);
+            size += other.size;
+            return this;
+        }
+
+        private void grow(int capacity) {
+            first = Arrays.copyOf(first, capacity);
+            second = Arrays.copyOf(second, capacity);
+            score = Arrays.copyOf(score, capacity);
+        }
+    }
+}
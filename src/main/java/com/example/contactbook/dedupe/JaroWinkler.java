@@ -0,0 +1,69 @@
+package com.example.contactbook.dedupe;
+
+/**
+ * Сходство строк Джаро — Винклера: от 0 (ничего общего) до 1 (строки равны).
+ * Совпадающий префикс до четырех символов повышает оценку, поэтому метрика хорошо подходит
+ * для имен и адресов с опечатками в конце.
+ */
+final class JaroWinkler {
+
+    private static final double PREFIX_SCALE = 0.1;
+    private static final int MAX_PREFIX = 4;
+
+    private JaroWinkler() {
+    }
+
+    static double similarity(String first, String second) {
+        if (first.equals(second)) {
+            return 1.0;
+        }
+        int firstLength = first.length();
+        int secondLength = second.length();
+        if (firstLength == 0 || secondLength == 0) {
+            return 0.0;
+        }
+        // отметки совпадений хранятся в битах long, без выделения массивов; длиннее 64 символов
+        // строки сравниваются по началу
+        firstLength = Math.min(firstLength, Long.SIZE);
+        secondLength = Math.min(secondLength, Long.SIZE);
+        int range = Math.max(0, Math.max(firstLength, secondLength) / 2 - 1);
+        long firstMatched = 0;
+        long secondMatched = 0;
+        int matches = 0;
+        for (int i = 0; i < firstLength; i++) {
+            int from = Math.max(0, i - range);
+            int to = Math.min(secondLength, i + range + 1);
+            for (int j = from; j < to; j++) {
+                if ((secondMatched & (1L << j)) == 0 && first.charAt(i) == second.charAt(j)) {
+                    firstMatched |= 1L << i;
+                    secondMatched |= 1L << j;
+                    matches++;
+                    break;
+                }
+            }
+        }
+        if (matches == 0) {
+            return 0.0;
+        }
+        int transpositions = 0;
+        for (int i = 0, j = 0; i < firstLength; i++) {
+            if ((firstMatched & (1L << i)) != 0) {
+                while ((secondMatched & (1L << j)) == 0) {
+                    j++;
+                }
+                if (first.charAt(i) != second.charAt(j)) {
+                    transpositions++;
+                }
+                j++;
+            }
+        }
+        double m = matches;
+        double jaro = (m / firstLength + m / secondLength + (m - transpositions / 2.0) / m) / 3.0;
+        int prefix = 0;
+        int maxPrefix = Math.min(MAX_PREFIX, Math.min(firstLength, secondLength));
+        while (prefix < maxPrefix && first.charAt(prefix) == second.charAt(prefix)) {
+            prefix++;
+        }
+        return jaro + prefix * PREFIX_SCALE * (1.0 - jaro);
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.contactbook.dedupe;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Нормализация имен для поиска дубликатов.
+ */
+final class NameKeys {
+
+    private static final String SOUNDEX_CODES = "01230120022455012623010202";
+
+    private NameKeys() {
+    }
+
+    /**
+     * Имя в нижнем регистре из слов, упорядоченных по алфавиту: "Smith,  JOHN" и "john smith" совпадают.
+     *
+     * @param name Имя контакта
+     * @return Нормализованное имя
+     */
+    static String normalize(String name) {
+        String[] words = words(name);
+        Arrays.sort(words);
+        return String.join(" ", words);
+    }
+
+    /**
+     * Фонетический ключ имени: коды Soundex слов в алфавитном порядке, поэтому "Jon Smyth"
+     * и "Smith, John" получают один ключ. Слова не на латинице представлены первыми четырьмя буквами.
+     *
+     * @param name Имя контакта
+     * @return Ключ блока или пустая строка, если в имени нет букв и цифр
+     */
+    static String phonetic(String name) {
+        String[] words = words(name);
+        for (int i = 0; i < words.length; i++) {
+            words[i] = soundex(words[i]);
+        }
+        Arrays.sort(words);
+        return String.join(" ", words);
+    }
+
+    private static String[] words(String name) {
+        if (name == null) {
+            return new String[0];
+        }
+        List<String> words = new ArrayList<>(4);
+        StringBuilder word = new StringBuilder();
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                word.append(Character.toLowerCase(c));
+            } else if (!word.isEmpty()) {
+                words.add(word.toString());
+                word.setLength(0);
+            }
+        }
+        if (!word.isEmpty()) {
+            words.add(word.toString());
+        }
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Только цифры номера телефона.
+     *
+     * @param phoneNumber Номер в произвольном формате
+     * @return Цифры номера или пустая строка
+     */
+    static String digits(String phoneNumber) {
+        if (phoneNumber == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(phoneNumber.length());
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static String soundex(String word) {
+        char first = word.charAt(0);
+        if (first < 'a' || first > 'z') {
+            return word.length() > 4 ? word.substring(0, 4) : word;
+        }
+        StringBuilder key = new StringBuilder(4).append(Character.toUpperCase(first));
+        char previous = SOUNDEX_CODES.charAt(first - 'a');
+        for (int i = 1; i < word.length() && key.length() < 4; i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                continue;
+            }
+            char code = SOUNDEX_CODES.charAt(c - 'a');
+            if (code != '0' && code != previous) {
+                key.append(code);
+            }
+            // h и w не разделяют одинаковые согласные, гласные разделяют
+            if (c != 'h' && c != 'w') {
+                previous = code;
+            }
+        }
+        while (key.length() < 4) {
+            key.append('0');
+        }
+        return key.toString();
+    }
+}
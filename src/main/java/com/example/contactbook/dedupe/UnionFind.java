@@ -0,0 +1,48 @@
+package com.example.contactbook.dedupe;
+
+/**
+ * Система непересекающихся множеств над индексами {@code 0..size-1}
+ * со сжатием путей и объединением по рангу.
+ */
+final class UnionFind {
+
+    private final int[] parent;
+    private final byte[] rank;
+
+    UnionFind(int size) {
+        parent = new int[size];
+        rank = new byte[size];
+        for (int i = 0; i < size; i++) {
+            parent[i] = i;
+        }
+    }
+
+    int find(int element) {
+        int root = element;
+        while (parent[root] != root) {
+            root = parent[root];
+        }
+        while (parent[element] != root) {
+            int next = parent[element];
+            parent[element] = root;
+            element = next;
+        }
+        return root;
+    }
+
+    void union(int first, int second) {
+        int firstRoot = find(first);
+        int secondRoot = find(second);
+        if (firstRoot == secondRoot) {
+            return;
+        }
+        if (rank[firstRoot] < rank[secondRoot]) {
+            parent[firstRoot] = secondRoot;
+        } else if (rank[firstRoot] > rank[secondRoot]) {
+            parent[secondRoot] = firstRoot;
+        } else {
+            parent[secondRoot] = firstRoot;
+            rank[firstRoot]++;
+        }
+    }
+}
@@ -0,0 +1,10 @@
+package com.example.contactbook.dto;
+
+/**
+ * Тип операции в пакетном запросе.
+ */
+public enum BatchOperationType {
+    CREATE,
+    UPDATE,
+    DELETE
+}
@@ -0,0 +1,26 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Статистика кэша контактов.
+ */
+@Data
+@AllArgsConstructor
+public class CacheStatsDto {
+
+    private long size;
+
+    private long hitCount;
+
+    private long missCount;
+
+    private double hitRate;
+
+    private double missRate;
+
+    private long evictionCount;
+
+    private double averageLoadPenaltyMillis;
+}
@@ -0,0 +1,20 @@
+package com.example.contactbook.dto;
+
+import lombok.Data;
+
+/**
+ * Одна операция пакетного запроса.
+ * <p>
+ * Для {@code CREATE} требуется {@code contact}, для {@code UPDATE} — {@code id} и {@code contact},
+ * для {@code DELETE} — только {@code id}.
+ * </p>
+ */
+@Data
+public class ContactBatchOperationDto {
+
+    private BatchOperationType operation;
+
+    private Long id;
+
+    private ContactRequestDto contact;
+}
@@ -0,0 +1,25 @@
+package com.example.contactbook.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат одной операции пакетного запроса.
+ * Поле {@code status} содержит HTTP-статус, который вернул бы соответствующий одиночный запрос.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@AllArgsConstructor
+public class ContactBatchResultDto {
+
+    private int index;
+
+    private BatchOperationType operation;
+
+    private Long id;
+
+    private int status;
+
+    private String error;
+}
@@ -0,0 +1,24 @@
+package com.example.contactbook.dto;
+
+import com.example.contactbook.model.ContactChangeType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Изменение одного контакта в ответе дельта-синхронизации.
+ * Для удаленного контакта ({@link ContactChangeType#DELETE}) поле {@code contact} отсутствует.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@AllArgsConstructor
+public class ContactChangeDto {
+
+    private Long id;
+
+    private ContactChangeType type;
+
+    private long revision;
+
+    private ContactResponseDto contact;
+}
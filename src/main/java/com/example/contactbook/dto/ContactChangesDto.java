@@ -0,0 +1,22 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Ответ дельта-синхронизации.
+ * Содержит последние изменения контактов после токена клиента (по одному на контакт),
+ * токен для следующего запроса и признак того, что изменения получены не полностью.
+ */
+@Data
+@AllArgsConstructor
+public class ContactChangesDto {
+
+    private List<ContactChangeDto> changes;
+
+    private String nextToken;
+
+    private boolean hasMore;
+}
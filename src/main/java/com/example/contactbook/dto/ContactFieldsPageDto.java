@@ -0,0 +1,21 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Страница контактов с выбранными полями ({@code fields}).
+ * Каждый контакт содержит только запрошенные свойства; курсор следующей страницы такой же,
+ * как в {@link ContactPageDto}.
+ */
+@Data
+@AllArgsConstructor
+public class ContactFieldsPageDto {
+
+    private List<Map<String, Object>> contacts;
+
+    private String nextCursor;
+}
@@ -0,0 +1,21 @@
+package com.example.contactbook.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Запрос слияния контактов.
+ * <p>
+ * Первый контакт из {@code ids} сохраняется, остальные удаляются. Если указан {@code contact},
+ * его данные заменяют данные сохраняемого контакта; иначе пустой email дополняется из удаляемых
+ * контактов в порядке {@code ids}.
+ * </p>
+ */
+@Data
+public class ContactMergeRequestDto {
+
+    private List<Long> ids;
+
+    private ContactRequestDto contact;
+}
@@ -0,0 +1,20 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Страница контактов для keyset-пагинации.
+ * Содержит контакты текущей страницы и непрозрачный курсор следующей страницы
+ * ({@code null}, если страница последняя).
+ */
+@Data
+@AllArgsConstructor
+public class ContactPageDto {
+
+    private List<ContactResponseDto> contacts;
+
+    private String nextCursor;
+}
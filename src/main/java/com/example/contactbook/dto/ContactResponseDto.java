@@ -1,5 +1,6 @@
 package com.example.contactbook.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.Data;
 
 @Data
@@ -11,4 +12,12 @@ public class ContactResponseDto {
     private String phoneNumber;
 
     private String email;
+
+    private Long version;
+
+    /**
+     * Владелец книги контакта; не передается клиенту и нужен для проверки кэшированных контактов.
+     */
+    @JsonIgnore
+    private String owner;
 }
@@ -0,0 +1,22 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Группа вероятных дубликатов.
+ * <p>
+ * {@code score} — наименьшая оценка сходства среди пар, связавших группу. Контакты упорядочены по ID;
+ * первый предлагается оставить при слиянии.
+ * </p>
+ */
+@Data
+@AllArgsConstructor
+public class DuplicateGroupDto {
+
+    private double score;
+
+    private List<ContactResponseDto> contacts;
+}
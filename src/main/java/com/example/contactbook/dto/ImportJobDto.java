@@ -0,0 +1,41 @@
+package com.example.contactbook.dto;
+
+import com.example.contactbook.importer.ImportFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Состояние задания импорта: прогресс, скорость и ошибки в записях.
+ * Список {@code errors} ограничен первыми ошибками, полное число отклоненных записей — {@code failed}.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Data
+@AllArgsConstructor
+public class ImportJobDto {
+
+    private String id;
+
+    private ImportFormat format;
+
+    private ImportJobStatus status;
+
+    private long rowsRead;
+
+    private long imported;
+
+    private long failed;
+
+    private double rowsPerSecond;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String message;
+
+    private List<ImportRowErrorDto> errors;
+}
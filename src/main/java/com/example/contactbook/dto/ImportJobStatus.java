@@ -0,0 +1,11 @@
+package com.example.contactbook.dto;
+
+/**
+ * Состояние задания импорта контактов.
+ */
+public enum ImportJobStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
@@ -0,0 +1,16 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Ошибка в записи файла импорта.
+ */
+@Data
+@AllArgsConstructor
+public class ImportRowErrorDto {
+
+    private long row;
+
+    private String error;
+}
@@ -0,0 +1,23 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Результат перебалансировки шардов.
+ */
+@Data
+@AllArgsConstructor
+public class ShardRebalanceDto {
+
+    private int movedOwners;
+
+    private long movedContacts;
+
+    /**
+     * Устаревшие копии книг, оставшиеся после прерванных переносов и удаленные.
+     */
+    private int removedCopies;
+
+    private long durationMillis;
+}
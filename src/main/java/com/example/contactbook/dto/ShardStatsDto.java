@@ -0,0 +1,23 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * Состояние шарда книг контактов.
+ */
+@Data
+@AllArgsConstructor
+public class ShardStatsDto {
+
+    private String name;
+
+    private long owners;
+
+    private long contacts;
+
+    /**
+     * Книги шарда, которые кольцо назначает другому шарду; переносятся перебалансировкой.
+     */
+    private long misplacedOwners;
+}
@@ -0,0 +1,24 @@
+package com.example.contactbook.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.Instant;
+
+/**
+ * Результат создания снимка книги контактов.
+ */
+@Data
+@AllArgsConstructor
+public class SnapshotDto {
+
+    private String path;
+
+    private long contacts;
+
+    private long sizeBytes;
+
+    private Instant createdAt;
+
+    private long durationMillis;
+}
@@ -0,0 +1,16 @@
+package com.example.contactbook.exceptions;
+
+/**
+ * Исключение, указывающее, что токен синхронизации устарел: журнал изменений уплотнен
+ * или перезапущен, и клиенту нужна полная повторная синхронизация.
+ */
+public class ChangeTokenExpiredException extends RuntimeException {
+    /**
+     * Создает исключение с указанным сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     */
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
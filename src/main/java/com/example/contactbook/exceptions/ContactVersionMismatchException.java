@@ -0,0 +1,15 @@
+package com.example.contactbook.exceptions;
+
+/**
+ * Исключение, указывающее, что версия контакта не совпала с ожидаемой клиентом (заголовок {@code If-Match}).
+ */
+public class ContactVersionMismatchException extends RuntimeException {
+    /**
+     * Создает исключение с указанным сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     */
+    public ContactVersionMismatchException(String message) {
+        super(message);
+    }
+}
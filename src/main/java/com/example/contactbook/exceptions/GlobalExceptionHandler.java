@@ -1,18 +1,33 @@
 package com.example.contactbook.exceptions;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
  * Глобальный обработчик исключений для обработки ошибок в приложении.
+ * Каждый обработанный запрос увеличивает счетчик {@value #ERROR_COUNTER} с тегом обработчика.
  */
 @Slf4j
+@RequiredArgsConstructor
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Счетчик ошибок с тегами {@code type} (ветка обработчика) и {@code status}.
+     */
+    public static final String ERROR_COUNTER = "contact.errors";
+
+    private final MeterRegistry meterRegistry;
+
     /**
      * Обрабатывает исключение {@link ContactNotFoundException}, возникающее при попытке доступа к несуществующему контакту.
      *
@@ -22,10 +37,119 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(ContactNotFoundException.class)
     public ResponseEntity<AppError> handleContactNotFoundException(ContactNotFoundException ex) {
         log.error("Contact not found: {}", ex.getMessage());
+        countError("not_found", HttpStatus.NOT_FOUND);
         AppError error = new AppError(HttpStatus.NOT_FOUND.value(), ex.getMessage());
         return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
     }
 
+    /**
+     * Обрабатывает исключение {@link ImportJobNotFoundException}, возникающее при запросе неизвестного задания импорта.
+     *
+     * @param ex Исключение {@link ImportJobNotFoundException}.
+     * @return Ответ с информацией об ошибке и статусом 404 (NOT FOUND).
+     */
+    @ExceptionHandler(ImportJobNotFoundException.class)
+    public ResponseEntity<AppError> handleImportJobNotFoundException(ImportJobNotFoundException ex) {
+        log.error("Import job not found: {}", ex.getMessage());
+        countError("not_found", HttpStatus.NOT_FOUND);
+        AppError error = new AppError(HttpStatus.NOT_FOUND.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.NOT_FOUND);
+    }
+
+    /**
+     * Обрабатывает исключение {@link ContactVersionMismatchException}, возникающее, когда версия контакта
+     * не совпала с указанной в заголовке {@code If-Match}.
+     *
+     * @param ex Исключение {@link ContactVersionMismatchException}.
+     * @return Ответ с информацией об ошибке и статусом 412 (PRECONDITION FAILED).
+     */
+    @ExceptionHandler(ContactVersionMismatchException.class)
+    public ResponseEntity<AppError> handleContactVersionMismatchException(ContactVersionMismatchException ex) {
+        log.error("Precondition failed: {}", ex.getMessage());
+        countError("precondition_failed", HttpStatus.PRECONDITION_FAILED);
+        AppError error = new AppError(HttpStatus.PRECONDITION_FAILED.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Обрабатывает исключение {@link ChangeTokenExpiredException}, возникающее, когда токен синхронизации
+     * указывает на уплотненную или перезапущенную часть журнала изменений.
+     *
+     * @param ex Исключение {@link ChangeTokenExpiredException}.
+     * @return Ответ с информацией об ошибке и статусом 410 (GONE).
+     */
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<AppError> handleChangeTokenExpiredException(ChangeTokenExpiredException ex) {
+        log.error("Change token expired: {}", ex.getMessage());
+        countError("token_expired", HttpStatus.GONE);
+        AppError error = new AppError(HttpStatus.GONE.value(), ex.getMessage());
+        return new ResponseEntity<>(error, HttpStatus.GONE);
+    }
+
+    /**
+     * Обрабатывает исключение {@link OptimisticLockingFailureException}, возникающее, когда контакт
+     * был изменен другим запросом одновременно с текущим.
+     *
+     * @param ex Исключение {@link OptimisticLockingFailureException}.
+     * @return Ответ с информацией об ошибке и статусом 409 (CONFLICT).
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<AppError> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.error("Concurrent modification: {}", ex.getMessage());
+        countError("conflict", HttpStatus.CONFLICT);
+        AppError error = new AppError(HttpStatus.CONFLICT.value(), "Contact was modified concurrently, retry the request.");
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Обрабатывает исключение {@link RejectedExecutionException}, возникающее, когда очередь
+     * фоновых заданий заполнена.
+     *
+     * @param ex Исключение {@link RejectedExecutionException}.
+     * @return Ответ с информацией об ошибке и статусом 503 (SERVICE UNAVAILABLE).
+     */
+    @ExceptionHandler(RejectedExecutionException.class)
+    public ResponseEntity<AppError> handleRejectedExecutionException(RejectedExecutionException ex) {
+        log.error("Task rejected: {}", ex.getMessage());
+        countError("rejected", HttpStatus.SERVICE_UNAVAILABLE);
+        AppError error = new AppError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Too many jobs in progress, retry later.");
+        return new ResponseEntity<>(error, HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+    /**
+     * Обрабатывает исключение {@link RateLimitExceededException}, возникающее, когда клиент превысил
+     * свой лимит частоты запросов.
+     *
+     * @param ex Исключение {@link RateLimitExceededException}.
+     * @return Ответ с информацией об ошибке, заголовком {@code Retry-After} и статусом 429 (TOO MANY REQUESTS).
+     */
+    @ExceptionHandler(RateLimitExceededException.class)
+    public ResponseEntity<AppError> handleRateLimitExceededException(RateLimitExceededException ex) {
+        log.warn("Rate limited: {}", ex.getMessage());
+        countError("rate_limited", HttpStatus.TOO_MANY_REQUESTS);
+        AppError error = new AppError(HttpStatus.TOO_MANY_REQUESTS.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
+    /**
+     * Обрабатывает исключение {@link ServiceOverloadedException}, возникающее, когда запрос отклонен
+     * из-за перегрузки.
+     *
+     * @param ex Исключение {@link ServiceOverloadedException}.
+     * @return Ответ с информацией об ошибке, заголовком {@code Retry-After} и статусом 503 (SERVICE UNAVAILABLE).
+     */
+    @ExceptionHandler(ServiceOverloadedException.class)
+    public ResponseEntity<AppError> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        log.warn("Load shed: {}", ex.getMessage());
+        countError("overloaded", HttpStatus.SERVICE_UNAVAILABLE);
+        AppError error = new AppError(HttpStatus.SERVICE_UNAVAILABLE.value(), ex.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getRetryAfterSeconds()))
+                .body(error);
+    }
+
     /**
      * Обрабатывает исключение {@link IllegalArgumentException}, возникающее при передаче недопустимого аргумента.
      *
@@ -35,6 +159,7 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(IllegalArgumentException.class)
     public ResponseEntity<AppError> handleIllegalArgumentException(IllegalArgumentException ex) {
         log.error("Illegal argument: {}", ex.getMessage());
+        countError("illegal_argument", HttpStatus.BAD_REQUEST);
         AppError error = new AppError(HttpStatus.BAD_REQUEST.value(), ex.getMessage());
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
@@ -48,7 +173,12 @@ public class GlobalExceptionHandler {
     @ExceptionHandler(Exception.class)
     public ResponseEntity<AppError> handleGenericException(Exception ex) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
+        countError("unexpected", HttpStatus.INTERNAL_SERVER_ERROR);
         AppError error = new AppError(HttpStatus.INTERNAL_SERVER_ERROR.value(), "An unexpected error occurred.");
         return new ResponseEntity<>(error, HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    private void countError(String type, HttpStatus status) {
+        meterRegistry.counter(ERROR_COUNTER, "type", type, "status", String.valueOf(status.value())).increment();
+    }
 }
@@ -0,0 +1,15 @@
+package com.example.contactbook.exceptions;
+
+/**
+ * Исключение, указывающее, что задание импорта не найдено или уже удалено из истории.
+ */
+public class ImportJobNotFoundException extends RuntimeException {
+    /**
+     * Создает исключение с указанным сообщением.
+     *
+     * @param message Сообщение об ошибке.
+     */
+    public ImportJobNotFoundException(String message) {
+        super(message);
+    }
+}
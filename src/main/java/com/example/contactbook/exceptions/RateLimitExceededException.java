@@ -0,0 +1,26 @@
+package com.example.contactbook.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Исключение, указывающее, что клиент превысил свой лимит частоты запросов.
+ */
+@Getter
+public class RateLimitExceededException extends RuntimeException {
+
+    /**
+     * Через сколько секунд у клиента появятся токены для запроса.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает исключение с указанным сообщением.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Через сколько секунд повторить запрос.
+     */
+    public RateLimitExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
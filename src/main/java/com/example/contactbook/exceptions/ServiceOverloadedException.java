@@ -0,0 +1,27 @@
+package com.example.contactbook.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Исключение, указывающее, что запрос отклонен из-за перегрузки: достигнут лимит одновременных запросов
+ * его класса или заполнена очередь отложенной записи.
+ */
+@Getter
+public class ServiceOverloadedException extends RuntimeException {
+
+    /**
+     * Через сколько секунд повторить запрос.
+     */
+    private final long retryAfterSeconds;
+
+    /**
+     * Создает исключение с указанным сообщением.
+     *
+     * @param message           Сообщение об ошибке.
+     * @param retryAfterSeconds Через сколько секунд повторить запрос.
+     */
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.contactbook.importer;
+
+import com.example.contactbook.dto.ContactRequestDto;
+
+/**
+ * Запись файла импорта.
+ *
+ * @param row     Номер записи в файле, начиная с 1 (без учета заголовка CSV)
+ * @param contact Данные контакта или {@code null}, если запись не разобрана
+ * @param error   Ошибка разбора или {@code null}
+ */
+public record ContactRecord(long row, ContactRequestDto contact, String error) {
+
+    static ContactRecord parsed(long row, String name, String phoneNumber, String email) {
+        ContactRequestDto contact = new ContactRequestDto();
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email == null || email.isEmpty() ? null : email);
+        return new ContactRecord(row, contact, null);
+    }
+
+    static ContactRecord malformed(long row, String error) {
+        return new ContactRecord(row, null, error);
+    }
+}
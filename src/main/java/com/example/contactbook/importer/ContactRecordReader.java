@@ -0,0 +1,18 @@
+package com.example.contactbook.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Потоковое чтение записей файла импорта: в памяти находится только текущая запись.
+ */
+public interface ContactRecordReader extends Closeable {
+
+    /**
+     * Чтение следующей записи.
+     *
+     * @return Запись или {@code null}, если файл закончился
+     * @throws IOException Если источник недоступен или нарушена структура файла в целом
+     */
+    ContactRecord next() throws IOException;
+}
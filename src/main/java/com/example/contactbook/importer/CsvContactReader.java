@@ -0,0 +1,137 @@
+package com.example.contactbook.importer;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Потоковый разбор CSV по RFC 4180: поля в кавычках могут содержать запятые, переводы строк
+ * и удвоенные кавычки. Первая строка — заголовок; порядок колонок произвольный, лишние колонки
+ * игнорируются.
+ */
+class CsvContactReader implements ContactRecordReader {
+
+    private static final int EOF = -1;
+
+    private final Reader reader;
+    private final char[] buffer = new char[64 * 1024];
+    private int position;
+    private int limit;
+
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    private int nameColumn = -1;
+    private int phoneColumn = -1;
+    private int emailColumn = -1;
+    private int requiredColumns;
+    private long row;
+
+    CsvContactReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    @Override
+    public ContactRecord next() throws IOException {
+        if (row == 0) {
+            readHeader();
+        }
+        do {
+            if (!readRow()) {
+                return null;
+            }
+        } while (fields.size() == 1 && fields.get(0).isEmpty());
+        row++;
+        if (fields.size() < requiredColumns) {
+            return ContactRecord.malformed(row, "Expected at least " + requiredColumns + " columns, found " + fields.size() + ".");
+        }
+        return ContactRecord.parsed(row, fields.get(nameColumn).trim(), fields.get(phoneColumn).trim(),
+                emailColumn < 0 ? null : fields.get(emailColumn).trim());
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    private void readHeader() throws IOException {
+        if (!readRow()) {
+            throw new IOException("CSV file is empty, a header row is required.");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            String column = fields.get(i).trim().replace("\uFEFF", "").toLowerCase(Locale.ROOT);
+            switch (column) {
+                case "name", "fullname", "full name" -> nameColumn = i;
+                case "phonenumber", "phone", "phone number", "tel" -> phoneColumn = i;
+                case "email", "e-mail" -> emailColumn = i;
+                default -> {
+                }
+            }
+        }
+        if (nameColumn < 0 || phoneColumn < 0) {
+            throw new IOException("CSV header must contain 'name' and 'phoneNumber' columns.");
+        }
+        requiredColumns = Math.max(nameColumn, Math.max(phoneColumn, emailColumn)) + 1;
+    }
+
+    /**
+     * Чтение одной строки CSV в {@link #fields}.
+     *
+     * @return {@code false}, если файл закончился до начала строки
+     */
+    private boolean readRow() throws IOException {
+        fields.clear();
+        field.setLength(0);
+        int c = read();
+        if (c == EOF) {
+            return false;
+        }
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == EOF) {
+                    throw new IOException("Unterminated quoted field in row " + (row + 1) + ".");
+                }
+                if (c == '"') {
+                    c = read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == EOF) {
+                break;
+            } else if (c == '\r') {
+                c = read();
+                if (c != '\n' && c != EOF) {
+                    position--;
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return true;
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return EOF;
+            }
+        }
+        return buffer[position++];
+    }
+}
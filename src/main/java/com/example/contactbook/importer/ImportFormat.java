@@ -0,0 +1,51 @@
+package com.example.contactbook.importer;
+
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Формат файла импорта контактов.
+ */
+public enum ImportFormat {
+
+    /** CSV с заголовком: {@code name}, {@code phoneNumber}, {@code email}. */
+    CSV,
+
+    /** vCard 2.1–4.0: свойства {@code FN} (или {@code N}), {@code TEL}, {@code EMAIL}. */
+    VCARD;
+
+    /**
+     * Создание потокового читателя записей этого формата.
+     *
+     * @param reader Источник символов
+     * @return Читатель записей
+     */
+    public ContactRecordReader open(Reader reader) {
+        return this == CSV ? new CsvContactReader(reader) : new VCardContactReader(reader);
+    }
+
+    /**
+     * Определение формата по параметру запроса или типу содержимого.
+     *
+     * @param format      Явно указанный формат ({@code csv} или {@code vcard}), может быть {@code null}
+     * @param contentType Тип содержимого запроса, может быть {@code null}
+     * @return Формат файла
+     * @throws IllegalArgumentException Если формат не поддерживается или не определен
+     */
+    public static ImportFormat resolve(String format, String contentType) {
+        if (format != null) {
+            return switch (format.toLowerCase(Locale.ROOT)) {
+                case "csv" -> CSV;
+                case "vcard", "vcf" -> VCARD;
+                default -> throw new IllegalArgumentException("Unsupported import format: " + format);
+            };
+        }
+        String mediaType = contentType == null ? "" : contentType.split(";", 2)[0].trim().toLowerCase(Locale.ROOT);
+        return switch (mediaType) {
+            case "text/csv" -> CSV;
+            case "text/vcard", "text/x-vcard", "text/directory" -> VCARD;
+            default -> throw new IllegalArgumentException(
+                    "Import format must be given by the 'format' parameter or a text/csv or text/vcard content type.");
+        };
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.contactbook.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.Locale;
+
+/**
+ * Потоковый разбор vCard: записи между {@code BEGIN:VCARD} и {@code END:VCARD}, свернутые строки
+ * (продолжение начинается с пробела или табуляции) склеиваются. Из записи берутся {@code FN}
+ * (или {@code N}, если {@code FN} нет), первый {@code TEL} и первый {@code EMAIL}; группы свойств
+ * ({@code item1.TEL}) и параметры ({@code TEL;TYPE=cell}) допускаются.
+ */
+class VCardContactReader implements ContactRecordReader {
+
+    private final BufferedReader reader;
+    private String pending;
+    private long row;
+
+    VCardContactReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader, 64 * 1024);
+    }
+
+    @Override
+    public ContactRecord next() throws IOException {
+        String line;
+        while ((line = readLine()) != null && !line.equalsIgnoreCase("BEGIN:VCARD")) {
+            if (!line.isBlank()) {
+                row++;
+                return ContactRecord.malformed(row, "Expected BEGIN:VCARD, found '" + abbreviate(line) + "'.");
+            }
+        }
+        if (line == null) {
+            return null;
+        }
+        row++;
+        String formattedName = null;
+        String structuredName = null;
+        String phoneNumber = null;
+        String email = null;
+        while ((line = readLine()) != null && !line.equalsIgnoreCase("END:VCARD")) {
+            int colon = line.indexOf(':');
+            if (colon < 0) {
+                continue;
+            }
+            String property = propertyName(line, colon);
+            String value = line.substring(colon + 1);
+            switch (property) {
+                case "FN" -> formattedName = formattedName == null ? unescape(value) : formattedName;
+                case "N" -> structuredName = structuredName == null ? structuredName(value) : structuredName;
+                case "TEL" -> phoneNumber = phoneNumber == null ? telephone(value) : phoneNumber;
+                case "EMAIL" -> email = email == null ? unescape(value) : email;
+                default -> {
+                }
+            }
+        }
+        if (line == null) {
+            return ContactRecord.malformed(row, "Unterminated vCard, END:VCARD is missing.");
+        }
+        String name = formattedName == null || formattedName.isBlank() ? structuredName : formattedName;
+        return ContactRecord.parsed(row, name == null ? null : name.trim(), phoneNumber, email);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * Чтение логической строки с разворачиванием продолжений.
+     */
+    private String readLine() throws IOException {
+        String line = pending != null ? pending : reader.readLine();
+        pending = null;
+        if (line == null) {
+            return null;
+        }
+        String next = reader.readLine();
+        if (next == null || next.isEmpty() || (next.charAt(0) != ' ' && next.charAt(0) != '\t')) {
+            pending = next;
+            return line.strip();
+        }
+        StringBuilder unfolded = new StringBuilder(line);
+        do {
+            unfolded.append(next, 1, next.length());
+            next = reader.readLine();
+        } while (next != null && !next.isEmpty() && (next.charAt(0) == ' ' || next.charAt(0) == '\t'));
+        pending = next;
+        return unfolded.toString().strip();
+    }
+
+    private static String propertyName(String line, int colon) {
+        int end = line.indexOf(';');
+        if (end < 0 || end > colon) {
+            end = colon;
+        }
+        int start = line.lastIndexOf('.', end) + 1;
+        return line.substring(start, end).toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * Имя из свойства {@code N}: {@code Фамилия;Имя;Отчество;Префикс;Суффикс}.
+     */
+    private static String structuredName(String value) {
+        String[] parts = value.split("(?<!\\\\);", -1);
+        StringBuilder name = new StringBuilder();
+        for (int i : new int[]{3, 1, 2, 0, 4}) {
+            if (i < parts.length && !parts[i].isBlank()) {
+                if (!name.isEmpty()) {
+                    name.append(' ');
+                }
+                name.append(unescape(parts[i].trim()));
+            }
+        }
+        return name.toString();
+    }
+
+    private static String telephone(String value) {
+        return value.regionMatches(true, 0, "tel:", 0, 4) ? value.substring(4) : unescape(value);
+    }
+
+    private static String unescape(String value) {
+        if (value.indexOf('\\') < 0) {
+            return value;
+        }
+        StringBuilder result = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '\\' && i + 1 < value.length()) {
+                char escaped = value.charAt(++i);
+                result.append(escaped == 'n' || escaped == 'N' ? '\n' : escaped);
+            } else {
+                result.append(c);
+            }
+        }
+        return result.toString();
+    }
+
+    private static String abbreviate(String line) {
+        return line.length() > 40 ? line.substring(0, 40) + "..." : line;
+    }
+}
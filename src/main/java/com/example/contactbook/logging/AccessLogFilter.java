@@ -0,0 +1,89 @@
+package com.example.contactbook.logging;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Журнал доступа: одна структурированная запись на запрос с методом, путем, шаблоном маршрута,
+ * идентификатором контакта, статусом и задержкой. Поля передаются как пары ключ-значение SLF4J.
+ * Для асинхронных запросов (экспорт) запись делается по завершении ответа.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@ConditionalOnProperty(name = "contact-book.access-log.enabled", havingValue = "true")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    static final String LOGGER_NAME = "access";
+
+    private static final Logger ACCESS_LOG = LoggerFactory.getLogger(LOGGER_NAME);
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) {
+                        log(request, response, start);
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            } else {
+                log(request, response, start);
+            }
+        }
+    }
+
+    private void log(HttpServletRequest request, HttpServletResponse response, long start) {
+        if (!ACCESS_LOG.isInfoEnabled()) {
+            return;
+        }
+        ACCESS_LOG.atInfo()
+                .addKeyValue("method", request.getMethod())
+                .addKeyValue("path", request.getRequestURI())
+                .addKeyValue("route", request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE))
+                .addKeyValue("id", pathVariable(request, "id"))
+                .addKeyValue("status", response.getStatus())
+                .addKeyValue("latencyUs", TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start))
+                .log("request");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String pathVariable(HttpServletRequest request, String name) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        return variables instanceof Map<?, ?> map ? ((Map<String, String>) map).get(name) : null;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.Level;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Счетчики событий журнала, отброшенных до записи.
+ * Заполняются {@link RingBufferAppender} и {@link SamplingTurboFilter}, которые создает Logback,
+ * а не Spring, поэтому счетчики статические; в Micrometer их выводит {@code LoggingMetricsConfig}.
+ */
+public final class LogDropCounters {
+
+    /** Уровни, для которых ведется учет. */
+    public static final List<Level> LEVELS = List.of(Level.TRACE, Level.DEBUG, Level.INFO, Level.WARN, Level.ERROR);
+
+    private static final LongAdder[] QUEUE_FULL = newCounters();
+    private static final LongAdder[] SAMPLED = newCounters();
+
+    private LogDropCounters() {
+    }
+
+    /** Событие не поместилось в буфер асинхронного appender'а. */
+    static void queueFull(Level level) {
+        QUEUE_FULL[index(level)].increment();
+    }
+
+    /** Событие отсеяно выборкой. */
+    static void sampled(Level level) {
+        SAMPLED[index(level)].increment();
+    }
+
+    public static long queueFullCount(Level level) {
+        return QUEUE_FULL[index(level)].sum();
+    }
+
+    public static long sampledCount(Level level) {
+        return SAMPLED[index(level)].sum();
+    }
+
+    private static int index(Level level) {
+        return switch (level.toInt()) {
+            case Level.TRACE_INT -> 0;
+            case Level.DEBUG_INT -> 1;
+            case Level.INFO_INT -> 2;
+            case Level.WARN_INT -> 3;
+            default -> 4;
+        };
+    }
+
+    private static LongAdder[] newCounters() {
+        LongAdder[] counters = new LongAdder[5];
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] = new LongAdder();
+        }
+        return counters;
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Неблокирующий асинхронный appender.
+ * События кладутся в кольцевой буфер фиксированного размера и пачками передаются вложенным appender'ам
+ * из отдельного потока. Если буфер заполнен, событие отбрасывается и учитывается в {@link LogDropCounters},
+ * поток запроса никогда не ждет вывода.
+ */
+public class RingBufferAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent> {
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private int maxFlushTime = 1000;
+
+    private BlockingQueue<ILoggingEvent> buffer;
+    private Thread worker;
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No attached appenders found for " + getName());
+            return;
+        }
+        if (capacity < 1 || batchSize < 1) {
+            addError("capacity and batchSize must be positive for " + getName());
+            return;
+        }
+        buffer = new ArrayBlockingQueue<>(capacity);
+        worker = new Thread(this::drain, "logback-ring-buffer-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        try {
+            worker.join(maxFlushTime);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Ring buffer of " + getName() + " not flushed in " + maxFlushTime + " ms, "
+                    + buffer.size() + " events lost");
+        }
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (!buffer.offer(event)) {
+            LogDropCounters.queueFull(event.getLevel());
+        }
+    }
+
+    private void drain() {
+        List<ILoggingEvent> batch = new ArrayList<>(batchSize);
+        while (isStarted() || !buffer.isEmpty()) {
+            try {
+                ILoggingEvent first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+            } catch (InterruptedException e) {
+                return;
+            }
+            buffer.drainTo(batch, batchSize - 1);
+            for (ILoggingEvent event : batch) {
+                appenders.appendLoopOnAppenders(event);
+            }
+            batch.clear();
+        }
+    }
+
+    /** Число событий, ожидающих вывода. */
+    public int getQueueSize() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setMaxFlushTime(int maxFlushTime) {
+        this.maxFlushTime = maxFlushTime;
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Выборочное журналирование: из сообщений заданного уровня от логгеров с заданным префиксом
+ * пропускается одно из {@code keepOneIn}, остальные отбрасываются до создания события.
+ * Префикс сравнивается по границе имени: {@code a.b.Service} выбирает {@code a.b.Service} и
+ * {@code a.b.Service$Inner}, но не {@code a.b.ServiceImport}.
+ * Сообщения других уровней и проверки {@code isXxxEnabled()} фильтр не затрагивает.
+ */
+public class SamplingTurboFilter extends TurboFilter {
+
+    private final AtomicLong counter = new AtomicLong();
+
+    private String loggerPrefix = "";
+    private Level level = Level.INFO;
+    private int keepOneIn = 100;
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format,
+                              Object[] params, Throwable t) {
+        if (!isStarted() || format == null || t != null || level != this.level
+                || !matches(logger.getName())
+                || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        if (counter.getAndIncrement() % keepOneIn == 0) {
+            return FilterReply.NEUTRAL;
+        }
+        LogDropCounters.sampled(level);
+        return FilterReply.DENY;
+    }
+
+    private boolean matches(String loggerName) {
+        if (!loggerName.startsWith(loggerPrefix)) {
+            return false;
+        }
+        if (loggerName.length() == loggerPrefix.length() || loggerPrefix.isEmpty() || loggerPrefix.endsWith(".")) {
+            return true;
+        }
+        char next = loggerName.charAt(loggerPrefix.length());
+        return next == '.' || next == '$';
+    }
+
+    @Override
+    public void start() {
+        if (keepOneIn < 1) {
+            addError("keepOneIn must be positive for filter " + getName());
+            return;
+        }
+        super.start();
+    }
+
+    public void setLoggerPrefix(String loggerPrefix) {
+        this.loggerPrefix = loggerPrefix;
+    }
+
+    public void setLevel(String level) {
+        this.level = Level.toLevel(level, Level.INFO);
+    }
+
+    public void setKeepOneIn(int keepOneIn) {
+        this.keepOneIn = keepOneIn;
+    }
+}
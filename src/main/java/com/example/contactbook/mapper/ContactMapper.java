@@ -0,0 +1,39 @@
+package com.example.contactbook.mapper;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.Contact;
+
+/**
+ * Преобразование между сущностью {@link Contact} и DTO контакта.
+ * <p>
+ * Реализация выбирается свойством {@code contact-book.mapper}: {@code direct} (по умолчанию)
+ * или {@code modelmapper}.
+ * </p>
+ */
+public interface ContactMapper {
+
+    /**
+     * Создание новой сущности из данных запроса.
+     *
+     * @param request Объект {@link ContactRequestDto}
+     * @return Новая сущность {@link Contact} без идентификатора
+     */
+    Contact toEntity(ContactRequestDto request);
+
+    /**
+     * Перенос данных запроса в существующую сущность.
+     *
+     * @param request Объект {@link ContactRequestDto}
+     * @param contact Сущность {@link Contact}, которая будет изменена
+     */
+    void updateEntity(ContactRequestDto request, Contact contact);
+
+    /**
+     * Преобразование сущности в DTO ответа.
+     *
+     * @param contact Сущность {@link Contact}
+     * @return Объект {@link ContactResponseDto}
+     */
+    ContactResponseDto toResponse(Contact contact);
+}
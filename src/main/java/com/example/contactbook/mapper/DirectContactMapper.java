@@ -0,0 +1,38 @@
+package com.example.contactbook.mapper;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.Contact;
+
+/**
+ * Реализация {@link ContactMapper} на прямых вызовах геттеров и сеттеров.
+ * Не использует рефлексию и создает только целевой объект.
+ */
+public class DirectContactMapper implements ContactMapper {
+
+    @Override
+    public Contact toEntity(ContactRequestDto request) {
+        Contact contact = new Contact();
+        updateEntity(request, contact);
+        return contact;
+    }
+
+    @Override
+    public void updateEntity(ContactRequestDto request, Contact contact) {
+        contact.setName(request.getName());
+        contact.setPhoneNumber(request.getPhoneNumber());
+        contact.setEmail(request.getEmail());
+    }
+
+    @Override
+    public ContactResponseDto toResponse(Contact contact) {
+        ContactResponseDto response = new ContactResponseDto();
+        response.setId(contact.getId());
+        response.setName(contact.getName());
+        response.setPhoneNumber(contact.getPhoneNumber());
+        response.setEmail(contact.getEmail());
+        response.setVersion(contact.getVersion());
+        response.setOwner(contact.getOwner());
+        return response;
+    }
+}
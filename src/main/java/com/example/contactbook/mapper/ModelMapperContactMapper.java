@@ -0,0 +1,32 @@
+package com.example.contactbook.mapper;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.Contact;
+import lombok.RequiredArgsConstructor;
+import org.modelmapper.ModelMapper;
+
+/**
+ * Реализация {@link ContactMapper} на основе {@link ModelMapper}.
+ * Оставлена для сравнения производительности и как запасной вариант.
+ */
+@RequiredArgsConstructor
+public class ModelMapperContactMapper implements ContactMapper {
+
+    private final ModelMapper modelMapper;
+
+    @Override
+    public Contact toEntity(ContactRequestDto request) {
+        return modelMapper.map(request, Contact.class);
+    }
+
+    @Override
+    public void updateEntity(ContactRequestDto request, Contact contact) {
+        modelMapper.map(request, contact);
+    }
+
+    @Override
+    public ContactResponseDto toResponse(Contact contact) {
+        return modelMapper.map(contact, ContactResponseDto.class);
+    }
+}
@@ -1,47 +1,121 @@
 package com.example.contactbook.model;
 
+import com.example.contactbook.tenancy.OwnerContext;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.TenantId;
 
 /**
  * Модель, представляющая контакт в базе данных.
  * Содержит информацию о контакте, включая имя, номер телефона и email.
+ * Каждый контакт принадлежит книге одного владельца.
  */
 @Entity
-@Table(name = "contacts")
+@Table(name = "contacts", indexes = {
+        @Index(name = "idx_contacts_owner_name_id", columnList = "owner, name, id"),
+        @Index(name = "idx_contacts_owner_id", columnList = "owner, id"),
+        @Index(name = "idx_contacts_phone_key", columnList = "phone_key")
+})
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
 public class Contact {
 
+    /**
+     * Последовательность идентификаторов контактов.
+     */
+    public static final String ID_SEQUENCE = "contacts_seq";
+
+    /**
+     * Размер блока идентификаторов, выдаваемого одним обращением к последовательности.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Сообщение о пустом имени.
+     */
+    public static final String BLANK_NAME_MESSAGE = "Name must not be blank";
+
+    /**
+     * Сообщение о пустом номере телефона.
+     */
+    public static final String BLANK_PHONE_MESSAGE = "Phone number must not be blank";
+
+    /**
+     * Сообщение о некорректном email.
+     */
+    public static final String INVALID_EMAIL_MESSAGE = "Invalid email format";
+
     /**
      * Уникальный идентификатор контакта.
+     * Выдается из последовательности блоками по 50 значений, что позволяет Hibernate
+     * отправлять вставки пакетами JDBC.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = ID_SEQUENCE)
+    @SequenceGenerator(name = ID_SEQUENCE, sequenceName = ID_SEQUENCE, allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
 
+    /**
+     * Владелец книги, к которой относится контакт, см. {@link OwnerContext}.
+     * Задается Hibernate при вставке; запросы видят только контакты текущего владельца.
+     */
+    @TenantId
+    @Column(nullable = false, length = OwnerContext.MAX_OWNER_LENGTH)
+    private String owner;
+
     /**
      * Имя контакта. Не может быть пустым.
      */
-    @NotBlank(message = "Name must not be blank")
+    @NotBlank(message = BLANK_NAME_MESSAGE)
     private String name;
 
     /**
      * Номер телефона контакта. Не может быть пустым.
      */
-    @NotBlank(message = "Phone number must not be blank")
+    @NotBlank(message = BLANK_PHONE_MESSAGE)
     private String phoneNumber;
 
     /**
      * Электронная почта контакта. Должна иметь корректный формат.
      */
-    @Email(message = "Invalid email format")
+    @Email(message = INVALID_EMAIL_MESSAGE)
     private String email;
+
+    /**
+     * Нормализованный ключ номера телефона, см. {@link PhoneNumbers#normalize(CharSequence)}.
+     * Вычисляется при каждой записи контакта; {@code null}, если номер невозможно нормализовать.
+     */
+    @Setter(AccessLevel.NONE)
+    @Column(name = "phone_key")
+    private Long phoneKey;
+
+    /**
+     * Версия контакта для оптимистичной блокировки.
+     * Увеличивается Hibernate при каждом обновлении строки и используется как ETag контакта.
+     */
+    @Version
+    private Long version;
+
+    public Contact(Long id, String name, String phoneNumber, String email) {
+        this.id = id;
+        this.name = name;
+        this.phoneNumber = phoneNumber;
+        this.email = email;
+    }
+
+    /**
+     * Пересчет ключа номера телефона перед вставкой или обновлением строки.
+     */
+    @PrePersist
+    @PreUpdate
+    void updatePhoneKey() {
+        long key = PhoneNumbers.normalize(phoneNumber);
+        phoneKey = key == PhoneNumbers.INVALID ? null : key;
+    }
 }
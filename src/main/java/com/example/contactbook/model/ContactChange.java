@@ -0,0 +1,60 @@
+package com.example.contactbook.model;
+
+import com.example.contactbook.tenancy.OwnerContext;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.TenantId;
+
+import java.time.Instant;
+
+/**
+ * Запись журнала изменений контактов.
+ * <p>
+ * Журнал только дополняется: каждая запись получает монотонно возрастающую ревизию и пишется
+ * в той же транзакции, что и изменение контакта. Старые записи удаляются при уплотнении журнала.
+ * </p>
+ */
+@Entity
+@Table(name = "contact_changes", indexes = {
+        @Index(name = "idx_contact_changes_changed_at", columnList = "changed_at"),
+        @Index(name = "idx_contact_changes_owner_revision", columnList = "owner, revision")
+})
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChange {
+
+    /**
+     * Ревизия изменения; задается журналом, а не базой данных.
+     */
+    @Id
+    private Long revision;
+
+    /**
+     * Идентификатор измененного контакта.
+     */
+    @Column(nullable = false)
+    private Long contactId;
+
+    /**
+     * Тип изменения.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 8)
+    private ContactChangeType type;
+
+    /**
+     * Время изменения.
+     */
+    @Column(name = "changed_at", nullable = false)
+    private Instant changedAt;
+
+    /**
+     * Владелец книги измененного контакта; журнал каждой книги читается отдельно.
+     */
+    @TenantId
+    @Column(nullable = false, length = OwnerContext.MAX_OWNER_LENGTH)
+    private String owner;
+}
@@ -0,0 +1,38 @@
+package com.example.contactbook.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+/**
+ * Идентификатор журнала изменений контактов, хранящийся вместе с журналом.
+ * <p>
+ * Единственная строка таблицы создается вместе с журналом. Пока база данных цела, идентификатор
+ * не меняется между запусками приложения, и выданные токены синхронизации остаются действительными.
+ * </p>
+ */
+@Entity
+@Table(name = "contact_change_log")
+@Getter
+@AllArgsConstructor
+@NoArgsConstructor
+public class ContactChangeLogId {
+
+    /**
+     * Ключ единственной строки.
+     */
+    public static final int SINGLETON_ID = 1;
+
+    @Id
+    private Integer id;
+
+    /**
+     * Идентификатор журнала в токенах синхронизации.
+     */
+    @Column(nullable = false, length = 16)
+    private String logId;
+}
@@ -0,0 +1,15 @@
+package com.example.contactbook.model;
+
+/**
+ * Тип изменения контакта в журнале изменений.
+ */
+public enum ContactChangeType {
+    /**
+     * Контакт создан или обновлен.
+     */
+    UPSERT,
+    /**
+     * Контакт удален.
+     */
+    DELETE
+}
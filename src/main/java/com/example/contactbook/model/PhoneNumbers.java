@@ -0,0 +1,67 @@
+package com.example.contactbook.model;
+
+/**
+ * Нормализация номеров телефонов в числовой ключ.
+ * <p>
+ * Из номера удаляется все, кроме цифр; международный префикс {@code 00} приравнивается к {@code +}.
+ * Ключ хранит количество цифр в старших 4 битах и значение номера в младших 60 битах,
+ * поэтому номера, отличающиеся только ведущими нулями, получают разные ключи.
+ * </p>
+ */
+public final class PhoneNumbers {
+
+    /**
+     * Признак номера, который невозможно нормализовать.
+     */
+    public static final long INVALID = -1L;
+
+    /**
+     * Максимальное количество цифр в номере (предел E.164).
+     */
+    public static final int MAX_DIGITS = 15;
+
+    /**
+     * Сообщение о номере телефона, который невозможно нормализовать.
+     */
+    public static final String INVALID_MESSAGE = "Phone number must contain from 1 to " + MAX_DIGITS + " digits";
+
+    private PhoneNumbers() {
+    }
+
+    /**
+     * Нормализация номера телефона без создания промежуточных объектов.
+     *
+     * @param phoneNumber Номер телефона в произвольном формате
+     * @return Числовой ключ номера или {@link #INVALID}, если номер пуст или длиннее {@link #MAX_DIGITS} цифр
+     */
+    public static long normalize(CharSequence phoneNumber) {
+        if (phoneNumber == null) {
+            return INVALID;
+        }
+        long value = 0;
+        int digits = 0;
+        int leadingZeros = 0;
+        boolean international = false;
+        for (int i = 0; i < phoneNumber.length(); i++) {
+            char c = phoneNumber.charAt(i);
+            if (c == '+' && digits == 0) {
+                international = true;
+            } else if (c >= '0' && c <= '9') {
+                if (!international && digits == leadingZeros && c == '0' && leadingZeros < 2) {
+                    leadingZeros++;
+                    if (leadingZeros == 2) {
+                        international = true;
+                        digits = 0;
+                        value = 0;
+                        continue;
+                    }
+                }
+                if (++digits > MAX_DIGITS) {
+                    return INVALID;
+                }
+                value = value * 10 + (c - '0');
+            }
+        }
+        return digits == 0 ? INVALID : ((long) digits << 60) | value;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.contactbook.reactive;
+
+import com.example.contactbook.model.Contact;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/**
+ * Строка таблицы контактов для чтения через R2DBC.
+ * <p>
+ * Схемой таблицы владеет сущность {@link Contact}; эта запись только читает ее столбцы
+ * и не сохраняется.
+ * </p>
+ *
+ * @param id          Идентификатор контакта
+ * @param owner       Владелец книги
+ * @param name        Имя
+ * @param phoneNumber Номер телефона
+ * @param email       Адрес электронной почты
+ * @param version     Версия контакта
+ */
+@Table("contacts")
+public record ContactRow(@Id Long id, String owner, String name, String phoneNumber, String email, Long version) {
+
+    /**
+     * Преобразование в сущность для {@link com.example.contactbook.mapper.ContactMapper}.
+     *
+     * @return Несохраняемая сущность {@link Contact} с данными строки
+     */
+    public Contact toContact() {
+        Contact contact = new Contact(id, name, phoneNumber, email);
+        contact.setOwner(owner);
+        contact.setVersion(version);
+        return contact;
+    }
+}
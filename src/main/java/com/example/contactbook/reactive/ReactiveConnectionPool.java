@@ -0,0 +1,35 @@
+package com.example.contactbook.reactive;
+
+import io.r2dbc.spi.ConnectionFactory;
+import org.springframework.beans.factory.DisposableBean;
+import reactor.core.Disposable;
+
+/**
+ * Пул соединений R2DBC реактивного API.
+ * <p>
+ * Пул не регистрируется бином {@link ConnectionFactory}: с таким бином Spring Boot не создает
+ * {@code DataSource}, на котором работают JPA, журнал изменений и остальные сервисы.
+ * </p>
+ */
+public class ReactiveConnectionPool implements DisposableBean {
+
+    private final ConnectionFactory connectionFactory;
+
+    public ReactiveConnectionPool(ConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    /**
+     * @return Фабрика соединений пула
+     */
+    public ConnectionFactory connectionFactory() {
+        return connectionFactory;
+    }
+
+    @Override
+    public void destroy() {
+        if (connectionFactory instanceof Disposable disposable) {
+            disposable.dispose();
+        }
+    }
+}
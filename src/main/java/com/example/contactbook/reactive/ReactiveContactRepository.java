@@ -0,0 +1,78 @@
+package com.example.contactbook.reactive;
+
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.r2dbc.repository.R2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Неблокирующее чтение контактов через R2DBC.
+ * <p>
+ * Фильтр Hibernate по владельцу здесь не действует, поэтому владелец передается в каждый запрос явно.
+ * Страницы выбираются теми же seek-запросами, что и в {@code ContactRepository}.
+ * </p>
+ */
+public interface ReactiveContactRepository extends R2dbcRepository<ContactRow, Long> {
+
+    /**
+     * Контакт владельца по идентификатору.
+     *
+     * @param id    Идентификатор контакта
+     * @param owner Владелец книги
+     * @return Контакт или пустой результат, если контакта нет в книге владельца
+     */
+    Mono<ContactRow> findByIdAndOwner(Long id, String owner);
+
+    /**
+     * Страница контактов владельца в порядке ID после заданного ID.
+     *
+     * @param owner Владелец книги
+     * @param id    ID последнего контакта предыдущей страницы или 0
+     * @param limit Максимальное количество контактов
+     * @return Контакты страницы
+     */
+    @Query("select * from contacts where owner = :owner and id > :id order by id limit :limit")
+    Flux<ContactRow> findIdPage(String owner, long id, int limit);
+
+    /**
+     * Первая страница контактов владельца в порядке имени.
+     *
+     * @param owner Владелец книги
+     * @param limit Максимальное количество контактов
+     * @return Контакты страницы
+     */
+    @Query("select * from contacts where owner = :owner order by name, id limit :limit")
+    Flux<ContactRow> findFirstNamePage(String owner, int limit);
+
+    /**
+     * Страница контактов владельца в порядке имени после заданного контакта.
+     *
+     * @param owner Владелец книги
+     * @param name  Имя последнего контакта предыдущей страницы
+     * @param id    ID последнего контакта предыдущей страницы
+     * @param limit Максимальное количество контактов
+     * @return Контакты страницы
+     */
+    @Query("select * from contacts where owner = :owner and (name > :name or (name = :name and id > :id)) "
+            + "order by name, id limit :limit")
+    Flux<ContactRow> findNameSeekPage(String owner, String name, long id, int limit);
+
+    /**
+     * Контакты владельца с заданным ключом номера телефона в порядке ID.
+     *
+     * @param owner    Владелец книги
+     * @param phoneKey Ключ номера, полученный из {@code PhoneNumbers.normalize}
+     * @param limit    Максимальное количество контактов
+     * @return Контакты с этим номером
+     */
+    @Query("select * from contacts where phone_key = :phoneKey and owner = :owner order by id limit :limit")
+    Flux<ContactRow> findByPhoneKey(String owner, long phoneKey, int limit);
+
+    /**
+     * Все контакты владельца в порядке ID; строки читаются по мере запроса подписчика.
+     *
+     * @param owner Владелец книги
+     * @return Контакты книги
+     */
+    Flux<ContactRow> findByOwnerOrderByIdAsc(String owner);
+}
@@ -0,0 +1,62 @@
+package com.example.contactbook.replica;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Источник соединений, направляющий транзакции только для чтения на реплику.
+ * <p>
+ * Физическое соединение берется при первом запросе к базе данных, когда признак
+ * {@code readOnly} транзакции уже установлен: соединения транзакций только для чтения берутся
+ * из пула реплики, остальные — из пула основной базы. Владелец, недавно менявший контакты
+ * ({@link ReplicaStickiness}), читает с основной базы.
+ * </p>
+ * <p>
+ * Соединение выбирается один раз на сессию Hibernate, поэтому сессия не должна переживать
+ * транзакцию: с {@code spring.jpa.open-in-view} запись после чтения в том же запросе ушла бы на реплику.
+ * </p>
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final DataSource primary;
+    private final DataSource replica;
+
+    /**
+     * @param primary    Пул основной базы
+     * @param replica    Пул реплики
+     * @param stickiness Закрепление владельцев за основной базой после изменений
+     */
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ReplicaStickiness stickiness) {
+        super(primary);
+        this.primary = primary;
+        this.replica = replica;
+        setReadOnlyDataSource(new AbstractDataSource() {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return (stickiness.isSticky() ? primary : replica).getConnection();
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return (stickiness.isSticky() ? primary : replica).getConnection(username, password);
+            }
+        });
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        } finally {
+            if (primary instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.contactbook.replica;
+
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+
+/**
+ * Чтение своих записей при чтении с реплики.
+ * <p>
+ * После изменения контакта владелец в течение {@code contact-book.replica.sticky-window} читает
+ * с основной базы, пока реплика догоняет ее; остальные владельцы продолжают читать с реплики.
+ * Контакт видит только его владелец, поэтому в {@code ContactCache} в это время тоже попадают
+ * данные основной базы. Нулевое окно отключает закрепление.
+ * </p>
+ */
+@Component
+@ConditionalOnProperty(name = "contact-book.replica.enabled", havingValue = "true")
+public class ReplicaStickiness {
+
+    private static final long MAXIMUM_WRITERS = 100_000;
+
+    private final Cache<String, Boolean> recentWriters;
+
+    @Autowired
+    public ReplicaStickiness(@Value("${contact-book.replica.sticky-window:5s}") Duration window) {
+        this(window, Ticker.systemTicker());
+    }
+
+    ReplicaStickiness(Duration window, Ticker ticker) {
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("contact-book.replica.sticky-window must not be negative.");
+        }
+        this.recentWriters = window.isZero() ? null : Caffeine.newBuilder()
+                .maximumSize(MAXIMUM_WRITERS)
+                .expireAfterWrite(window)
+                .ticker(ticker)
+                .executor(Runnable::run)
+                .build();
+    }
+
+    /**
+     * Закрепление текущего владельца за основной базой после фиксации изменения.
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        if (recentWriters != null && !OwnerContext.isAllOwners()) {
+            recentWriters.put(OwnerContext.current(), Boolean.TRUE);
+        }
+    }
+
+    /**
+     * Признак того, что текущий владелец должен читать с основной базы.
+     *
+     * @return {@code true}, если владелец менял контакты в течение окна закрепления
+     */
+    public boolean isSticky() {
+        return recentWriters != null && recentWriters.getIfPresent(OwnerContext.current()) != null;
+    }
+}
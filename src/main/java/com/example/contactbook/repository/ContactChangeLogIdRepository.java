@@ -0,0 +1,7 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.ContactChangeLogId;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface ContactChangeLogIdRepository extends JpaRepository<ContactChangeLogId, Integer> {
+}
@@ -0,0 +1,62 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.ContactChange;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface ContactChangeRepository extends JpaRepository<ContactChange, Long>, ContactChangeRepositoryCustom {
+
+    /**
+     * Записи журнала в диапазоне ревизий {@code (since, upTo]} по возрастанию ревизии.
+     *
+     * @param since Ревизия, после которой начинается выборка
+     * @param upTo  Последняя включаемая ревизия
+     * @param limit Максимальное количество записей
+     * @return Записи журнала
+     */
+    List<ContactChange> findByRevisionGreaterThanAndRevisionLessThanEqualOrderByRevisionAsc(long since, long upTo, Limit limit);
+
+    /**
+     * Наибольшая ревизия в журнале.
+     *
+     * @return Ревизия или {@code null}, если журнал пуст
+     */
+    @Query("select max(c.revision) from ContactChange c")
+    Long findMaxRevision();
+
+    /**
+     * Наименьшая ревизия в журнале.
+     *
+     * @return Ревизия или {@code null}, если журнал пуст
+     */
+    @Query("select min(c.revision) from ContactChange c")
+    Long findMinRevision();
+
+    /**
+     * Наибольшая ревизия среди записей, подлежащих уплотнению.
+     *
+     * @param cutoff Записи старше этого момента удаляются
+     * @param upTo   Последняя ревизия, которую разрешено удалить
+     * @return Ревизия или {@code null}, если удалять нечего
+     */
+    @Query("select max(c.revision) from ContactChange c where c.changedAt < :cutoff and c.revision <= :upTo")
+    Long findMaxRevisionBefore(@Param("cutoff") Instant cutoff, @Param("upTo") long upTo);
+
+    /**
+     * Удаление записей журнала до указанной ревизии включительно в отдельной транзакции.
+     *
+     * @param revision Последняя удаляемая ревизия
+     * @return Количество удаленных записей
+     */
+    @Modifying
+    @Transactional
+    @Query("delete from ContactChange c where c.revision <= :revision")
+    int deleteUpToRevision(@Param("revision") long revision);
+}
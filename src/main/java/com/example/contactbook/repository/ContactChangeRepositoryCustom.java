@@ -0,0 +1,18 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.ContactChange;
+
+import java.util.List;
+
+/**
+ * Операции {@link ContactChangeRepository}, реализованные напрямую через JDBC.
+ */
+public interface ContactChangeRepositoryCustom {
+
+    /**
+     * Вставка записей журнала одним пакетом JDBC в текущей транзакции, минуя контекст персистентности.
+     *
+     * @param changes Записи журнала с уже назначенными ревизиями
+     */
+    void insertAll(List<ContactChange> changes);
+}
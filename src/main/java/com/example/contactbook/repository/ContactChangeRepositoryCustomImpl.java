@@ -0,0 +1,35 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.ContactChange;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+
+/**
+ * Реализация {@link ContactChangeRepositoryCustom}.
+ */
+@RequiredArgsConstructor
+class ContactChangeRepositoryCustomImpl implements ContactChangeRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "insert into contact_changes (revision, contact_id, type, changed_at, owner) values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertAll(List<ContactChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(INSERT_SQL, changes, changes.size(), (statement, change) -> {
+            statement.setLong(1, change.getRevision());
+            statement.setLong(2, change.getContactId());
+            statement.setString(3, change.getType().name());
+            statement.setObject(4, OffsetDateTime.ofInstant(change.getChangedAt(), ZoneOffset.UTC));
+            statement.setString(5, change.getOwner());
+        });
+    }
+}
@@ -0,0 +1,81 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Поля контакта, которые клиент может запросить параметром {@code fields}.
+ * <p>
+ * Каждое поле соответствует свойству {@link ContactResponseDto} и столбцу таблицы {@code contacts},
+ * поэтому выборка читает только запрошенные столбцы.
+ * </p>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ContactField {
+    ID("id", "id", ContactResponseDto::getId),
+    NAME("name", "name", ContactResponseDto::getName),
+    PHONE_NUMBER("phoneNumber", "phone_number", ContactResponseDto::getPhoneNumber),
+    EMAIL("email", "email", ContactResponseDto::getEmail),
+    VERSION("version", "version", ContactResponseDto::getVersion);
+
+    /**
+     * Имя свойства в ответе.
+     */
+    private final String property;
+
+    /**
+     * Имя столбца в таблице {@code contacts}.
+     */
+    private final String column;
+
+    @Getter(AccessLevel.NONE)
+    private final Function<ContactResponseDto, Object> accessor;
+
+    /**
+     * Значение поля контакта.
+     *
+     * @param contact Контакт
+     * @return Значение свойства
+     */
+    public Object read(ContactResponseDto contact) {
+        return accessor.apply(contact);
+    }
+
+    /**
+     * Разбор списка полей из параметра запроса.
+     *
+     * @param value Имена свойств через запятую, например {@code id,name}
+     * @return Набор полей в порядке свойств ответа
+     * @throws IllegalArgumentException Если список пуст или содержит неизвестное поле
+     */
+    public static Set<ContactField> fromParameter(String value) {
+        Set<ContactField> fields = EnumSet.noneOf(ContactField.class);
+        if (value != null) {
+            for (String name : value.split(",")) {
+                if (!name.isBlank()) {
+                    fields.add(fromProperty(name.trim()));
+                }
+            }
+        }
+        if (fields.isEmpty()) {
+            throw new IllegalArgumentException("Parameter 'fields' must list at least one field.");
+        }
+        return fields;
+    }
+
+    private static ContactField fromProperty(String name) {
+        for (ContactField field : values()) {
+            if (field.property.equals(name)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unsupported field: " + name);
+    }
+}
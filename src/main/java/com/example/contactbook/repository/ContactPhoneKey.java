@@ -0,0 +1,11 @@
+package com.example.contactbook.repository;
+
+/**
+ * Ключ номера телефона контакта для построения индекса номеров.
+ *
+ * @param id       Идентификатор контакта
+ * @param phoneKey Нормализованный ключ номера телефона
+ * @param owner    Владелец книги контакта
+ */
+public record ContactPhoneKey(Long id, Long phoneKey, String owner) {
+}
@@ -1,7 +1,89 @@
 package com.example.contactbook.repository;
 
 import com.example.contactbook.model.Contact;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
-public interface ContactRepository extends JpaRepository<Contact, Long> {
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.HibernateHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.HibernateHints.HINT_READ_ONLY;
+
+public interface ContactRepository extends JpaRepository<Contact, Long>, ContactRepositoryCustom {
+
+    /**
+     * Размер порции JDBC при потоковом экспорте.
+     */
+    int EXPORT_FETCH_SIZE = 500;
+
+    /**
+     * Страница контактов, упорядоченных по ID, начиная после указанного ID (keyset-пагинация).
+     *
+     * @param id    ID последнего контакта предыдущей страницы
+     * @param limit Максимальное количество записей
+     * @return Контакты с ID больше указанного
+     */
+    List<Contact> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+
+    /**
+     * Первая страница контактов, упорядоченных по имени и ID.
+     *
+     * @param limit Максимальное количество записей
+     * @return Контакты в порядке (name, id)
+     */
+    List<Contact> findAllByOrderByNameAscIdAsc(Limit limit);
+
+    /**
+     * Следующая страница контактов, упорядоченных по имени и ID, начиная после пары (name, id).
+     *
+     * @param name  Имя последнего контакта предыдущей страницы
+     * @param id    ID последнего контакта предыдущей страницы
+     * @param limit Максимальное количество записей
+     * @return Контакты, следующие за указанной парой (name, id)
+     */
+    @Query("select c from Contact c where c.name > :name or (c.name = :name and c.id > :id) order by c.name asc, c.id asc")
+    List<Contact> findNameSeekPage(@Param("name") String name, @Param("id") Long id, Limit limit);
+
+    /**
+     * Текущая версия контакта без загрузки сущности.
+     *
+     * @param id Идентификатор контакта
+     * @return Версия контакта или пустой результат, если контакта нет
+     */
+    @Query("select c.version from Contact c where c.id = :id")
+    Optional<Long> findVersionById(@Param("id") Long id);
+
+    /**
+     * Потоковое чтение всех контактов в порядке ID для экспорта.
+     * <p>
+     * Строки читаются из курсора JDBC порциями по {@value #EXPORT_FETCH_SIZE}, сущности загружаются
+     * в режиме только для чтения. Поток должен потребляться внутри транзакции и быть закрыт.
+     * </p>
+     *
+     * @return Поток всех контактов
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    Stream<Contact> streamAllByOrderByIdAsc();
+
+    /**
+     * Потоковое чтение ключей номеров телефонов всех контактов без загрузки сущностей.
+     * Поток должен потребляться внутри транзакции и быть закрыт.
+     *
+     * @return Поток пар (ID, ключ номера)
+     */
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READ_ONLY, value = "true")
+    })
+    @Query("select new com.example.contactbook.repository.ContactPhoneKey(c.id, c.phoneKey, c.owner) from Contact c where c.phoneKey is not null")
+    Stream<ContactPhoneKey> streamPhoneKeys();
 }
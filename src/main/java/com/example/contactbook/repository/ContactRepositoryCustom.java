@@ -0,0 +1,104 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.Contact;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Операции {@link ContactRepository}, реализованные напрямую через JDBC.
+ */
+public interface ContactRepositoryCustom {
+
+    /**
+     * Вставка новых контактов одним пакетом JDBC в текущей транзакции, минуя контекст персистентности.
+     * Контактам присваиваются идентификаторы из той же последовательности, что использует Hibernate,
+     * начальная версия и текущий владелец; сущности остаются отсоединенными.
+     *
+     * @param contacts Новые контакты без идентификаторов
+     */
+    void insertAll(List<Contact> contacts);
+
+    /**
+     * Вставка контактов с уже заданными идентификаторами, версиями и владельцами одним пакетом JDBC
+     * в текущей транзакции, например при восстановлении из снимка.
+     *
+     * @param contacts Контакты с идентификаторами, версиями и владельцами
+     */
+    void restoreAll(List<Contact> contacts);
+
+    /**
+     * Перезапуск последовательности идентификаторов так, чтобы следующий выданный блок
+     * начинался сразу после указанного идентификатора.
+     *
+     * @param lastId Наибольший занятый идентификатор
+     */
+    void restartIdSequenceAfter(long lastId);
+
+    /**
+     * Замена всех полей контакта одним запросом без загрузки сущности; ключ номера телефона
+     * пересчитывается, версия увеличивается на 1.
+     *
+     * @param id          Идентификатор контакта
+     * @param name        Имя
+     * @param phoneNumber Номер телефона
+     * @param email       Email
+     * @param version     Ожидаемая версия или {@code null}, если версия не проверяется
+     * @return Количество обновленных строк: 0, если у текущего владельца нет контакта или его версия другая
+     */
+    int updateContact(long id, String name, String phoneNumber, String email, Long version);
+
+    /**
+     * Замена только переданных полей контакта одним запросом без загрузки сущности; поля со значением
+     * {@code null} не меняются, версия увеличивается на 1.
+     *
+     * @param id          Идентификатор контакта
+     * @param name        Имя или {@code null}
+     * @param phoneNumber Номер телефона или {@code null}
+     * @param email       Email или {@code null}
+     * @param version     Ожидаемая версия или {@code null}, если версия не проверяется
+     * @return Количество обновленных строк: 0, если у текущего владельца нет контакта или его версия другая
+     */
+    int patchContact(long id, String name, String phoneNumber, String email, Long version);
+
+    /**
+     * Удаление контакта одним запросом без загрузки сущности.
+     *
+     * @param id Идентификатор контакта
+     * @return Количество удаленных строк: 0, если у текущего владельца нет контакта
+     */
+    int deleteContact(long id);
+
+    /**
+     * Страница контактов в порядке ID после указанного ID, только с выбранными столбцами.
+     * Сущности не создаются и не попадают в контекст персистентности.
+     *
+     * @param fields Поля
+     * @param id     ID последнего контакта предыдущей страницы
+     * @param limit  Максимальное количество записей
+     * @return Строки: свойство контакта — значение, в порядке {@link ContactField}
+     */
+    List<Map<String, Object>> findFieldsByIdGreaterThan(Set<ContactField> fields, long id, int limit);
+
+    /**
+     * Страница контактов в порядке (name, id) после пары (name, id), только с выбранными столбцами.
+     *
+     * @param fields Поля
+     * @param name   Имя последнего контакта предыдущей страницы или {@code null} для первой страницы
+     * @param id     ID последнего контакта предыдущей страницы
+     * @param limit  Максимальное количество записей
+     * @return Строки: свойство контакта — значение, в порядке {@link ContactField}
+     */
+    List<Map<String, Object>> findFieldsNameSeekPage(Set<ContactField> fields, String name, long id, int limit);
+
+    /**
+     * Выбранные столбцы контакта.
+     *
+     * @param fields Поля
+     * @param id     Идентификатор контакта
+     * @return Строка контакта или пустой результат, если у текущего владельца нет контакта
+     */
+    Optional<Map<String, Object>> findFieldsById(Set<ContactField> fields, long id);
+}
@@ -0,0 +1,220 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.tenancy.OwnerContext;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Реализация {@link ContactRepositoryCustom}.
+ * <p>
+ * Идентификаторы выдаются блоками {@link Contact#ID_ALLOCATION_SIZE}: значение {@code V} последовательности
+ * резервирует диапазон {@code [V - size + 1, V]}, так же как оптимизатор {@code pooled} Hibernate,
+ * поэтому вставки через JDBC и через {@link jakarta.persistence.EntityManager} не пересекаются.
+ * </p>
+ * <p>
+ * Запросы выполняются мимо Hibernate, поэтому владелец книги ({@link OwnerContext}) подставляется явно:
+ * новые контакты получают текущего владельца, а изменения и выборки полей затрагивают только его контакты.
+ * </p>
+ */
+class ContactRepositoryCustomImpl implements ContactRepositoryCustom {
+
+    private static final String INSERT_SQL =
+            "insert into contacts (id, name, phone_number, email, phone_key, version, owner) values (?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_SQL =
+            "update contacts set name = ?, phone_number = ?, email = ?, phone_key = ?, version = version + 1 where id = ? and owner = ?";
+
+    private static final String PATCH_SQL = "update contacts set name = coalesce(?, name), "
+            + "phone_number = coalesce(?, phone_number), email = coalesce(?, email), phone_key = %s, "
+            + "version = version + 1 where id = ? and owner = ?";
+
+    /**
+     * Замена номера: ключ записывается всегда, в том числе {@code null} для номера, который не нормализуется.
+     */
+    private static final String PATCH_PHONE_SQL = PATCH_SQL.formatted("?");
+
+    /**
+     * Номер не меняется: вместо ключа передается {@code null}, и столбец сохраняет прежнее значение.
+     */
+    private static final String PATCH_KEEP_PHONE_SQL = PATCH_SQL.formatted("coalesce(?, phone_key)");
+
+    private static final String VERSION_CONDITION = " and version = ?";
+
+    private static final String DELETE_SQL = "delete from contacts where id = ? and owner = ?";
+
+    private static final String OWNER_CONDITION = "owner = ?";
+
+    private static final String FETCH_FIRST = " fetch first ? rows only";
+
+    private static final long INITIAL_VERSION = 0L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String nextIdBlockSql;
+
+    ContactRepositoryCustomImpl(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.nextIdBlockSql = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices().getDialect().getSequenceSupport().getSequenceNextValString(Contact.ID_SEQUENCE);
+    }
+
+    @Override
+    public void insertAll(List<Contact> contacts) {
+        if (contacts.isEmpty()) {
+            return;
+        }
+        String owner = OwnerContext.requireOwner();
+        assignIds(contacts);
+        for (Contact contact : contacts) {
+            contact.setOwner(owner);
+        }
+        batchInsert(contacts);
+    }
+
+    @Override
+    public void restoreAll(List<Contact> contacts) {
+        if (!contacts.isEmpty()) {
+            batchInsert(contacts);
+        }
+    }
+
+    @Override
+    public void restartIdSequenceAfter(long lastId) {
+        jdbcTemplate.execute("alter sequence " + Contact.ID_SEQUENCE + " restart with " + (lastId + Contact.ID_ALLOCATION_SIZE));
+    }
+
+    @Override
+    public int updateContact(long id, String name, String phoneNumber, String email, Long version) {
+        return update(UPDATE_SQL, id, name, phoneNumber, email, phoneKey(phoneNumber), version);
+    }
+
+    @Override
+    public int patchContact(long id, String name, String phoneNumber, String email, Long version) {
+        return phoneNumber == null
+                ? update(PATCH_KEEP_PHONE_SQL, id, name, null, email, null, version)
+                : update(PATCH_PHONE_SQL, id, name, phoneNumber, email, phoneKey(phoneNumber), version);
+    }
+
+    @Override
+    public int deleteContact(long id) {
+        return jdbcTemplate.update(DELETE_SQL, id, OwnerContext.requireOwner());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsByIdGreaterThan(Set<ContactField> fields, long id, int limit) {
+        List<Object> args = new ArrayList<>(List.of(id));
+        String sql = select(fields) + where("id > ?", args) + " order by id" + FETCH_FIRST;
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> row(rs, fields), args.toArray());
+    }
+
+    @Override
+    public List<Map<String, Object>> findFieldsNameSeekPage(Set<ContactField> fields, String name, long id, int limit) {
+        List<Object> args = new ArrayList<>();
+        String condition = null;
+        if (name != null) {
+            condition = "(name > ? or (name = ? and id > ?))";
+            args.addAll(List.of(name, name, id));
+        }
+        String sql = select(fields) + where(condition, args) + " order by name, id" + FETCH_FIRST;
+        args.add(limit);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> row(rs, fields), args.toArray());
+    }
+
+    @Override
+    public Optional<Map<String, Object>> findFieldsById(Set<ContactField> fields, long id) {
+        List<Object> args = new ArrayList<>(List.of(id));
+        String sql = select(fields) + where("id = ?", args);
+        return jdbcTemplate.query(sql, (rs, rowNum) -> row(rs, fields), args.toArray()).stream().findFirst();
+    }
+
+    private static String select(Set<ContactField> fields) {
+        return fields.stream().map(ContactField::getColumn).collect(Collectors.joining(", ", "select ", " from contacts"));
+    }
+
+    /**
+     * Условие выборки вместе с условием на владельца книги; потоку, которому видны все книги,
+     * условие на владельца не нужно.
+     *
+     * @param condition Условие или {@code null}
+     * @param args      Параметры запроса, к которым добавляется владелец
+     */
+    private static String where(String condition, List<Object> args) {
+        if (!OwnerContext.isAllOwners()) {
+            args.add(OwnerContext.current());
+            condition = condition == null ? OWNER_CONDITION : condition + " and " + OWNER_CONDITION;
+        }
+        return condition == null ? "" : " where " + condition;
+    }
+
+    private static Map<String, Object> row(ResultSet rs, Set<ContactField> fields) throws SQLException {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (ContactField field : fields) {
+            Object value = switch (field) {
+                case ID, VERSION -> rs.getLong(field.getColumn());
+                default -> rs.getString(field.getColumn());
+            };
+            row.put(field.getProperty(), value);
+        }
+        return row;
+    }
+
+    private int update(String sql, long id, String name, String phoneNumber, String email, Long phoneKey, Long version) {
+        String owner = OwnerContext.requireOwner();
+        return version == null
+                ? jdbcTemplate.update(sql, name, phoneNumber, email, phoneKey, id, owner)
+                : jdbcTemplate.update(sql + VERSION_CONDITION, name, phoneNumber, email, phoneKey, id, owner, version);
+    }
+
+    private static Long phoneKey(String phoneNumber) {
+        long key = PhoneNumbers.normalize(phoneNumber);
+        return key == PhoneNumbers.INVALID ? null : key;
+    }
+
+    private void batchInsert(List<Contact> contacts) {
+        jdbcTemplate.batchUpdate(INSERT_SQL, contacts, contacts.size(), (statement, contact) -> {
+            long phoneKey = PhoneNumbers.normalize(contact.getPhoneNumber());
+            statement.setLong(1, contact.getId());
+            statement.setString(2, contact.getName());
+            statement.setString(3, contact.getPhoneNumber());
+            statement.setString(4, contact.getEmail());
+            if (phoneKey == PhoneNumbers.INVALID) {
+                statement.setNull(5, Types.BIGINT);
+            } else {
+                statement.setLong(5, phoneKey);
+            }
+            statement.setLong(6, contact.getVersion());
+            statement.setString(7, contact.getOwner());
+        });
+    }
+
+    private void assignIds(List<Contact> contacts) {
+        long next = 0;
+        long blockEnd = -1;
+        for (Contact contact : contacts) {
+            if (next > blockEnd) {
+                Long value = jdbcTemplate.queryForObject(nextIdBlockSql, Long.class);
+                if (value == null) {
+                    throw new IllegalStateException("Sequence " + Contact.ID_SEQUENCE + " returned no value.");
+                }
+                blockEnd = value;
+                next = Math.max(1, value - Contact.ID_ALLOCATION_SIZE + 1);
+            }
+            contact.setId(next++);
+            contact.setVersion(INITIAL_VERSION);
+        }
+    }
+}
@@ -0,0 +1,462 @@
+package com.example.contactbook.search;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.mapper.ContactMapper;
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.sharding.ShardDirectory;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Поисковый индекс контактов в памяти по имени, email и номеру телефона.
+ * <p>
+ * Каждое поле разбивается на слова, слово дополняется двумя маркерами начала и раскладывается
+ * на триграммы. Благодаря маркерам короткий запрос работает как поиск по префиксу, а длинный —
+ * как нечеткий поиск, устойчивый к опечаткам: документ подходит, если содержит не менее
+ * {@link #MIN_SIMILARITY} триграмм запроса. Кандидаты выбираются только из самых редких
+ * триграмм запроса (prefix filtering), поэтому частые триграммы не приводят к перебору всей книги.
+ * </p>
+ * <p>
+ * Индекс строится при старте приложения и обновляется по событиям {@link ContactChangedEvent}.
+ * Удаленные записи в списках вхождений не вычищаются сразу, а отбрасываются при проверке
+ * кандидата; когда таких записей становится больше, чем живых, списки перестраиваются.
+ * </p>
+ * <p>
+ * Индекс общий для книг всех владельцев: вхождения контактов других владельцев пропускаются при
+ * просмотре списков и не расходуют бюджет запроса. При шардировании индекс строится по всем шардам.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ContactSearchIndex {
+
+    /**
+     * Минимальная доля триграмм запроса, которые должен содержать найденный контакт.
+     */
+    static final double MIN_SIMILARITY = 0.4;
+
+    /**
+     * Максимальное количество просматриваемых вхождений контактов владельца в списках на один запрос.
+     */
+    static final int MAX_SCANNED_POSTINGS = 200_000;
+
+    /**
+     * Максимальное количество кандидатов, проверяемых по триграммам документа, на один запрос.
+     * Вместе с {@link #MAX_SCANNED_POSTINGS} ограничивает задержку очень широких запросов
+     * (один-два символа), результат которых в этом случае приблизителен.
+     */
+    static final int MAX_VERIFIED_CANDIDATES = 20_000;
+
+    private static final char WORD_START = '\u0001';
+
+    /**
+     * Максимальное количество хранимых состояний отбора кандидатов. Поиск выполняется на процессоре,
+     * поэтому одновременно ему нужно примерно столько состояний, сколько ядер; при виртуальных потоках
+     * состояние, привязанное к потоку, создавалось бы заново на каждый запрос.
+     */
+    private static final int MAX_POOLED_SCAN_STATES = Math.max(4, Runtime.getRuntime().availableProcessors() * 2);
+
+    private final ContactRepository contactRepository;
+    private final ContactMapper mapper;
+    private final EntityManager entityManager;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardDirectory shardDirectory;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final BlockingQueue<ScanState> scanStates = new ArrayBlockingQueue<>(MAX_POOLED_SCAN_STATES);
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final IntList freeOrdinals = new IntList();
+    private Document[] documents = new Document[1024];
+    private int nextOrdinal;
+    private int staleEntries;
+    private int liveEntries;
+    private Set<Long> changedDuringRebuild;
+
+    public ContactSearchIndex(ContactRepository contactRepository, ContactMapper mapper,
+                              EntityManager entityManager, PlatformTransactionManager transactionManager,
+                              ShardDirectory shardDirectory) {
+        this.contactRepository = contactRepository;
+        this.mapper = mapper;
+        this.entityManager = entityManager;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardDirectory = shardDirectory;
+    }
+
+    /**
+     * Построение индекса по всем контактам из базы данных.
+     * Изменения, пришедшие во время построения, имеют приоритет над прочитанными строками.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building contact search index");
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        long[] indexed = new long[1];
+        shardDirectory.forEachShard(shard -> indexed[0] += readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<Contact> contacts = contactRepository.streamAllByOrderByIdAsc()) {
+                for (Contact contact : (Iterable<Contact>) contacts::iterator) {
+                    ContactResponseDto response = mapper.toResponse(contact);
+                    entityManager.detach(contact);
+                    lock.writeLock().lock();
+                    try {
+                        if (!changedDuringRebuild.contains(response.getId())) {
+                            put(response);
+                        }
+                    } finally {
+                        lock.writeLock().unlock();
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }));
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Contact search index built: {} contacts", indexed[0]);
+    }
+
+    /**
+     * Обновление индекса после изменения контакта.
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.id());
+            }
+            if (event.isDeleted()) {
+                remove(event.id());
+            } else {
+                put(event.contact());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Поиск контактов владельца, упорядоченных по релевантности.
+     *
+     * @param owner Владелец книги
+     * @param query Строка запроса
+     * @param limit Максимальное количество результатов
+     * @return Найденные контакты, наиболее релевантные первыми
+     */
+    public List<ContactResponseDto> search(String owner, String query, int limit) {
+        long[] queryGrams = grams(tokenize(query));
+        if (queryGrams.length == 0) {
+            return List.of();
+        }
+        int minShared = Math.max(1, (int) Math.ceil(queryGrams.length * MIN_SIMILARITY));
+        String normalizedQuery = normalize(query);
+
+        ScanState scan = scanStates.poll();
+        if (scan == null) {
+            scan = new ScanState();
+        }
+        lock.readLock().lock();
+        try {
+            long[] bySelectivity = Arrays.stream(queryGrams)
+                    .boxed()
+                    .sorted(Comparator.comparingInt(gram -> postingSize(gram)))
+                    .mapToLong(Long::longValue)
+                    .toArray();
+            // Обязательно просматриваются самые редкие списки: любой подходящий документ есть хотя бы в одном из них.
+            // Остальные списки просматриваются, пока позволяет бюджет: просмотр дешев, а точные счетчики
+            // совпадений позволяют не проверять кандидатов, которые не наберут minShared.
+            scan.reset(nextOrdinal);
+            int mandatory = queryGrams.length - minShared + 1;
+            int scanned = 0;
+            int scannedEntries = 0;
+            while (scanned < queryGrams.length && scannedEntries < MAX_SCANNED_POSTINGS) {
+                int size = postingSize(bySelectivity[scanned]);
+                if (scanned >= mandatory && scannedEntries + size > MAX_SCANNED_POSTINGS) {
+                    break;
+                }
+                IntList posting = postings.get(bySelectivity[scanned]);
+                int j = 0;
+                for (; j < size && scannedEntries < MAX_SCANNED_POSTINGS; j++) {
+                    int ordinal = posting.values[j];
+                    Document document = documents[ordinal];
+                    if (document != null && owner.equals(document.contact.getOwner())) {
+                        scan.count(ordinal);
+                        scannedEntries++;
+                    }
+                }
+                if (j < size) {
+                    break;
+                }
+                scanned++;
+            }
+            int notScanned = queryGrams.length - scanned;
+
+            PriorityQueue<Hit> top = new PriorityQueue<>(Comparator.comparingDouble(Hit::score));
+            int verified = 0;
+            for (int c = 0; c < scan.candidates.size && verified < MAX_VERIFIED_CANDIDATES; c++) {
+                int ordinal = scan.candidates.values[c];
+                if (scan.counts[ordinal] + notScanned < minShared) {
+                    continue;
+                }
+                Document document = documents[ordinal];
+                verified++;
+                int shared = 0;
+                for (long gram : queryGrams) {
+                    if (Arrays.binarySearch(document.grams, gram) >= 0) {
+                        shared++;
+                    }
+                }
+                if (shared < minShared) {
+                    continue;
+                }
+                double score = (double) shared / queryGrams.length
+                        + 0.1 * shared / document.grams.length
+                        + (document.startsWith(normalizedQuery) ? 0.5 : 0);
+                if (top.size() < limit) {
+                    top.add(new Hit(document.contact, score));
+                } else if (score > top.peek().score()) {
+                    top.poll();
+                    top.add(new Hit(document.contact, score));
+                }
+            }
+
+            List<ContactResponseDto> results = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                results.add(top.poll().contact());
+            }
+            Collections.reverse(results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+            scanStates.offer(scan);
+        }
+    }
+
+    /**
+     * Количество проиндексированных контактов.
+     *
+     * @return Размер индекса
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return ordinals.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void put(ContactResponseDto contact) {
+        String[] fields = {normalize(contact.getName()), normalize(contact.getEmail()), digits(contact.getPhoneNumber())};
+        List<String> words = new ArrayList<>();
+        for (String field : fields) {
+            words.addAll(tokenize(field));
+        }
+        Document document = new Document(contact, fields, grams(words));
+
+        Integer ordinal = ordinals.get(contact.getId());
+        long[] previousGrams = new long[0];
+        if (ordinal == null) {
+            ordinal = freeOrdinals.size > 0 ? freeOrdinals.values[--freeOrdinals.size] : nextOrdinal++;
+            ordinals.put(contact.getId(), ordinal);
+            if (ordinal >= documents.length) {
+                documents = Arrays.copyOf(documents, documents.length * 2);
+            }
+        } else {
+            previousGrams = documents[ordinal].grams;
+        }
+        documents[ordinal] = document;
+
+        for (long gram : document.grams) {
+            if (Arrays.binarySearch(previousGrams, gram) < 0) {
+                postings.computeIfAbsent(gram, key -> new IntList()).add(ordinal);
+                liveEntries++;
+            }
+        }
+        for (long gram : previousGrams) {
+            if (Arrays.binarySearch(document.grams, gram) < 0) {
+                staleEntries++;
+                liveEntries--;
+            }
+        }
+        compactIfNeeded();
+    }
+
+    private void remove(Long id) {
+        Integer ordinal = ordinals.remove(id);
+        if (ordinal == null) {
+            return;
+        }
+        int grams = documents[ordinal].grams.length;
+        documents[ordinal] = null;
+        freeOrdinals.add(ordinal);
+        staleEntries += grams;
+        liveEntries -= grams;
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (staleEntries <= liveEntries || staleEntries < 1024) {
+            return;
+        }
+        postings.clear();
+        for (int ordinal : ordinals.values()) {
+            for (long gram : documents[ordinal].grams) {
+                postings.computeIfAbsent(gram, key -> new IntList()).add(ordinal);
+            }
+        }
+        staleEntries = 0;
+    }
+
+    private int postingSize(long gram) {
+        IntList posting = postings.get(gram);
+        return posting == null ? 0 : posting.size;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String digits(String value) {
+        if (value == null) {
+            return "";
+        }
+        StringBuilder digits = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits.append(c);
+            }
+        }
+        return digits.toString();
+    }
+
+    private static List<String> tokenize(String value) {
+        List<String> words = new ArrayList<>();
+        String normalized = normalize(value);
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length() && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                words.add(normalized.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static long[] grams(List<String> words) {
+        Set<Long> grams = new HashSet<>();
+        for (String word : words) {
+            String padded = "" + WORD_START + WORD_START + word;
+            for (int i = 0; i + 3 <= padded.length(); i++) {
+                grams.add(gram(padded.charAt(i), padded.charAt(i + 1), padded.charAt(i + 2)));
+            }
+        }
+        long[] sorted = grams.stream().mapToLong(Long::longValue).toArray();
+        Arrays.sort(sorted);
+        return sorted;
+    }
+
+    /**
+     * Упаковывает триграмму в long по 21 биту на символ: при 16-битных полях
+     * {@link Long#hashCode()} сворачивал символы XOR-ом друг на друга, и ASCII-триграммы
+     * попадали примерно в 128 корзин HashMap.
+     */
+    private static long gram(char first, char second, char third) {
+        return ((long) first << 42) | ((long) second << 21) | third;
+    }
+
+    private record Hit(ContactResponseDto contact, double score) {
+    }
+
+    private record Document(ContactResponseDto contact, String[] fields, long[] grams) {
+
+        boolean startsWith(String query) {
+            for (String field : fields) {
+                if (!query.isEmpty() && field.startsWith(query)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Переиспользуемое состояние отбора кандидатов: счетчики совпадений по документам без упаковки в объекты.
+     * Хранится в пуле {@link #scanStates}, а не в потоке, чтобы массив счетчиков не создавался на каждый запрос.
+     */
+    private static final class ScanState {
+
+        private int[] counts = new int[0];
+        private final IntList candidates = new IntList();
+
+        void reset(int capacity) {
+            for (int i = 0; i < candidates.size; i++) {
+                counts[candidates.values[i]] = 0;
+            }
+            candidates.size = 0;
+            if (counts.length < capacity) {
+                counts = new int[Math.max(capacity, counts.length * 2)];
+            }
+        }
+
+        void count(int ordinal) {
+            if (counts[ordinal]++ == 0) {
+                candidates.add(ordinal);
+            }
+        }
+    }
+
+    private static final class IntList {
+
+        private int[] values = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+}
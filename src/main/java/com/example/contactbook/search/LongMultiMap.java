@@ -0,0 +1,198 @@
+package com.example.contactbook.search;
+
+import java.util.Arrays;
+
+/**
+ * Хеш-таблица с открытой адресацией, сопоставляющая ключу типа {@code long} несколько значений типа {@code long}.
+ * <p>
+ * Пары хранятся в двух параллельных массивах без упаковки в объекты; коллизии разрешаются линейным
+ * пробированием, удаление выполняется обратным сдвигом без «надгробий». Ключ {@code 0} зарезервирован
+ * под пустую ячейку. Класс не потокобезопасен.
+ * </p>
+ */
+final class LongMultiMap {
+
+    private static final long EMPTY = 0L;
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+
+    LongMultiMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongMultiMap(int expectedSize) {
+        allocate(tableSize(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Добавление пары, если такой пары еще нет.
+     *
+     * @return {@code true}, если пара добавлена
+     */
+    boolean put(long key, long value) {
+        checkKey(key);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key && values[slot] == value) {
+                return false;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size * 4 > keys.length * 3) {
+            resize(keys.length * 2);
+        }
+        return true;
+    }
+
+    /**
+     * Удаление пары.
+     *
+     * @return {@code true}, если пара была в таблице
+     */
+    boolean remove(long key, long value) {
+        checkKey(key);
+        int slot = slot(key);
+        while (keys[slot] != EMPTY) {
+            if (keys[slot] == key && values[slot] == value) {
+                shiftBack(slot);
+                size--;
+                return true;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return false;
+    }
+
+    /**
+     * Первое найденное значение ключа.
+     *
+     * @param missing Значение, возвращаемое при отсутствии ключа
+     */
+    long get(long key, long missing) {
+        checkKey(key);
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Копирование значений ключа в буфер.
+     *
+     * @return Общее количество значений ключа; в буфер попадает не больше {@code buffer.length} из них
+     */
+    int getAll(long key, long[] buffer) {
+        checkKey(key);
+        int found = 0;
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                if (found < buffer.length) {
+                    buffer[found] = values[slot];
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Копирование в буфер значений ключа, которым в {@code filter} сопоставлено значение {@code filterValue}.
+     *
+     * @return Количество подходящих значений ключа; в буфер попадает не больше {@code buffer.length} из них
+     */
+    int getAll(long key, long[] buffer, LongMultiMap filter, long filterValue) {
+        checkKey(key);
+        int found = 0;
+        for (int slot = slot(key); keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            if (keys[slot] == key && filter.get(values[slot], EMPTY) == filterValue) {
+                if (found < buffer.length) {
+                    buffer[found] = values[slot];
+                }
+                found++;
+            }
+        }
+        return found;
+    }
+
+    void clear() {
+        Arrays.fill(keys, EMPTY);
+        size = 0;
+    }
+
+    /**
+     * Заполнение освободившейся ячейки последующими элементами той же цепочки,
+     * чтобы поиск не прерывался на образовавшейся «дыре».
+     */
+    private void shiftBack(int hole) {
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            long key = keys[slot];
+            if (key == EMPTY) {
+                break;
+            }
+            int home = slot(key);
+            // элемент можно перенести в дыру, если его исходная ячейка не лежит в (hole, slot]
+            if (((slot - home) & mask) >= ((slot - hole) & mask)) {
+                keys[hole] = key;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    private static int tableSize(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity * 3 < expectedSize * 4L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static void checkKey(long key) {
+        if (key == EMPTY) {
+            throw new IllegalArgumentException("Key 0 is reserved");
+        }
+    }
+}
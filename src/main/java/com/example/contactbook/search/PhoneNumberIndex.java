@@ -0,0 +1,177 @@
+package com.example.contactbook.search;
+
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.repository.ContactPhoneKey;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.sharding.ShardDirectory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.StampedLock;
+import java.util.stream.Stream;
+
+/**
+ * Индекс обратного поиска контактов по номеру телефона.
+ * <p>
+ * Хранит в памяти пары «ключ номера — ID контакта» в хеш-таблице с открытой адресацией по примитивным
+ * ключам {@code long} (см. {@link PhoneNumbers#normalize(CharSequence)}), поэтому поиск выполняется
+ * за O(1) и не создает объектов. Индекс строится при старте приложения и обновляется по событиям
+ * {@link ContactChangedEvent}.
+ * </p>
+ * <p>
+ * Индекс общий для книг всех владельцев: для каждого контакта хранится числовой код владельца,
+ * и поиск возвращает только контакты заданной книги, поэтому совпадения в чужих книгах
+ * не занимают место в буфере вызывающего.
+ * </p>
+ */
+@Slf4j
+@Component
+public class PhoneNumberIndex {
+
+    private final ContactRepository contactRepository;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ShardDirectory shardDirectory;
+
+    private final StampedLock lock = new StampedLock();
+    private final LongMultiMap idsByPhone = new LongMultiMap();
+    private final LongMultiMap phoneById = new LongMultiMap();
+    private final LongMultiMap ownerById = new LongMultiMap();
+    /**
+     * Коды владельцев, начиная с 1; изменяются только под блокировкой записи.
+     */
+    private final Map<String, Long> ownerCodes = new HashMap<>();
+    private Set<Long> changedDuringRebuild;
+
+    public PhoneNumberIndex(ContactRepository contactRepository, PlatformTransactionManager transactionManager,
+                            ShardDirectory shardDirectory) {
+        this.contactRepository = contactRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.shardDirectory = shardDirectory;
+    }
+
+    /**
+     * Построение индекса по ключам номеров из базы данных.
+     * Изменения, пришедшие во время построения, имеют приоритет над прочитанными строками.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        log.info("Building phone number index");
+        long stamp = lock.writeLock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        long[] indexed = new long[1];
+        shardDirectory.forEachShard(shard -> indexed[0] += readOnlyTransaction.execute(status -> {
+            long count = 0;
+            try (Stream<ContactPhoneKey> keys = contactRepository.streamPhoneKeys()) {
+                for (ContactPhoneKey key : (Iterable<ContactPhoneKey>) keys::iterator) {
+                    long writeStamp = lock.writeLock();
+                    try {
+                        if (!changedDuringRebuild.contains(key.id())) {
+                            put(key.id(), key.owner(), key.phoneKey());
+                        }
+                    } finally {
+                        lock.unlockWrite(writeStamp);
+                    }
+                    count++;
+                }
+            }
+            return count;
+        }));
+        stamp = lock.writeLock();
+        try {
+            changedDuringRebuild = null;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+        log.info("Phone number index built: {} contacts", indexed[0]);
+    }
+
+    /**
+     * Обновление индекса после изменения контакта.
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        long stamp = lock.writeLock();
+        try {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.add(event.id());
+            }
+            if (event.isDeleted()) {
+                remove(event.id());
+            } else {
+                put(event.id(), event.contact().getOwner(), PhoneNumbers.normalize(event.contact().getPhoneNumber()));
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Поиск идентификаторов контактов книги по ключу номера телефона.
+     *
+     * @param owner    Владелец книги
+     * @param phoneKey Ключ номера, полученный из {@link PhoneNumbers#normalize(CharSequence)}
+     * @param buffer   Буфер для найденных идентификаторов
+     * @return Общее количество контактов книги с этим номером; в буфер попадает не больше {@code buffer.length} из них
+     */
+    public int findIds(String owner, long phoneKey, long[] buffer) {
+        if (phoneKey == PhoneNumbers.INVALID) {
+            return 0;
+        }
+        long stamp = lock.readLock();
+        try {
+            Long ownerCode = ownerCodes.get(owner);
+            return ownerCode == null ? 0 : idsByPhone.getAll(phoneKey, buffer, ownerById, ownerCode);
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    /**
+     * Количество проиндексированных контактов.
+     *
+     * @return Размер индекса
+     */
+    public int size() {
+        long stamp = lock.readLock();
+        try {
+            return phoneById.size();
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    private void put(long id, String owner, long phoneKey) {
+        remove(id);
+        if (phoneKey != PhoneNumbers.INVALID) {
+            idsByPhone.put(phoneKey, id);
+            phoneById.put(id, phoneKey);
+            ownerById.put(id, ownerCodes.computeIfAbsent(owner, ignored -> ownerCodes.size() + 1L));
+        }
+    }
+
+    private void remove(long id) {
+        long previous = phoneById.get(id, PhoneNumbers.INVALID);
+        if (previous != PhoneNumbers.INVALID) {
+            phoneById.remove(id, previous);
+            idsByPhone.remove(previous, id);
+            ownerById.remove(id, ownerById.get(id, 0L));
+        }
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.contactbook.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция клиента синхронизации в журнале изменений.
+ * <p>
+ * Клиенту токен передается как непрозрачная строка (Base64 URL-safe), внутри которой хранятся
+ * идентификатор журнала и последняя полученная ревизия. Идентификатор журнала меняется,
+ * когда журнал начинается заново, после чего старые токены недействительны.
+ * </p>
+ *
+ * @param logId    Идентификатор журнала
+ * @param revision Последняя ревизия, полученная клиентом
+ */
+public record ChangeToken(String logId, long revision) {
+
+    /**
+     * Кодирование токена в непрозрачную строку.
+     *
+     * @return Строковое представление токена
+     */
+    public String encode() {
+        String raw = logId + ":" + revision;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбор токена, полученного от клиента.
+     *
+     * @param token Строковое представление токена
+     * @return Токен
+     * @throws IllegalArgumentException Если токен поврежден
+     */
+    public static ChangeToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 2);
+            if (parts.length == 2 && !parts[0].isEmpty()) {
+                long revision = Long.parseLong(parts[1]);
+                if (revision >= 0) {
+                    return new ChangeToken(parts[0], revision);
+                }
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Поврежденный Base64 или ревизия, обрабатывается ниже
+        }
+        throw new IllegalArgumentException("Invalid change token: " + token);
+    }
+}
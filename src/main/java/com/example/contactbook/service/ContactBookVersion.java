@@ -0,0 +1,41 @@
+package com.example.contactbook.service;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Версия книги контактов в целом, из которой строится ETag списков.
+ * <p>
+ * Складывается из метки запуска приложения и счетчика изменений, который увеличивается
+ * по каждому событию {@link ContactChangedEvent} после фиксации транзакции. Метка запуска
+ * гарантирует, что после перезапуска версия не повторит выданную ранее.
+ * Версию нужно читать до чтения данных: тогда ответ никогда не получит версию новее своих данных.
+ * </p>
+ */
+@Component
+public class ContactBookVersion {
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicLong changes = new AtomicLong();
+
+    /**
+     * Текущая версия книги.
+     *
+     * @return Строка версии
+     */
+    public String current() {
+        return epoch + "-" + changes.get();
+    }
+
+    /**
+     * Учет изменения контакта.
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onContactChanged(ContactChangedEvent event) {
+        changes.incrementAndGet();
+    }
+}
@@ -0,0 +1,295 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.exceptions.ChangeTokenExpiredException;
+import com.example.contactbook.model.ContactChange;
+import com.example.contactbook.model.ContactChangeLogId;
+import com.example.contactbook.model.ContactChangeType;
+import com.example.contactbook.repository.ContactChangeLogIdRepository;
+import com.example.contactbook.repository.ContactChangeRepository;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.tenancy.OwnerContext;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Журнал изменений контактов для дельта-синхронизации.
+ * <p>
+ * Каждое событие {@link ContactChangedEvent} записывается в таблицу журнала синхронно, в транзакции
+ * изменения контакта, с очередной ревизией; записи одной транзакции вставляются одним пакетом. Ревизии выдаются в памяти, поэтому транзакции могут
+ * фиксироваться не в порядке ревизий; чтение ограничивается ревизией, до которой все транзакции
+ * уже завершены, и клиент не пропускает изменения, зафиксированные позже выданного ему токена.
+ * </p>
+ * <p>
+ * Записи старше {@code contact-book.changes.retention} периодически удаляются; токены, указывающие
+ * на удаленную часть журнала, считаются устаревшими.
+ * </p>
+ * <p>
+ * Ревизии общие для всех книг, а записи хранятся вместе с книгой владельца и читаются только им;
+ * в журнале владельца между ревизиями остаются пропуски.
+ * </p>
+ * <p>
+ * Идентификатор журнала в токенах хранится в базе данных ({@link ContactChangeLogId}), поэтому токены
+ * переживают перезапуск приложения. Новый идентификатор выдается, только когда журнал начинается заново:
+ * база данных пуста (например, H2 в памяти после перезапуска) или шарды хранят разные идентификаторы.
+ * </p>
+ */
+@Slf4j
+@Component
+public class ContactChangeLog {
+
+    private final ContactChangeRepository changeRepository;
+    private final ContactChangeLogIdRepository logIdRepository;
+    private final ShardDirectory shardDirectory;
+    private final Duration retention;
+    private final Clock clock;
+
+    private String logId;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final NavigableSet<Long> inFlight = new TreeSet<>();
+    private long lastRevision;
+    private volatile long compactedUpTo;
+
+    @Autowired
+    public ContactChangeLog(ContactChangeRepository changeRepository, ContactChangeLogIdRepository logIdRepository,
+                            ShardDirectory shardDirectory,
+                            @Value("${contact-book.changes.retention:7d}") Duration retention) {
+        this(changeRepository, logIdRepository, shardDirectory, retention, Clock.systemUTC());
+    }
+
+    ContactChangeLog(ContactChangeRepository changeRepository, ContactChangeLogIdRepository logIdRepository,
+                     ShardDirectory shardDirectory, Duration retention, Clock clock) {
+        this.changeRepository = changeRepository;
+        this.logIdRepository = logIdRepository;
+        this.shardDirectory = shardDirectory;
+        this.retention = retention;
+        this.clock = clock;
+    }
+
+    /**
+     * Продолжение нумерации ревизий после записей, уже имеющихся в журналах всех шардов,
+     * с сохраненным идентификатором журнала.
+     */
+    @PostConstruct
+    void init() {
+        logId = loadLogId();
+        long[] max = {0};
+        long[] min = {Long.MAX_VALUE};
+        shardDirectory.forEachShard(shard -> {
+            Long shardMax = changeRepository.findMaxRevision();
+            Long shardMin = changeRepository.findMinRevision();
+            if (shardMax != null) {
+                max[0] = Math.max(max[0], shardMax);
+                min[0] = Math.min(min[0], shardMin);
+            }
+        });
+        lastRevision = max[0];
+        compactedUpTo = min[0] == Long.MAX_VALUE ? lastRevision : min[0] - 1;
+    }
+
+    /**
+     * Запись изменения контакта в журнал в текущей транзакции.
+     * <p>
+     * Записи транзакции накапливаются и вставляются одним пакетом JDBC перед ее фиксацией;
+     * ревизии освобождаются после завершения транзакции.
+     * </p>
+     *
+     * @param event Событие {@link ContactChangedEvent}
+     */
+    @EventListener
+    public void onContactChanged(ContactChangedEvent event) {
+        long revision = allocate();
+        ContactChange change = new ContactChange(revision, event.id(),
+                event.isDeleted() ? ContactChangeType.DELETE : ContactChangeType.UPSERT, clock.instant(),
+                OwnerContext.requireOwner());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionChanges().add(change);
+        } else {
+            try {
+                changeRepository.save(change);
+            } finally {
+                release(List.of(change));
+            }
+        }
+    }
+
+    /**
+     * Токен, указывающий на текущий конец журнала.
+     *
+     * @return Токен без изменений после него
+     */
+    public ChangeToken currentToken() {
+        return new ChangeToken(logId, safeRevision());
+    }
+
+    /**
+     * Чтение записей журнала после указанного токена.
+     *
+     * @param since Токен клиента; записи читаются из журнала текущего владельца
+     * @param limit Максимальное количество записей
+     * @return Страница журнала
+     * @throws ChangeTokenExpiredException Если журнал перезапущен или уплотнен после выдачи токена
+     */
+    @Transactional(readOnly = true)
+    public ChangeLogPage read(ChangeToken since, int limit) {
+        if (!logId.equals(since.logId()) || since.revision() < compactedUpTo) {
+            throw new ChangeTokenExpiredException("Change token has expired, a full resync is required.");
+        }
+        long upTo = safeRevision();
+        List<ContactChange> entries = since.revision() >= upTo
+                ? List.of()
+                : changeRepository.findByRevisionGreaterThanAndRevisionLessThanEqualOrderByRevisionAsc(
+                        since.revision(), upTo, Limit.of(limit));
+        boolean hasMore = entries.size() == limit;
+        long next = hasMore ? entries.get(entries.size() - 1).getRevision() : Math.max(upTo, since.revision());
+        return new ChangeLogPage(entries, new ChangeToken(logId, next), hasMore);
+    }
+
+    /**
+     * Удаление записей журнала старше срока хранения на всех шардах.
+     * Граница удаления общая для всех шардов, как для одного журнала.
+     */
+    @Scheduled(fixedDelayString = "${contact-book.changes.compaction-interval:1h}")
+    public void compact() {
+        Instant cutoff = clock.instant().minus(retention);
+        long safeRevision = safeRevision();
+        long[] upTo = {-1};
+        shardDirectory.forEachShard(shard -> {
+            Long shardUpTo = changeRepository.findMaxRevisionBefore(cutoff, safeRevision);
+            if (shardUpTo != null) {
+                upTo[0] = Math.max(upTo[0], shardUpTo);
+            }
+        });
+        if (upTo[0] < 0) {
+            return;
+        }
+        // Граница сдвигается до удаления: токен внутри удаляемой части не должен прочитать неполный журнал
+        compactedUpTo = Math.max(compactedUpTo, upTo[0]);
+        int[] deleted = {0};
+        shardDirectory.forEachShard(shard -> deleted[0] += changeRepository.deleteUpToRevision(upTo[0]));
+        log.info("Change log compacted: {} entries up to revision {} removed", deleted[0], upTo[0]);
+    }
+
+    /**
+     * Сохраненный идентификатор журнала; шарды без него (например, добавленные позже) получают его копию.
+     */
+    private String loadLogId() {
+        Set<String> stored = new HashSet<>();
+        shardDirectory.forEachShard(shard -> logIdRepository.findById(ContactChangeLogId.SINGLETON_ID)
+                .ifPresent(id -> stored.add(id.getLogId())));
+        String id;
+        if (stored.size() == 1) {
+            id = stored.iterator().next();
+        } else {
+            id = Long.toString(clock.millis(), 36);
+            log.info("Starting change log {}, earlier change tokens are invalid", id);
+        }
+        ContactChangeLogId entity = new ContactChangeLogId(ContactChangeLogId.SINGLETON_ID, id);
+        shardDirectory.forEachShard(shard -> {
+            if (logIdRepository.findById(ContactChangeLogId.SINGLETON_ID)
+                    .filter(existing -> existing.getLogId().equals(id)).isEmpty()) {
+                logIdRepository.save(entity);
+            }
+        });
+        return id;
+    }
+
+    private long allocate() {
+        lock.lock();
+        try {
+            long revision = ++lastRevision;
+            inFlight.add(revision);
+            return revision;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void release(List<ContactChange> changes) {
+        lock.lock();
+        try {
+            for (ContactChange change : changes) {
+                inFlight.remove(change.getRevision());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Записи журнала текущей транзакции; при первом обращении регистрирует их вставку перед фиксацией.
+     */
+    @SuppressWarnings("unchecked")
+    private List<ContactChange> transactionChanges() {
+        List<ContactChange> changes = (List<ContactChange>) TransactionSynchronizationManager.getResource(this);
+        if (changes != null) {
+            return changes;
+        }
+        List<ContactChange> created = new ArrayList<>();
+        TransactionSynchronizationManager.bindResource(this, created);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void suspend() {
+                TransactionSynchronizationManager.unbindResource(ContactChangeLog.this);
+            }
+
+            @Override
+            public void resume() {
+                TransactionSynchronizationManager.bindResource(ContactChangeLog.this, created);
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                changeRepository.insertAll(created);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                TransactionSynchronizationManager.unbindResourceIfPossible(ContactChangeLog.this);
+                release(created);
+            }
+        });
+        return created;
+    }
+
+    /**
+     * Наибольшая ревизия, до которой все транзакции с записями журнала завершены.
+     */
+    private long safeRevision() {
+        lock.lock();
+        try {
+            return inFlight.isEmpty() ? lastRevision : inFlight.first() - 1;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Страница журнала изменений.
+     *
+     * @param entries Записи журнала по возрастанию ревизии
+     * @param next    Токен для следующего запроса
+     * @param hasMore Признак того, что после страницы есть еще записи
+     */
+    public record ChangeLogPage(List<ContactChange> entries, ChangeToken next, boolean hasMore) {
+    }
+}
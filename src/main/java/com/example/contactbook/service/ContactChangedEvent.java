@@ -0,0 +1,25 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+
+/**
+ * Событие изменения контакта, публикуемое {@link ContactService} после создания, обновления или удаления.
+ * <p>
+ * Если изменение выполняется в транзакции, слушатели {@code @TransactionalEventListener}
+ * получают событие только после ее фиксации.
+ * </p>
+ *
+ * @param id      Идентификатор контакта
+ * @param contact Новое состояние контакта или {@code null}, если контакт удален
+ */
+public record ContactChangedEvent(Long id, ContactResponseDto contact) {
+
+    /**
+     * Признак удаления контакта.
+     *
+     * @return {@code true}, если контакт удален
+     */
+    public boolean isDeleted() {
+        return contact == null;
+    }
+}
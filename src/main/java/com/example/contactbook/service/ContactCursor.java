@@ -0,0 +1,101 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.model.Contact;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Позиция в упорядоченном списке контактов для keyset-пагинации.
+ * <p>
+ * Клиенту курсор передается как непрозрачная строка (Base64 URL-safe), внутри которой
+ * хранятся порядок сортировки и ключ последней записи страницы.
+ * </p>
+ *
+ * @param sort   Порядок сортировки
+ * @param lastId ID последнего контакта страницы
+ * @param lastName Имя последнего контакта страницы (только для сортировки по имени)
+ */
+public record ContactCursor(ContactSort sort, long lastId, String lastName) {
+
+    /**
+     * Курсор страницы, которая заканчивается контактом.
+     *
+     * @param sort Порядок сортировки
+     * @param last Последний контакт страницы
+     * @return Курсор следующей страницы
+     */
+    public static ContactCursor after(ContactSort sort, Contact last) {
+        return after(sort, last.getId(), last.getName());
+    }
+
+    /**
+     * Курсор страницы, которая заканчивается контактом с указанным ключом.
+     *
+     * @param sort     Порядок сортировки
+     * @param lastId   ID последнего контакта страницы
+     * @param lastName Имя последнего контакта страницы
+     * @return Курсор следующей страницы
+     */
+    public static ContactCursor after(ContactSort sort, long lastId, String lastName) {
+        return new ContactCursor(sort, lastId, sort == ContactSort.NAME ? lastName : null);
+    }
+
+    /**
+     * Позиция начала страницы по параметрам запроса списка.
+     *
+     * @param cursor Курсор из предыдущего ответа (необязательно)
+     * @param after  ID, после которого начинается страница, для сортировки по ID (необязательно)
+     * @param sort   Порядок сортировки: {@code id} или {@code name} (необязательно)
+     * @return Курсор; без курсора и ID — начало списка
+     * @throws IllegalArgumentException Если параметры некорректны или противоречат друг другу
+     */
+    public static ContactCursor resolve(String cursor, Long after, String sort) {
+        ContactSort order = ContactSort.fromParameter(sort);
+        if (cursor != null) {
+            if (after != null) {
+                throw new IllegalArgumentException("Parameters 'cursor' and 'after' cannot be combined.");
+            }
+            return decode(cursor);
+        }
+        if (after != null && order != ContactSort.ID) {
+            throw new IllegalArgumentException("Parameter 'after' is only supported with sort=id.");
+        }
+        return new ContactCursor(order, after != null ? after : 0L, null);
+    }
+
+    /**
+     * Кодирование курсора в непрозрачную строку.
+     *
+     * @return Строковое представление курсора
+     */
+    public String encode() {
+        String raw = sort == ContactSort.NAME
+                ? "name:" + lastId + ":" + lastName
+                : "id:" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Разбор курсора, полученного от клиента.
+     *
+     * @param token Строковое представление курсора
+     * @return Курсор
+     * @throws IllegalArgumentException Если курсор поврежден
+     */
+    public static ContactCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", 3);
+            if (parts.length == 2 && parts[0].equals("id")) {
+                return new ContactCursor(ContactSort.ID, Long.parseLong(parts[1]), null);
+            }
+            if (parts.length == 3 && parts[0].equals("name")) {
+                return new ContactCursor(ContactSort.NAME, Long.parseLong(parts[1]), parts[2]);
+            }
+        } catch (IllegalArgumentException ignored) {
+            // Поврежденный Base64 или ID, обрабатывается ниже
+        }
+        throw new IllegalArgumentException("Invalid cursor: " + token);
+    }
+}
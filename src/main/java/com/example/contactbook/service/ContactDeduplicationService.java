@@ -0,0 +1,71 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dedupe.DuplicateDetector;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Поиск вероятных дубликатов во всей книге контактов.
+ * <p>
+ * Контакты читаются потоковым экспортом и передаются {@link DuplicateDetector}, который оценивает
+ * пары параллельно в общем пуле fork/join. Найденные группы можно объединить через
+ * {@link ContactService#mergeContacts(List, com.example.contactbook.dto.ContactRequestDto)}.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ContactDeduplicationService {
+
+    /**
+     * Количество групп в ответе по умолчанию.
+     */
+    public static final int DEFAULT_GROUPS = 100;
+
+    /**
+     * Максимальное количество групп в ответе.
+     */
+    public static final int MAX_GROUPS = 1000;
+
+    private final ContactService contactService;
+    private final DuplicateDetector detector;
+
+    public ContactDeduplicationService(ContactService contactService,
+                                       @Value("${contact-book.dedupe.window:20}") int window) {
+        this.contactService = contactService;
+        this.detector = new DuplicateDetector(ForkJoinPool.commonPool(), window);
+    }
+
+    /**
+     * Поиск групп дубликатов.
+     *
+     * @param threshold Минимальная оценка сходства пары от 0 до 1 (необязательно)
+     * @param limit     Максимальное количество групп (необязательно, не более {@link #MAX_GROUPS})
+     * @return Группы в порядке убывания оценки
+     * @throws IllegalArgumentException Если порог или лимит некорректны
+     */
+    @Timed(ContactService.OPERATION_TIMER)
+    public List<DuplicateGroupDto> findDuplicates(Double threshold, Integer limit) {
+        if (threshold != null && (threshold <= 0 || threshold > 1)) {
+            throw new IllegalArgumentException("Threshold must be greater than 0 and not greater than 1.");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        double minScore = threshold == null ? DuplicateDetector.DEFAULT_THRESHOLD : threshold;
+        int groupLimit = limit == null ? DEFAULT_GROUPS : Math.min(limit, MAX_GROUPS);
+        log.info("Searching for duplicate contacts, threshold {}", minScore);
+        List<ContactResponseDto> contacts = new ArrayList<>();
+        contactService.exportContacts(contacts::add);
+        List<DuplicateGroupDto> groups = detector.findDuplicates(contacts, minScore);
+        log.info("Found {} duplicate groups among {} contacts", groups.size(), contacts.size());
+        return groups.size() > groupLimit ? groups.subList(0, groupLimit) : groups;
+    }
+}
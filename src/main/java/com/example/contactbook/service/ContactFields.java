@@ -0,0 +1,14 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.repository.ContactField;
+
+import java.util.Map;
+
+/**
+ * Выбранные поля контакта.
+ *
+ * @param values  Свойства контакта в порядке {@link ContactField}
+ * @param version Версия контакта для ETag, даже если она не запрошена
+ */
+public record ContactFields(Map<String, Object> values, long version) {
+}
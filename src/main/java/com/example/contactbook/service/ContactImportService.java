@@ -0,0 +1,230 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ImportJobDto;
+import com.example.contactbook.exceptions.ImportJobNotFoundException;
+import com.example.contactbook.importer.ContactRecord;
+import com.example.contactbook.importer.ContactRecordReader;
+import com.example.contactbook.importer.ImportFormat;
+import com.example.contactbook.tenancy.OwnerContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Асинхронный импорт контактов из файлов CSV и vCard.
+ * <p>
+ * Загружаемый файл копируется во временный файл потоком, без чтения в память, после чего задание
+ * выполняется в отдельном пуле: записи читаются по одной, собираются в части по
+ * {@code contact-book.import.chunk-size} и сохраняются через {@link ContactService#importContacts(List)},
+ * где проверяются параллельно и вставляются пакетами. Прогресс, скорость и ошибки в записях
+ * доступны по идентификатору задания; в памяти хранятся последние {@link #MAX_RETAINED_JOBS} заданий.
+ * Задание выполняется от имени владельца книги, который его запустил, и видно только ему.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ContactImportService {
+
+    /**
+     * Количество ошибок в записях, сохраняемых для отчета задания.
+     */
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * Количество заданий, хранимых в истории.
+     */
+    public static final int MAX_RETAINED_JOBS = 100;
+
+    /**
+     * Счетчик обработанных записей импорта с тегом {@code outcome}: {@code imported} или {@code failed}.
+     */
+    public static final String IMPORT_ROWS_COUNTER = "contact.import.rows";
+
+    private final ContactService contactService;
+    private final Clock clock;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final Counter importedRows;
+    private final Counter failedRows;
+    private final Map<String, ImportJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public ContactImportService(ContactService contactService, MeterRegistry meterRegistry,
+                                @Value("${contact-book.import.chunk-size:1000}") int chunkSize,
+                                @Value("${contact-book.import.concurrency:2}") int concurrency,
+                                @Value("${contact-book.import.queue-capacity:16}") int queueCapacity) {
+        this(contactService, meterRegistry, chunkSize, newExecutor(concurrency, queueCapacity), Clock.systemUTC());
+    }
+
+    ContactImportService(ContactService contactService, MeterRegistry meterRegistry, int chunkSize,
+                         ExecutorService executor, Clock clock) {
+        if (chunkSize < 1 || chunkSize > ContactService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Import chunk size must be from 1 to " + ContactService.MAX_BATCH_SIZE + ".");
+        }
+        this.contactService = contactService;
+        this.chunkSize = chunkSize;
+        this.executor = executor;
+        this.clock = clock;
+        this.importedRows = meterRegistry.counter(IMPORT_ROWS_COUNTER, "outcome", "imported");
+        this.failedRows = meterRegistry.counter(IMPORT_ROWS_COUNTER, "outcome", "failed");
+    }
+
+    /**
+     * Прием файла и постановка задания импорта в очередь.
+     *
+     * @param content Содержимое файла в UTF-8
+     * @param format  Формат файла
+     * @return Состояние созданного задания
+     * @throws IOException                Если не удалось сохранить файл
+     * @throws RejectedExecutionException Если очередь заданий заполнена
+     */
+    public ImportJobDto startImport(InputStream content, ImportFormat format) throws IOException {
+        Path file = Files.createTempFile("contact-import-", ".tmp");
+        ImportJob job = new ImportJob(UUID.randomUUID().toString(), OwnerContext.requireOwner(), format, clock);
+        try {
+            long size = Files.copy(content, file, StandardCopyOption.REPLACE_EXISTING);
+            register(job);
+            executor.execute(() -> OwnerContext.runAs(job.owner(), () -> run(job, file)));
+            log.info("Import job {} queued: {} bytes of {}", job.id(), size, format);
+        } catch (IOException | RuntimeException e) {
+            unregister(job);
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return job.toDto();
+    }
+
+    /**
+     * Состояние задания импорта.
+     *
+     * @param id Идентификатор задания
+     * @return Объект {@link ImportJobDto}
+     * @throws ImportJobNotFoundException Если задание не найдено или запущено другим владельцем
+     */
+    public ImportJobDto getImport(String id) {
+        ImportJob job;
+        synchronized (jobs) {
+            job = jobs.get(id);
+        }
+        if (job == null || !job.owner().equals(OwnerContext.current())) {
+            throw new ImportJobNotFoundException("Import job " + id + " not found.");
+        }
+        return job.toDto();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    void run(ImportJob job, Path file) {
+        job.start();
+        log.info("Import job {} started", job.id());
+        try (ContactRecordReader reader = job.format().open(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            List<ContactRecord> chunk = new ArrayList<>(chunkSize);
+            ContactRecord record;
+            while ((record = reader.next()) != null) {
+                job.rowRead();
+                if (record.error() != null) {
+                    job.failed(record.row(), record.error());
+                    failedRows.increment();
+                    continue;
+                }
+                chunk.add(record);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, chunk);
+                    chunk.clear();
+                }
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new IllegalStateException("Import was interrupted.");
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, chunk);
+            }
+            job.complete();
+            log.info("Import job {} completed", job.id());
+        } catch (Exception e) {
+            job.fail(e.getMessage());
+            log.error("Import job {} failed: {}", job.id(), e.getMessage(), e);
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Failed to delete import file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private void importChunk(ImportJob job, List<ContactRecord> chunk) {
+        List<ContactRequestDto> contacts = new ArrayList<>(chunk.size());
+        for (ContactRecord record : chunk) {
+            contacts.add(record.contact());
+        }
+        List<String> errors = contactService.importContacts(contacts);
+        int imported = 0;
+        for (int i = 0; i < errors.size(); i++) {
+            if (errors.get(i) == null) {
+                imported++;
+            } else {
+                job.failed(chunk.get(i).row(), errors.get(i));
+            }
+        }
+        job.imported(imported);
+        importedRows.increment(imported);
+        failedRows.increment(chunk.size() - imported);
+    }
+
+    private void register(ImportJob job) {
+        synchronized (jobs) {
+            jobs.put(job.id(), job);
+            Iterator<ImportJob> iterator = jobs.values().iterator();
+            while (jobs.size() > MAX_RETAINED_JOBS && iterator.hasNext()) {
+                if (iterator.next().isFinished()) {
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    private void unregister(ImportJob job) {
+        synchronized (jobs) {
+            jobs.remove(job.id());
+        }
+    }
+
+    private static ExecutorService newExecutor(int concurrency, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), task -> {
+                    Thread thread = new Thread(task, "contact-import-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+}
@@ -1,24 +1,65 @@
 package com.example.contactbook.service;
 
+import com.example.contactbook.cache.ContactCache;
+import com.example.contactbook.dto.BatchOperationType;
+import com.example.contactbook.dto.ContactChangeDto;
+import com.example.contactbook.dto.ContactChangesDto;
+import com.example.contactbook.dto.ContactFieldsPageDto;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactPageDto;
 import com.example.contactbook.dto.ContactRequestDto;
 import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.exceptions.ChangeTokenExpiredException;
 import com.example.contactbook.exceptions.ContactNotFoundException;
+import com.example.contactbook.exceptions.ContactVersionMismatchException;
+import com.example.contactbook.mapper.ContactMapper;
 import com.example.contactbook.model.Contact;
+import com.example.contactbook.model.ContactChange;
+import com.example.contactbook.model.ContactChangeType;
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.repository.ContactField;
 import com.example.contactbook.repository.ContactRepository;
-import jakarta.validation.ConstraintViolation;
-import jakarta.validation.Validator;
+import com.example.contactbook.search.ContactSearchIndex;
+import com.example.contactbook.search.PhoneNumberIndex;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.example.contactbook.validation.ContactValidator;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.modelmapper.ModelMapper;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Сервис для работы с контактами.
  * Содержит методы для получения, создания, обновления, удаления контактов и их валидации.
+ * Все операции выполняются с книгой текущего владельца ({@link OwnerContext}); кэш и индексы
+ * в памяти общие для всех книг, поэтому контакты других владельцев из них отбрасываются.
+ * Чтения из базы данных выполняются в транзакциях только для чтения: Hibernate не хранит снимки
+ * загруженных сущностей и не выполняет flush, а при включенной реплике ({@code contact-book.replica})
+ * соединение берется из ее пула.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -26,102 +67,919 @@ import java.util.stream.Collectors;
 public class ContactService {
 
     private final ContactRepository contactRepository;
-    private final Validator validator;
-    private final ModelMapper mapper;
+    private final ContactValidator contactValidator;
+    private final ContactMapper mapper;
+    private final EntityManager entityManager;
+    private final ContactCache contactCache;
+    private final ContactSearchIndex searchIndex;
+    private final PhoneNumberIndex phoneNumberIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+    private final ContactBookVersion bookVersion;
+    private final PendingContactWrites pendingWrites;
+    private final ContactChangeLog changeLog;
+
+    /**
+     * Таймер операций сервиса; операция передается в теге {@code method}.
+     */
+    public static final String OPERATION_TIMER = "contact.service";
+
+    /**
+     * Таймер валидации контактов с тегом {@code outcome}: {@code valid} или {@code invalid} для одного контакта,
+     * {@code batch} для пакетной проверки части импорта.
+     */
+    public static final String VALIDATION_TIMER = "contact.validation";
+
+    /**
+     * Распределение количества контактов в ответах списочных операций с тегом {@code operation}.
+     */
+    public static final String RESULT_SIZE_SUMMARY = "contact.results";
+
+    /**
+     * Размер страницы по умолчанию.
+     */
+    public static final int DEFAULT_PAGE_SIZE = 50;
+
+    /**
+     * Максимальный размер страницы; большие значения {@code limit} урезаются до него.
+     */
+    public static final int MAX_PAGE_SIZE = 500;
+
+    /**
+     * Максимальное количество операций в одном пакетном запросе.
+     */
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    /**
+     * Количество результатов поиска по умолчанию.
+     */
+    public static final int DEFAULT_SEARCH_RESULTS = 20;
+
+    /**
+     * Максимальное количество результатов поиска.
+     */
+    public static final int MAX_SEARCH_RESULTS = 100;
+
+    /**
+     * Максимальное количество контактов, возвращаемых поиском по номеру телефона.
+     */
+    public static final int MAX_PHONE_MATCHES = 100;
+
+    /**
+     * Ожидаемая версия для {@link #saveOrUpdateContact(Long, ContactRequestDto, Long)}: контакт должен
+     * существовать, версия любая (соответствует {@code If-Match: *}).
+     */
+    public static final long ANY_VERSION = -1L;
+
+    /**
+     * Количество записей журнала изменений, читаемых за один запрос синхронизации, по умолчанию.
+     */
+    public static final int DEFAULT_CHANGES_PAGE_SIZE = 500;
+
+    /**
+     * Максимальное количество записей журнала изменений, читаемых за один запрос синхронизации.
+     */
+    public static final int MAX_CHANGES_PAGE_SIZE = 5000;
 
     /**
      * Получение контакта по его идентификатору.
+     * <p>
+     * Контакт читается через {@link ContactCache}; при промахе одновременные запросы одного
+     * идентификатора выполняют одну загрузку из базы данных. Обновление, принятое отложенной записью
+     * ({@link ContactWriteBehind}) и еще не сохраненное, возвращается вместо сохраненного состояния.
+     * </p>
      *
      * @param id Идентификатор контакта
      * @return Объект {@link ContactResponseDto} с информацией о контакте
      * @throws ContactNotFoundException Если контакт с таким идентификатором не найден
      */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
     public ContactResponseDto getContactById(Long id) {
         log.info("Fetching contact by ID {}", id);
-        Contact contact = contactRepository.findById(id)
-                .orElseThrow(() -> new ContactNotFoundException("Contact with ID " + id + " not found."));
+        ContactResponseDto pending = pendingWrites.get(id);
+        if (pending != null) {
+            return pending;
+        }
+        ContactResponseDto contact = owned(contactCache.get(id, this::loadContact));
+        if (contact == null) {
+            throw new ContactNotFoundException("Contact with ID " + id + " not found.");
+        }
         log.info("Contact with ID {} fetched successfully", id);
-        return mapper.map(contact, ContactResponseDto.class);
+        return contact;
+    }
+
+    /**
+     * Текущая версия контакта без преобразования сущности.
+     * <p>
+     * Версия берется из {@link ContactCache}, а при промахе читается из базы данных
+     * одним столбцом, без загрузки сущности. Для несохраненного обновления ({@link PendingContactWrites})
+     * возвращается версия, которую контакт получит после сохранения.
+     * </p>
+     *
+     * @param id Идентификатор контакта
+     * @return Версия контакта
+     * @throws ContactNotFoundException Если контакт с таким идентификатором не найден
+     */
+    @Transactional(readOnly = true)
+    public long getContactVersion(Long id) {
+        ContactResponseDto pending = pendingWrites.get(id);
+        if (pending != null) {
+            return pending.getVersion();
+        }
+        ContactResponseDto cached = owned(contactCache.getIfPresent(id));
+        if (cached != null && cached.getVersion() != null) {
+            return cached.getVersion();
+        }
+        return contactRepository.findVersionById(id)
+                .orElseThrow(() -> new ContactNotFoundException("Contact with ID " + id + " not found."));
     }
 
     /**
-     * Получение всех контактов.
+     * Текущая версия книги контактов для ETag списков.
      *
-     * @return Список объектов {@link ContactResponseDto} с информацией о всех контактах
+     * @return Строка версии, своя для каждого владельца и меняющаяся при каждом изменении любого контакта
      */
-    public List<ContactResponseDto> getAllContacts() {
-        log.info("Fetching all contacts");
-        List<ContactResponseDto> contacts = contactRepository.findAll()
-                .stream()
-                .map(contact -> mapper.map(contact, ContactResponseDto.class))
+    public String getContactsVersion() {
+        return OwnerContext.current() + "-" + bookVersion.current();
+    }
+
+    /**
+     * Получение страницы контактов с keyset-пагинацией.
+     * <p>
+     * Страница выбирается seek-запросом по индексу, поэтому время ответа не зависит от того,
+     * насколько глубоко клиент пролистал список. Размер страницы ограничен {@link #MAX_PAGE_SIZE}.
+     * </p>
+     *
+     * @param cursor Непрозрачный курсор следующей страницы из предыдущего ответа (необязательно)
+     * @param after  ID, после которого начинается страница, для сортировки по ID (необязательно)
+     * @param limit  Размер страницы (необязательно, по умолчанию {@link #DEFAULT_PAGE_SIZE})
+     * @param sort   Порядок сортировки: {@code id} или {@code name} (необязательно)
+     * @return Объект {@link ContactPageDto} с контактами страницы и курсором следующей страницы
+     * @throws IllegalArgumentException Если параметры пагинации некорректны
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public ContactPageDto getAllContacts(String cursor, Long after, Integer limit, String sort) {
+        int pageSize = resolvePageSize(limit);
+        ContactCursor position = ContactCursor.resolve(cursor, after, sort);
+        log.info("Fetching contacts page: sort {}, size {}", position.sort(), pageSize);
+
+        Limit fetchLimit = Limit.of(pageSize + 1);
+        List<Contact> page;
+        if (position.sort() == ContactSort.NAME) {
+            page = position.lastName() == null
+                    ? contactRepository.findAllByOrderByNameAscIdAsc(fetchLimit)
+                    : contactRepository.findNameSeekPage(position.lastName(), position.lastId(), fetchLimit);
+        } else {
+            page = contactRepository.findByIdGreaterThanOrderByIdAsc(position.lastId(), fetchLimit);
+        }
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            nextCursor = ContactCursor.after(position.sort(), page.get(pageSize - 1)).encode();
+        }
+        List<ContactResponseDto> contacts = page.stream()
+                .map(mapper::toResponse)
                 .collect(Collectors.toList());
+        recordResultSize("getAllContacts", contacts.size());
         log.info("Fetched {} contacts", contacts.size());
+        return new ContactPageDto(contacts, nextCursor);
+    }
+
+    /**
+     * Получение страницы контактов только с выбранными полями.
+     * <p>
+     * Страница выбирается тем же seek-запросом, что и {@link #getAllContacts(String, Long, Integer, String)},
+     * но читаются только запрошенные столбцы и столбцы ключа курсора, без создания сущностей.
+     * </p>
+     *
+     * @param cursor Непрозрачный курсор следующей страницы из предыдущего ответа (необязательно)
+     * @param after  ID, после которого начинается страница, для сортировки по ID (необязательно)
+     * @param limit  Размер страницы (необязательно, по умолчанию {@link #DEFAULT_PAGE_SIZE})
+     * @param sort   Порядок сортировки: {@code id} или {@code name} (необязательно)
+     * @param fields Поля контактов
+     * @return Объект {@link ContactFieldsPageDto} с контактами страницы и курсором следующей страницы
+     * @throws IllegalArgumentException Если параметры пагинации некорректны
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public ContactFieldsPageDto getAllContactFields(String cursor, Long after, Integer limit, String sort,
+                                                    Set<ContactField> fields) {
+        int pageSize = resolvePageSize(limit);
+        ContactCursor position = ContactCursor.resolve(cursor, after, sort);
+        log.info("Fetching contacts page: sort {}, size {}, fields {}", position.sort(), pageSize, fields);
+
+        Set<ContactField> selected = EnumSet.copyOf(fields);
+        selected.add(ContactField.ID);
+        if (position.sort() == ContactSort.NAME) {
+            selected.add(ContactField.NAME);
+        }
+        List<Map<String, Object>> page = position.sort() == ContactSort.NAME
+                ? contactRepository.findFieldsNameSeekPage(selected, position.lastName(), position.lastId(), pageSize + 1)
+                : contactRepository.findFieldsByIdGreaterThan(selected, position.lastId(), pageSize + 1);
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = page.subList(0, pageSize);
+            Map<String, Object> last = page.get(pageSize - 1);
+            nextCursor = ContactCursor.after(position.sort(), (Long) last.get(ContactField.ID.getProperty()),
+                    (String) last.get(ContactField.NAME.getProperty())).encode();
+        }
+        // ключ курсора читается всегда, но в ответ попадает только по запросу
+        for (ContactField field : selected) {
+            if (!fields.contains(field)) {
+                page.forEach(row -> row.remove(field.getProperty()));
+            }
+        }
+        recordResultSize("getAllContacts", page.size());
+        log.info("Fetched {} contacts", page.size());
+        return new ContactFieldsPageDto(page, nextCursor);
+    }
+
+    /**
+     * Получение выбранных полей контакта по его идентификатору.
+     * <p>
+     * Контакт из {@link ContactCache} или несохраненное обновление ({@link PendingContactWrites})
+     * отдаются без обращения к базе данных; иначе читаются только запрошенные столбцы и версия,
+     * а кэш не заполняется.
+     * </p>
+     *
+     * @param id     Идентификатор контакта
+     * @param fields Поля контакта
+     * @return Свойства контакта в порядке {@link ContactField} и его версия
+     * @throws ContactNotFoundException Если контакт с таким идентификатором не найден
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public ContactFields getContactFieldsById(Long id, Set<ContactField> fields) {
+        log.info("Fetching fields {} of contact by ID {}", fields, id);
+        ContactResponseDto contact = pendingWrites.get(id);
+        if (contact == null) {
+            contact = owned(contactCache.getIfPresent(id));
+        }
+        if (contact != null) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            for (ContactField field : fields) {
+                values.put(field.getProperty(), field.read(contact));
+            }
+            return new ContactFields(values, contact.getVersion());
+        }
+        Set<ContactField> selected = EnumSet.copyOf(fields);
+        selected.add(ContactField.VERSION);
+        Map<String, Object> values = contactRepository.findFieldsById(selected, id)
+                .orElseThrow(() -> new ContactNotFoundException("Contact with ID " + id + " not found."));
+        long version = (Long) (fields.contains(ContactField.VERSION)
+                ? values.get(ContactField.VERSION.getProperty())
+                : values.remove(ContactField.VERSION.getProperty()));
+        return new ContactFields(values, version);
+    }
+
+    /**
+     * Поиск контактов по имени, email и номеру телефона.
+     * <p>
+     * Запрос обслуживается индексом в памяти {@link ContactSearchIndex} без обращения к базе данных;
+     * поддерживаются поиск по префиксу и неточные совпадения.
+     * </p>
+     *
+     * @param query Строка запроса
+     * @param limit Максимальное количество результатов (необязательно, не более {@link #MAX_SEARCH_RESULTS})
+     * @return Список объектов {@link ContactResponseDto}, наиболее релевантные первыми
+     * @throws IllegalArgumentException Если запрос пуст или лимит некорректен
+     */
+    @Timed(OPERATION_TIMER)
+    public List<ContactResponseDto> searchContacts(String query, Integer limit) {
+        int resultLimit = resolveSearchLimit(query, limit);
+        log.info("Searching contacts, limit {}", resultLimit);
+        List<ContactResponseDto> contacts = searchIndex.search(OwnerContext.current(), query, resultLimit);
+        recordResultSize("searchContacts", contacts.size());
+        log.info("Found {} contacts", contacts.size());
         return contacts;
     }
 
+    /**
+     * Обратный поиск контактов по номеру телефона.
+     * <p>
+     * Номер нормализуется так же, как при записи, и ищется в индексе {@link PhoneNumberIndex};
+     * найденные контакты читаются через {@link ContactCache}.
+     * </p>
+     *
+     * @param phoneNumber Номер телефона в произвольном формате
+     * @return Список объектов {@link ContactResponseDto} с этим номером, не более {@link #MAX_PHONE_MATCHES}
+     * @throws IllegalArgumentException Если номер невозможно нормализовать
+     * @throws ContactNotFoundException Если контактов с таким номером нет
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public List<ContactResponseDto> getContactsByPhone(String phoneNumber) {
+        long phoneKey = PhoneNumbers.normalize(phoneNumber);
+        if (phoneKey == PhoneNumbers.INVALID) {
+            throw new IllegalArgumentException(PhoneNumbers.INVALID_MESSAGE);
+        }
+        log.info("Fetching contacts by phone number");
+        long[] ids = new long[MAX_PHONE_MATCHES];
+        int found = Math.min(phoneNumberIndex.findIds(OwnerContext.current(), phoneKey, ids), ids.length);
+        List<ContactResponseDto> contacts = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            try {
+                ContactResponseDto contact = owned(contactCache.get(ids[i], this::loadContact));
+                if (contact != null) {
+                    contacts.add(contact);
+                }
+            } catch (ContactNotFoundException e) {
+                // контакт удален после чтения индекса или принадлежит другому владельцу
+            }
+        }
+        recordResultSize("getContactsByPhone", contacts.size());
+        if (contacts.isEmpty()) {
+            throw new ContactNotFoundException("No contacts found for phone number " + phoneNumber + ".");
+        }
+        log.info("Found {} contacts by phone number", contacts.size());
+        return contacts;
+    }
+
+    /**
+     * Изменения контактов после токена синхронизации.
+     * <p>
+     * Читается только часть журнала изменений после токена, поэтому стоимость запроса зависит
+     * от количества изменений, а не от размера книги. Несколько изменений одного контакта
+     * сворачиваются в одно с его текущим состоянием; удаленные контакты возвращаются без данных.
+     * Без токена возвращается только токен текущего конца журнала: его нужно получить
+     * до полной загрузки книги, чтобы не пропустить изменения, сделанные во время загрузки.
+     * </p>
+     *
+     * @param since Токен из предыдущего ответа (необязательно)
+     * @param limit Максимальное количество читаемых записей журнала (необязательно, не более {@link #MAX_CHANGES_PAGE_SIZE})
+     * @return Объект {@link ContactChangesDto} с изменениями и токеном следующего запроса
+     * @throws IllegalArgumentException    Если токен поврежден или лимит некорректен
+     * @throws ChangeTokenExpiredException Если токен устарел и нужна полная синхронизация
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public ContactChangesDto getChanges(String since, Integer limit) {
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        if (since == null) {
+            return new ContactChangesDto(List.of(), changeLog.currentToken().encode(), false);
+        }
+        int pageSize = limit == null ? DEFAULT_CHANGES_PAGE_SIZE : Math.min(limit, MAX_CHANGES_PAGE_SIZE);
+        log.info("Fetching contact changes, limit {}", pageSize);
+        ContactChangeLog.ChangeLogPage page = changeLog.read(ChangeToken.decode(since), pageSize);
+
+        Map<Long, ContactChange> latest = new LinkedHashMap<>();
+        for (ContactChange change : page.entries()) {
+            latest.remove(change.getContactId());
+            latest.put(change.getContactId(), change);
+        }
+        Set<Long> upserted = latest.values().stream()
+                .filter(change -> change.getType() == ContactChangeType.UPSERT)
+                .map(ContactChange::getContactId)
+                .collect(Collectors.toSet());
+        Map<Long, ContactResponseDto> contacts = contactRepository.findAllById(upserted).stream()
+                .collect(Collectors.toMap(Contact::getId, mapper::toResponse));
+
+        List<ContactChangeDto> changes = new ArrayList<>(latest.size());
+        for (ContactChange change : latest.values()) {
+            ContactResponseDto contact = contacts.get(change.getContactId());
+            // Контакт, удаленный после границы чтения, отдается как удаленный: удаление придет и в следующем ответе
+            ContactChangeType type = contact == null ? ContactChangeType.DELETE : change.getType();
+            changes.add(new ContactChangeDto(change.getContactId(), type, change.getRevision(), contact));
+        }
+        recordResultSize("getChanges", changes.size());
+        log.info("Fetched {} contact changes", changes.size());
+        return new ContactChangesDto(changes, page.next().encode(), page.hasMore());
+    }
+
+    /**
+     * Потоковый экспорт всех контактов в порядке ID.
+     * <p>
+     * Контакты читаются из курсора базы данных и передаются получателю по одному; каждая сущность
+     * отсоединяется от контекста персистентности сразу после преобразования, поэтому расход памяти
+     * не зависит от размера таблицы.
+     * </p>
+     *
+     * @param sink Получатель объектов {@link ContactResponseDto}
+     * @return Количество экспортированных контактов
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional(readOnly = true)
+    public long exportContacts(Consumer<ContactResponseDto> sink) {
+        log.info("Exporting all contacts");
+        long exported = 0;
+        try (Stream<Contact> contacts = contactRepository.streamAllByOrderByIdAsc()) {
+            Iterator<Contact> iterator = contacts.iterator();
+            while (iterator.hasNext()) {
+                Contact contact = iterator.next();
+                sink.accept(mapper.toResponse(contact));
+                entityManager.detach(contact);
+                exported++;
+            }
+        }
+        recordResultSize("exportContacts", exported);
+        log.info("Exported {} contacts", exported);
+        return exported;
+    }
+
     /**
      * Создание нового контакта.
      *
      * @param contactRequestDto Объект {@link ContactRequestDto} с информацией о новом контакте
      * @return Объект {@link ContactResponseDto} с данными созданного контакта
      */
+    @Timed(OPERATION_TIMER)
+    @Transactional
     public ContactResponseDto createContact(ContactRequestDto contactRequestDto) {
         log.info("Creating new contact.");
-        Contact contact = mapper.map(contactRequestDto, Contact.class);
-        validateContact(contact);
+        validateContact(contactRequestDto);
+        Contact contact = newContact(contactRequestDto);
         Contact savedContact = contactRepository.save(contact);
         log.info("Contact created with ID {}", savedContact.getId());
-        return mapper.map(savedContact, ContactResponseDto.class);
+        return publishChange(savedContact);
     }
 
     /**
      * Обновление существующего контакта или создание нового, если контакт с таким идентификатором не найден.
+     * <p>
+     * Новый контакт получает идентификатор из последовательности. Если указана ожидаемая версия,
+     * контакт должен существовать и иметь эту версию. Обновление выполняется одним запросом
+     * {@link ContactRepository#updateContact(long, String, String, String, Long)} без загрузки сущности: с проверкой ожидаемой версии
+     * или версии из {@link ContactCache}, поэтому новая версия известна без чтения. Если версии нет
+     * в кэше, после обновления читается только номер версии.
+     * </p>
      *
      * @param id Идентификатор контакта
      * @param contactRequestDto Объект {@link ContactRequestDto} с данными контакта
+     * @param expectedVersion Ожидаемая версия контакта, {@link #ANY_VERSION} или {@code null}, если проверка не нужна
      * @return Объект {@link ContactResponseDto} с данными обновленного или созданного контакта
+     * @throws ContactVersionMismatchException Если версия контакта не совпала с ожидаемой
      */
-    public ContactResponseDto saveOrUpdateContact(Long id, ContactRequestDto contactRequestDto) {
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public ContactResponseDto saveOrUpdateContact(Long id, ContactRequestDto contactRequestDto, Long expectedVersion) {
         log.info("Updating or creating contact with ID {}.", id);
-        Contact contact = mapper.map(contactRequestDto, Contact.class);
-        validateContact(contact);
-        contact.setId(id);
-        Contact savedContact = contactRepository.save(contact);
-        log.info("Contact with ID {} saved or updated successfully", id);
-        return mapper.map(savedContact, ContactResponseDto.class);
+        validateContact(contactRequestDto);
+        String name = contactRequestDto.getName();
+        String phoneNumber = contactRequestDto.getPhoneNumber();
+        String email = contactRequestDto.getEmail();
+        Long version = isVersionExpected(expectedVersion) ? expectedVersion : cachedVersion(id);
+        if (version != null && contactRepository.updateContact(id, name, phoneNumber, email, version) == 1) {
+            log.info("Contact with ID {} updated successfully", id);
+            return publishChange(updatedContact(id, name, phoneNumber, email, version + 1));
+        }
+        if (isVersionExpected(expectedVersion)) {
+            throw versionConflict(id, expectedVersion);
+        }
+        if (contactRepository.updateContact(id, name, phoneNumber, email, null) == 1) {
+            log.info("Contact with ID {} updated successfully", id);
+            return publishChange(updatedContact(id, name, phoneNumber, email, readUpdatedVersion(id)));
+        }
+        if (expectedVersion != null) {
+            throw new ContactVersionMismatchException("Contact with ID " + id + " does not exist.");
+        }
+        Contact savedContact = contactRepository.save(newContact(contactRequestDto));
+        log.info("Contact with ID {} created instead of missing ID {}", savedContact.getId(), id);
+        return publishChange(savedContact);
     }
 
     /**
-     * Удаление контакта по идентификатору.
+     * Частичное обновление контакта: меняются только поля, переданные со значением, отличным от {@code null}.
+     * <p>
+     * Обновление выполняется одним запросом {@link ContactRepository#patchContact(long, String, String, String, Long)} так же, как
+     * в {@link #saveOrUpdateContact(Long, ContactRequestDto, Long)}. Если контакт этой версии есть
+     * в {@link ContactCache}, ответ собирается из кэша без чтения, иначе контакт читается после обновления.
+     * </p>
+     *
+     * @param id                Идентификатор контакта
+     * @param contactRequestDto Объект {@link ContactRequestDto} с изменяемыми полями
+     * @param expectedVersion   Ожидаемая версия контакта, {@link #ANY_VERSION} или {@code null}, если проверка не нужна
+     * @return Объект {@link ContactResponseDto} с данными обновленного контакта
+     * @throws IllegalArgumentException        Если не передано ни одного поля или переданные поля некорректны
+     * @throws ContactNotFoundException        Если контакта нет, а версия не указана
+     * @throws ContactVersionMismatchException Если версия контакта не совпала с ожидаемой
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public ContactResponseDto patchContact(Long id, ContactRequestDto contactRequestDto, Long expectedVersion) {
+        log.info("Patching contact with ID {}.", id);
+        String name = contactRequestDto.getName();
+        String phoneNumber = contactRequestDto.getPhoneNumber();
+        String email = contactRequestDto.getEmail();
+        if (name == null && phoneNumber == null && email == null) {
+            throw new IllegalArgumentException("At least one contact field must be specified.");
+        }
+        validatePatch(contactRequestDto);
+        ContactResponseDto cached = owned(contactCache.getIfPresent(id));
+        Long version = isVersionExpected(expectedVersion) ? expectedVersion : cached == null ? null : cached.getVersion();
+        if (version != null && contactRepository.patchContact(id, name, phoneNumber, email, version) == 1) {
+            log.info("Contact with ID {} patched successfully", id);
+            if (cached != null && version.equals(cached.getVersion())) {
+                return publishChange(updatedContact(id,
+                        name != null ? name : cached.getName(),
+                        phoneNumber != null ? phoneNumber : cached.getPhoneNumber(),
+                        email != null ? email : cached.getEmail(),
+                        version + 1));
+            }
+            return publishChange(loadPatchedContact(id));
+        }
+        if (isVersionExpected(expectedVersion)) {
+            throw versionConflict(id, expectedVersion);
+        }
+        if (contactRepository.patchContact(id, name, phoneNumber, email, null) == 0) {
+            if (expectedVersion != null) {
+                throw new ContactVersionMismatchException("Contact with ID " + id + " does not exist.");
+            }
+            throw new ContactNotFoundException("Contact with ID " + id + " not found.");
+        }
+        log.info("Contact with ID {} patched successfully", id);
+        return publishChange(loadPatchedContact(id));
+    }
+
+    /**
+     * Удаление контакта по идентификатору одним запросом; отсутствие контакта определяется
+     * по количеству удаленных строк.
      *
      * @param id Идентификатор контакта
      * @throws ContactNotFoundException Если контакт с таким идентификатором не найден
      */
+    @Timed(OPERATION_TIMER)
+    @Transactional
     public void deleteContact(Long id) {
         log.info("Deleting contact with ID {}", id);
-        if (!contactRepository.existsById(id)) {
+        if (contactRepository.deleteContact(id) == 0) {
             throw new ContactNotFoundException("Contact with ID " + id + " does not exist.");
         }
-        contactRepository.deleteById(id);
+        eventPublisher.publishEvent(new ContactChangedEvent(id, null));
         log.info("Contact with ID {} deleted successfully", id);
     }
 
     /**
-     * Валидация контакта перед сохранением.
+     * Слияние контактов в один в одной транзакции.
+     * <p>
+     * Первый контакт из списка сохраняется, остальные удаляются. Данные сохраняемого контакта
+     * заменяются переданными, а если они не переданы, пустой email дополняется из удаляемых контактов
+     * в порядке списка. Одновременное изменение любого из контактов отменяет слияние при фиксации.
+     * </p>
+     *
+     * @param ids               Идентификаторы контактов, сохраняемый первым
+     * @param contactRequestDto Данные объединенного контакта (необязательно)
+     * @return Объект {@link ContactResponseDto} с данными объединенного контакта
+     * @throws IllegalArgumentException Если контактов меньше двух, идентификаторы повторяются или данные некорректны
+     * @throws ContactNotFoundException Если какого-либо контакта нет
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public ContactResponseDto mergeContacts(List<Long> ids, ContactRequestDto contactRequestDto) {
+        if (ids == null || ids.size() < 2) {
+            throw new IllegalArgumentException("At least two contacts must be specified for merge.");
+        }
+        if (ids.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Merge must not contain more than " + MAX_BATCH_SIZE + " contacts.");
+        }
+        if (ids.stream().anyMatch(Objects::isNull) || new HashSet<>(ids).size() != ids.size()) {
+            throw new IllegalArgumentException("Contact IDs must be specified and distinct.");
+        }
+        log.info("Merging {} contacts into contact with ID {}", ids.size(), ids.get(0));
+        Map<Long, Contact> contacts = contactRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+        for (Long id : ids) {
+            if (!contacts.containsKey(id)) {
+                throw new ContactNotFoundException("Contact with ID " + id + " not found.");
+            }
+        }
+        Contact target = contacts.get(ids.get(0));
+        List<Contact> merged = ids.subList(1, ids.size()).stream().map(contacts::get).toList();
+        if (contactRequestDto != null) {
+            validateContact(contactRequestDto);
+            mapper.updateEntity(contactRequestDto, target);
+        } else if (target.getEmail() == null) {
+            merged.stream().map(Contact::getEmail).filter(Objects::nonNull).findFirst().ifPresent(target::setEmail);
+        }
+        contactRepository.deleteAll(merged);
+        // версия увеличивается при сбросе изменений, а она нужна в ответе и в событии
+        Contact savedContact = contactRepository.saveAndFlush(target);
+        merged.forEach(contact -> eventPublisher.publishEvent(new ContactChangedEvent(contact.getId(), null)));
+        log.info("Merged {} contacts into contact with ID {}", merged.size(), savedContact.getId());
+        return publishChange(savedContact);
+    }
+
+    /**
+     * Сохранение обновлений, принятых {@link ContactWriteBehind}, в одной транзакции.
+     * <p>
+     * Каждый контакт обновляется тем же запросом, что и {@code PUT}, поэтому версия растет на 1 даже
+     * при неизменных данных. Ожидаемая версия на 1 меньше обещанной клиенту; если контакт изменили
+     * в обход отложенной записи, обновление применяется поверх без проверки версии.
+     * </p>
      *
-     * @param contact Объект {@link Contact} для валидации
+     * @param contacts Проверенные состояния контактов книги текущего владельца с обещанными версиями
+     * @return Идентификаторы контактов, удаленных до сохранения; их обновления пропущены
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public Set<Long> savePendingUpdates(List<ContactResponseDto> contacts) {
+        Set<Long> missing = new HashSet<>();
+        for (ContactResponseDto contact : contacts) {
+            Long id = contact.getId();
+            long version = contact.getVersion();
+            if (contactRepository.updateContact(id, contact.getName(), contact.getPhoneNumber(), contact.getEmail(),
+                    version - 1) == 0) {
+                if (contactRepository.updateContact(id, contact.getName(), contact.getPhoneNumber(), contact.getEmail(),
+                        null) == 0) {
+                    missing.add(id);
+                    continue;
+                }
+                log.warn("Contact with ID {} changed before its pending update was saved", id);
+                version = readUpdatedVersion(id);
+            }
+            publishChange(updatedContact(id, contact.getName(), contact.getPhoneNumber(), contact.getEmail(), version));
+        }
+        return missing;
+    }
+
+    /**
+     * Выполнение пакета операций создания, обновления и удаления в одной транзакции.
+     * <p>
+     * Существующие контакты для обновления и удаления загружаются одним запросом, а изменения
+     * отправляются в базу данных пакетами JDBC при фиксации транзакции. Операции, не прошедшие
+     * проверку, пропускаются и отражаются в результате; остальные применяются.
+     * </p>
+     *
+     * @param operations Список операций, не более {@link #MAX_BATCH_SIZE}
+     * @return Результаты операций в порядке запроса
+     * @throws IllegalArgumentException Если пакет пуст или превышает допустимый размер
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public List<ContactBatchResultDto> processBatch(List<ContactBatchOperationDto> operations) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one operation.");
+        }
+        if (operations.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Batch must not contain more than " + MAX_BATCH_SIZE + " operations.");
+        }
+        log.info("Processing batch of {} operations", operations.size());
+
+        Set<Long> existingIds = operations.stream()
+                .filter(operation -> operation.getOperation() != BatchOperationType.CREATE && operation.getId() != null)
+                .map(ContactBatchOperationDto::getId)
+                .collect(Collectors.toSet());
+        Map<Long, Contact> existing = contactRepository.findAllById(existingIds).stream()
+                .collect(Collectors.toMap(Contact::getId, Function.identity()));
+
+        List<ContactBatchResultDto> results = new ArrayList<>(operations.size());
+        Set<Contact> changed = new LinkedHashSet<>();
+        List<Long> deleted = new ArrayList<>();
+        for (int index = 0; index < operations.size(); index++) {
+            results.add(applyBatchOperation(index, operations.get(index), existing, changed, deleted));
+        }
+        // События публикуются после сброса изменений, чтобы в них попали новые версии контактов
+        contactRepository.flush();
+        changed.forEach(this::publishChange);
+        deleted.forEach(id -> eventPublisher.publishEvent(new ContactChangedEvent(id, null)));
+        log.info("Batch processed: {} operations", results.size());
+        return results;
+    }
+
+    /**
+     * Сохранение части файла импорта в одной транзакции.
+     * <p>
+     * Записи проверяются одним вызовом {@link ContactValidator#findViolations(List)}, параллельно,
+     * с теми же ограничениями, что и одиночное создание контакта;
+     * прошедшие проверку вставляются одним пакетом JDBC без контекста персистентности
+     * ({@link ContactRepository#insertAll(List)}), после чего для них публикуются события изменения.
+     * </p>
+     *
+     * @param contacts Данные создаваемых контактов, не более {@link #MAX_BATCH_SIZE}
+     * @return Ошибки проверки в порядке записей; {@code null} для сохраненных контактов
+     * @throws IllegalArgumentException Если часть превышает допустимый размер
+     */
+    @Timed(OPERATION_TIMER)
+    @Transactional
+    public List<String> importContacts(List<ContactRequestDto> contacts) {
+        if (contacts.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Import chunk must not contain more than " + MAX_BATCH_SIZE + " contacts.");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String[] errors = contactValidator.findViolations(contacts);
+        sample.stop(meterRegistry.timer(VALIDATION_TIMER, "outcome", "batch"));
+
+        List<Contact> saved = new ArrayList<>(errors.length);
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null) {
+                saved.add(newContact(contacts.get(i)));
+            }
+        }
+        contactRepository.insertAll(saved);
+        saved.forEach(this::publishChange);
+        log.info("Imported {} of {} contacts", saved.size(), contacts.size());
+        return Arrays.asList(errors);
+    }
+
+    /**
+     * Валидация данных контакта перед сохранением.
+     *
+     * @param contactRequestDto Объект {@link ContactRequestDto} для валидации
      * @throws IllegalArgumentException Если валидация не пройдена
      */
-    private void validateContact(Contact contact) {
+    private void validateContact(ContactRequestDto contactRequestDto) {
         log.info("Validating contact...");
-        Set<ConstraintViolation<Contact>> violations = validator.validate(contact);
-        if (!violations.isEmpty()) {
-            StringBuilder errorMessage = new StringBuilder("Validation failed for Contact: ");
-            for (ConstraintViolation<Contact> violation : violations) {
-                errorMessage.append(violation.getMessage()).append("; ");
-            }
-            throw new IllegalArgumentException(errorMessage.toString());
+        String errorMessage = findViolations(contactRequestDto);
+        if (errorMessage != null) {
+            throw new IllegalArgumentException(errorMessage);
         }
         log.info("Validation passed.");
     }
+
+    /**
+     * Валидация переданных полей частичного обновления.
+     *
+     * @param contactRequestDto Объект {@link ContactRequestDto} с изменяемыми полями
+     * @throws IllegalArgumentException Если валидация не пройдена
+     */
+    private void validatePatch(ContactRequestDto contactRequestDto) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String errorMessage = contactValidator.findPatchViolations(contactRequestDto);
+        sample.stop(meterRegistry.timer(VALIDATION_TIMER, "outcome", errorMessage == null ? "valid" : "invalid"));
+        if (errorMessage != null) {
+            throw new IllegalArgumentException(errorMessage);
+        }
+    }
+
+    /**
+     * Проверка ограничений контакта без выброса исключения.
+     *
+     * @param contactRequestDto Объект {@link ContactRequestDto} для проверки
+     * @return Сообщение об ошибках или {@code null}, если контакт корректен
+     */
+    private String findViolations(ContactRequestDto contactRequestDto) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String errorMessage = contactValidator.findViolations(contactRequestDto);
+        sample.stop(meterRegistry.timer(VALIDATION_TIMER, "outcome", errorMessage == null ? "valid" : "invalid"));
+        return errorMessage;
+    }
+
+    private static boolean isVersionExpected(Long expectedVersion) {
+        return expectedVersion != null && expectedVersion != ANY_VERSION;
+    }
+
+    private Long cachedVersion(Long id) {
+        ContactResponseDto cached = owned(contactCache.getIfPresent(id));
+        return cached == null ? null : cached.getVersion();
+    }
+
+    /**
+     * @return Контакт, если он принадлежит текущему владельцу, иначе {@code null}
+     */
+    private static ContactResponseDto owned(ContactResponseDto contact) {
+        return contact != null && OwnerContext.current().equals(contact.getOwner()) ? contact : null;
+    }
+
+    /**
+     * Исключение для обновления с ожидаемой версией, не затронувшего ни одной строки.
+     */
+    private RuntimeException versionConflict(Long id, long expectedVersion) {
+        Long currentVersion = contactRepository.findVersionById(id).orElse(null);
+        if (currentVersion == null) {
+            return new ContactVersionMismatchException("Contact with ID " + id + " does not exist.");
+        }
+        if (currentVersion != expectedVersion) {
+            return new ContactVersionMismatchException("Contact with ID " + id + " has version " + currentVersion
+                    + ", expected " + expectedVersion + ".");
+        }
+        // версия совпала уже после неудачного обновления: контакт менялся одновременно с нами
+        return new ObjectOptimisticLockingFailureException(Contact.class, id);
+    }
+
+    /**
+     * Версия только что обновленного контакта. Строка заблокирована обновлением до конца транзакции,
+     * поэтому прочитанная версия принадлежит этому обновлению.
+     */
+    private long readUpdatedVersion(Long id) {
+        return contactRepository.findVersionById(id)
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Contact.class, id));
+    }
+
+    private Contact loadPatchedContact(Long id) {
+        return contactRepository.findById(id)
+                .orElseThrow(() -> new ObjectOptimisticLockingFailureException(Contact.class, id));
+    }
+
+    /**
+     * Новый контакт книги текущего владельца. Hibernate подставляет владельца только при вставке,
+     * а ответ и кэш строятся до нее.
+     */
+    private Contact newContact(ContactRequestDto contactRequestDto) {
+        Contact contact = mapper.toEntity(contactRequestDto);
+        contact.setOwner(OwnerContext.requireOwner());
+        return contact;
+    }
+
+    private static Contact updatedContact(Long id, String name, String phoneNumber, String email, long version) {
+        Contact contact = new Contact(id, name, phoneNumber, email);
+        contact.setVersion(version);
+        contact.setOwner(OwnerContext.current());
+        return contact;
+    }
+
+    private void recordResultSize(String operation, long size) {
+        meterRegistry.summary(RESULT_SIZE_SUMMARY, "operation", operation).record(size);
+    }
+
+    private ContactResponseDto loadContact(Long id) {
+        Contact contact = contactRepository.findById(id)
+                .orElseThrow(() -> new ContactNotFoundException("Contact with ID " + id + " not found."));
+        return mapper.toResponse(contact);
+    }
+
+    private ContactResponseDto publishChange(Contact contact) {
+        ContactResponseDto response = mapper.toResponse(contact);
+        eventPublisher.publishEvent(new ContactChangedEvent(contact.getId(), response));
+        return response;
+    }
+
+    private ContactBatchResultDto applyBatchOperation(int index, ContactBatchOperationDto operation, Map<Long, Contact> existing,
+                                                      Set<Contact> changed, List<Long> deleted) {
+        BatchOperationType type = operation.getOperation();
+        Long id = operation.getId();
+        if (type == null) {
+            return new ContactBatchResultDto(index, null, id, 400, "Operation must be specified.");
+        }
+        if (type != BatchOperationType.CREATE && id == null) {
+            return new ContactBatchResultDto(index, type, null, 400, "ID must be specified.");
+        }
+        if (type != BatchOperationType.DELETE && operation.getContact() == null) {
+            return new ContactBatchResultDto(index, type, id, 400, "Contact must be specified.");
+        }
+
+        switch (type) {
+            case CREATE -> {
+                String error = findViolations(operation.getContact());
+                if (error != null) {
+                    return new ContactBatchResultDto(index, type, null, 400, error);
+                }
+                Contact savedContact = contactRepository.save(newContact(operation.getContact()));
+                changed.add(savedContact);
+                return new ContactBatchResultDto(index, type, savedContact.getId(), 201, null);
+            }
+            case UPDATE -> {
+                Contact target = existing.get(id);
+                if (target == null) {
+                    return new ContactBatchResultDto(index, type, id, 404, "Contact with ID " + id + " not found.");
+                }
+                String error = findViolations(operation.getContact());
+                if (error != null) {
+                    return new ContactBatchResultDto(index, type, id, 400, error);
+                }
+                mapper.updateEntity(operation.getContact(), target);
+                changed.add(target);
+                return new ContactBatchResultDto(index, type, id, 200, null);
+            }
+            default -> {
+                Contact target = existing.remove(id);
+                if (target == null) {
+                    return new ContactBatchResultDto(index, type, id, 404, "Contact with ID " + id + " does not exist.");
+                }
+                contactRepository.delete(target);
+                changed.remove(target);
+                deleted.add(id);
+                return new ContactBatchResultDto(index, type, id, 204, null);
+            }
+        }
+    }
+
+    /**
+     * Количество результатов поиска по параметрам запроса.
+     *
+     * @param query Строка запроса
+     * @param limit Запрошенное количество (необязательно)
+     * @return Количество результатов, не больше {@link #MAX_SEARCH_RESULTS}
+     * @throws IllegalArgumentException Если запрос пуст или количество не положительно
+     */
+    public static int resolveSearchLimit(String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be blank.");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        return limit == null ? DEFAULT_SEARCH_RESULTS : Math.min(limit, MAX_SEARCH_RESULTS);
+    }
+
+    /**
+     * Размер страницы списка контактов по параметру запроса.
+     *
+     * @param limit Запрошенный размер (необязательно)
+     * @return Размер страницы, не больше {@link #MAX_PAGE_SIZE}
+     * @throws IllegalArgumentException Если размер не положителен
+     */
+    public static int resolvePageSize(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        if (limit < 1) {
+            throw new IllegalArgumentException("Limit must be positive.");
+        }
+        return Math.min(limit, MAX_PAGE_SIZE);
+    }
 }
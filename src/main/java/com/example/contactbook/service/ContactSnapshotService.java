@@ -0,0 +1,214 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.SnapshotDto;
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.snapshot.ContactSnapshotReader;
+import com.example.contactbook.snapshot.ContactSnapshotWriter;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Снимки книги контактов в двоичном файле и восстановление из них при запуске.
+ * <p>
+ * Снимок пишется во временный файл рядом с {@code contact-book.snapshot.path} и атомарно заменяет
+ * предыдущий, поэтому при сбое во время записи остается прежний снимок. Снимок создается по запросу
+ * и по расписанию {@code contact-book.snapshot.cron}.
+ * </p>
+ * <p>
+ * При запуске, если таблица контактов пуста, снимок отображается в память и загружается в базу
+ * пакетами JDBC с исходными идентификаторами и версиями в одной транзакции — до того, как приложение
+ * начнет принимать запросы и построит индексы. Поврежденный снимок откатывается и не мешает запуску.
+ * </p>
+ * <p>
+ * Снимок содержит книги всех владельцев со всех шардов. При восстановлении снимок читается отдельно
+ * для каждого шарда, и в его базу загружаются книги владельцев, размещенных на нем.
+ * </p>
+ */
+@Slf4j
+@Service
+public class ContactSnapshotService {
+
+    /**
+     * Размер пакета вставки при восстановлении.
+     */
+    static final int RESTORE_BATCH_SIZE = 1000;
+
+    private final ContactService contactService;
+    private final ContactRepository contactRepository;
+    private final ShardDirectory shardDirectory;
+    private final TransactionTemplate transaction;
+    private final Path path;
+    private final boolean restoreOnStartup;
+    private final Clock clock;
+
+    @Autowired
+    public ContactSnapshotService(ContactService contactService, ContactRepository contactRepository,
+                                  ShardDirectory shardDirectory, PlatformTransactionManager transactionManager,
+                                  @Value("${contact-book.snapshot.path:data/contacts.snapshot}") Path path,
+                                  @Value("${contact-book.snapshot.restore-on-startup:true}") boolean restoreOnStartup) {
+        this(contactService, contactRepository, shardDirectory, transactionManager, path, restoreOnStartup,
+                Clock.systemUTC());
+    }
+
+    ContactSnapshotService(ContactService contactService, ContactRepository contactRepository,
+                           ShardDirectory shardDirectory, PlatformTransactionManager transactionManager, Path path,
+                           boolean restoreOnStartup, Clock clock) {
+        this.contactService = contactService;
+        this.contactRepository = contactRepository;
+        this.shardDirectory = shardDirectory;
+        this.transaction = new TransactionTemplate(transactionManager);
+        this.path = path;
+        this.restoreOnStartup = restoreOnStartup;
+        this.clock = clock;
+    }
+
+    @PostConstruct
+    void restoreOnStartup() {
+        if (restoreOnStartup) {
+            restore();
+        }
+    }
+
+    /**
+     * Создание снимка контактов всех владельцев.
+     *
+     * @return Объект {@link SnapshotDto} с размером и длительностью создания снимка
+     * @throws IOException Если не удалось записать файл
+     */
+    public synchronized SnapshotDto createSnapshot() throws IOException {
+        Instant startedAt = clock.instant();
+        Path directory = path.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+        try {
+            long contacts;
+            try (ContactSnapshotWriter writer = new ContactSnapshotWriter(temporary)) {
+                shardDirectory.forEachShard(shard -> contactService.exportContacts(contact -> {
+                    try {
+                        writer.write(contact);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }));
+                contacts = writer.count();
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            Files.move(temporary, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            long size = Files.size(path);
+            long duration = clock.millis() - startedAt.toEpochMilli();
+            log.info("Snapshot of {} contacts written to {}: {} bytes in {} ms", contacts, path, size, duration);
+            return new SnapshotDto(path.toString(), contacts, size, startedAt, duration);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Создание снимка по расписанию. Ошибки записываются в журнал.
+     */
+    @Scheduled(cron = "${contact-book.snapshot.cron:-}")
+    public void createScheduledSnapshot() {
+        try {
+            createSnapshot();
+        } catch (IOException | RuntimeException e) {
+            log.error("Scheduled snapshot failed: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Загрузка контактов из снимка, если он существует, в шарды с пустой таблицей контактов.
+     *
+     * @return Количество восстановленных контактов
+     */
+    public long restore() {
+        if (!Files.isRegularFile(path)) {
+            log.info("No snapshot at {}, skipping restore", path);
+            return 0;
+        }
+        long[] restored = new long[1];
+        shardDirectory.forEachShard(shard -> restored[0] += restore(shard));
+        return restored[0];
+    }
+
+    private long restore(int shard) {
+        long startedAt = clock.millis();
+        try {
+            ContactSnapshotReader reader = ContactSnapshotReader.open(path);
+            Long restored = transaction.execute(status -> {
+                if (contactRepository.count() > 0) {
+                    log.info("Contacts table of shard {} is not empty, skipping snapshot restore",
+                            shardDirectory.name(shard));
+                    return 0L;
+                }
+                try {
+                    return restore(reader, shard);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            if (restored != null && restored > 0) {
+                log.info("Restored {} contacts from {} to shard {} in {} ms", restored, path,
+                        shardDirectory.name(shard), clock.millis() - startedAt);
+            }
+            return restored == null ? 0 : restored;
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to restore snapshot {}: {}", path, e.getMessage(), e);
+            return 0;
+        }
+    }
+
+    /**
+     * Загрузка книг владельцев, размещенных на шарде. Последовательность идентификаторов шарда
+     * перезапускается после наибольшего идентификатора его диапазона во всем снимке: контакты
+     * перенесенных книг сохраняют идентификаторы, выданные другим шардом.
+     */
+    private long restore(ContactSnapshotReader reader, int shard) throws IOException {
+        List<Contact> batch = new ArrayList<>(RESTORE_BATCH_SIZE);
+        long lastId = 0;
+        long restored = 0;
+        ContactResponseDto record;
+        while ((record = reader.next()) != null) {
+            if (record.getId() / ShardDirectory.ID_RANGE == shard) {
+                lastId = Math.max(lastId, record.getId());
+            }
+            if (shardDirectory.shardOf(record.getOwner()) != shard) {
+                continue;
+            }
+            Contact contact = new Contact(record.getId(), record.getName(), record.getPhoneNumber(), record.getEmail());
+            contact.setVersion(record.getVersion());
+            contact.setOwner(record.getOwner());
+            batch.add(contact);
+            if (batch.size() == RESTORE_BATCH_SIZE) {
+                contactRepository.restoreAll(batch);
+                restored += batch.size();
+                batch.clear();
+            }
+        }
+        contactRepository.restoreAll(batch);
+        restored += batch.size();
+        if (lastId > 0) {
+            contactRepository.restartIdSequenceAfter(lastId);
+        }
+        return restored;
+    }
+}
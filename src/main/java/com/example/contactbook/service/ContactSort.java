@@ -0,0 +1,29 @@
+package com.example.contactbook.service;
+
+import java.util.Locale;
+
+/**
+ * Поддерживаемые порядки сортировки списка контактов.
+ */
+public enum ContactSort {
+    ID,
+    NAME;
+
+    /**
+     * Разбор порядка сортировки из параметра запроса.
+     *
+     * @param value Значение параметра ({@code id} или {@code name}), {@code null} означает сортировку по ID
+     * @return Порядок сортировки
+     * @throws IllegalArgumentException Если порядок не поддерживается
+     */
+    public static ContactSort fromParameter(String value) {
+        if (value == null || value.isBlank()) {
+            return ID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported sort: " + value);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.exceptions.ContactNotFoundException;
+import com.example.contactbook.exceptions.ServiceOverloadedException;
+import com.example.contactbook.service.PendingContactWrites.Key;
+import com.example.contactbook.service.PendingContactWrites.PendingWrite;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.example.contactbook.validation.ContactValidator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Отложенная запись обновлений контактов ({@code contact-book.write-behind.enabled}).
+ * <p>
+ * Обновление существующего контакта без ожидаемой версии проверяется и помещается в
+ * {@link PendingContactWrites}; повторные обновления того же контакта заменяют друг друга.
+ * Фоновый поток сохраняет накопленные обновления через {@link ContactService#savePendingUpdates(List)}
+ * пакетами по {@code batch-size}: каждые {@code flush-interval} или сразу, когда накопился пакет.
+ * </p>
+ * <p>
+ * Число контактов с несохраненными обновлениями ограничено {@code capacity}: при аварийной остановке
+ * теряется не больше этого числа контактов, принятых не раньше чем за {@code flush-interval} до нее,
+ * если сохранение не завершалось ошибкой. Когда набор заполнен, новое обновление ждет места не дольше
+ * {@code offer-timeout} и отклоняется с 503. Неудачный пакет остается в наборе и повторяется. При
+ * остановке приложения новые обновления выполняются сразу, а накопленные сохраняются до конца.
+ * </p>
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "contact-book.write-behind.enabled", havingValue = "true")
+public class ContactWriteBehind {
+
+    /**
+     * Счетчик обновлений с тегом {@code outcome}: {@code queued}, {@code coalesced}, {@code rejected},
+     * {@code flushed} или {@code dropped} (контакт удален до сохранения).
+     */
+    public static final String WRITES_COUNTER = "contact.write-behind.writes";
+
+    private final ContactService contactService;
+    private final ContactValidator contactValidator;
+    private final PendingContactWrites pendingWrites;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Semaphore capacity;
+    private final ScheduledExecutorService flusher;
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    /**
+     * Контакты, обновления которых сейчас сохраняются; завершение сохранения ожидают другие потоки.
+     */
+    private final Map<Key, CompletableFuture<Void>> saving = new ConcurrentHashMap<>();
+    private final Timer flushTimer;
+    private final Counter queued;
+    private final Counter coalesced;
+    private final Counter rejected;
+    private final Counter flushed;
+    private final Counter dropped;
+    private volatile boolean closed;
+
+    @Autowired
+    public ContactWriteBehind(ContactService contactService, ContactValidator contactValidator,
+                              PendingContactWrites pendingWrites, MeterRegistry meterRegistry,
+                              @Value("${contact-book.write-behind.capacity:10000}") int capacity,
+                              @Value("${contact-book.write-behind.batch-size:500}") int batchSize,
+                              @Value("${contact-book.write-behind.flush-interval:200ms}") Duration flushInterval,
+                              @Value("${contact-book.write-behind.offer-timeout:100ms}") Duration offerTimeout) {
+        this(contactService, contactValidator, pendingWrites, meterRegistry, capacity, batchSize, offerTimeout);
+        flusher.scheduleWithFixedDelay(this::flushQuietly, flushInterval.toNanos(), flushInterval.toNanos(),
+                TimeUnit.NANOSECONDS);
+    }
+
+    ContactWriteBehind(ContactService contactService, ContactValidator contactValidator,
+                       PendingContactWrites pendingWrites, MeterRegistry meterRegistry,
+                       int capacity, int batchSize, Duration offerTimeout) {
+        if (batchSize < 1 || batchSize > ContactService.MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("Write-behind batch size must be from 1 to " + ContactService.MAX_BATCH_SIZE + ".");
+        }
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Write-behind capacity must be positive.");
+        }
+        this.contactService = contactService;
+        this.contactValidator = contactValidator;
+        this.pendingWrites = pendingWrites;
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.capacity = new Semaphore(capacity);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("write-behind").daemon().factory());
+        this.flushTimer = meterRegistry.timer("contact.write-behind.flush");
+        this.queued = meterRegistry.counter(WRITES_COUNTER, "outcome", "queued");
+        this.coalesced = meterRegistry.counter(WRITES_COUNTER, "outcome", "coalesced");
+        this.rejected = meterRegistry.counter(WRITES_COUNTER, "outcome", "rejected");
+        this.flushed = meterRegistry.counter(WRITES_COUNTER, "outcome", "flushed");
+        this.dropped = meterRegistry.counter(WRITES_COUNTER, "outcome", "dropped");
+        Gauge.builder("contact.write-behind.pending", pendingWrites, PendingContactWrites::size).register(meterRegistry);
+    }
+
+    /**
+     * Прием обновления контакта для отложенной записи.
+     *
+     * @param id                Идентификатор контакта
+     * @param contactRequestDto Объект {@link ContactRequestDto} с данными контакта
+     * @return Состояние контакта с версией, которую он получит после сохранения, или {@code null},
+     * если обновление нужно выполнить сразу: контакта нет (PUT создаст новый) или приложение останавливается
+     * @throws IllegalArgumentException   Если валидация не пройдена
+     * @throws ServiceOverloadedException Если набор несохраненных обновлений заполнен
+     */
+    public ContactResponseDto submit(Long id, ContactRequestDto contactRequestDto) {
+        if (closed) {
+            return null;
+        }
+        String errorMessage = contactValidator.findViolations(contactRequestDto);
+        if (errorMessage != null) {
+            throw new IllegalArgumentException(errorMessage);
+        }
+        String owner = OwnerContext.requireOwner();
+        Key key = new Key(owner, id);
+        PendingWrite merged = pendingWrites.computeIfPresent(key,
+                (k, current) -> current.next(response(id, owner, contactRequestDto)));
+        if (merged != null) {
+            coalesced.increment();
+            return merged.contact();
+        }
+
+        long version;
+        try {
+            version = contactService.getContactVersion(id);
+        } catch (ContactNotFoundException e) {
+            return null;
+        }
+        acquire();
+        ContactResponseDto contact = response(id, owner, contactRequestDto);
+        contact.setVersion(version + 1);
+        PendingWrite created = new PendingWrite(contact, false);
+        PendingWrite result = pendingWrites.merge(key, created,
+                (current, ignored) -> current.next(response(id, owner, contactRequestDto)));
+        if (result == created) {
+            queued.increment();
+        } else {
+            // одновременное обновление того же контакта заняло место раньше
+            capacity.release();
+            coalesced.increment();
+        }
+        if (pendingWrites.size() >= batchSize) {
+            requestFlush();
+        }
+        return result.contact();
+    }
+
+    /**
+     * Немедленное сохранение обновлений контактов книги текущего владельца.
+     * Вызывается перед другими изменениями этих контактов, чтобы они применялись после обновлений.
+     *
+     * @param ids Идентификаторы контактов
+     */
+    public void flush(Collection<Long> ids) {
+        if (pendingWrites.size() == 0 || ids.isEmpty()) {
+            return;
+        }
+        String owner = OwnerContext.current();
+        for (Long id : ids) {
+            flush(new Key(owner, id));
+        }
+    }
+
+    /**
+     * Сохранение всех накопленных обновлений. Контакты, которые уже сохраняет другой поток, пропускаются.
+     */
+    public void flush() {
+        Map<Key, CompletableFuture<Void>> claimed = new HashMap<>();
+        Map<String, List<Map.Entry<Key, PendingWrite>>> byOwner = new LinkedHashMap<>();
+        try {
+            for (Key key : pendingWrites.keys()) {
+                CompletableFuture<Void> saved = new CompletableFuture<>();
+                if (saving.putIfAbsent(key, saved) != null) {
+                    continue;
+                }
+                claimed.put(key, saved);
+                PendingWrite taken = pendingWrites.computeIfPresent(key, (k, current) -> current.take());
+                if (taken != null) {
+                    byOwner.computeIfAbsent(key.owner(), owner -> new ArrayList<>()).add(Map.entry(key, taken));
+                }
+            }
+            byOwner.forEach((owner, writes) -> {
+                for (int from = 0; from < writes.size(); from += batchSize) {
+                    List<Map.Entry<Key, PendingWrite>> batch = writes.subList(from, Math.min(writes.size(), from + batchSize));
+                    try {
+                        flushTimer.record(() -> OwnerContext.runAs(owner, () -> save(batch)));
+                    } finally {
+                        batch.forEach(write -> release(write.getKey(), claimed.remove(write.getKey())));
+                    }
+                }
+            });
+        } finally {
+            claimed.forEach(this::release);
+        }
+    }
+
+    /**
+     * Остановка приема и сохранение накопленных обновлений.
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        closed = true;
+        flusher.shutdown();
+        flusher.awaitTermination(1, TimeUnit.MINUTES);
+        int pending = pendingWrites.size();
+        flush();
+        if (pendingWrites.size() > 0) {
+            log.error("Write-behind stopped with {} unsaved contacts", pendingWrites.size());
+        } else if (pending > 0) {
+            log.info("Write-behind drained {} contacts", pending);
+        }
+    }
+
+    private void acquire() {
+        if (capacity.tryAcquire()) {
+            return;
+        }
+        requestFlush();
+        try {
+            if (capacity.tryAcquire(offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        rejected.increment();
+        throw new ServiceOverloadedException("Write-behind queue is full.", 1);
+    }
+
+    private void requestFlush() {
+        if (closed || !flushRequested.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flusher.execute(() -> {
+                flushRequested.set(false);
+                flushQuietly();
+            });
+        } catch (RejectedExecutionException e) {
+            // приложение останавливается: накопленное сохранит close()
+            flushRequested.set(false);
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Write-behind flush failed", e);
+        }
+    }
+
+    /**
+     * Сохранение обновления одного контакта. Если его уже сохраняет другой поток, ожидается конец
+     * того сохранения, иначе два потока могли бы сохранить состояния контакта в обратном порядке.
+     */
+    private void flush(Key key) {
+        while (pendingWrites.contains(key)) {
+            CompletableFuture<Void> saved = new CompletableFuture<>();
+            CompletableFuture<Void> current = saving.putIfAbsent(key, saved);
+            if (current != null) {
+                current.join();
+                continue;
+            }
+            try {
+                PendingWrite taken = pendingWrites.computeIfPresent(key, (k, write) -> write.take());
+                if (taken != null) {
+                    flushTimer.record(() -> save(List.of(Map.entry(key, taken))));
+                }
+            } finally {
+                release(key, saved);
+            }
+            return;
+        }
+    }
+
+    private void release(Key key, CompletableFuture<Void> saved) {
+        if (saved != null) {
+            saving.remove(key, saved);
+            saved.complete(null);
+        }
+    }
+
+    private void save(List<Map.Entry<Key, PendingWrite>> batch) {
+        List<ContactResponseDto> contacts = new ArrayList<>(batch.size());
+        for (Map.Entry<Key, PendingWrite> write : batch) {
+            contacts.add(write.getValue().contact());
+        }
+        Set<Long> missing;
+        try {
+            missing = contactService.savePendingUpdates(contacts);
+        } catch (RuntimeException e) {
+            // версия не сохранилась: следующее обновление должно получить ту же версию, а не следующую
+            for (Map.Entry<Key, PendingWrite> write : batch) {
+                pendingWrites.computeIfPresent(write.getKey(),
+                        (k, current) -> current == write.getValue() ? current.untake() : current);
+            }
+            throw e;
+        }
+        for (Map.Entry<Key, PendingWrite> write : batch) {
+            if (missing.contains(write.getKey().id())) {
+                log.warn("Contact with ID {} was deleted before its pending update was saved", write.getKey().id());
+                dropped.increment();
+            } else {
+                flushed.increment();
+            }
+            // более новое обновление того же контакта остается в наборе до следующего пакета
+            if (pendingWrites.remove(write.getKey(), write.getValue())) {
+                capacity.release();
+            }
+        }
+    }
+
+    private static ContactResponseDto response(Long id, String owner, ContactRequestDto contactRequestDto) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setName(contactRequestDto.getName());
+        contact.setPhoneNumber(contactRequestDto.getPhoneNumber());
+        contact.setEmail(contactRequestDto.getEmail());
+        contact.setOwner(owner);
+        return contact;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ImportJobDto;
+import com.example.contactbook.dto.ImportJobStatus;
+import com.example.contactbook.dto.ImportRowErrorDto;
+import com.example.contactbook.importer.ImportFormat;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Изменяемое состояние задания импорта. Счетчики обновляет поток задания,
+ * а читают запросы состояния.
+ */
+class ImportJob {
+
+    private final String id;
+    private final String owner;
+    private final ImportFormat format;
+    private final Clock clock;
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ImportRowErrorDto> errors = new ArrayList<>();
+    private volatile ImportJobStatus status = ImportJobStatus.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String message;
+
+    ImportJob(String id, String owner, ImportFormat format, Clock clock) {
+        this.id = id;
+        this.owner = owner;
+        this.format = format;
+        this.clock = clock;
+    }
+
+    String id() {
+        return id;
+    }
+
+    /**
+     * @return Владелец книги, в которую импортируются контакты
+     */
+    String owner() {
+        return owner;
+    }
+
+    ImportFormat format() {
+        return format;
+    }
+
+    boolean isFinished() {
+        return finishedAt != null;
+    }
+
+    void start() {
+        startedAt = clock.instant();
+        status = ImportJobStatus.RUNNING;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    void imported(int count) {
+        imported.addAndGet(count);
+    }
+
+    void failed(long row, String error) {
+        failed.incrementAndGet();
+        synchronized (errors) {
+            if (errors.size() < ContactImportService.MAX_REPORTED_ERRORS) {
+                errors.add(new ImportRowErrorDto(row, error));
+            }
+        }
+    }
+
+    void complete() {
+        finish(ImportJobStatus.COMPLETED, null);
+    }
+
+    void fail(String message) {
+        finish(ImportJobStatus.FAILED, message);
+    }
+
+    private void finish(ImportJobStatus status, String message) {
+        this.message = message;
+        this.finishedAt = clock.instant();
+        this.status = status;
+    }
+
+    ImportJobDto toDto() {
+        Instant started = startedAt;
+        Instant finished = finishedAt;
+        long importedRows = imported.get();
+        double rowsPerSecond = 0;
+        if (started != null) {
+            long micros = Duration.between(started, finished != null ? finished : clock.instant()).toNanos() / 1000;
+            rowsPerSecond = micros > 0 ? importedRows * 1_000_000.0 / micros : 0;
+        }
+        List<ImportRowErrorDto> errorsCopy;
+        synchronized (errors) {
+            errorsCopy = errors.isEmpty() ? null : List.copyOf(errors);
+        }
+        return new ImportJobDto(id, format, status, rowsRead.get(), importedRows, failed.get(),
+                Math.round(rowsPerSecond * 10) / 10.0, started, finished, message, errorsCopy);
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiFunction;
+
+/**
+ * Обновления контактов, принятые {@link ContactWriteBehind}, но еще не сохраненные в базе данных.
+ * <p>
+ * {@link ContactService} отдает их при чтении контакта по идентификатору, поэтому клиент видит свое
+ * обновление сразу после ответа 202. Без отложенной записи набор всегда пуст.
+ * </p>
+ */
+@Component
+public class PendingContactWrites {
+
+    private final Map<Key, PendingWrite> writes = new ConcurrentHashMap<>();
+
+    /**
+     * Несохраненное состояние контакта книги текущего владельца.
+     *
+     * @param id Идентификатор контакта
+     * @return Объект {@link ContactResponseDto} или {@code null}, если обновлений контакта не ожидается
+     */
+    public ContactResponseDto get(Long id) {
+        if (writes.isEmpty()) {
+            return null;
+        }
+        PendingWrite write = writes.get(new Key(OwnerContext.current(), id));
+        return write == null ? null : write.contact();
+    }
+
+    /**
+     * @return Количество контактов с несохраненными обновлениями
+     */
+    public int size() {
+        return writes.size();
+    }
+
+    boolean contains(Key key) {
+        return writes.containsKey(key);
+    }
+
+    PendingWrite computeIfPresent(Key key, BiFunction<Key, PendingWrite, PendingWrite> function) {
+        return writes.computeIfPresent(key, function);
+    }
+
+    PendingWrite merge(Key key, PendingWrite write, BiFunction<PendingWrite, PendingWrite, PendingWrite> function) {
+        return writes.merge(key, write, function);
+    }
+
+    boolean remove(Key key, PendingWrite write) {
+        return writes.remove(key, write);
+    }
+
+    Iterable<Key> keys() {
+        return writes.keySet();
+    }
+
+    /**
+     * Контакт книги владельца.
+     */
+    record Key(String owner, long id) {
+    }
+
+    /**
+     * Последнее принятое состояние контакта.
+     *
+     * @param contact Состояние с версией, которую контакт получит после сохранения
+     * @param taken   Состояние передано на сохранение; следующее обновление получит следующую версию
+     */
+    record PendingWrite(ContactResponseDto contact, boolean taken) {
+
+        /**
+         * Объединение с более новым обновлением того же контакта.
+         */
+        PendingWrite next(ContactResponseDto update) {
+            update.setVersion(taken ? contact.getVersion() + 1 : contact.getVersion());
+            return new PendingWrite(update, false);
+        }
+
+        PendingWrite take() {
+            return taken ? this : new PendingWrite(contact, true);
+        }
+
+        /**
+         * Возврат в набор после неудачного сохранения: версия еще не записана.
+         */
+        PendingWrite untake() {
+            return new PendingWrite(contact, false);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.contactbook.sharding;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Кольцо согласованного хеширования владельцев книг по шардам.
+ * <p>
+ * Каждый шард занимает на кольце {@code virtualNodes} точек; владелец относится к шарду первой точки,
+ * не меньшей хеша его имени (после последней точки — к первой). При добавлении шарда к нему переходит
+ * примерно {@code 1/N} владельцев, остальные остаются на своих шардах. Хеш не зависит от версии JVM,
+ * поэтому размещение книг сохраняется между перезапусками.
+ * </p>
+ */
+public final class ConsistentHashRing {
+
+    private final long[] points;
+    private final int[] shards;
+
+    /**
+     * @param shardCount   Количество шардов
+     * @param virtualNodes Количество точек каждого шарда на кольце
+     */
+    public ConsistentHashRing(int shardCount, int virtualNodes) {
+        if (shardCount < 1) {
+            throw new IllegalArgumentException("Shard count must be positive.");
+        }
+        if (virtualNodes < 1) {
+            throw new IllegalArgumentException("Virtual node count must be positive.");
+        }
+        List<Point> ring = new ArrayList<>(shardCount * virtualNodes);
+        for (int shard = 0; shard < shardCount; shard++) {
+            for (int node = 0; node < virtualNodes; node++) {
+                ring.add(new Point(hash("shard-" + shard + "#" + node), shard));
+            }
+        }
+        ring.sort(Comparator.comparingLong(Point::hash).thenComparingInt(Point::shard));
+        points = new long[ring.size()];
+        shards = new int[ring.size()];
+        for (int i = 0; i < points.length; i++) {
+            points[i] = ring.get(i).hash();
+            shards[i] = ring.get(i).shard();
+        }
+    }
+
+    /**
+     * @param key Имя владельца
+     * @return Номер шарда владельца
+     */
+    public int shardOf(String key) {
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return shards[index == points.length ? 0 : index];
+    }
+
+    /**
+     * 64-битный FNV-1a по символам строки с перемешиванием финализатором MurmurHash3,
+     * чтобы близкие имена расходились по всему кольцу.
+     */
+    static long hash(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private record Point(long hash, int shard) {
+    }
+}
@@ -0,0 +1,256 @@
+package com.example.contactbook.sharding;
+
+import com.example.contactbook.tenancy.OwnerContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.IntConsumer;
+import java.util.function.Supplier;
+
+/**
+ * Размещение книг контактов по шардам — отдельным базам данных.
+ * <p>
+ * Книга владельца лежит на шарде, который ему назначает {@link ConsistentHashRing}. Книги, оставшиеся
+ * на другом шарде (например, после добавления шарда и до перебалансировки), записаны в таблице размещений:
+ * ее заполняет {@link ShardInitializer} при запуске, а {@link ShardRebalancer} обновляет при переносе книги.
+ * Каждый шард выдает идентификаторы контактов из своего диапазона {@link #ID_RANGE}, поэтому книгу
+ * можно перенести на другой шард без изменения идентификаторов.
+ * </p>
+ * <p>
+ * Соединение с шардом владельца ({@link ShardRoutingDataSource}) удерживает на чтение одну из полос
+ * блокировки, выбранную по хешу владельца; перенос книги берет полосу на запись и дожидается завершения
+ * транзакций владельца. Поток держит не больше одного соединения с шардом своего владельца, иначе
+ * он может заблокировать перенос и себя. Обходы всех шардов ({@link #forEachShard(IntConsumer)})
+ * не выполняются одновременно с переносом.
+ * </p>
+ */
+@Slf4j
+public class ShardDirectory implements AutoCloseable {
+
+    /**
+     * Размер диапазона идентификаторов шарда: шард {@code i} выдает идентификаторы от {@code i * ID_RANGE}.
+     */
+    public static final long ID_RANGE = 1L << 40;
+
+    /**
+     * Количество точек шарда на кольце по умолчанию.
+     */
+    public static final int DEFAULT_VIRTUAL_NODES = 128;
+
+    private static final int FENCE_STRIPES = 256;
+
+    private static final String OWNERS_SQL = "select owner, count(*) from contacts group by owner";
+
+    private final List<String> names;
+    private final List<DataSource> dataSources;
+    private final ConsistentHashRing ring;
+    private final Map<String, Integer> placements = new ConcurrentHashMap<>();
+    private final StampedLock[] fences = new StampedLock[FENCE_STRIPES];
+    private final ReentrantReadWriteLock topology = new ReentrantReadWriteLock();
+    private final ThreadLocal<Integer> explicitShard = new ThreadLocal<>();
+
+    /**
+     * @param names        Имена шардов для журнала и статистики
+     * @param dataSources  Базы данных шардов
+     * @param virtualNodes Количество точек каждого шарда на кольце
+     */
+    public ShardDirectory(List<String> names, List<DataSource> dataSources, int virtualNodes) {
+        if (names.size() != dataSources.size()) {
+            throw new IllegalArgumentException("Each shard must have a name and a data source.");
+        }
+        this.names = List.copyOf(names);
+        this.dataSources = List.copyOf(dataSources);
+        this.ring = new ConsistentHashRing(dataSources.size(), virtualNodes);
+        for (int i = 0; i < fences.length; i++) {
+            fences[i] = new StampedLock();
+        }
+    }
+
+    /**
+     * Размещение всех книг в одной базе данных, без шардирования.
+     *
+     * @param dataSource База данных
+     */
+    public static ShardDirectory single(DataSource dataSource) {
+        return new ShardDirectory(List.of("default"), List.of(dataSource), 1);
+    }
+
+    public int shardCount() {
+        return dataSources.size();
+    }
+
+    public String name(int shard) {
+        return names.get(shard);
+    }
+
+    /**
+     * @param shard Номер шарда
+     * @return База данных шарда без маршрутизации и блокировок
+     */
+    public DataSource dataSource(int shard) {
+        return dataSources.get(shard);
+    }
+
+    /**
+     * @param owner Владелец книги
+     * @return Шард, на котором сейчас лежит книга владельца
+     */
+    public int shardOf(String owner) {
+        Integer placed = placements.get(owner);
+        return placed != null ? placed : ring.shardOf(owner);
+    }
+
+    /**
+     * @param owner Владелец книги
+     * @return Шард, который владельцу назначает кольцо
+     */
+    public int ringShardOf(String owner) {
+        return ring.shardOf(owner);
+    }
+
+    /**
+     * @return Количество книг, лежащих не на шарде кольца
+     */
+    public int misplacedCount() {
+        return placements.size();
+    }
+
+    /**
+     * Запись шарда, на котором лежит книга владельца.
+     */
+    void place(String owner, int shard) {
+        if (shard == ring.shardOf(owner)) {
+            placements.remove(owner);
+        } else {
+            placements.put(owner, shard);
+        }
+    }
+
+    /**
+     * Выполнение действия на каждом шарде от имени {@value OwnerContext#ALL_OWNERS}: соединения
+     * действия выдаются базой этого шарда. Не вызывается внутри транзакции владельца.
+     *
+     * @param action Действие, получающее номер шарда
+     */
+    public void forEachShard(IntConsumer action) {
+        topology.readLock().lock();
+        try {
+            for (int shard = 0; shard < dataSources.size(); shard++) {
+                int current = shard;
+                callOnShard(current, () -> {
+                    OwnerContext.runAs(OwnerContext.ALL_OWNERS, () -> action.accept(current));
+                    return null;
+                });
+            }
+        } finally {
+            topology.readLock().unlock();
+        }
+    }
+
+    /**
+     * Выполнение действия с соединениями указанного шарда вместо шарда владельца.
+     *
+     * @param shard  Номер шарда
+     * @param action Действие
+     * @return Результат действия
+     */
+    public <T> T callOnShard(int shard, Supplier<T> action) {
+        Integer previous = explicitShard.get();
+        explicitShard.set(shard);
+        try {
+            return action.get();
+        } finally {
+            if (previous == null) {
+                explicitShard.remove();
+            } else {
+                explicitShard.set(previous);
+            }
+        }
+    }
+
+    /**
+     * @return Шард, заданный {@link #callOnShard(int, Supplier)}, или {@code null}
+     */
+    Integer explicitShard() {
+        return explicitShard.get();
+    }
+
+    /**
+     * Вход в полосу владельца при получении соединения; ждет окончания переноса книги.
+     *
+     * @return Метка для {@link #exit(String, long)}
+     */
+    long enter(String owner) {
+        return fenceOf(owner).readLock();
+    }
+
+    void exit(String owner, long stamp) {
+        fenceOf(owner).unlockRead(stamp);
+    }
+
+    /**
+     * Ограждение книги владельца на время переноса: ждет завершения соединений владельца
+     * и не выдает новые.
+     *
+     * @return Метка для {@link #unfence(String, long)}
+     */
+    long fence(String owner) {
+        return fenceOf(owner).writeLock();
+    }
+
+    void unfence(String owner, long stamp) {
+        fenceOf(owner).unlockWrite(stamp);
+    }
+
+    /**
+     * Запрет обходов всех шардов на время переноса книг.
+     */
+    void lockTopology() {
+        topology.writeLock().lock();
+    }
+
+    void unlockTopology() {
+        topology.writeLock().unlock();
+    }
+
+    /**
+     * Владельцы книг, лежащих в базе шарда, и количество их контактов.
+     *
+     * @param shard Номер шарда
+     * @return Количество контактов по владельцам
+     */
+    Map<String, Long> ownersOn(int shard) {
+        Map<String, Long> owners = new LinkedHashMap<>();
+        new JdbcTemplate(dataSource(shard)).query(OWNERS_SQL, resultSet -> {
+            owners.put(resultSet.getString(1), resultSet.getLong(2));
+        });
+        return owners;
+    }
+
+    private StampedLock fenceOf(String owner) {
+        return fences[(int) Long.remainderUnsigned(ConsistentHashRing.hash(owner), FENCE_STRIPES)];
+    }
+
+    /**
+     * Закрытие пулов соединений шардов.
+     */
+    @Override
+    public void close() {
+        for (int shard = 0; shard < dataSources.size(); shard++) {
+            if (dataSources.get(shard) instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close data source of shard {}", names.get(shard), e);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.contactbook.sharding;
+
+import com.example.contactbook.model.Contact;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.SessionFactoryObserver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Подготовка баз шардов при создании фабрики сессий Hibernate, до первого запроса к контактам.
+ * <p>
+ * Если включено {@code contact-book.sharding.create-schema}, в каждой базе без таблицы контактов
+ * создаются таблицы и последовательности сущностей, а последовательность идентификаторов шарда
+ * перезапускается с начала его диапазона {@link ShardDirectory#ID_RANGE}. Затем по каждой базе
+ * определяются книги, лежащие не на шарде кольца, и заносятся в таблицу размещений.
+ * Если книга владельца найдена на нескольких шардах (перенос был прерван), используется копия
+ * на шарде кольца или, если там ее нет, первая найденная; остальные удаляет {@link ShardRebalancer}.
+ * </p>
+ */
+@Slf4j
+public class ShardInitializer implements SessionFactoryObserver {
+
+    private final transient ShardDirectory directory;
+    private final boolean createSchema;
+
+    public ShardInitializer(ShardDirectory directory, boolean createSchema) {
+        this.directory = directory;
+        this.createSchema = createSchema;
+    }
+
+    @Override
+    public void sessionFactoryCreated(SessionFactory factory) {
+        for (int shard = 0; shard < directory.shardCount(); shard++) {
+            DataSource dataSource = directory.dataSource(shard);
+            if (createSchema && !hasContactsTable(dataSource)) {
+                directory.callOnShard(shard, () -> {
+                    factory.getSchemaManager().exportMappedObjects(true);
+                    return null;
+                });
+                long firstId = shard * ShardDirectory.ID_RANGE;
+                if (firstId > 0) {
+                    new JdbcTemplate(dataSource).execute("alter sequence " + Contact.ID_SEQUENCE
+                            + " restart with " + (firstId + Contact.ID_ALLOCATION_SIZE));
+                }
+                log.info("Created schema of shard {}", directory.name(shard));
+            }
+        }
+        Map<String, List<Integer>> locations = new LinkedHashMap<>();
+        for (int shard = 0; shard < directory.shardCount(); shard++) {
+            for (String owner : directory.ownersOn(shard).keySet()) {
+                locations.computeIfAbsent(owner, key -> new ArrayList<>()).add(shard);
+            }
+        }
+        locations.forEach((owner, shards) -> {
+            int ringShard = directory.ringShardOf(owner);
+            int shard = shards.contains(ringShard) ? ringShard : shards.get(0);
+            directory.place(owner, shard);
+            if (shards.size() > 1) {
+                log.warn("Contact book of owner {} found on shards {}, using shard {}", owner, shards, shard);
+            }
+        });
+        log.info("Contact books of {} owners found on {} shards, {} of them awaiting rebalancing",
+                locations.size(), directory.shardCount(), directory.misplacedCount());
+    }
+
+    private static boolean hasContactsTable(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection();
+             ResultSet tables = connection.getMetaData().getTables(null, null, "CONTACTS", new String[]{"TABLE"})) {
+            return tables.next();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Failed to read the schema of a shard.", e);
+        }
+    }
+}
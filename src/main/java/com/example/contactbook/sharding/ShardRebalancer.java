@@ -0,0 +1,145 @@
+package com.example.contactbook.sharding;
+
+import com.example.contactbook.dto.ShardRebalanceDto;
+import com.example.contactbook.dto.ShardStatsDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Перенос книг контактов на шарды, которые им назначает кольцо, без остановки приложения.
+ * <p>
+ * Книги переносятся по одной. На время переноса ограждается только переносимый владелец
+ * ({@link ShardDirectory#fence(String)}): его запросы ждут, пока контакты и журнал изменений
+ * копируются в новую базу одной транзакцией и меняется размещение; остальные владельцы работают
+ * без задержек. Копия в старой базе удаляется после снятия ограждения. Если перенос прерван
+ * после копирования, при следующем запуске используется копия на шарде кольца, а старая удаляется
+ * следующей перебалансировкой.
+ * </p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ShardRebalancer {
+
+    private static final String CONTACT_COLUMNS = "id, name, phone_number, email, phone_key, version, owner";
+    private static final String CHANGE_COLUMNS = "revision, contact_id, type, changed_at, owner";
+    private static final int BATCH_SIZE = 500;
+
+    private final ShardDirectory directory;
+
+    /**
+     * @return Количество книг и контактов на каждом шарде
+     */
+    public List<ShardStatsDto> getShardStats() {
+        List<ShardStatsDto> stats = new ArrayList<>();
+        for (int shard = 0; shard < directory.shardCount(); shard++) {
+            Map<String, Long> owners = directory.ownersOn(shard);
+            int current = shard;
+            long contacts = owners.values().stream().mapToLong(Long::longValue).sum();
+            long misplaced = owners.keySet().stream().filter(owner -> directory.ringShardOf(owner) != current).count();
+            stats.add(new ShardStatsDto(directory.name(shard), owners.size(), contacts, misplaced));
+        }
+        return stats;
+    }
+
+    /**
+     * Перенос всех книг, лежащих не на шарде кольца, и удаление устаревших копий.
+     *
+     * @return Количество перенесенных книг и контактов
+     */
+    public synchronized ShardRebalanceDto rebalance() {
+        long start = System.nanoTime();
+        int movedOwners = 0;
+        long movedContacts = 0;
+        int removedCopies = 0;
+        directory.lockTopology();
+        try {
+            for (int shard = 0; shard < directory.shardCount(); shard++) {
+                for (Map.Entry<String, Long> entry : directory.ownersOn(shard).entrySet()) {
+                    String owner = entry.getKey();
+                    if (directory.shardOf(owner) != shard) {
+                        delete(owner, shard);
+                        removedCopies++;
+                        log.info("Removed stale copy of the contact book of owner {} from shard {}",
+                                owner, directory.name(shard));
+                    } else if (directory.ringShardOf(owner) != shard) {
+                        move(owner, shard, directory.ringShardOf(owner));
+                        movedOwners++;
+                        movedContacts += entry.getValue();
+                    }
+                }
+            }
+        } finally {
+            directory.unlockTopology();
+        }
+        long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        log.info("Shards rebalanced: {} contact books with {} contacts moved, {} stale copies removed in {} ms",
+                movedOwners, movedContacts, removedCopies, durationMillis);
+        return new ShardRebalanceDto(movedOwners, movedContacts, removedCopies, durationMillis);
+    }
+
+    private void move(String owner, int from, int to) {
+        long stamp = directory.fence(owner);
+        try {
+            DataSource source = directory.dataSource(from);
+            DataSource target = directory.dataSource(to);
+            transaction(target).executeWithoutResult(status -> {
+                copy(source, target, "contacts", CONTACT_COLUMNS, owner);
+                copy(source, target, "contact_changes", CHANGE_COLUMNS, owner);
+            });
+            directory.place(owner, to);
+        } finally {
+            directory.unfence(owner, stamp);
+        }
+        delete(owner, from);
+        log.info("Moved contact book of owner {} from shard {} to shard {}",
+                owner, directory.name(from), directory.name(to));
+    }
+
+    /**
+     * Копирование строк владельца пакетами JDBC в транзакции базы назначения.
+     */
+    private static void copy(DataSource source, DataSource target, String table, String columns, String owner) {
+        int columnCount = columns.split(",").length;
+        String insertSql = "insert into " + table + " (" + columns + ") values (?" + ", ?".repeat(columnCount - 1) + ")";
+        JdbcTemplate targetJdbc = new JdbcTemplate(target);
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        new JdbcTemplate(source).query("select " + columns + " from " + table + " where owner = ?", resultSet -> {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                row[i] = resultSet.getObject(i + 1);
+            }
+            batch.add(row);
+            if (batch.size() == BATCH_SIZE) {
+                targetJdbc.batchUpdate(insertSql, batch);
+                batch.clear();
+            }
+        }, owner);
+        if (!batch.isEmpty()) {
+            targetJdbc.batchUpdate(insertSql, batch);
+        }
+    }
+
+    private void delete(String owner, int shard) {
+        DataSource dataSource = directory.dataSource(shard);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        transaction(dataSource).executeWithoutResult(status -> {
+            jdbcTemplate.update("delete from contact_changes where owner = ?", owner);
+            jdbcTemplate.update("delete from contacts where owner = ?", owner);
+        });
+    }
+
+    private static TransactionTemplate transaction(DataSource dataSource) {
+        return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+}
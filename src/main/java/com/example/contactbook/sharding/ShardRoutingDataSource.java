@@ -0,0 +1,117 @@
+package com.example.contactbook.sharding;
+
+import com.example.contactbook.tenancy.OwnerContext;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.ConnectionProxy;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Источник соединений приложения, направляющий каждое соединение в базу шарда текущего владельца книги.
+ * <p>
+ * Шард выбирается при получении соединения, то есть в начале транзакции. Пока соединение открыто,
+ * полоса владельца в {@link ShardDirectory} удерживается на чтение: перенос книги дожидается завершения
+ * транзакций владельца, а новые транзакции ждут окончания переноса и идут уже в новый шард.
+ * Соединения шарда, заданного явно ({@link ShardDirectory#callOnShard}), не ограждаются.
+ * </p>
+ */
+public class ShardRoutingDataSource extends AbstractDataSource {
+
+    private final ShardDirectory directory;
+
+    public ShardRoutingDataSource(ShardDirectory directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Integer shard = directory.explicitShard();
+        if (shard != null) {
+            return directory.dataSource(shard).getConnection();
+        }
+        if (OwnerContext.isAllOwners()) {
+            throw new IllegalStateException("A shard must be selected to access contacts of all owners.");
+        }
+        String owner = OwnerContext.current();
+        long stamp = directory.enter(owner);
+        try {
+            Connection connection = directory.dataSource(directory.shardOf(owner)).getConnection();
+            return (Connection) Proxy.newProxyInstance(ConnectionProxy.class.getClassLoader(),
+                    new Class<?>[]{ConnectionProxy.class}, new FencedConnection(connection, owner, stamp));
+        } catch (SQLException | RuntimeException e) {
+            directory.exit(owner, stamp);
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLException("Shard connections use the credentials of the shard data sources.");
+    }
+
+    /**
+     * Соединение, освобождающее полосу владельца при закрытии.
+     */
+    private final class FencedConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final String owner;
+        private final long stamp;
+        private boolean closed;
+
+        FencedConnection(Connection target, String owner, long stamp) {
+            this.target = target;
+            this.owner = owner;
+            this.stamp = stamp;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "getTargetConnection":
+                    return target;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "close":
+                    close();
+                    return null;
+                case "unwrap":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                    break;
+                case "isWrapperFor":
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return true;
+                    }
+                    break;
+                default:
+                    break;
+            }
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getTargetException();
+            }
+        }
+
+        private synchronized void close() throws SQLException {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                target.close();
+            } finally {
+                directory.exit(owner, stamp);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.contactbook.snapshot;
+
+/**
+ * Двоичный формат снимка книги контактов.
+ * <p>
+ * Заголовок: сигнатура {@link #MAGIC}, версия формата {@link #VERSION} (int) и количество записей (long).
+ * Далее записи подряд: ID и версия контакта (long), затем имя, номер телефона, email и владелец книги —
+ * каждая строка как длина в байтах (int, {@link #NULL_LENGTH} для null) и байты UTF-8. Все числа big-endian.
+ * </p>
+ * <p>
+ * В записях версии 1 нет владельца; такие контакты относятся к книге
+ * {@value com.example.contactbook.tenancy.OwnerContext#DEFAULT_OWNER}.
+ * </p>
+ */
+final class ContactSnapshotFormat {
+
+    /**
+     * Сигнатура файла: "CBSN".
+     */
+    static final int MAGIC = 0x4342534E;
+
+    static final int VERSION = 2;
+
+    /**
+     * Версия формата без владельца книги.
+     */
+    static final int VERSION_WITHOUT_OWNER = 1;
+
+    /**
+     * Смещение количества записей в заголовке.
+     */
+    static final long COUNT_OFFSET = 8;
+
+    static final int HEADER_SIZE = 16;
+
+    static final int NULL_LENGTH = -1;
+
+    private ContactSnapshotFormat() {
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.contactbook.snapshot;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.example.contactbook.snapshot.ContactSnapshotFormat.*;
+
+/**
+ * Чтение снимка книги контактов, отображенного в память.
+ * <p>
+ * Файл не копируется в кучу: записи разбираются прямо из страниц отображения, которые ядро
+ * подгружает упреждающим чтением. Канал закрывается сразу после отображения, а само отображение
+ * освобождается сборщиком мусора. Размер файла ограничен 2 ГБ одного отображения.
+ * </p>
+ */
+public class ContactSnapshotReader {
+
+    private final MappedByteBuffer buffer;
+    private final int version;
+    private final long count;
+    private long read;
+    private byte[] scratch = new byte[256];
+
+    private ContactSnapshotReader(MappedByteBuffer buffer, int version, long count) {
+        this.buffer = buffer;
+        this.version = version;
+        this.count = count;
+    }
+
+    /**
+     * Отображение файла снимка в память и проверка заголовка.
+     *
+     * @param file Файл снимка
+     * @return Объект для чтения записей
+     * @throws IOException Если файл недоступен, слишком велик или не является снимком
+     */
+    public static ContactSnapshotReader open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot " + file + " is too large: " + size + " bytes.");
+            }
+            if (size < HEADER_SIZE) {
+                throw new IOException("Snapshot " + file + " is truncated.");
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("File " + file + " is not a contact snapshot.");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION && version != VERSION_WITHOUT_OWNER) {
+                throw new IOException("Unsupported snapshot version " + version + ".");
+            }
+            long count = buffer.getLong();
+            if (count < 0) {
+                throw new IOException("Snapshot " + file + " was not completed.");
+            }
+            return new ContactSnapshotReader(buffer, version, count);
+        }
+    }
+
+    /**
+     * @return Количество контактов в снимке
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Чтение следующего контакта.
+     *
+     * @return Контакт или null, если все записи прочитаны
+     * @throws IOException Если файл обрывается раньше заявленного количества записей
+     */
+    public ContactResponseDto next() throws IOException {
+        if (read == count) {
+            return null;
+        }
+        try {
+            ContactResponseDto contact = new ContactResponseDto();
+            contact.setId(buffer.getLong());
+            contact.setVersion(buffer.getLong());
+            contact.setName(readString());
+            contact.setPhoneNumber(readString());
+            contact.setEmail(readString());
+            contact.setOwner(version == VERSION_WITHOUT_OWNER ? OwnerContext.DEFAULT_OWNER : readString());
+            read++;
+            return contact;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+            throw new IOException("Snapshot is truncated after " + read + " of " + count + " contacts.", e);
+        }
+    }
+
+    private String readString() throws IOException {
+        int length = buffer.getInt();
+        if (length == NULL_LENGTH) {
+            return null;
+        }
+        if (length < 0) {
+            throw new IOException("Snapshot is corrupted at byte " + (buffer.position() - Integer.BYTES) + ".");
+        }
+        if (length > scratch.length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        buffer.get(scratch, 0, length);
+        return new String(scratch, 0, length, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.contactbook.snapshot;
+
+import com.example.contactbook.dto.ContactResponseDto;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.example.contactbook.snapshot.ContactSnapshotFormat.*;
+
+/**
+ * Последовательная запись снимка книги контактов в формате {@link ContactSnapshotFormat}.
+ * <p>
+ * Количество записей заранее неизвестно и дописывается в заголовок при закрытии, после чего
+ * файл сбрасывается на диск. Незакрытый файл читается как поврежденный.
+ * </p>
+ */
+public class ContactSnapshotWriter implements Closeable {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private final FileChannel channel;
+    private final DataOutputStream out;
+    private long count;
+
+    public ContactSnapshotWriter(Path file) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        this.out = new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeLong(NULL_LENGTH);
+    }
+
+    /**
+     * Запись одного контакта.
+     *
+     * @param contact Контакт с идентификатором, версией и владельцем
+     * @throws IOException Если запись не удалась
+     */
+    public void write(ContactResponseDto contact) throws IOException {
+        out.writeLong(contact.getId());
+        out.writeLong(contact.getVersion());
+        writeString(contact.getName());
+        writeString(contact.getPhoneNumber());
+        writeString(contact.getEmail());
+        writeString(contact.getOwner());
+        count++;
+    }
+
+    /**
+     * @return Количество записанных контактов
+     */
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try (channel) {
+            out.flush();
+            channel.write(ByteBuffer.allocate(Long.BYTES).putLong(0, count), COUNT_OFFSET);
+            channel.force(true);
+        }
+    }
+
+    private void writeString(String value) throws IOException {
+        if (value == null) {
+            out.writeInt(NULL_LENGTH);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,143 @@
+package com.example.contactbook.tenancy;
+
+import java.util.function.Supplier;
+
+/**
+ * Владелец книги контактов, от имени которого выполняется текущий поток.
+ * <p>
+ * Владелец задается заголовком {@value #OWNER_HEADER} запроса ({@link OwnerFilter}) и определяет,
+ * с какой книгой работают репозитории: Hibernate добавляет условие по владельцу во все запросы
+ * ({@link OwnerIdentifierResolver}), а при шардировании по нему выбирается база данных.
+ * Без заголовка используется книга {@value #DEFAULT_OWNER}.
+ * </p>
+ * <p>
+ * Особый владелец {@value #ALL_OWNERS} видит все книги; от его имени работают фоновые задачи:
+ * построение индексов, журнал изменений, снимки.
+ * </p>
+ */
+public final class OwnerContext {
+
+    /**
+     * Заголовок запроса с владельцем книги.
+     */
+    public static final String OWNER_HEADER = "X-Owner";
+
+    /**
+     * Владелец книги по умолчанию.
+     */
+    public static final String DEFAULT_OWNER = "default";
+
+    /**
+     * Владелец, которому видны все книги.
+     */
+    public static final String ALL_OWNERS = "*";
+
+    /**
+     * Максимальная длина имени владельца.
+     */
+    public static final int MAX_OWNER_LENGTH = 64;
+
+    private static final ThreadLocal<String> OWNER = new ThreadLocal<>();
+
+    private OwnerContext() {
+    }
+
+    /**
+     * @return Владелец текущего потока или {@value #DEFAULT_OWNER}, если он не задан
+     */
+    public static String current() {
+        String owner = OWNER.get();
+        return owner == null ? DEFAULT_OWNER : owner;
+    }
+
+    /**
+     * Владелец, в книгу которого записываются контакты.
+     *
+     * @return Владелец текущего потока или {@value #DEFAULT_OWNER}
+     * @throws IllegalStateException Если потоку видны все книги и книга для записи не определена
+     */
+    public static String requireOwner() {
+        String owner = current();
+        if (ALL_OWNERS.equals(owner)) {
+            throw new IllegalStateException("Contacts can only be written on behalf of a single owner.");
+        }
+        return owner;
+    }
+
+    /**
+     * @return {@code true}, если текущему потоку видны все книги
+     */
+    public static boolean isAllOwners() {
+        return ALL_OWNERS.equals(OWNER.get());
+    }
+
+    /**
+     * Выполнение действия от имени владельца.
+     *
+     * @param owner  Владелец книги или {@value #ALL_OWNERS}
+     * @param action Действие
+     * @return Результат действия
+     */
+    public static <T> T callAs(String owner, Supplier<T> action) {
+        String previous = set(owner);
+        try {
+            return action.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Выполнение действия от имени владельца.
+     *
+     * @param owner  Владелец книги или {@value #ALL_OWNERS}
+     * @param action Действие
+     */
+    public static void runAs(String owner, Runnable action) {
+        String previous = set(owner);
+        try {
+            action.run();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    /**
+     * Проверка имени владельца из запроса: от 1 до {@value #MAX_OWNER_LENGTH} латинских букв, цифр,
+     * точек, дефисов и подчеркиваний.
+     *
+     * @param owner Имя владельца
+     * @return То же имя
+     * @throws IllegalArgumentException Если имя некорректно
+     */
+    public static String validate(String owner) {
+        if (owner == null || owner.isEmpty() || owner.length() > MAX_OWNER_LENGTH) {
+            throw new IllegalArgumentException("Owner must contain from 1 to " + MAX_OWNER_LENGTH + " characters.");
+        }
+        for (int i = 0; i < owner.length(); i++) {
+            char c = owner.charAt(i);
+            if (!((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+                    || c == '.' || c == '_' || c == '-')) {
+                throw new IllegalArgumentException("Owner may contain only Latin letters, digits, '.', '_' and '-'.");
+            }
+        }
+        return owner;
+    }
+
+    /**
+     * @return Предыдущий владелец потока для {@link #restore(String)}
+     */
+    static String set(String owner) {
+        String previous = OWNER.get();
+        OWNER.set(owner);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            OWNER.remove();
+        } else {
+            OWNER.set(previous);
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.example.contactbook.tenancy;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import java.io.IOException;
+
+/**
+ * Установка владельца книги из заголовка {@value OwnerContext#OWNER_HEADER} на время обработки запроса.
+ * <p>
+ * Это фильтр, а не перехватчик MVC: сессия Hibernate (open-in-view) открывается до вызова обработчика
+ * и должна сразу получить владельца. Некорректный заголовок отклоняется ответом 400 через
+ * {@link com.example.contactbook.exceptions.GlobalExceptionHandler}. Ответы зависят от владельца,
+ * поэтому в них добавляется {@code Vary: X-Owner}.
+ * </p>
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class OwnerFilter extends OncePerRequestFilter {
+
+    private final HandlerExceptionResolver exceptionResolver;
+
+    public OwnerFilter(@Qualifier("handlerExceptionResolver") HandlerExceptionResolver exceptionResolver) {
+        this.exceptionResolver = exceptionResolver;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        response.addHeader(HttpHeaders.VARY, OwnerContext.OWNER_HEADER);
+        String header = request.getHeader(OwnerContext.OWNER_HEADER);
+        String owner;
+        try {
+            owner = header == null ? OwnerContext.DEFAULT_OWNER : OwnerContext.validate(header);
+        } catch (IllegalArgumentException e) {
+            exceptionResolver.resolveException(request, response, null, e);
+            return;
+        }
+        String previous = OwnerContext.set(owner);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            OwnerContext.restore(previous);
+        }
+    }
+}
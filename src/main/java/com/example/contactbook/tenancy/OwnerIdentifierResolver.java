@@ -0,0 +1,43 @@
+package com.example.contactbook.tenancy;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Владелец книги как идентификатор арендатора Hibernate.
+ * <p>
+ * Сущности с полем {@link org.hibernate.annotations.TenantId} получают владельца при вставке,
+ * а запросы к ним — условие по владельцу. Для {@value OwnerContext#ALL_OWNERS} условие не добавляется.
+ * </p>
+ */
+@Component
+public class OwnerIdentifierResolver implements CurrentTenantIdentifierResolver<String>, HibernatePropertiesCustomizer {
+
+    @Override
+    public String resolveCurrentTenantIdentifier() {
+        return OwnerContext.current();
+    }
+
+    /**
+     * Сессии открывает Spring для каждой транзакции или запроса уже с текущим владельцем;
+     * {@code getCurrentSession()} Hibernate не используется.
+     */
+    @Override
+    public boolean validateExistingCurrentSessions() {
+        return false;
+    }
+
+    @Override
+    public boolean isRoot(String owner) {
+        return OwnerContext.ALL_OWNERS.equals(owner);
+    }
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, this);
+    }
+}
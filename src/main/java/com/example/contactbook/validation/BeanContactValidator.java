@@ -0,0 +1,57 @@
+package com.example.contactbook.validation;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.model.Contact;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.Set;
+
+/**
+ * Реализация {@link ContactValidator} на Bean Validation: ограничения читаются из аннотаций
+ * {@link Contact} через метаданные Hibernate Validator при каждом вызове.
+ */
+public class BeanContactValidator implements ContactValidator {
+
+    private final Validator validator;
+
+    public BeanContactValidator(Validator validator) {
+        this.validator = validator;
+    }
+
+    @Override
+    public String findViolations(Contact contact) {
+        Set<ConstraintViolation<Contact>> violations = validator.validate(contact);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        StringBuilder errorMessage = new StringBuilder(MESSAGE_PREFIX);
+        for (ConstraintViolation<Contact> violation : violations) {
+            errorMessage.append(violation.getMessage()).append("; ");
+        }
+        return errorMessage.toString();
+    }
+
+    @Override
+    public String findViolations(ContactRequestDto request) {
+        return findViolations(new Contact(null, request.getName(), request.getPhoneNumber(), request.getEmail()));
+    }
+
+    @Override
+    public String findPatchViolations(ContactRequestDto patch) {
+        StringBuilder errorMessage = new StringBuilder(MESSAGE_PREFIX);
+        appendViolations(errorMessage, "name", patch.getName());
+        appendViolations(errorMessage, "phoneNumber", patch.getPhoneNumber());
+        appendViolations(errorMessage, "email", patch.getEmail());
+        return errorMessage.length() > MESSAGE_PREFIX.length() ? errorMessage.toString() : null;
+    }
+
+    private void appendViolations(StringBuilder errorMessage, String property, String value) {
+        if (value == null) {
+            return;
+        }
+        for (ConstraintViolation<Contact> violation : validator.validateValue(Contact.class, property, value)) {
+            errorMessage.append(violation.getMessage()).append("; ");
+        }
+    }
+}
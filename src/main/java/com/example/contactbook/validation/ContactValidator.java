@@ -0,0 +1,70 @@
+package com.example.contactbook.validation;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.model.PhoneNumbers;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Проверка ограничений Bean Validation модели {@link Contact} перед сохранением.
+ * Номер телефона, который невозможно нормализовать ({@link PhoneNumbers#normalize(CharSequence)}),
+ * допустим: такой контакт сохраняется без ключа номера и не попадает в индекс поиска по номеру.
+ */
+public interface ContactValidator {
+
+    /**
+     * Начало сообщения об ошибках; за ним следуют сообщения нарушенных ограничений, каждое с {@code "; "}.
+     */
+    String MESSAGE_PREFIX = "Validation failed for Contact: ";
+
+    /**
+     * Размер пакета, начиная с которого {@link #findViolations(List)} проверяет данные параллельно.
+     */
+    int PARALLEL_THRESHOLD = 64;
+
+    /**
+     * Проверка контакта.
+     *
+     * @param contact Объект {@link Contact} для проверки
+     * @return Сообщение об ошибках или {@code null}, если контакт корректен
+     */
+    String findViolations(Contact contact);
+
+    /**
+     * Проверка данных контакта до преобразования в {@link Contact}.
+     *
+     * @param request Объект {@link ContactRequestDto} для проверки
+     * @return Сообщение об ошибках или {@code null}, если данные корректны
+     */
+    String findViolations(ContactRequestDto request);
+
+    /**
+     * Проверка полей частичного обновления: поля со значением {@code null} не переданы и не проверяются.
+     *
+     * @param patch Объект {@link ContactRequestDto} с изменяемыми полями
+     * @return Сообщение об ошибках или {@code null}, если переданные поля корректны
+     */
+    String findPatchViolations(ContactRequestDto patch);
+
+    /**
+     * Пакетная проверка данных контактов.
+     * <p>
+     * Пакеты от {@link #PARALLEL_THRESHOLD} записей проверяются параллельным потоком,
+     * поэтому реализации должны быть потокобезопасными.
+     * </p>
+     *
+     * @param requests Данные контактов
+     * @return Сообщения об ошибках в порядке данных; {@code null} для корректных
+     */
+    default String[] findViolations(List<ContactRequestDto> requests) {
+        String[] errors = new String[requests.size()];
+        IntStream indexes = IntStream.range(0, errors.length);
+        if (errors.length >= PARALLEL_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> errors[i] = findViolations(requests.get(i)));
+        return errors;
+    }
+}
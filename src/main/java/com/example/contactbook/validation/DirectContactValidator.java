@@ -0,0 +1,171 @@
+package com.example.contactbook.validation;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.model.Contact;
+import jakarta.validation.Validator;
+
+/**
+ * Реализация {@link ContactValidator} с ограничениями {@link Contact}, записанными в коде.
+ * <p>
+ * Повторяет правила Hibernate Validator для {@code @NotBlank} (строка из одних символов не старше пробела
+ * пуста) и {@code @Email} (адрес до последнего @ — не длиннее 64 символов, слова через точку; домен —
+ * метки через точку, не длиннее 63 символов каждая и 255 всего). Корректный контакт проверяется
+ * без рефлексии и без выделения памяти. Адреса с кавычками, IP-адресом в скобках или символами
+ * вне ASCII редки и передаются {@link Validator}.
+ * </p>
+ * <p>
+ * Сообщения совпадают с сообщениями аннотаций {@link Contact} и перечисляются в порядке полей: имя,
+ * номер телефона, email.
+ * </p>
+ */
+public class DirectContactValidator implements ContactValidator {
+
+    private static final int MAX_LOCAL_PART_LENGTH = 64;
+    private static final int MAX_DOMAIN_LENGTH = 255;
+    private static final int MAX_LABEL_LENGTH = 63;
+
+    /**
+     * Символы ASCII слова адреса до @, кроме точки.
+     */
+    private static final boolean[] LOCAL_PART_CHARS = asciiChars("!#$%&'*+/=?^_`{|}~-");
+
+    /**
+     * Символы ASCII метки домена, кроме дефиса, который не может быть первым и последним.
+     */
+    private static final boolean[] DOMAIN_CHARS = asciiChars("!#$%&'*+/=?^_`{|}~");
+
+    private final Validator fallback;
+
+    /**
+     * @param fallback Валидатор Bean Validation для адресов, которые не проверяются в коде
+     */
+    public DirectContactValidator(Validator fallback) {
+        this.fallback = fallback;
+    }
+
+    @Override
+    public String findViolations(Contact contact) {
+        return findViolations(contact.getName(), contact.getPhoneNumber(), contact.getEmail(), false);
+    }
+
+    @Override
+    public String findViolations(ContactRequestDto request) {
+        return findViolations(request.getName(), request.getPhoneNumber(), request.getEmail(), false);
+    }
+
+    @Override
+    public String findPatchViolations(ContactRequestDto patch) {
+        return findViolations(patch.getName(), patch.getPhoneNumber(), patch.getEmail(), true);
+    }
+
+    /**
+     * @param partial Поля со значением {@code null} не переданы и не проверяются
+     */
+    private String findViolations(String name, String phoneNumber, String email, boolean partial) {
+        boolean blankName = (name != null || !partial) && isBlank(name);
+        boolean blankPhone = (phoneNumber != null || !partial) && isBlank(phoneNumber);
+        boolean invalidEmail = !isValidEmail(email);
+        if (!blankName && !blankPhone && !invalidEmail) {
+            return null;
+        }
+        StringBuilder errorMessage = new StringBuilder(MESSAGE_PREFIX);
+        if (blankName) {
+            errorMessage.append(Contact.BLANK_NAME_MESSAGE).append("; ");
+        }
+        if (blankPhone) {
+            errorMessage.append(Contact.BLANK_PHONE_MESSAGE).append("; ");
+        }
+        if (invalidEmail) {
+            errorMessage.append(Contact.INVALID_EMAIL_MESSAGE).append("; ");
+        }
+        return errorMessage.toString();
+    }
+
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            // String.trim(), которым пользуется @NotBlank, отбрасывает все символы до пробела включительно
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isValidEmail(String email) {
+        if (email == null || email.isEmpty()) {
+            return true;
+        }
+        int at = email.lastIndexOf('@');
+        if (at < 0) {
+            return false;
+        }
+        for (int i = 0; i < email.length(); i++) {
+            char c = email.charAt(i);
+            if (c >= 0x80 || c == '"' || c == '[') {
+                return fallback.validateValue(Contact.class, "email", email).isEmpty();
+            }
+        }
+        return isValidLocalPart(email, at) && isValidDomain(email, at + 1);
+    }
+
+    /**
+     * Адрес до @ из непустых слов, разделенных одной точкой.
+     */
+    private static boolean isValidLocalPart(String email, int end) {
+        if (end == 0 || end > MAX_LOCAL_PART_LENGTH || email.charAt(0) == '.' || email.charAt(end - 1) == '.') {
+            return false;
+        }
+        for (int i = 0; i < end; i++) {
+            char c = email.charAt(i);
+            if (c == '.' ? email.charAt(i - 1) == '.' : !isAsciiChar(LOCAL_PART_CHARS, c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Домен из непустых меток, разделенных точкой; дефис допустим только внутри метки.
+     */
+    private static boolean isValidDomain(String email, int from) {
+        int length = email.length() - from;
+        if (length == 0 || length > MAX_DOMAIN_LENGTH) {
+            return false;
+        }
+        int labelStart = from;
+        for (int i = from; i <= email.length(); i++) {
+            if (i < email.length() && email.charAt(i) != '.') {
+                continue;
+            }
+            int labelLength = i - labelStart;
+            if (labelLength == 0 || labelLength > MAX_LABEL_LENGTH
+                    || !isAsciiChar(DOMAIN_CHARS, email.charAt(labelStart))
+                    || !isAsciiChar(DOMAIN_CHARS, email.charAt(i - 1))) {
+                return false;
+            }
+            for (int j = labelStart + 1; j < i - 1; j++) {
+                char c = email.charAt(j);
+                if (c != '-' && !isAsciiChar(DOMAIN_CHARS, c)) {
+                    return false;
+                }
+            }
+            labelStart = i + 1;
+        }
+        return true;
+    }
+
+    private static boolean isAsciiChar(boolean[] specials, char c) {
+        return c < 0x80 && ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || specials[c]);
+    }
+
+    private static boolean[] asciiChars(String specials) {
+        boolean[] chars = new boolean[0x80];
+        for (int i = 0; i < specials.length(); i++) {
+            chars[specials.charAt(i)] = true;
+        }
+        return chars;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.contactbook.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long FAST = Duration.ofMillis(1).toNanos();
+    private static final long SLOW = Duration.ofSeconds(10).toNanos();
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldKeepHeadroomForLookupsWhenScansFillTheirShare() {
+        AdaptiveConcurrencyLimit limit = limit(10);
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire(RequestClass.SCAN));
+        }
+        assertFalse(limit.tryAcquire(RequestClass.SCAN));
+        assertFalse(limit.tryAcquire(RequestClass.BULK));
+        assertTrue(limit.tryAcquire(RequestClass.WRITE));
+        assertTrue(limit.tryAcquire(RequestClass.WRITE));
+        assertFalse(limit.tryAcquire(RequestClass.WRITE));
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        }
+        assertFalse(limit.tryAcquire(RequestClass.LOOKUP));
+
+        limit.release(RequestClass.SCAN, FAST, false);
+        assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        assertEquals(10, limit.getInFlight());
+    }
+
+    @Test
+    void release_ShouldDecreaseOncePerIntervalWhenSlowerThanTarget() {
+        AdaptiveConcurrencyLimit limit = limit(100);
+
+        for (int i = 0; i < 3; i++) {
+            assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+            limit.release(RequestClass.LOOKUP, SLOW, true);
+        }
+        assertEquals(90, limit.getLimit(), 1e-9);
+
+        nanos.addAndGet(AdaptiveConcurrencyLimit.DECREASE_INTERVAL.toNanos());
+        assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        limit.release(RequestClass.LOOKUP, SLOW, true);
+        assertEquals(81, limit.getLimit(), 1e-9);
+
+        assertTrue(limit.tryAcquire(RequestClass.SCAN));
+        limit.release(RequestClass.SCAN, SLOW, false);
+        assertEquals(81, limit.getLimit(), 1e-9);
+    }
+
+    @Test
+    void release_ShouldIncreaseOnlyWhenLimitIsUtilised() {
+        AdaptiveConcurrencyLimit limit = limit(4);
+
+        assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        limit.release(RequestClass.LOOKUP, FAST, true);
+        assertEquals(4, limit.getLimit(), 1e-9);
+
+        assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        assertTrue(limit.tryAcquire(RequestClass.LOOKUP));
+        limit.release(RequestClass.LOOKUP, FAST, true);
+        assertEquals(4.25, limit.getLimit(), 1e-9);
+    }
+
+    private AdaptiveConcurrencyLimit limit(int initial) {
+        Map<RequestClass, Duration> targets = new EnumMap<>(RequestClass.class);
+        for (RequestClass requestClass : RequestClass.values()) {
+            targets.put(requestClass, Duration.ofMillis(100));
+        }
+        return new AdaptiveConcurrencyLimit(initial, 1, 200, targets, nanos::get);
+    }
+}
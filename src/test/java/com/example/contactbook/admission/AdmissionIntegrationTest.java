@@ -0,0 +1,103 @@
+package com.example.contactbook.admission;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Отказы контроля допуска: 429 по лимиту частоты клиента и 503 по лимиту одновременных запросов.
+ */
+@SpringBootTest(properties = {
+        "contact-book.admission.enabled=true",
+        "contact-book.admission.rate=0.01",
+        "contact-book.admission.burst=20",
+        "contact-book.admission.concurrency.initial=10",
+        "contact-book.admission.concurrency.min=10",
+        "contact-book.admission.concurrency.max=10",
+        "contact-book.snapshot.restore-on-startup=false"
+})
+@AutoConfigureMockMvc
+class AdmissionIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private AdaptiveConcurrencyLimit concurrencyLimit;
+
+    @Test
+    void requests_ShouldBeRejectedWithRetryAfterWhenClientExceedsRate() throws Exception {
+        // 2 списка по 5 токенов и пакет в 10 токенов (даже отклоненный проверкой) расходуют емкость клиента
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/contacts").with(from("10.0.0.1")).header(OwnerContext.OWNER_HEADER, "greedy"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(post("/contacts/batch").with(from("10.0.0.1")).header(OwnerContext.OWNER_HEADER, "greedy")
+                        .contentType(MediaType.APPLICATION_JSON).content("[]"))
+                .andExpect(status().isBadRequest());
+
+        // другой владелец в заголовке не дает клиенту новый лимит
+        String retryAfter = mockMvc.perform(get("/contacts/{id}", 1).with(from("10.0.0.1"))
+                        .header(OwnerContext.OWNER_HEADER, "another"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(jsonPath("$.status").value(HttpStatus.TOO_MANY_REQUESTS.value()))
+                .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        // токен пополняется за 100 секунд
+        assertTrue(Long.parseLong(retryAfter) > 90 && Long.parseLong(retryAfter) <= 100);
+        mockMvc.perform(get("/contacts").with(from("10.0.0.2")).header(OwnerContext.OWNER_HEADER, "greedy"))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/health").with(from("10.0.0.1")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void scans_ShouldBeShedWhileLookupsStillAdmitted() throws Exception {
+        String body = mockMvc.perform(post("/contacts").with(from("10.0.0.3")).header(OwnerContext.OWNER_HEADER, "busy")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"name\": \"Alice Johnson\", \"phoneNumber\": \"5550000001\", \"email\": \"\" }"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        ContactResponseDto created = objectMapper.readValue(body, ContactResponseDto.class);
+
+        // пять выполняемых выгрузок занимают долю списков (половину лимита 10)
+        for (int i = 0; i < 5; i++) {
+            assertTrue(concurrencyLimit.tryAcquire(RequestClass.SCAN));
+        }
+        try {
+            mockMvc.perform(get("/contacts").with(from("10.0.0.3")).header(OwnerContext.OWNER_HEADER, "busy"))
+                    .andExpect(status().isServiceUnavailable())
+                    .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                    .andExpect(jsonPath("$.status").value(HttpStatus.SERVICE_UNAVAILABLE.value()));
+            mockMvc.perform(get("/contacts/{id}", created.getId()).with(from("10.0.0.3")).header(OwnerContext.OWNER_HEADER, "busy"))
+                    .andExpect(status().isOk());
+        } finally {
+            for (int i = 0; i < 5; i++) {
+                concurrencyLimit.release(RequestClass.SCAN, 0, false);
+            }
+        }
+        assertEquals(0, concurrencyLimit.getInFlight());
+    }
+
+    private static RequestPostProcessor from(String address) {
+        return request -> {
+            request.setRemoteAddr(address);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.contactbook.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClientRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+
+    @Test
+    void tryAcquire_ShouldAllowBurstThenReportWaitUntilRefill() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 3, nanos::get);
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("alice", 1));
+        }
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("alice", 1));
+        assertEquals(0, limiter.tryAcquire("bob", 1));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertEquals(0, limiter.tryAcquire("alice", 1));
+        assertTrue(limiter.tryAcquire("alice", 1) > 0);
+    }
+
+    @Test
+    void tryAcquire_ShouldChargeCostAndCapItAtCapacity() {
+        ClientRateLimiter limiter = new ClientRateLimiter(10, 5, nanos::get);
+
+        assertEquals(0, limiter.tryAcquire("alice", 6));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.tryAcquire("alice", 1));
+
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(200));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(300), limiter.tryAcquire("alice", 5));
+        assertEquals(0, limiter.tryAcquire("alice", 2));
+    }
+
+    @Test
+    void tryAcquire_ShouldNeverGrantMoreThanCapacityUnderContention() throws InterruptedException {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1000, nanos::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("alice", 1) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(1000, granted.get());
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.contactbook.cache;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.service.ContactChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactCacheTest {
+
+    private ContactCache contactCache;
+    private ContactResponseDto contactResponseDto;
+
+    @BeforeEach
+    void setUp() {
+        contactCache = new ContactCache(100, Duration.ofMinutes(1));
+
+        contactResponseDto = new ContactResponseDto();
+        contactResponseDto.setId(1L);
+        contactResponseDto.setName("John Doe");
+        contactResponseDto.setPhoneNumber("1234567890");
+        contactResponseDto.setEmail("john.doe@example.com");
+    }
+
+    @Test
+    void onContactChanged_ShouldPutUpdatedContactAndInvalidateDeletedContact() {
+        contactCache.onContactChanged(new ContactChangedEvent(1L, contactResponseDto));
+        assertSame(contactResponseDto, contactCache.getIfPresent(1L));
+
+        contactCache.onContactChanged(new ContactChangedEvent(1L, null));
+        assertNull(contactCache.getIfPresent(1L));
+    }
+
+    @Test
+    void get_ShouldCoalesceConcurrentMissesIntoSingleLoad() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<ContactResponseDto>> results = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                results.add(executor.submit(() -> contactCache.get(1L, id -> {
+                    loads.incrementAndGet();
+                    awaitQuietly(loading);
+                    return contactResponseDto;
+                })));
+            }
+            Thread.sleep(100);
+            loading.countDown();
+            for (Future<ContactResponseDto> result : results) {
+                assertSame(contactResponseDto, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(1, loads.get());
+        assertEquals(1, contactCache.stats().getMissCount());
+    }
+
+    @Test
+    void get_ShouldNotPinCarrierThreadWhileLoading() throws Exception {
+        Path file = Files.createTempFile("contact-cache", ".jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO);
+            recording.start();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<ContactResponseDto>> results = new ArrayList<>();
+                for (int i = 0; i < 4; i++) {
+                    results.add(executor.submit(() -> contactCache.get(1L, id -> {
+                        sleepQuietly(50);
+                        return contactResponseDto;
+                    })));
+                }
+                for (Future<ContactResponseDto> result : results) {
+                    assertSame(contactResponseDto, result.get(5, TimeUnit.SECONDS));
+                }
+            }
+            recording.stop();
+            recording.dump(file);
+            assertTrue(RecordingFile.readAllEvents(file).isEmpty(), "Virtual thread was pinned while loading");
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.contactbook.compression;
+
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.web.ServerProperties;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.*;
+
+class CompressionThresholdFilterTest {
+
+    private final CompressionThresholdFilter filter = new CompressionThresholdFilter(new ServerProperties());
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts");
+    private HttpServletResponse response;
+    private ServletOutputStream containerStream;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+        response = mock(HttpServletResponse.class);
+        containerStream = mock(ServletOutputStream.class);
+        when(response.getOutputStream()).thenReturn(containerStream);
+    }
+
+    @Test
+    void filter_ShouldSendSmallBodyWithContentLength() throws Exception {
+        filter.doFilter(request, response, (req, res) ->
+                res.getOutputStream().write("{}".getBytes(StandardCharsets.UTF_8)));
+
+        verify(response).setContentLength(2);
+        verify(containerStream).write(any(byte[].class), eq(0), eq(2));
+    }
+
+    @Test
+    void filter_ShouldDelegateNonBlockingWritesToContainerStream() throws Exception {
+        WriteListener listener = mock(WriteListener.class);
+        when(containerStream.isReady()).thenReturn(false);
+
+        filter.doFilter(request, response, (req, res) -> {
+            ServletOutputStream stream = res.getOutputStream();
+            stream.write('[');
+            assertTrue(stream.isReady());
+            stream.setWriteListener(listener);
+            assertFalse(stream.isReady());
+        });
+
+        verify(containerStream).write(any(byte[].class), eq(0), eq(1));
+        verify(containerStream).setWriteListener(listener);
+        verify(response, never()).setContentLength(anyInt());
+        verify(response, never()).setContentLengthLong(anyLong());
+    }
+}
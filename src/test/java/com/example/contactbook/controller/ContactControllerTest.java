@@ -1,18 +1,35 @@
 package com.example.contactbook.controller;
 
+import com.example.contactbook.dto.BatchOperationType;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactChangeDto;
+import com.example.contactbook.dto.ContactChangesDto;
+import com.example.contactbook.dto.ContactFieldsPageDto;
+import com.example.contactbook.dto.ContactPageDto;
 import com.example.contactbook.dto.ContactRequestDto;
 import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.ContactChangeType;
+import com.example.contactbook.repository.ContactField;
+import com.example.contactbook.service.ContactFields;
 import com.example.contactbook.service.ContactService;
+import com.example.contactbook.service.ContactWriteBehind;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -24,6 +41,12 @@ class ContactControllerTest {
     @Mock
     private ContactService contactService;
 
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    private ObjectProvider<ContactWriteBehind> writeBehind;
+
     @InjectMocks
     private ContactController contactController;
 
@@ -47,21 +70,169 @@ class ContactControllerTest {
         contactResponseDto.setName("John Doe");
         contactResponseDto.setPhoneNumber("1234567890");
         contactResponseDto.setEmail("john.doe@example.com");
+        contactResponseDto.setVersion(3L);
     }
 
     @Test
     void getAllContacts_ShouldReturnListOfContacts() throws Exception {
-        when(contactService.getAllContacts()).thenReturn(List.of(contactResponseDto));
+        when(contactService.getAllContacts(null, null, null, null))
+                .thenReturn(new ContactPageDto(List.of(contactResponseDto), null));
 
         mockMvc.perform(get("/contacts"))
                 .andExpect(status().isOk())
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist(ContactController.NEXT_CURSOR_HEADER))
                 .andExpect(jsonPath("$[0].id").value(1))
                 .andExpect(jsonPath("$[0].name").value("John Doe"))
                 .andExpect(jsonPath("$[0].phoneNumber").value("1234567890"))
                 .andExpect(jsonPath("$[0].email").value("john.doe@example.com"));
 
-        verify(contactService).getAllContacts();
+        verify(contactService).getAllContacts(null, null, null, null);
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnNotModified_WhenBookVersionMatches() throws Exception {
+        when(contactService.getContactsVersion()).thenReturn("abc-7");
+
+        mockMvc.perform(get("/contacts").header("If-None-Match", "\"abc-7\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "W/\"abc-7\""))
+                .andExpect(content().string(""));
+
+        verify(contactService, never()).getAllContacts(any(), any(), any(), any());
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnOnlyRequestedFields() throws Exception {
+        when(contactService.getAllContactFields(null, null, null, null, EnumSet.of(ContactField.ID, ContactField.NAME)))
+                .thenReturn(new ContactFieldsPageDto(List.of(Map.of("id", 1L, "name", "John Doe")), null));
+
+        mockMvc.perform(get("/contacts").param("fields", "name, id"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("John Doe"))
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+
+        verify(contactService, never()).getAllContacts(any(), any(), any(), any());
+    }
+
+    @Test
+    void getContactById_ShouldReturnOnlyRequestedFieldsWithVersionETag() throws Exception {
+        when(contactService.getContactFieldsById(1L, EnumSet.of(ContactField.NAME)))
+                .thenReturn(new ContactFields(Map.of("name", "John Doe"), 3L));
+
+        mockMvc.perform(get("/contacts/1").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""))
+                .andExpect(content().json("{ \"name\": \"John Doe\" }", true));
+    }
+
+    @Test
+    void getContactById_ShouldReturnNotModifiedWithoutLoadingContact_WhenVersionMatches() throws Exception {
+        when(contactService.getContactVersion(1L)).thenReturn(3L);
+
+        mockMvc.perform(get("/contacts/1").header("If-None-Match", "\"3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(contactService, never()).getContactById(1L);
+    }
+
+    @Test
+    void createOrUpdateContact_ShouldPassIfMatchVersionToService() throws Exception {
+        when(contactService.saveOrUpdateContact(eq(1L), any(ContactRequestDto.class), eq(3L))).thenReturn(contactResponseDto);
+
+        mockMvc.perform(put("/contacts/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"name\": \"John Doe\", \"phoneNumber\": \"1234567890\", \"email\": \"john.doe@example.com\" }"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(contactService).saveOrUpdateContact(eq(1L), any(ContactRequestDto.class), eq(3L));
+    }
+
+    @Test
+    void patchContact_ShouldPassOnlySentFieldsAndIfMatchVersionToService() throws Exception {
+        when(contactService.patchContact(eq(1L), any(ContactRequestDto.class), eq(3L))).thenReturn(contactResponseDto);
+
+        mockMvc.perform(patch("/contacts/1")
+                        .header("If-Match", "\"3\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{ \"email\": \"john.doe@example.com\" }"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"3\""));
+
+        verify(contactService).patchContact(eq(1L), argThat(patch -> patch.getName() == null
+                && patch.getPhoneNumber() == null && "john.doe@example.com".equals(patch.getEmail())), eq(3L));
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnNextCursorHeader_WhenMorePagesExist() throws Exception {
+        when(contactService.getAllContacts("abc", null, 1, "name"))
+                .thenReturn(new ContactPageDto(List.of(contactResponseDto), "next"));
+
+        mockMvc.perform(get("/contacts").param("cursor", "abc").param("limit", "1").param("sort", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ContactController.NEXT_CURSOR_HEADER, "next"))
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(contactService).getAllContacts("abc", null, 1, "name");
+    }
+
+    @Test
+    void searchContacts_ShouldReturnRankedContacts() throws Exception {
+        when(contactService.searchContacts("john", 5)).thenReturn(List.of(contactResponseDto));
+
+        mockMvc.perform(get("/contacts/search").param("q", "john").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].name").value("John Doe"));
+
+        verify(contactService).searchContacts("john", 5);
+    }
+
+    @Test
+    void getChanges_ShouldReturnChangesAndNextToken() throws Exception {
+        when(contactService.getChanges("token", null)).thenReturn(new ContactChangesDto(
+                List.of(new ContactChangeDto(1L, ContactChangeType.DELETE, 9L, null)), "next", false));
+
+        mockMvc.perform(get("/contacts/changes").param("since", "token"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.changes[0].id").value(1))
+                .andExpect(jsonPath("$.changes[0].type").value("DELETE"))
+                .andExpect(jsonPath("$.changes[0].contact").doesNotExist())
+                .andExpect(jsonPath("$.nextToken").value("next"));
+    }
+
+    @Test
+    void getContactsByPhone_ShouldReturnMatchingContacts() throws Exception {
+        when(contactService.getContactsByPhone("+1-234-567-890")).thenReturn(List.of(contactResponseDto));
+
+        mockMvc.perform(get("/contacts/by-phone/{number}", "+1-234-567-890"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1));
+
+        verify(contactService).getContactsByPhone("+1-234-567-890");
+    }
+
+    @Test
+    void exportContacts_ShouldStreamNdjson() throws Exception {
+        doAnswer(invocation -> {
+            Consumer<ContactResponseDto> sink = invocation.getArgument(0);
+            sink.accept(contactResponseDto);
+            sink.accept(contactResponseDto);
+            return 2L;
+        }).when(contactService).exportContacts(any());
+
+        MvcResult result = mockMvc.perform(get("/contacts/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String expectedLine = "{\"id\":1,\"name\":\"John Doe\",\"phoneNumber\":\"1234567890\",\"email\":\"john.doe@example.com\",\"version\":3}\n";
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string(expectedLine + expectedLine));
     }
 
     @Test
@@ -96,9 +267,29 @@ class ContactControllerTest {
         verify(contactService).createContact(any(ContactRequestDto.class));
     }
 
+    @Test
+    void processBatch_ShouldReturnPerItemResults() throws Exception {
+        when(contactService.processBatch(anyList())).thenReturn(List.of(
+                new ContactBatchResultDto(0, BatchOperationType.CREATE, 1L, 201, null),
+                new ContactBatchResultDto(1, BatchOperationType.DELETE, 7L, 404, "Contact with ID 7 does not exist.")));
+
+        mockMvc.perform(post("/contacts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{ \"operation\": \"CREATE\", \"contact\": { \"name\": \"John Doe\", \"phoneNumber\": \"1234567890\" } },"
+                                + " { \"operation\": \"DELETE\", \"id\": 7 }]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value(201))
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[0].error").doesNotExist())
+                .andExpect(jsonPath("$[1].status").value(404))
+                .andExpect(jsonPath("$[1].error").value("Contact with ID 7 does not exist."));
+
+        verify(contactService).processBatch(anyList());
+    }
+
     @Test
     void createOrUpdateContact_ShouldReturnUpdatedContact() throws Exception {
-        when(contactService.saveOrUpdateContact(eq(1L), any(ContactRequestDto.class))).thenReturn(contactResponseDto);
+        when(contactService.saveOrUpdateContact(eq(1L), any(ContactRequestDto.class), isNull())).thenReturn(contactResponseDto);
 
         mockMvc.perform(put("/contacts/1")
                         .contentType(MediaType.APPLICATION_JSON)
@@ -110,7 +301,7 @@ class ContactControllerTest {
                 .andExpect(jsonPath("$.phoneNumber").value("1234567890"))
                 .andExpect(jsonPath("$.email").value("john.doe@example.com"));
 
-        verify(contactService).saveOrUpdateContact(eq(1L), any(ContactRequestDto.class));
+        verify(contactService).saveOrUpdateContact(eq(1L), any(ContactRequestDto.class), isNull());
     }
 
     @Test
@@ -0,0 +1,79 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Выборка полей {@code fields} через запросы к базе данных: страницы с курсором, контакт по ID и книги владельцев.
+ */
+@SpringBootTest(properties = "contact-book.snapshot.restore-on-startup=false")
+@AutoConfigureMockMvc
+class ContactFieldsIntegrationTest {
+
+        @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void contacts_ShouldBePagedByNameWithOnlyRequestedFields() throws Exception {
+        create("fields-page", "Bob Stone");
+        create("fields-page", "Alice Johnson");
+        create("other-fields", "Aaron Other");
+
+        String cursor = mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "fields-page")
+                        .param("fields", "phoneNumber").param("sort", "name").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("[{ \"phoneNumber\": \"5550000003\" }]", true))
+                .andReturn().getResponse().getHeader(ContactController.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+
+        mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "fields-page")
+                        .param("fields", "name,id").param("cursor", cursor))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(ContactController.NEXT_CURSOR_HEADER))
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("Bob Stone"))
+                .andExpect(jsonPath("$[0].id").isNumber())
+                .andExpect(jsonPath("$[0].email").doesNotExist());
+    }
+
+    @Test
+    void contact_ShouldReturnRequestedFieldsWithVersionETag() throws Exception {
+        ContactResponseDto created = create("fields-by-id", "Carol White");
+
+        mockMvc.perform(get("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, "fields-by-id")
+                        .param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + created.getVersion() + "\""))
+                .andExpect(content().json("{ \"name\": \"Carol White\" }", true));
+        mockMvc.perform(get("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, "other-fields")
+                        .param("fields", "name"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, "fields-by-id")
+                        .param("fields", "name,owner"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private ContactResponseDto create(String owner, String name) throws Exception {
+        String body = mockMvc.perform(post("/contacts").header(OwnerContext.OWNER_HEADER, owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"name\": \"" + name + "\", \"phoneNumber\": \"5550000003\", \"email\": \"\" }"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ContactResponseDto.class);
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.embedded.netty.NettyWebServer;
+import org.springframework.boot.web.reactive.context.ReactiveWebServerApplicationContext;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Контракт "/contacts" реактивного API на Netty: ETag, курсоры страниц, выгрузка NDJSON и ошибки.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "contact-book.snapshot.restore-on-startup=false")
+@ActiveProfiles("reactive")
+class ReactiveContactControllerTest {
+
+    private static final String OWNER = "reactive-owner";
+
+    @Autowired
+    private WebTestClient client;
+
+    @Autowired
+    private ReactiveWebServerApplicationContext context;
+
+    @Test
+    void server_ShouldRunOnNetty() {
+        assertInstanceOf(NettyWebServer.class, context.getWebServer());
+    }
+
+    @Test
+    void getContactById_ShouldReturnETagAndNotModified() {
+        ContactResponseDto created = create(OWNER, "Rita Reactive", "5550000200");
+
+        String eTag = client.get().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, OWNER)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.VARY, OwnerContext.OWNER_HEADER, HttpHeaders.ACCEPT)
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Rita Reactive")
+                .returnResult().getResponseHeaders().getETag();
+        assertEquals("\"" + created.getVersion() + "\"", eTag);
+
+        client.get().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, OWNER)
+                .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                .exchange()
+                .expectStatus().isNotModified();
+    }
+
+    @Test
+    void getContactById_ShouldNegotiateCbor() throws Exception {
+        ContactResponseDto created = create(OWNER, "Carl Cbor", "5550000203");
+
+        byte[] body = client.get().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, OWNER)
+                .accept(MediaType.APPLICATION_CBOR)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentType(MediaType.APPLICATION_CBOR)
+                .expectBody(byte[].class)
+                .returnResult().getResponseBody();
+        assertEquals(created, new CBORMapper().readValue(body, ContactResponseDto.class));
+    }
+
+    @Test
+    void getContactById_ShouldMapErrorsLikeServletApi() {
+        ContactResponseDto created = create("reactive-alice", "Alice Reactive", "5550000201");
+
+        client.get().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, "reactive-bob")
+                .exchange()
+                .expectStatus().isNotFound()
+                .expectBody()
+                .jsonPath("$.status").isEqualTo(404)
+                .jsonPath("$.message").isEqualTo("Contact with ID " + created.getId() + " not found.");
+        client.get().uri("/contacts")
+                .header(OwnerContext.OWNER_HEADER, "../etc")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.put().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, "reactive-alice")
+                .header(HttpHeaders.IF_MATCH, "\"999\"")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"Alice\",\"phoneNumber\":\"5550000201\"}")
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    @Test
+    void getAllContacts_ShouldPageWithCursorAndExportAsNdjson() {
+        String owner = "reactive-pager";
+        for (int i = 0; i < 5; i++) {
+            create(owner, "Pager " + (char) ('E' - i), "555000030" + i);
+        }
+
+        HttpHeaders firstHeaders = client.get().uri("/contacts?sort=name&limit=3")
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(3)
+                .jsonPath("$[0].name").isEqualTo("Pager A")
+                .returnResult().getResponseHeaders();
+        String cursor = firstHeaders.getFirst(ContactController.NEXT_CURSOR_HEADER);
+        assertNotNull(cursor);
+        client.get().uri("/contacts?cursor={cursor}&limit=3", cursor)
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().doesNotExist(ContactController.NEXT_CURSOR_HEADER)
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(2)
+                .jsonPath("$[1].name").isEqualTo("Pager E");
+        client.get().uri("/contacts")
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .header(HttpHeaders.IF_NONE_MATCH, firstHeaders.getETag())
+                .exchange()
+                .expectStatus().isNotModified();
+
+        Flux<ContactResponseDto> export = client.get().uri("/contacts/export")
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .returnResult(ContactResponseDto.class)
+                .getResponseBody();
+        // поток выгрузки отдает контакты по мере запроса подписчика
+        StepVerifier.create(export, 1)
+                .expectNextMatches(contact -> contact.getName().equals("Pager E"))
+                .thenRequest(4)
+                .expectNextCount(4)
+                .verifyComplete();
+    }
+
+    @Test
+    void writes_ShouldKeepChangeLogAndSearchIndex() {
+        String owner = "reactive-writer";
+        ContactResponseDto created = create(owner, "Walter Reactive", "5550000400");
+        client.patch().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"email\":\"walter@example.com\"}")
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().valueEquals(HttpHeaders.ETAG, "\"" + (created.getVersion() + 1) + "\"");
+
+        List<ContactResponseDto> found = client.get().uri("/contacts/search?q=walter")
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .exchange()
+                .expectStatus().isOk()
+                .expectBodyList(ContactResponseDto.class)
+                .returnResult().getResponseBody();
+        assertEquals(List.of("walter@example.com"), found.stream().map(ContactResponseDto::getEmail).toList());
+
+        client.delete().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .exchange()
+                .expectStatus().isNoContent();
+        client.get().uri("/contacts/{id}", created.getId())
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .exchange()
+                .expectStatus().isNotFound();
+    }
+
+    @Test
+    void getContactsByPhone_ShouldFindOwnContactsThroughR2dbc() {
+        ContactResponseDto own = create("reactive-phone", "Phil Phone", "+1 (555) 000-0500");
+        create("reactive-other", "Olga Other", "15550000500");
+
+        client.get().uri("/contacts/by-phone/{number}", "1-555-000-0500")
+                .header(OwnerContext.OWNER_HEADER, "reactive-phone")
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.length()").isEqualTo(1)
+                .jsonPath("$[0].id").isEqualTo(own.getId());
+        client.get().uri("/contacts/by-phone/{number}", "5559999999")
+                .header(OwnerContext.OWNER_HEADER, "reactive-phone")
+                .exchange()
+                .expectStatus().isNotFound();
+        client.get().uri("/contacts/by-phone/{number}", "n-a")
+                .header(OwnerContext.OWNER_HEADER, "reactive-phone")
+                .exchange()
+                .expectStatus().isBadRequest();
+        client.get().uri("/contacts/search?q={q}", " ")
+                .header(OwnerContext.OWNER_HEADER, "reactive-phone")
+                .exchange()
+                .expectStatus().isBadRequest();
+    }
+
+    private ContactResponseDto create(String owner, String name, String phoneNumber) {
+        return client.post().uri("/contacts")
+                .header(OwnerContext.OWNER_HEADER, owner)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue("{\"name\":\"" + name + "\",\"phoneNumber\":\"" + phoneNumber + "\"}")
+                .exchange()
+                .expectStatus().isCreated()
+                .expectBody(ContactResponseDto.class)
+                .returnResult().getResponseBody();
+    }
+}
@@ -0,0 +1,134 @@
+package com.example.contactbook.controller;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Согласование формата (JSON, CBOR, Smile) и сжатие gzip ответов на Tomcat.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "contact-book.snapshot.restore-on-startup=false")
+class WireFormatIntegrationTest {
+
+    private static final String OWNER = "wire-owner";
+    private static final String SMILE = "application/x-jackson-smile";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+    private final CBORMapper cborMapper = new CBORMapper();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        if (get("/contacts?limit=1", MediaType.APPLICATION_JSON_VALUE, null).body().length > 2) {
+            return;
+        }
+        StringBuilder batch = new StringBuilder("[");
+        for (int i = 0; i < 100; i++) {
+            batch.append(i == 0 ? "" : ",").append("{\"operation\":\"CREATE\",\"contact\":{\"name\":\"Wire Contact ")
+                    .append(i).append("\",\"phoneNumber\":\"555").append(1_000_000 + i)
+                    .append("\",\"email\":\"wire").append(i).append("@example.com\"}}");
+        }
+        HttpResponse<byte[]> response = client.send(request("/contacts/batch")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString(batch.append("]").toString()))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+    }
+
+    @Test
+    void getAllContacts_ShouldEncodeSamePageInBinaryFormatsMoreCompactly() throws Exception {
+        HttpResponse<byte[]> json = get("/contacts?limit=100", MediaType.APPLICATION_JSON_VALUE, null);
+        HttpResponse<byte[]> cbor = get("/contacts?limit=100", MediaType.APPLICATION_CBOR_VALUE, null);
+        HttpResponse<byte[]> smile = get("/contacts?limit=100", SMILE, null);
+
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+        assertEquals(SMILE, smile.headers().firstValue(HttpHeaders.CONTENT_TYPE).orElseThrow());
+        assertTrue(cbor.headers().allValues(HttpHeaders.VARY).stream()
+                .flatMap(vary -> Arrays.stream(vary.split(",")))
+                .anyMatch(HttpHeaders.ACCEPT::equalsIgnoreCase));
+        assertEquals(json.headers().firstValue(HttpHeaders.ETAG), cbor.headers().firstValue(HttpHeaders.ETAG));
+
+        List<ContactResponseDto> expected = Arrays.asList(objectMapper.readValue(json.body(), ContactResponseDto[].class));
+        assertEquals(100, expected.size());
+        assertEquals(expected, Arrays.asList(cborMapper.readValue(cbor.body(), ContactResponseDto[].class)));
+        assertEquals(expected, Arrays.asList(new SmileMapper().readValue(smile.body(), ContactResponseDto[].class)));
+        assertTrue(cbor.body().length < json.body().length);
+        assertTrue(smile.body().length < json.body().length);
+    }
+
+    @Test
+    void createContact_ShouldAcceptCborBody() throws Exception {
+        byte[] body = cborMapper.writeValueAsBytes(
+                new LinkedHashMap<>(Map.of("name", "Cbor Client", "phoneNumber", "5550000999", "email", "")));
+        HttpResponse<byte[]> response = client.send(request("/contacts")
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_CBOR_VALUE)
+                .header(HttpHeaders.ACCEPT, MediaType.APPLICATION_CBOR_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body))
+                .build(), HttpResponse.BodyHandlers.ofByteArray());
+
+        assertEquals(201, response.statusCode());
+        assertEquals("Cbor Client", cborMapper.readValue(response.body(), ContactResponseDto.class).getName());
+    }
+
+    @Test
+    void responses_ShouldBeGzippedOnlyAboveThreshold() throws Exception {
+        HttpResponse<byte[]> plain = get("/contacts?limit=100", MediaType.APPLICATION_JSON_VALUE, null);
+        HttpResponse<byte[]> page = get("/contacts?limit=100", MediaType.APPLICATION_JSON_VALUE, "gzip");
+        assertEquals("gzip", page.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElseThrow());
+        assertTrue(page.body().length < plain.body().length);
+        try (GZIPInputStream gzip = new GZIPInputStream(new ByteArrayInputStream(page.body()))) {
+            assertArrayEquals(plain.body(), gzip.readAllBytes());
+        }
+
+        HttpResponse<byte[]> cbor = get("/contacts?limit=100", MediaType.APPLICATION_CBOR_VALUE, "gzip");
+        assertEquals("gzip", cbor.headers().firstValue(HttpHeaders.CONTENT_ENCODING).orElseThrow());
+
+        HttpResponse<byte[]> single = get("/contacts?limit=1", MediaType.APPLICATION_JSON_VALUE, "gzip");
+        assertTrue(single.headers().firstValue(HttpHeaders.CONTENT_ENCODING).isEmpty());
+    }
+
+    private HttpResponse<byte[]> get(String path, String accept, String acceptEncoding)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder builder = request(path).header(HttpHeaders.ACCEPT, accept).GET();
+        if (acceptEncoding != null) {
+            builder.header(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        HttpResponse<byte[]> response = client.send(builder.build(), HttpResponse.BodyHandlers.ofByteArray());
+        assertEquals(200, response.statusCode());
+        return response;
+    }
+
+    private HttpRequest.Builder request(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+                .header(OwnerContext.OWNER_HEADER, OWNER);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.contactbook.dedupe;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.DuplicateGroupDto;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DuplicateDetectorTest {
+
+    private final DuplicateDetector detector = new DuplicateDetector(ForkJoinPool.commonPool(), 20);
+
+    @Test
+    void findDuplicates_ShouldGroupContactsWithDifferentFormattingAndCasing() {
+        List<ContactResponseDto> contacts = List.of(
+                contact(1L, "John Smith", "+1 (555) 010-0100", "john@example.com"),
+                contact(2L, "SMITH, john", "15550100100", null),
+                contact(3L, "Jon Smith", "+1 555 010 0109", "JOHN@example.com "),
+                contact(4L, "Mary Smith", "+1 (555) 010-0100", "mary@example.com"),
+                contact(5L, "Alice Johnson", "1234567890", "alice@example.com"),
+                contact(6L, "Alicia Johnsen", "(123) 456-7890", null),
+                contact(7L, "Bob Brown", "999", null));
+
+        List<DuplicateGroupDto> groups = detector.findDuplicates(contacts, DuplicateDetector.DEFAULT_THRESHOLD);
+
+        assertEquals(Set.of(List.of(1L, 2L, 3L), List.of(5L, 6L)),
+                groups.stream().map(DuplicateDetectorTest::ids).collect(Collectors.toSet()));
+        assertTrue(groups.get(0).getScore() >= groups.get(1).getScore());
+        assertTrue(detector.findDuplicates(contacts, 0.99).stream().allMatch(group -> ids(group).contains(1L)));
+    }
+
+    @Test
+    void findDuplicates_ShouldCompareOnlyNeighboursInsideLargeBlocks() {
+        List<ContactResponseDto> contacts = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            contacts.add(contact((long) i, "John Smith", "+1 555 " + (1_000_000 + i), null));
+        }
+        contacts.add(contact(10_000L, "john SMITH", "+1 555 1004999", "js@example.com"));
+
+        List<DuplicateGroupDto> groups = new DuplicateDetector(ForkJoinPool.commonPool(), 5)
+                .findDuplicates(contacts, 0.999);
+
+        assertEquals(1, groups.size());
+        assertEquals(List.of(4999L, 10_000L), ids(groups.get(0)));
+    }
+
+    @Test
+    void jaroWinklerAndSoundex_ShouldMatchReferenceValues() {
+        assertEquals(0.961, JaroWinkler.similarity("martha", "marhta"), 0.001);
+        assertEquals(0.840, JaroWinkler.similarity("dwayne", "duane"), 0.001);
+        assertEquals(0.0, JaroWinkler.similarity("abc", ""));
+        assertEquals("R163", NameKeys.phonetic("Robert"));
+        assertEquals("R163", NameKeys.phonetic("Rupert"));
+        assertEquals("A261", NameKeys.phonetic("Ashcraft"));
+        assertEquals("T522", NameKeys.phonetic("Tymczak"));
+        assertEquals("J500 S530", NameKeys.phonetic("Smyth, Jon"));
+        assertEquals("john smith", NameKeys.normalize("  SMITH,john "));
+    }
+
+    private static List<Long> ids(DuplicateGroupDto group) {
+        return group.getContacts().stream().map(ContactResponseDto::getId).toList();
+    }
+
+    private static ContactResponseDto contact(Long id, String name, String phoneNumber, String email) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email);
+        return contact;
+    }
+}
@@ -3,17 +3,23 @@ package com.example.contactbook.exceptions;
 import com.example.contactbook.controller.ContactController;
 import com.example.contactbook.dto.ContactRequestDto;
 import com.example.contactbook.service.ContactService;
+import com.example.contactbook.service.ContactWriteBehind;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -26,6 +32,12 @@ class GlobalExceptionHandlerTest {
     @Mock
     private ContactService contactService;
 
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ObjectProvider<ContactWriteBehind> writeBehind;
+
     @InjectMocks
     private ContactController contactController;
 
@@ -47,6 +59,8 @@ class GlobalExceptionHandlerTest {
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.status").value(HttpStatus.NOT_FOUND.value()))
                 .andExpect(jsonPath("$.message").value("Contact not found"));
+
+        assertEquals(1, meterRegistry.counter(GlobalExceptionHandler.ERROR_COUNTER, "type", "not_found", "status", "404").count());
     }
 
     @Test
@@ -60,6 +74,22 @@ class GlobalExceptionHandlerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.status").value(HttpStatus.BAD_REQUEST.value()))
                 .andExpect(jsonPath("$.message").value("Invalid contact data"));
+
+        assertEquals(1, meterRegistry.counter(GlobalExceptionHandler.ERROR_COUNTER, "type", "illegal_argument", "status", "400").count());
+    }
+
+    @Test
+    void handleContactVersionMismatchException_ShouldReturnPreconditionFailed() throws Exception {
+        when(contactService.saveOrUpdateContact(eq(1L), any(ContactRequestDto.class), eq(2L)))
+                .thenThrow(new ContactVersionMismatchException("Version mismatch"));
+
+        mockMvc.perform(put("/contacts/1")
+                        .header("If-Match", "\"2\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{ \"name\": \"John Doe\", \"phoneNumber\": \"1234567890\", \"email\": \"\" }"))
+                .andExpect(status().isPreconditionFailed())
+                .andExpect(jsonPath("$.status").value(HttpStatus.PRECONDITION_FAILED.value()))
+                .andExpect(jsonPath("$.message").value("Version mismatch"));
     }
 
     @Test
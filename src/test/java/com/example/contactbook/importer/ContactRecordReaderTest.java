@@ -0,0 +1,93 @@
+package com.example.contactbook.importer;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactRecordReaderTest {
+
+    @Test
+    void csv_ShouldMapColumnsByHeaderAndHandleQuotedFields() throws IOException {
+        List<ContactRecord> records = readAll(ImportFormat.CSV, """
+                \uFEFFEmail,Name,Phone,Company\r
+                john@example.com,"Doe, John",+1 555 0100,Acme\r
+                ,"Jane ""JJ""
+                Smith",555-0101,\r
+                \r
+                broken-row
+                """);
+
+        assertEquals(3, records.size());
+        assertEquals("Doe, John", records.get(0).contact().getName());
+        assertEquals("+1 555 0100", records.get(0).contact().getPhoneNumber());
+        assertEquals("john@example.com", records.get(0).contact().getEmail());
+        assertEquals("Jane \"JJ\"\nSmith", records.get(1).contact().getName());
+        assertNull(records.get(1).contact().getEmail());
+        assertEquals(3, records.get(2).row());
+        assertNull(records.get(2).contact());
+        assertNotNull(records.get(2).error());
+    }
+
+    @Test
+    void csv_ShouldRejectFileWithoutRequiredColumns() {
+        assertThrows(IOException.class, () -> readAll(ImportFormat.CSV, "email\nfoo@example.com\n"));
+        assertThrows(IOException.class, () -> readAll(ImportFormat.CSV, "name,phone\n\"unterminated,1\n"));
+    }
+
+    @Test
+    void vcard_ShouldReadNamePhoneAndEmailWithFoldingAndGroups() throws IOException {
+        List<ContactRecord> records = readAll(ImportFormat.VCARD, """
+                BEGIN:VCARD
+                VERSION:3.0
+                N:Doe;John;;Dr.;
+                FN:John
+                  Doe
+                item1.TEL;TYPE=cell:+1 555 0100
+                TEL:+1 555 0199
+                EMAIL;TYPE=work:john@example.com
+                END:VCARD
+                BEGIN:VCARD
+                VERSION:4.0
+                N:Smith;Jane;;;
+                TEL;VALUE=uri:tel:+44-20-7946-0958
+                END:VCARD
+                garbage
+                BEGIN:VCARD
+                FN:Unterminated
+                """);
+
+        assertEquals(4, records.size());
+        assertEquals("John Doe", records.get(0).contact().getName());
+        assertEquals("+1 555 0100", records.get(0).contact().getPhoneNumber());
+        assertEquals("john@example.com", records.get(0).contact().getEmail());
+        assertEquals("Jane Smith", records.get(1).contact().getName());
+        assertEquals("+44-20-7946-0958", records.get(1).contact().getPhoneNumber());
+        assertNotNull(records.get(2).error());
+        assertNotNull(records.get(3).error());
+    }
+
+    @Test
+    void resolve_ShouldPreferParameterOverContentType() {
+        assertEquals(ImportFormat.VCARD, ImportFormat.resolve("vcf", "text/csv"));
+        assertEquals(ImportFormat.CSV, ImportFormat.resolve(null, "text/csv; charset=UTF-8"));
+        assertEquals(ImportFormat.VCARD, ImportFormat.resolve(null, "text/x-vcard"));
+        assertThrows(IllegalArgumentException.class, () -> ImportFormat.resolve(null, "application/json"));
+        assertThrows(IllegalArgumentException.class, () -> ImportFormat.resolve("xlsx", null));
+    }
+
+    private static List<ContactRecord> readAll(ImportFormat format, String content) throws IOException {
+        List<ContactRecord> records = new ArrayList<>();
+        try (ContactRecordReader reader = format.open(new StringReader(content))) {
+            ContactRecord record;
+            while ((record = reader.next()) != null) {
+                records.add(record);
+            }
+        }
+        return records;
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.event.KeyValuePair;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccessLogFilterTest {
+
+    private final Logger accessLogger = (Logger) LoggerFactory.getLogger(AccessLogFilter.LOGGER_NAME);
+    private final ListAppender<ILoggingEvent> target = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        target.start();
+        accessLogger.addAppender(target);
+    }
+
+    @AfterEach
+    void tearDown() {
+        accessLogger.detachAppender(target);
+    }
+
+    @Test
+    void doFilter_ShouldWriteOneStructuredRecordPerRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/contacts/42");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req,
+                                   HttpServletResponse resp) {
+                req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/contacts/{id}");
+                req.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", "42"));
+                resp.setStatus(404);
+            }
+        });
+
+        new AccessLogFilter().doFilter(request, response, chain);
+
+        assertEquals(1, target.list.size());
+        Map<String, Object> fields = new HashMap<>();
+        for (KeyValuePair pair : target.list.get(0).getKeyValuePairs()) {
+            fields.put(pair.key, pair.value);
+        }
+        assertEquals("GET", fields.get("method"));
+        assertEquals("/contacts/42", fields.get("path"));
+        assertEquals("/contacts/{id}", fields.get("route"));
+        assertEquals("42", fields.get("id"));
+        assertEquals(404, fields.get("status"));
+        assertTrue((Long) fields.get("latencyUs") >= 0);
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RingBufferAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.setMDCAdapter(new LogbackMDCAdapter());
+        logger = context.getLogger("com.example.contactbook.service.ContactService");
+        logger.setLevel(Level.INFO);
+    }
+
+    @Test
+    void append_ShouldDeliverEventsInOrderAndFlushOnStop() {
+        ListAppender<ILoggingEvent> target = new ListAppender<>();
+        RingBufferAppender appender = start(target, 16);
+
+        for (int i = 0; i < 10; i++) {
+            logger.info("event {}", i);
+        }
+        appender.stop();
+
+        assertEquals(10, target.list.size());
+        assertEquals("event 0", target.list.get(0).getFormattedMessage());
+        assertEquals("event 9", target.list.get(9).getFormattedMessage());
+    }
+
+    @Test
+    void append_ShouldDropAndCountEventsWhenBufferIsFull() throws InterruptedException {
+        CountDownLatch release = new CountDownLatch(1);
+        BlockingAppender target = new BlockingAppender(release);
+        RingBufferAppender appender = start(target, 2);
+        long droppedBefore = LogDropCounters.queueFullCount(Level.WARN);
+
+        logger.warn("taken by worker");
+        assertTrue(target.entered.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 5; i++) {
+            logger.warn("buffered or dropped {}", i);
+        }
+
+        assertEquals(3, LogDropCounters.queueFullCount(Level.WARN) - droppedBefore);
+        release.countDown();
+        appender.stop();
+        assertEquals(3, target.count);
+    }
+
+    private RingBufferAppender start(Appender<ILoggingEvent> target, int capacity) {
+        target.setContext(context);
+        target.start();
+        RingBufferAppender appender = new RingBufferAppender();
+        appender.setContext(context);
+        appender.setName("ASYNC");
+        appender.setCapacity(capacity);
+        appender.addAppender(target);
+        appender.start();
+        logger.addAppender(appender);
+        logger.setAdditive(false);
+        return appender;
+    }
+
+    private static class BlockingAppender extends AppenderBase<ILoggingEvent> {
+
+        private final CountDownLatch release;
+        private final CountDownLatch entered = new CountDownLatch(1);
+        private int count;
+
+        BlockingAppender(CountDownLatch release) {
+            this.release = release;
+        }
+
+        @Override
+        protected void append(ILoggingEvent event) {
+            entered.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            count++;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.contactbook.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SamplingTurboFilterTest {
+
+    private LoggerContext context;
+    private ListAppender<ILoggingEvent> target;
+
+    @BeforeEach
+    void setUp() {
+        context = new LoggerContext();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).setLevel(Level.INFO);
+        target = new ListAppender<>();
+        target.setContext(context);
+        target.start();
+        context.getLogger(Logger.ROOT_LOGGER_NAME).addAppender(target);
+
+        SamplingTurboFilter filter = new SamplingTurboFilter();
+        filter.setLoggerPrefix("com.example.contactbook.service.ContactService");
+        filter.setLevel("INFO");
+        filter.setKeepOneIn(10);
+        filter.start();
+        context.addTurboFilter(filter);
+    }
+
+    @Test
+    void decide_ShouldKeepOneInNAndCountTheRest() {
+        Logger logger = context.getLogger("com.example.contactbook.service.ContactService");
+        long sampledBefore = LogDropCounters.sampledCount(Level.INFO);
+
+        for (int i = 0; i < 100; i++) {
+            logger.info("chatty {}", i);
+        }
+
+        assertEquals(10, target.list.size());
+        assertEquals("chatty 0", target.list.get(0).getFormattedMessage());
+        assertEquals("chatty 10", target.list.get(1).getFormattedMessage());
+        assertEquals(90, LogDropCounters.sampledCount(Level.INFO) - sampledBefore);
+    }
+
+    @Test
+    void decide_ShouldNotTouchOtherLevelsLoggersAndEnabledChecks() {
+        Logger service = context.getLogger("com.example.contactbook.service.ContactService");
+        service.info("first is kept");
+
+        service.warn("warning");
+        service.error("failure", new IllegalStateException());
+        context.getLogger("com.example.contactbook.controller.ContactController").info("controller");
+        context.getLogger("com.example.contactbook.service.ContactImportService").info("import finished");
+        service.debug("below threshold");
+
+        assertTrue(service.isInfoEnabled());
+        assertEquals(5, target.list.size());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.contactbook.mapper;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.Contact;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.modelmapper.ModelMapper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContactMapperTest {
+
+    private final ContactMapper directMapper = new DirectContactMapper();
+    private final ContactMapper modelMapper = new ModelMapperContactMapper(new ModelMapper());
+
+    private ContactRequestDto contactRequestDto;
+    private Contact contact;
+
+    @BeforeEach
+    void setUp() {
+        contactRequestDto = new ContactRequestDto();
+        contactRequestDto.setName("John Doe");
+        contactRequestDto.setPhoneNumber("1234567890");
+        contactRequestDto.setEmail("john.doe@example.com");
+
+        contact = new Contact(1L, "John Doe", "1234567890", "john.doe@example.com");
+    }
+
+    @Test
+    void toEntity_ShouldMatchModelMapper() {
+        Contact direct = directMapper.toEntity(contactRequestDto);
+        Contact reflective = modelMapper.toEntity(contactRequestDto);
+
+        assertNull(direct.getId());
+        assertEquals(reflective.getName(), direct.getName());
+        assertEquals(reflective.getPhoneNumber(), direct.getPhoneNumber());
+        assertEquals(reflective.getEmail(), direct.getEmail());
+    }
+
+    @Test
+    void updateEntity_ShouldKeepIdAndReplaceFields() {
+        contactRequestDto.setName("Jane Doe");
+        contactRequestDto.setEmail(null);
+
+        directMapper.updateEntity(contactRequestDto, contact);
+
+        assertEquals(1L, contact.getId());
+        assertEquals("Jane Doe", contact.getName());
+        assertNull(contact.getEmail());
+    }
+
+    @Test
+    void toResponse_ShouldMatchModelMapper() {
+        ContactResponseDto direct = directMapper.toResponse(contact);
+
+        assertEquals(modelMapper.toResponse(contact), direct);
+        assertEquals(1L, direct.getId());
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.contactbook.replica;
+
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.tenancy.OwnerContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong nanos = new AtomicLong();
+    private DataSource primary;
+    private DataSource replica;
+    private ReplicaStickiness stickiness;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = mock(DataSource.class);
+        replica = mock(DataSource.class);
+        when(primary.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        when(replica.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        stickiness = new ReplicaStickiness(Duration.ofSeconds(5), nanos::get);
+        routing = new ReplicaRoutingDataSource(primary, replica, stickiness);
+        // иначе свойства соединений по умолчанию читаются из соединения основной базы при первом вызове
+        routing.setDefaultAutoCommit(true);
+        routing.setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    @Test
+    void getConnection_ShouldUseReplicaOnlyForReadOnlyWork() throws SQLException {
+        assertSame(replica, targetOf(true));
+        assertSame(primary, targetOf(false));
+    }
+
+    @Test
+    void getConnection_ShouldKeepRecentWriterOnPrimaryUntilWindowEnds() throws SQLException {
+        OwnerContext.runAs("alice", () -> stickiness.onContactChanged(new ContactChangedEvent(1L, null)));
+
+        assertSame(primary, OwnerContext.callAs("alice", () -> targetOf(true)));
+        assertSame(replica, OwnerContext.callAs("bob", () -> targetOf(true)));
+
+        nanos.addAndGet(Duration.ofSeconds(6).toNanos());
+        assertSame(replica, OwnerContext.callAs("alice", () -> targetOf(true)));
+    }
+
+    @Test
+    void getConnection_ShouldNotTouchPoolsUntilFirstStatement() throws SQLException {
+        Connection connection = routing.getConnection();
+        connection.setReadOnly(true);
+        connection.setAutoCommit(false);
+        connection.close();
+
+        verifyNoInteractions(replica);
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    void close_ShouldCloseBothPools() throws Exception {
+        DataSource primaryPool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+        DataSource replicaPool = mock(DataSource.class, withSettings().extraInterfaces(AutoCloseable.class));
+
+        new ReplicaRoutingDataSource(primaryPool, replicaPool, stickiness).close();
+
+        verify((AutoCloseable) primaryPool).close();
+        verify((AutoCloseable) replicaPool).close();
+    }
+
+    /**
+     * Пул, из которого взято физическое соединение для первого запроса.
+     */
+    private DataSource targetOf(boolean readOnly) {
+        try {
+            clearInvocations(primary, replica);
+            try (Connection connection = routing.getConnection()) {
+                connection.setReadOnly(readOnly);
+                connection.createStatement();
+            }
+            boolean fromReplica = !mockingDetails(replica).getInvocations().isEmpty();
+            boolean fromPrimary = !mockingDetails(primary).getInvocations().isEmpty();
+            assertNotEquals(fromReplica, fromPrimary);
+            return fromReplica ? replica : primary;
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
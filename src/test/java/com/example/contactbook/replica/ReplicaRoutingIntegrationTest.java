@@ -0,0 +1,64 @@
+package com.example.contactbook.replica;
+
+import com.example.contactbook.tenancy.OwnerContext;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Распределение соединений между пулами primary и replica по метрикам {@code hikaricp.connections.acquire}.
+ */
+@SpringBootTest(properties = "contact-book.snapshot.restore-on-startup=false")
+@ActiveProfiles("replica")
+@AutoConfigureMockMvc
+class ReplicaRoutingIntegrationTest {
+
+    private static final int READS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void reads_ShouldGoToReplicaExceptForRecentWriter() throws Exception {
+        mockMvc.perform(post("/contacts")
+                        .header(OwnerContext.OWNER_HEADER, "writer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Wendy Writer\",\"phoneNumber\":\"5550000100\"}"))
+                .andExpect(status().isCreated());
+
+        long primaryBefore = acquisitions("primary");
+        long replicaBefore = acquisitions("replica");
+        for (int i = 0; i < READS; i++) {
+            mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "reader"))
+                    .andExpect(status().isOk());
+        }
+        assertEquals(0, acquisitions("primary") - primaryBefore);
+        assertEquals(READS, acquisitions("replica") - replicaBefore);
+
+        // только что изменивший книгу владелец читает свою запись с основной базы
+        mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "writer"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Wendy Writer"));
+        assertEquals(1, acquisitions("primary") - primaryBefore);
+        assertEquals(READS, acquisitions("replica") - replicaBefore);
+    }
+
+    private long acquisitions(String pool) {
+        Timer timer = meterRegistry.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+        return timer == null ? 0 : timer.count();
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.contactbook.repository;
+
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.model.PhoneNumbers;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Запросы {@link ContactRepositoryCustomImpl} к базе данных: ключ номера телефона при частичном обновлении.
+ */
+@SpringBootTest(properties = "contact-book.snapshot.restore-on-startup=false")
+@Transactional
+class ContactRepositoryCustomImplTest {
+
+    @Autowired
+    private ContactRepository contactRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void patchContact_ShouldKeepPhoneKeyWhenPhoneIsNotSent() {
+        long id = insert("5550000004");
+
+        assertEquals(1, contactRepository.patchContact(id, "Renamed", null, null, null));
+
+        assertEquals(PhoneNumbers.normalize("5550000004"), phoneKey(id));
+    }
+
+    @Test
+    void patchContact_ShouldClearPhoneKeyWhenPhoneDoesNotNormalize() {
+        long id = insert("5550000005");
+
+        assertEquals(1, contactRepository.patchContact(id, null, "n/a", null, null));
+
+        assertNull(phoneKey(id));
+        assertTrue(contactRepository.streamPhoneKeys().noneMatch(key -> key.id() == id));
+    }
+
+    private long insert(String phoneNumber) {
+        Contact contact = new Contact(null, "Dana Grey", phoneNumber, "");
+        contactRepository.insertAll(List.of(contact));
+        return contact.getId();
+    }
+
+    private Long phoneKey(long id) {
+        return jdbcTemplate.queryForObject("select phone_key from contacts where id = ?", Long.class, id);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.contactbook.search;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.mapper.DirectContactMapper;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.sharding.ShardDirectory;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ContactSearchIndexTest {
+
+    private static final String OWNER = "alice";
+
+    private ContactSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ContactSearchIndex(mock(ContactRepository.class), new DirectContactMapper(),
+                mock(EntityManager.class), mock(PlatformTransactionManager.class),
+                ShardDirectory.single(mock(DataSource.class)));
+        index(1L, "Alice Johnson", "+1 (234) 567-890", "alice@example.com");
+        index(2L, "Bob Smith", "0987654321", "bob@example.com");
+        index(3L, "Alicia Keys", "1122334455", "keys@music.org");
+    }
+
+    @Test
+    void search_ShouldMatchNamePrefix() {
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(searchIndex.search(OWNER, "Ali", 10))));
+        assertEquals(List.of(2L), ids(searchIndex.search(OWNER, "smi", 10)));
+    }
+
+    @Test
+    void search_ShouldTolerateTypos() {
+        assertEquals(1L, searchIndex.search(OWNER, "jonhson", 10).get(0).getId());
+    }
+
+    @Test
+    void search_ShouldMatchEmailAndPhoneDigits() {
+        assertEquals(List.of(3L), ids(searchIndex.search(OWNER, "music", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search(OWNER, "234567", 10)));
+    }
+
+    @Test
+    void search_ShouldRespectLimit() {
+        assertEquals(1, searchIndex.search(OWNER, "ali", 1).size());
+    }
+
+    @Test
+    void onContactChanged_ShouldReindexUpdatedContactAndDropDeletedContact() {
+        index(2L, "Robert Smith", "0987654321", "bob@example.com");
+        searchIndex.onContactChanged(new ContactChangedEvent(3L, null));
+
+        assertEquals(List.of(2L), ids(searchIndex.search(OWNER, "robert", 10)));
+        assertEquals(List.of(1L), ids(searchIndex.search(OWNER, "ali", 10)));
+        assertEquals(2, searchIndex.size());
+    }
+
+    @Test
+    void search_ShouldReturnOnlyContactsOfOwner() {
+        index(4L, "Alina Brown", "5550001111", "alina@example.com", "bob");
+
+        assertEquals(Set.of(1L, 3L), Set.copyOf(ids(searchIndex.search(OWNER, "Ali", 10))));
+        assertEquals(List.of(4L), ids(searchIndex.search("bob", "Ali", 10)));
+        assertEquals(List.of(), searchIndex.search("carol", "Ali", 10));
+    }
+
+    @Test
+    void search_ShouldNotSpendScanBudgetOnOtherOwners() {
+        for (long id = 100; id < 100 + ContactSearchIndex.MAX_SCANNED_POSTINGS; id++) {
+            index(id, "Alan", "", "", "bob");
+        }
+        index(10L, "Alfred", "", "", OWNER);
+
+        assertTrue(ids(searchIndex.search(OWNER, "al", 10)).contains(10L));
+    }
+
+    private void index(Long id, String name, String phoneNumber, String email) {
+        index(id, name, phoneNumber, email, OWNER);
+    }
+
+    private void index(Long id, String name, String phoneNumber, String email, String owner) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setOwner(owner);
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email);
+        searchIndex.onContactChanged(new ContactChangedEvent(id, contact));
+    }
+
+    private static List<Long> ids(List<ContactResponseDto> contacts) {
+        return contacts.stream().map(ContactResponseDto::getId).toList();
+    }
+}
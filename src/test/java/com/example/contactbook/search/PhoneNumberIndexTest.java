@@ -0,0 +1,120 @@
+package com.example.contactbook.search;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.service.ContactChangedEvent;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.tenancy.OwnerContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PhoneNumberIndexTest {
+
+    private PhoneNumberIndex phoneNumberIndex;
+
+    @BeforeEach
+    void setUp() {
+        phoneNumberIndex = new PhoneNumberIndex(mock(ContactRepository.class), mock(PlatformTransactionManager.class),
+                ShardDirectory.single(mock(DataSource.class)));
+        index(1L, "+1 (234) 567-890");
+        index(2L, "0987654321");
+        index(3L, "1234567890");
+    }
+
+    @Test
+    void normalize_ShouldIgnoreFormattingAndKeepLeadingZeros() {
+        assertEquals(PhoneNumbers.normalize("+44 20 7946 0958"), PhoneNumbers.normalize("0044-20-7946-0958"));
+        assertEquals(PhoneNumbers.normalize("(123) 456"), PhoneNumbers.normalize("123456"));
+        assertNotEquals(PhoneNumbers.normalize("0123"), PhoneNumbers.normalize("123"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.normalize("n/a"));
+        assertEquals(PhoneNumbers.INVALID, PhoneNumbers.normalize("1234567890123456"));
+    }
+
+    @Test
+    void findIds_ShouldReturnAllContactsWithSameNormalizedNumber() {
+        long[] ids = new long[4];
+
+        int found = phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("123-456-7890"), ids);
+
+        assertEquals(2, found);
+        assertEquals(Arrays.asList(1L, 3L), Arrays.asList(Math.min(ids[0], ids[1]), Math.max(ids[0], ids[1])));
+        assertEquals(0, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("555"), ids));
+    }
+
+    @Test
+    void findIds_ShouldSkipOtherOwnersMatches() {
+        for (long id = 100; id < 200; id++) {
+            index(id, "alice", "123-456-7890");
+        }
+        long[] ids = new long[2];
+
+        assertEquals(2, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("1234567890"), ids));
+        assertEquals(Arrays.asList(1L, 3L), Arrays.asList(Math.min(ids[0], ids[1]), Math.max(ids[0], ids[1])));
+        assertEquals(100, phoneNumberIndex.findIds("alice", PhoneNumbers.normalize("1234567890"), new long[100]));
+        assertEquals(0, phoneNumberIndex.findIds("bob", PhoneNumbers.normalize("1234567890"), ids));
+
+        index(100L, OwnerContext.DEFAULT_OWNER, "1234567890");
+        assertEquals(3, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("1234567890"), ids));
+        assertEquals(99, phoneNumberIndex.findIds("alice", PhoneNumbers.normalize("1234567890"), ids));
+    }
+
+    @Test
+    void onContactChanged_ShouldMoveUpdatedContactAndDropDeletedContact() {
+        index(1L, "555-0100");
+        phoneNumberIndex.onContactChanged(new ContactChangedEvent(2L, null));
+        long[] ids = new long[4];
+
+        assertEquals(1, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("1234567890"), ids));
+        assertEquals(3L, ids[0]);
+        assertEquals(1, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("5550100"), ids));
+        assertEquals(1L, ids[0]);
+        assertEquals(0, phoneNumberIndex.findIds(OwnerContext.DEFAULT_OWNER, PhoneNumbers.normalize("0987654321"), ids));
+        assertEquals(2, phoneNumberIndex.size());
+    }
+
+    @Test
+    void longMultiMap_ShouldKeepChainsIntactAfterRemovals() {
+        LongMultiMap map = new LongMultiMap();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (long value = 1; value <= 5_000; value++) {
+            long key = 1 + random.nextInt(1_000);
+            map.put(key, value);
+            expected.put(value, key);
+        }
+        for (long value = 1; value <= 5_000; value += 2) {
+            assertTrue(map.remove(expected.remove(value), value));
+        }
+
+        assertEquals(expected.size(), map.size());
+        long[] buffer = new long[64];
+        expected.forEach((value, key) -> {
+            int found = map.getAll(key, buffer);
+            assertTrue(Arrays.stream(buffer, 0, found).anyMatch(v -> v == value));
+        });
+    }
+
+    private void index(Long id, String phoneNumber) {
+        index(id, OwnerContext.DEFAULT_OWNER, phoneNumber);
+    }
+
+    private void index(Long id, String owner, String phoneNumber) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setOwner(owner);
+        contact.setPhoneNumber(phoneNumber);
+        phoneNumberIndex.onContactChanged(new ContactChangedEvent(id, contact));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.exceptions.ChangeTokenExpiredException;
+import com.example.contactbook.model.ContactChange;
+import com.example.contactbook.model.ContactChangeLogId;
+import com.example.contactbook.repository.ContactChangeLogIdRepository;
+import com.example.contactbook.repository.ContactChangeRepository;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.tenancy.OwnerContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ContactChangeLogTest {
+
+    private ContactChangeRepository changeRepository;
+    private ContactChangeLogIdRepository logIdRepository;
+    private ContactChangeLog changeLog;
+
+    @BeforeEach
+    void setUp() {
+        changeRepository = mock(ContactChangeRepository.class);
+        logIdRepository = mock(ContactChangeLogIdRepository.class);
+        changeLog = newChangeLog();
+        changeLog.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.unbindResourceIfPossible(changeLog);
+    }
+
+    @Test
+    void init_ShouldKeepStoredLogIdSoTokensSurviveRestart() {
+        ArgumentCaptor<ContactChangeLogId> saved = ArgumentCaptor.forClass(ContactChangeLogId.class);
+        verify(logIdRepository).save(saved.capture());
+        ChangeToken token = changeLog.currentToken();
+        when(logIdRepository.findById(ContactChangeLogId.SINGLETON_ID)).thenReturn(Optional.of(saved.getValue()));
+
+        ContactChangeLog restarted = newChangeLog();
+        restarted.init();
+
+        assertEquals(token.logId(), restarted.currentToken().logId());
+        assertTrue(restarted.read(token, 10).entries().isEmpty());
+        verify(logIdRepository, times(1)).save(any());
+    }
+
+    @Test
+    void read_ShouldNotPassRevisionOfUncommittedTransaction() {
+        ChangeToken start = changeLog.currentToken();
+        TransactionSynchronizationManager.initSynchronization();
+        changeLog.onContactChanged(new ContactChangedEvent(1L, new ContactResponseDto()));
+        changeLog.onContactChanged(new ContactChangedEvent(3L, new ContactResponseDto()));
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        TransactionSynchronizationManager.clearSynchronization();
+        changeLog.onContactChanged(new ContactChangedEvent(2L, null));
+
+        assertEquals(1, synchronizations.size());
+        verify(changeRepository).save(any(ContactChange.class));
+        assertEquals(0, changeLog.currentToken().revision());
+        assertEquals(0, changeLog.read(start, 10).next().revision());
+
+        synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+        verify(changeRepository).insertAll(argThat(changes -> changes.size() == 2));
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertEquals(3, changeLog.currentToken().revision());
+    }
+
+    @Test
+    void read_ShouldReturnNextTokenAfterLastEntryOfFullPage() {
+        changeLog.onContactChanged(new ContactChangedEvent(1L, null));
+        changeLog.onContactChanged(new ContactChangedEvent(2L, null));
+        changeLog.onContactChanged(new ContactChangedEvent(3L, null));
+        ContactChange first = new ContactChange(1L, 1L, null, Instant.EPOCH, OwnerContext.DEFAULT_OWNER);
+        ContactChange second = new ContactChange(2L, 2L, null, Instant.EPOCH, OwnerContext.DEFAULT_OWNER);
+        when(changeRepository.findByRevisionGreaterThanAndRevisionLessThanEqualOrderByRevisionAsc(0, 3, Limit.of(2)))
+                .thenReturn(List.of(first, second));
+
+        ContactChangeLog.ChangeLogPage page = changeLog.read(new ChangeToken(changeLog.currentToken().logId(), 0), 2);
+
+        assertTrue(page.hasMore());
+        assertEquals(2, page.next().revision());
+    }
+
+    @Test
+    void read_ShouldRejectTokensOfOtherLogOrCompactedRevisions() {
+        changeLog.onContactChanged(new ContactChangedEvent(1L, null));
+        changeLog.onContactChanged(new ContactChangedEvent(2L, null));
+        when(changeRepository.findMaxRevisionBefore(eq(Instant.parse("2026-01-03T00:00:00Z")), anyLong())).thenReturn(1L);
+        String logId = changeLog.currentToken().logId();
+
+        changeLog.compact();
+
+        verify(changeRepository).deleteUpToRevision(1L);
+        assertThrows(ChangeTokenExpiredException.class, () -> changeLog.read(new ChangeToken(logId, 0), 10));
+        assertThrows(ChangeTokenExpiredException.class, () -> changeLog.read(new ChangeToken("other", 2), 10));
+        assertTrue(changeLog.read(new ChangeToken(logId, 1), 10).entries().isEmpty());
+    }
+
+    private ContactChangeLog newChangeLog() {
+        return new ContactChangeLog(changeRepository, logIdRepository, ShardDirectory.single(mock(DataSource.class)),
+                Duration.ofDays(7), Clock.fixed(Instant.parse("2026-01-10T00:00:00Z"), ZoneOffset.UTC));
+    }
+}
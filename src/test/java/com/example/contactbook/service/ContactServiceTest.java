@@ -1,10 +1,32 @@
 package com.example.contactbook.service;
 
+import com.example.contactbook.cache.ContactCache;
+import com.example.contactbook.dto.BatchOperationType;
+import com.example.contactbook.dto.ContactChangeDto;
+import com.example.contactbook.dto.ContactChangesDto;
+import com.example.contactbook.dto.ContactFieldsPageDto;
+import com.example.contactbook.dto.ContactBatchOperationDto;
+import com.example.contactbook.dto.ContactBatchResultDto;
+import com.example.contactbook.dto.ContactPageDto;
 import com.example.contactbook.dto.ContactRequestDto;
 import com.example.contactbook.dto.ContactResponseDto;
 import com.example.contactbook.exceptions.ContactNotFoundException;
+import com.example.contactbook.exceptions.ContactVersionMismatchException;
+import com.example.contactbook.mapper.ContactMapper;
 import com.example.contactbook.model.Contact;
+import com.example.contactbook.model.ContactChange;
+import com.example.contactbook.model.ContactChangeType;
+import com.example.contactbook.model.PhoneNumbers;
+import com.example.contactbook.repository.ContactField;
 import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.search.ContactSearchIndex;
+import com.example.contactbook.search.PhoneNumberIndex;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.example.contactbook.validation.ContactValidator;
+import com.example.contactbook.validation.DirectContactValidator;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
@@ -14,13 +36,25 @@ import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
-import org.modelmapper.ModelMapper;
-
+import org.mockito.Spy;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.stream.Stream;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -29,11 +63,38 @@ class ContactServiceTest {
     @Mock
     private ContactRepository contactRepository;
 
-    @Mock
     private Validator validator;
 
+    @Spy
+    private ContactValidator contactValidator =
+            new DirectContactValidator(Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Mock
+    private ContactMapper contactMapper;
+
     @Mock
-    private ModelMapper modelMapper;
+    private EntityManager entityManager;
+
+    @Spy
+    private ContactCache contactCache = new ContactCache(100, Duration.ofMinutes(1));
+
+    @Mock
+    private ContactSearchIndex searchIndex;
+
+    @Mock
+    private PhoneNumberIndex phoneNumberIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Mock
+    private ContactChangeLog changeLog;
+
+    @Spy
+    private PendingContactWrites pendingWrites = new PendingContactWrites();
 
     @InjectMocks
     private ContactService contactService;
@@ -65,18 +126,32 @@ class ContactServiceTest {
         contactResponseDto.setName("John Doe");
         contactResponseDto.setPhoneNumber("1234567890");
         contactResponseDto.setEmail("john.doe@example.com");
+        contactResponseDto.setOwner(OwnerContext.DEFAULT_OWNER);
     }
 
     @Test
     void getContactById_ShouldReturnContactDto_WhenContactExists() {
         when(contactRepository.findById(1L)).thenReturn(Optional.of(contact));
-        when(modelMapper.map(contact, ContactResponseDto.class)).thenReturn(contactResponseDto);
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
 
         ContactResponseDto result = contactService.getContactById(1L);
 
         assertEquals(contactResponseDto, result);
         verify(contactRepository).findById(1L);
-        verify(modelMapper).map(contact, ContactResponseDto.class);
+        verify(contactMapper).toResponse(contact);
+    }
+
+    @Test
+    void getContactById_ShouldServeRepeatedLookupsFromCache() {
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact));
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+
+        contactService.getContactById(1L);
+        ContactResponseDto result = contactService.getContactById(1L);
+
+        assertEquals(contactResponseDto, result);
+        verify(contactRepository, times(1)).findById(1L);
+        assertEquals(1, contactCache.stats().getHitCount());
     }
 
     @Test
@@ -85,66 +160,420 @@ class ContactServiceTest {
 
         assertThrows(ContactNotFoundException.class, () -> contactService.getContactById(1L));
         verify(contactRepository).findById(1L);
+        assertNull(contactCache.getIfPresent(1L));
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnPageOfContactDtos() {
+        when(contactRepository.findByIdGreaterThanOrderByIdAsc(eq(0L), any(Limit.class))).thenReturn(List.of(contact));
+        when(contactMapper.toResponse(any(Contact.class))).thenReturn(contactResponseDto);
+
+        ContactPageDto result = contactService.getAllContacts(null, null, null, null);
+
+        assertEquals(1, result.getContacts().size());
+        assertNull(result.getNextCursor());
+        verify(contactRepository).findByIdGreaterThanOrderByIdAsc(0L, Limit.of(ContactService.DEFAULT_PAGE_SIZE + 1));
+        verify(contactMapper).toResponse(any(Contact.class));
+    }
+
+    @Test
+    void getAllContacts_ShouldReturnNextCursor_WhenMoreContactsExist() {
+        Contact next = new Contact(2L, "Jane Doe", "5555555555", "jane@example.com");
+        when(contactRepository.findByIdGreaterThanOrderByIdAsc(0L, Limit.of(2))).thenReturn(List.of(contact, next));
+        when(contactMapper.toResponse(any(Contact.class))).thenReturn(contactResponseDto);
+
+        ContactPageDto result = contactService.getAllContacts(null, null, 1, null);
+
+        assertEquals(1, result.getContacts().size());
+        assertEquals(new ContactCursor(ContactSort.ID, 1L, null), ContactCursor.decode(result.getNextCursor()));
+    }
+
+    @Test
+    void getAllContacts_ShouldSeekByName_WhenCursorProvided() {
+        String cursor = new ContactCursor(ContactSort.NAME, 1L, "John Doe").encode();
+        when(contactRepository.findNameSeekPage(eq("John Doe"), eq(1L), any(Limit.class))).thenReturn(List.of());
+
+        ContactPageDto result = contactService.getAllContacts(cursor, null, 10, null);
+
+        assertTrue(result.getContacts().isEmpty());
+        verify(contactRepository).findNameSeekPage("John Doe", 1L, Limit.of(11));
+    }
+
+    @Test
+    void getAllContactFields_ShouldReadCursorKeyButReturnOnlyRequestedFields() {
+        Map<String, Object> first = new LinkedHashMap<>(Map.of("id", 1L, "name", "Jane Doe"));
+        Map<String, Object> second = new LinkedHashMap<>(Map.of("id", 2L, "name", "John Doe"));
+        Set<ContactField> selected = EnumSet.of(ContactField.ID, ContactField.NAME);
+        when(contactRepository.findFieldsNameSeekPage(selected, null, 0L, 2)).thenReturn(new ArrayList<>(List.of(first, second)));
+
+        ContactFieldsPageDto result = contactService.getAllContactFields(null, null, 1, "name", EnumSet.of(ContactField.ID));
+
+        assertEquals(List.of(Map.of("id", 1L)), result.getContacts());
+        assertEquals(new ContactCursor(ContactSort.NAME, 1L, "Jane Doe"), ContactCursor.decode(result.getNextCursor()));
+        verify(contactMapper, never()).toResponse(any(Contact.class));
+    }
+
+    @Test
+    void getContactFieldsById_ShouldUseCachedContactWithoutQuery() {
+        contactResponseDto.setVersion(3L);
+        contactCache.onContactChanged(new ContactChangedEvent(1L, contactResponseDto));
+
+        ContactFields result = contactService.getContactFieldsById(1L, EnumSet.of(ContactField.NAME));
+
+        assertEquals(Map.of("name", "John Doe"), result.values());
+        assertEquals(3L, result.version());
+        verify(contactRepository, never()).findFieldsById(any(), anyLong());
+    }
+
+    @Test
+    void getContactFieldsById_ShouldSelectVersionForETagOnly() {
+        when(contactRepository.findFieldsById(EnumSet.of(ContactField.NAME, ContactField.VERSION), 1L))
+                .thenReturn(Optional.of(new LinkedHashMap<>(Map.of("name", "John Doe", "version", 4L))));
+
+        ContactFields result = contactService.getContactFieldsById(1L, EnumSet.of(ContactField.NAME));
+
+        assertEquals(Map.of("name", "John Doe"), result.values());
+        assertEquals(4L, result.version());
+    }
+
+    @Test
+    void getAllContacts_ShouldCapPageSize() {
+        when(contactRepository.findByIdGreaterThanOrderByIdAsc(eq(5L), any(Limit.class))).thenReturn(List.of());
+
+        contactService.getAllContacts(null, 5L, 1_000_000, null);
+
+        verify(contactRepository).findByIdGreaterThanOrderByIdAsc(5L, Limit.of(ContactService.MAX_PAGE_SIZE + 1));
+        assertEquals(1, meterRegistry.summary(ContactService.RESULT_SIZE_SUMMARY, "operation", "getAllContacts").count());
+    }
+
+    @Test
+    void getAllContacts_ShouldThrowIllegalArgumentException_WhenCursorIsInvalid() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.getAllContacts("not-a-cursor", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> contactService.getAllContacts(null, 1L, null, "name"));
+        assertThrows(IllegalArgumentException.class, () -> contactService.getAllContacts(null, null, 0, null));
+    }
+
+    @Test
+    void searchContacts_ShouldDelegateToIndexWithCappedLimit() {
+        when(searchIndex.search(OwnerContext.DEFAULT_OWNER, "john", ContactService.MAX_SEARCH_RESULTS)).thenReturn(List.of(contactResponseDto));
+
+        List<ContactResponseDto> result = contactService.searchContacts("john", 1000);
+
+        assertEquals(List.of(contactResponseDto), result);
+        verify(searchIndex).search(OwnerContext.DEFAULT_OWNER, "john", ContactService.MAX_SEARCH_RESULTS);
+        assertThrows(IllegalArgumentException.class, () -> contactService.searchContacts(" ", null));
+    }
+
+    @Test
+    void getContactsByPhone_ShouldResolveIndexedIdsThroughCache() {
+        when(phoneNumberIndex.findIds(anyString(), anyLong(), any(long[].class))).thenAnswer(invocation -> {
+            invocation.getArgument(2, long[].class)[0] = 1L;
+            return 1;
+        });
+        when(contactRepository.findById(1L)).thenReturn(Optional.of(contact));
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+
+        List<ContactResponseDto> result = contactService.getContactsByPhone("+1 (234) 567-890");
+
+        assertEquals(List.of(contactResponseDto), result);
+        verify(phoneNumberIndex).findIds(eq(OwnerContext.DEFAULT_OWNER), eq(PhoneNumbers.normalize("1234567890")),
+                any(long[].class));
     }
 
     @Test
-    void getAllContacts_ShouldReturnListOfContactDtos() {
-        when(contactRepository.findAll()).thenReturn(List.of(contact));
-        when(modelMapper.map(any(Contact.class), eq(ContactResponseDto.class))).thenReturn(contactResponseDto);
+    void getContactsByPhone_ShouldRejectInvalidNumberAndReportMissingContacts() {
+        assertThrows(IllegalArgumentException.class, () -> contactService.getContactsByPhone("n/a"));
+        assertThrows(ContactNotFoundException.class, () -> contactService.getContactsByPhone("5555555555"));
+    }
 
-        List<ContactResponseDto> result = contactService.getAllContacts();
+    @Test
+    void createContact_ShouldAcceptPhoneNumberWithoutDigits() {
+        contactRequestDto.setPhoneNumber("unknown");
+        Contact unknownPhone = new Contact(1L, "John Doe", "unknown", "john.doe@example.com");
+        when(contactMapper.toEntity(contactRequestDto)).thenReturn(unknownPhone);
+        when(contactRepository.save(any(Contact.class))).thenReturn(unknownPhone);
+        when(contactMapper.toResponse(unknownPhone)).thenReturn(contactResponseDto);
+
+        assertEquals(contactResponseDto, contactService.createContact(contactRequestDto));
+        verify(contactRepository).save(unknownPhone);
+        assertEquals(0, meterRegistry.timer(ContactService.VALIDATION_TIMER, "outcome", "invalid").count());
+    }
 
-        assertFalse(result.isEmpty());
-        assertEquals(1, result.size());
-        verify(contactRepository).findAll();
-        verify(modelMapper).map(any(Contact.class), eq(ContactResponseDto.class));
+    @Test
+    void getChanges_ShouldCollapseChangesPerContactAndReturnTombstones() {
+        ChangeToken since = new ChangeToken("log", 4);
+        List<ContactChange> entries = List.of(
+                new ContactChange(5L, 1L, ContactChangeType.UPSERT, Instant.EPOCH, OwnerContext.DEFAULT_OWNER),
+                new ContactChange(6L, 2L, ContactChangeType.UPSERT, Instant.EPOCH, OwnerContext.DEFAULT_OWNER),
+                new ContactChange(7L, 1L, ContactChangeType.UPSERT, Instant.EPOCH, OwnerContext.DEFAULT_OWNER),
+                new ContactChange(8L, 2L, ContactChangeType.DELETE, Instant.EPOCH, OwnerContext.DEFAULT_OWNER));
+        when(changeLog.read(since, ContactService.DEFAULT_CHANGES_PAGE_SIZE))
+                .thenReturn(new ContactChangeLog.ChangeLogPage(entries, new ChangeToken("log", 8), false));
+        when(contactRepository.findAllById(Set.of(1L))).thenReturn(List.of(contact));
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+
+        ContactChangesDto result = contactService.getChanges(since.encode(), null);
+
+        assertEquals(List.of(
+                new ContactChangeDto(1L, ContactChangeType.UPSERT, 7L, contactResponseDto),
+                new ContactChangeDto(2L, ContactChangeType.DELETE, 8L, null)), result.getChanges());
+        assertEquals(new ChangeToken("log", 8), ChangeToken.decode(result.getNextToken()));
+        assertFalse(result.isHasMore());
+        assertThrows(IllegalArgumentException.class, () -> contactService.getChanges("not a token", null));
+    }
+
+    @Test
+    void exportContacts_ShouldStreamAndDetachEveryContact() {
+        when(contactRepository.streamAllByOrderByIdAsc()).thenReturn(Stream.of(contact));
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+        List<ContactResponseDto> exported = new ArrayList<>();
+
+        long count = contactService.exportContacts(exported::add);
+
+        assertEquals(1, count);
+        assertEquals(List.of(contactResponseDto), exported);
+        verify(entityManager).detach(contact);
     }
 
     @Test
     void createContact_ShouldReturnCreatedContactDto() {
-        when(modelMapper.map(contactRequestDto, Contact.class)).thenReturn(contact);
+        when(contactMapper.toEntity(contactRequestDto)).thenReturn(contact);
         when(contactRepository.save(any(Contact.class))).thenReturn(contact);
-        when(modelMapper.map(contact, ContactResponseDto.class)).thenReturn(contactResponseDto);
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
 
         ContactResponseDto result = contactService.createContact(contactRequestDto);
 
         assertEquals(contactResponseDto, result);
-        verify(modelMapper).map(contactRequestDto, Contact.class);
+        verify(contactMapper).toEntity(contactRequestDto);
         verify(contactRepository).save(any(Contact.class));
-        verify(modelMapper).map(contact, ContactResponseDto.class);
+        verify(contactMapper).toResponse(contact);
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(1L, contactResponseDto));
     }
 
     @Test
-    void saveOrUpdateContact_ShouldReturnUpdatedContactDto() {
-        when(modelMapper.map(contactRequestDto, Contact.class)).thenReturn(contact);
-        when(contactRepository.save(any(Contact.class))).thenReturn(contact);
-        when(modelMapper.map(contact, ContactResponseDto.class)).thenReturn(contactResponseDto);
-
-        ContactResponseDto result = contactService.saveOrUpdateContact(1L, contactRequestDto);
+    void saveOrUpdateContact_ShouldUpdateWithCachedVersionInOneStatement() {
+        contactResponseDto.setVersion(4L);
+        contactCache.onContactChanged(new ContactChangedEvent(1L, contactResponseDto));
+        when(contactRepository.updateContact(1L, "John Doe", "1234567890", "john.doe@example.com", 4L)).thenReturn(1);
+        when(contactMapper.toResponse(any(Contact.class))).thenAnswer(invocation -> {
+            Contact updated = invocation.getArgument(0);
+            assertEquals(5L, updated.getVersion());
+            return contactResponseDto;
+        });
+
+        ContactResponseDto result = contactService.saveOrUpdateContact(1L, contactRequestDto, null);
 
         assertEquals(contactResponseDto, result);
-        verify(modelMapper).map(contactRequestDto, Contact.class);
-        verify(contactRepository).save(any(Contact.class));
-        verify(modelMapper).map(contact, ContactResponseDto.class);
+        verify(contactRepository, never()).findById(anyLong());
+        verify(contactRepository, never()).findVersionById(anyLong());
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(1L, contactResponseDto));
+    }
+
+    @Test
+    void saveOrUpdateContact_ShouldReadVersionAfterUpdate_WhenVersionIsUnknown() {
+        when(contactRepository.updateContact(eq(1L), anyString(), anyString(), anyString(), isNull())).thenReturn(1);
+        when(contactRepository.findVersionById(1L)).thenReturn(Optional.of(8L));
+        when(contactMapper.toResponse(argThat(updated -> updated.getVersion() == 8L))).thenReturn(contactResponseDto);
+
+        assertEquals(contactResponseDto, contactService.saveOrUpdateContact(1L, contactRequestDto, null));
+        verify(contactRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void saveOrUpdateContact_ShouldCreateContact_WhenContactDoesNotExist() {
+        when(contactMapper.toEntity(contactRequestDto)).thenReturn(contact);
+        when(contactRepository.save(contact)).thenReturn(contact);
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+
+        assertEquals(contactResponseDto, contactService.saveOrUpdateContact(5L, contactRequestDto, null));
+        verify(contactRepository).save(contact);
+    }
+
+    @Test
+    void saveOrUpdateContact_ShouldThrowVersionMismatch_WhenIfMatchVersionIsStale() {
+        when(contactRepository.findVersionById(1L)).thenReturn(Optional.of(4L));
+
+        assertThrows(ContactVersionMismatchException.class,
+                () -> contactService.saveOrUpdateContact(1L, contactRequestDto, 3L));
+        assertThrows(ContactVersionMismatchException.class,
+                () -> contactService.saveOrUpdateContact(2L, contactRequestDto, ContactService.ANY_VERSION));
+        verify(contactRepository).updateContact(eq(1L), anyString(), anyString(), anyString(), eq(3L));
+        verify(contactRepository, never()).save(any(Contact.class));
+    }
+
+    @Test
+    void savePendingUpdates_ShouldBumpVersionAndReportDeletedContacts() {
+        ContactResponseDto unchanged = pendingUpdate(1L, "John Doe", "1234567890", "john.doe@example.com", 5L);
+        ContactResponseDto deleted = pendingUpdate(2L, "Jane Doe", "0987654321", "jane.doe@example.com", 3L);
+        when(contactRepository.updateContact(1L, "John Doe", "1234567890", "john.doe@example.com", 4L)).thenReturn(1);
+        when(contactMapper.toResponse(any(Contact.class))).thenReturn(unchanged);
+
+        assertEquals(Set.of(2L), contactService.savePendingUpdates(List.of(unchanged, deleted)));
+        verify(contactRepository).updateContact(2L, "Jane Doe", "0987654321", "jane.doe@example.com", 2L);
+        verify(contactRepository).updateContact(eq(2L), anyString(), anyString(), anyString(), isNull());
+        verify(contactMapper).toResponse(argThat(updated -> updated.getId() == 1L && updated.getVersion() == 5L));
+        verify(eventPublisher, times(1)).publishEvent(any(ContactChangedEvent.class));
+    }
+
+    @Test
+    void savePendingUpdates_ShouldOverwriteContactChangedSinceAccepted() {
+        ContactResponseDto pending = pendingUpdate(1L, "John Doe", "1234567890", "john.doe@example.com", 5L);
+        when(contactRepository.updateContact(eq(1L), anyString(), anyString(), anyString(), isNull())).thenReturn(1);
+        when(contactRepository.findVersionById(1L)).thenReturn(Optional.of(7L));
+        when(contactMapper.toResponse(argThat(updated -> updated.getVersion() == 7L))).thenReturn(pending);
+
+        assertTrue(contactService.savePendingUpdates(List.of(pending)).isEmpty());
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(1L, pending));
+    }
+
+    @Test
+    void patchContact_ShouldMergeSentFieldsIntoCachedContact() {
+        contactResponseDto.setVersion(4L);
+        contactCache.onContactChanged(new ContactChangedEvent(1L, contactResponseDto));
+        ContactRequestDto patch = new ContactRequestDto();
+        patch.setEmail("john@example.org");
+        when(contactRepository.patchContact(1L, null, null, "john@example.org", 4L)).thenReturn(1);
+        when(contactMapper.toResponse(any(Contact.class))).thenAnswer(invocation -> {
+            Contact patched = invocation.getArgument(0);
+            assertEquals("John Doe", patched.getName());
+            assertEquals("john@example.org", patched.getEmail());
+            assertEquals(5L, patched.getVersion());
+            return contactResponseDto;
+        });
+
+        assertEquals(contactResponseDto, contactService.patchContact(1L, patch, null));
+        verify(contactRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void patchContact_ShouldRejectEmptyOrInvalidPatchAndReportMissingContact() {
+        ContactRequestDto patch = new ContactRequestDto();
+        assertThrows(IllegalArgumentException.class, () -> contactService.patchContact(1L, patch, null));
+        patch.setPhoneNumber(" ");
+        assertThrows(IllegalArgumentException.class, () -> contactService.patchContact(1L, patch, null));
+        patch.setPhoneNumber("+1 555 010 0100");
+        assertThrows(ContactNotFoundException.class, () -> contactService.patchContact(1L, patch, null));
+        assertThrows(ContactVersionMismatchException.class, () -> contactService.patchContact(1L, patch, 2L));
+        verify(contactRepository).patchContact(1L, null, "+1 555 010 0100", null, null);
+    }
+
+    @Test
+    void getContactVersion_ShouldPreferCacheOverVersionQuery() {
+        contactResponseDto.setVersion(7L);
+        contactCache.onContactChanged(new ContactChangedEvent(1L, contactResponseDto));
+        when(contactRepository.findVersionById(2L)).thenReturn(Optional.of(2L));
+
+        assertEquals(7L, contactService.getContactVersion(1L));
+        assertEquals(2L, contactService.getContactVersion(2L));
+        verify(contactRepository, never()).findVersionById(1L);
+        assertThrows(ContactNotFoundException.class, () -> contactService.getContactVersion(3L));
     }
 
     @Test
     void deleteContact_ShouldDeleteContact_WhenExists() {
-        when(contactRepository.existsById(1L)).thenReturn(true);
+        when(contactRepository.deleteContact(1L)).thenReturn(1);
 
         contactService.deleteContact(1L);
 
-        verify(contactRepository).existsById(1L);
-        verify(contactRepository).deleteById(1L);
+        verify(contactRepository).deleteContact(1L);
+        verify(contactRepository, never()).existsById(anyLong());
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(1L, null));
     }
 
     @Test
     void deleteContact_ShouldThrowContactNotFoundException_WhenContactDoesNotExist() {
-        when(contactRepository.existsById(1L)).thenReturn(false);
-
         assertThrows(ContactNotFoundException.class, () -> contactService.deleteContact(1L));
-        verify(contactRepository).existsById(1L);
-        verify(contactRepository, never()).deleteById(1L);
+        verify(contactRepository).deleteContact(1L);
+        verify(eventPublisher, never()).publishEvent(any());
+    }
+
+    @Test
+    void processBatch_ShouldApplyOperationsAndReportPerItemResults() {
+        Contact created = new Contact(2L, "Jane Doe", "5555555555", "jane@example.com");
+        when(contactRepository.findAllById(Set.of(1L, 3L))).thenReturn(List.of(contact));
+        when(contactMapper.toEntity(contactRequestDto))
+                .thenReturn(new Contact(null, "Jane Doe", "5555555555", "jane@example.com"));
+        when(contactRepository.save(any(Contact.class))).thenReturn(created);
+
+        List<ContactBatchResultDto> results = contactService.processBatch(List.of(
+                batchOperation(BatchOperationType.CREATE, null, contactRequestDto),
+                batchOperation(BatchOperationType.UPDATE, 1L, contactRequestDto),
+                batchOperation(BatchOperationType.DELETE, 3L, null),
+                batchOperation(BatchOperationType.DELETE, 1L, null),
+                batchOperation(BatchOperationType.UPDATE, null, contactRequestDto)));
+
+        assertEquals(List.of(201, 200, 404, 204, 400), results.stream().map(ContactBatchResultDto::getStatus).toList());
+        assertEquals(2L, results.get(0).getId());
+        verify(contactMapper).updateEntity(contactRequestDto, contact);
+        verify(contactRepository).findAllById(Set.of(1L, 3L));
+        verify(contactRepository).save(any(Contact.class));
+        verify(contactRepository).delete(contact);
+    }
+
+    @Test
+    void processBatch_ShouldThrowIllegalArgumentException_WhenBatchIsTooLarge() {
+        List<ContactBatchOperationDto> operations = new ArrayList<>();
+        for (int i = 0; i <= ContactService.MAX_BATCH_SIZE; i++) {
+            operations.add(batchOperation(BatchOperationType.CREATE, null, contactRequestDto));
+        }
+
+        assertThrows(IllegalArgumentException.class, () -> contactService.processBatch(operations));
+        assertThrows(IllegalArgumentException.class, () -> contactService.processBatch(List.of()));
+        verifyNoInteractions(contactRepository);
+    }
+
+    @Test
+    void importContacts_ShouldInsertValidContactsAndReportErrorsInOrder() {
+        ContactRequestDto invalid = new ContactRequestDto();
+        invalid.setName("No Phone");
+        invalid.setPhoneNumber(" ");
+        Contact valid = new Contact(null, "John Doe", "1234567890", "john.doe@example.com");
+        when(contactMapper.toEntity(contactRequestDto)).thenReturn(valid);
+        when(contactMapper.toEntity(invalid)).thenReturn(new Contact(null, "No Phone", " ", null));
+        doAnswer(invocation -> {
+            List<Contact> contacts = invocation.getArgument(0);
+            contacts.forEach(inserted -> inserted.setId(7L));
+            return null;
+        }).when(contactRepository).insertAll(anyList());
+
+        List<String> errors = contactService.importContacts(List.of(invalid, contactRequestDto));
+
+        assertNotNull(errors.get(0));
+        assertNull(errors.get(1));
+        verify(contactRepository).insertAll(List.of(valid));
+        verify(contactMapper).toResponse(valid);
+        verify(eventPublisher).publishEvent(argThat((Object event) ->
+                event instanceof ContactChangedEvent changed && changed.id() == 7L));
+        verify(contactRepository, never()).save(any(Contact.class));
+    }
+
+    @Test
+    void mergeContacts_ShouldKeepFirstContactFillEmailAndDeleteOthers() {
+        contact.setEmail(null);
+        Contact withoutEmail = new Contact(2L, "Johnny Doe", "123-456-7890", null);
+        Contact withEmail = new Contact(3L, "J. Doe", "+1234567890", "jd@example.com");
+        when(contactRepository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(withEmail, contact, withoutEmail));
+        when(contactRepository.saveAndFlush(contact)).thenReturn(contact);
+        when(contactMapper.toResponse(contact)).thenReturn(contactResponseDto);
+
+        ContactResponseDto result = contactService.mergeContacts(List.of(1L, 2L, 3L), null);
+
+        assertEquals(contactResponseDto, result);
+        assertEquals("jd@example.com", contact.getEmail());
+        verify(contactRepository).deleteAll(List.of(withoutEmail, withEmail));
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(2L, null));
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(3L, null));
+        verify(eventPublisher).publishEvent(new ContactChangedEvent(1L, contactResponseDto));
+    }
+
+    @Test
+    void mergeContacts_ShouldRejectInvalidIdsAndMissingContacts() {
+        when(contactRepository.findAllById(List.of(1L, 2L))).thenReturn(List.of(contact));
+
+        assertThrows(IllegalArgumentException.class, () -> contactService.mergeContacts(List.of(1L), null));
+        assertThrows(IllegalArgumentException.class, () -> contactService.mergeContacts(List.of(1L, 1L), null));
+        assertThrows(ContactNotFoundException.class, () -> contactService.mergeContacts(List.of(1L, 2L), null));
+        verify(contactRepository, never()).deleteAll(anyList());
     }
 
     @Test
@@ -186,4 +615,22 @@ class ContactServiceTest {
         assertTrue(violations.stream().anyMatch(v -> v.getMessage().equals("Invalid email format")),
                 "Expected violation for invalid email format");
     }
+
+    private static ContactBatchOperationDto batchOperation(BatchOperationType type, Long id, ContactRequestDto contact) {
+        ContactBatchOperationDto operation = new ContactBatchOperationDto();
+        operation.setOperation(type);
+        operation.setId(id);
+        operation.setContact(contact);
+        return operation;
+    }
+
+    private static ContactResponseDto pendingUpdate(Long id, String name, String phoneNumber, String email, long version) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email);
+        contact.setVersion(version);
+        return contact;
+    }
 }
@@ -0,0 +1,130 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.dto.SnapshotDto;
+import com.example.contactbook.model.Contact;
+import com.example.contactbook.repository.ContactRepository;
+import com.example.contactbook.snapshot.ContactSnapshotReader;
+import com.example.contactbook.sharding.ShardDirectory;
+import com.example.contactbook.snapshot.ContactSnapshotWriter;
+import com.example.contactbook.tenancy.OwnerContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.sql.DataSource;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class ContactSnapshotServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private ContactService contactService;
+    private ContactRepository contactRepository;
+    private ContactSnapshotService snapshotService;
+    private Path path;
+
+    @BeforeEach
+    void setUp() {
+        contactService = mock(ContactService.class);
+        contactRepository = mock(ContactRepository.class);
+        path = directory.resolve("book/contacts.snapshot");
+        snapshotService = new ContactSnapshotService(contactService, contactRepository,
+                ShardDirectory.single(mock(DataSource.class)), mock(PlatformTransactionManager.class), path, true,
+                Clock.systemUTC());
+    }
+
+    @Test
+    void createSnapshot_ShouldWriteExportedContactsReadableByReader() throws IOException {
+        List<ContactResponseDto> contacts = List.of(
+                contact(7L, "Zoë Ångström", "+46 8 123 456", null),
+                contact(9L, "Bob", "555", "bob@example.com"));
+        doAnswer(invocation -> {
+            Consumer<ContactResponseDto> sink = invocation.getArgument(0);
+            contacts.forEach(sink);
+            return (long) contacts.size();
+        }).when(contactService).exportContacts(any());
+
+        SnapshotDto snapshot = snapshotService.createSnapshot();
+
+        assertEquals(2, snapshot.getContacts());
+        assertEquals(Files.size(path), snapshot.getSizeBytes());
+        try (var files = Files.list(path.getParent())) {
+            assertEquals(1, files.count());
+        }
+        ContactSnapshotReader reader = ContactSnapshotReader.open(path);
+        assertEquals(2, reader.count());
+        assertEquals(contacts.get(0), reader.next());
+        assertEquals(contacts.get(1), reader.next());
+        assertNull(reader.next());
+    }
+
+    @Test
+    void restore_ShouldInsertBatchesWithOriginalIdsAndRestartSequence() throws IOException {
+        int count = ContactSnapshotService.RESTORE_BATCH_SIZE * 2 + 5;
+        Files.createDirectories(path.getParent());
+        try (ContactSnapshotWriter writer = new ContactSnapshotWriter(path)) {
+            for (int i = 1; i <= count; i++) {
+                writer.write(contact(i * 2L, "Contact " + i, "555" + i, null));
+            }
+        }
+        List<Integer> batchSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Contact> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            assertEquals(3L, batch.get(0).getVersion());
+            return null;
+        }).when(contactRepository).restoreAll(anyList());
+
+        assertEquals(count, snapshotService.restore());
+
+        assertEquals(List.of(1000, 1000, 5), batchSizes);
+        verify(contactRepository).restartIdSequenceAfter(count * 2L);
+    }
+
+    @Test
+    void restore_ShouldSkipNonEmptyBookAndIncompleteSnapshot() throws IOException {
+        assertEquals(0, snapshotService.restore());
+
+        Files.createDirectories(path.getParent());
+        try (ContactSnapshotWriter writer = new ContactSnapshotWriter(path)) {
+            writer.write(contact(1L, "Alice", "555", null));
+        }
+        when(contactRepository.count()).thenReturn(3L);
+        assertEquals(0, snapshotService.restore());
+
+        when(contactRepository.count()).thenReturn(0L);
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 2);
+        }
+        assertEquals(0, snapshotService.restore());
+        verify(contactRepository, never()).restartIdSequenceAfter(anyLong());
+    }
+
+    private static ContactResponseDto contact(Long id, String name, String phoneNumber, String email) {
+        ContactResponseDto contact = new ContactResponseDto();
+        contact.setId(id);
+        contact.setName(name);
+        contact.setPhoneNumber(phoneNumber);
+        contact.setEmail(email);
+        contact.setVersion(3L);
+        contact.setOwner(OwnerContext.DEFAULT_OWNER);
+        return contact;
+    }
+}
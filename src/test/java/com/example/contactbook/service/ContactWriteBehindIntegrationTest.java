@@ -0,0 +1,106 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Отложенная запись: 202 на обновление, чтение несохраненного состояния и сохранение перед условным обновлением.
+ */
+@SpringBootTest(properties = {
+        "contact-book.write-behind.enabled=true",
+        "contact-book.write-behind.flush-interval=1h",
+        "contact-book.snapshot.restore-on-startup=false"
+})
+@AutoConfigureMockMvc
+class ContactWriteBehindIntegrationTest {
+
+    private static final String OWNER = "write-behind";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PendingContactWrites pendingWrites;
+
+    @Test
+    void updates_ShouldBeAcceptedReadBackAndSavedBeforeConditionalUpdate() throws Exception {
+        String body = mockMvc.perform(post("/contacts").header(OwnerContext.OWNER_HEADER, OWNER)
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Alice Johnson")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        ContactResponseDto created = objectMapper.readValue(body, ContactResponseDto.class);
+        long version = created.getVersion();
+
+        for (String name : new String[]{"Alice Smith", "Alice Brown"}) {
+            mockMvc.perform(put("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, OWNER)
+                            .contentType(MediaType.APPLICATION_JSON).content(contact(name)))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""))
+                    .andExpect(jsonPath("$.name").value(name));
+        }
+        mockMvc.perform(get("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, OWNER))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Alice Brown"))
+                .andExpect(jsonPath("$.version").value(version + 1));
+        assertEquals(1, pendingWrites.size());
+
+        mockMvc.perform(put("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, OWNER)
+                        .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Alice Green")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Alice Green"))
+                .andExpect(jsonPath("$.version").value(version + 2));
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void identicalUpdate_ShouldBumpVersionWhenSaved() throws Exception {
+        String body = mockMvc.perform(post("/contacts").header(OwnerContext.OWNER_HEADER, OWNER)
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Carol White")))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        ContactResponseDto created = objectMapper.readValue(body, ContactResponseDto.class);
+        long version = created.getVersion();
+
+        mockMvc.perform(put("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, OWNER)
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Carol White")))
+                .andExpect(status().isAccepted())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (version + 1) + "\""));
+
+        // условное обновление сохраняет отложенное и ожидает обещанную версию
+        mockMvc.perform(put("/contacts/{id}", created.getId()).header(OwnerContext.OWNER_HEADER, OWNER)
+                        .header(HttpHeaders.IF_MATCH, "\"" + (version + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Carol White")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version + 2));
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void update_ShouldCreateMissingContactImmediately() throws Exception {
+        mockMvc.perform(put("/contacts/{id}", 987654).header(OwnerContext.OWNER_HEADER, OWNER)
+                        .contentType(MediaType.APPLICATION_JSON).content(contact("Bob Stone")))
+                .andExpect(status().is2xxSuccessful())
+                .andExpect(header().exists(HttpHeaders.ETAG));
+        assertEquals(0, pendingWrites.size());
+    }
+
+    private static String contact(String name) {
+        return "{ \"name\": \"" + name + "\", \"phoneNumber\": \"5550000002\", \"email\": \"\" }";
+    }
+}
@@ -0,0 +1,241 @@
+package com.example.contactbook.service;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.exceptions.ContactNotFoundException;
+import com.example.contactbook.exceptions.ServiceOverloadedException;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.example.contactbook.validation.DirectContactValidator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ContactWriteBehindTest {
+
+    @Mock
+    private ContactService contactService;
+
+    private final PendingContactWrites pendingWrites = new PendingContactWrites();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<List<ContactResponseDto>> savedBatches = new ArrayList<>();
+    private Consumer<List<ContactResponseDto>> onSave = batch -> { };
+    private ContactWriteBehind writeBehind;
+    private AutoCloseable mocks;
+
+    @BeforeEach
+    void setUp() {
+        mocks = MockitoAnnotations.openMocks(this);
+        when(contactService.savePendingUpdates(anyList())).thenAnswer(invocation -> {
+            List<ContactResponseDto> contacts = invocation.getArgument(0);
+            savedBatches.add(List.copyOf(contacts));
+            onSave.accept(contacts);
+            return Set.of();
+        });
+        writeBehind = writeBehind(10);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        mocks.close();
+    }
+
+    @Test
+    void submit_ShouldCoalesceUpdatesAndSaveLatestOnce() {
+        when(contactService.getContactVersion(1L)).thenReturn(4L);
+
+        ContactResponseDto first = writeBehind.submit(1L, request("First"));
+        ContactResponseDto second = writeBehind.submit(1L, request("Second"));
+
+        assertEquals(5L, first.getVersion());
+        assertEquals(5L, second.getVersion());
+        assertEquals("Second", pendingWrites.get(1L).getName());
+        verify(contactService, never()).savePendingUpdates(anyList());
+
+        writeBehind.flush();
+
+        assertEquals(1, savedBatches.size());
+        assertEquals(1, savedBatches.get(0).size());
+        assertEquals("Second", savedBatches.get(0).get(0).getName());
+        assertEquals(5L, savedBatches.get(0).get(0).getVersion());
+        assertNull(pendingWrites.get(1L));
+        assertEquals(1.0, meterRegistry.counter(ContactWriteBehind.WRITES_COUNTER, "outcome", "coalesced").count());
+        assertEquals(1.0, meterRegistry.counter(ContactWriteBehind.WRITES_COUNTER, "outcome", "flushed").count());
+    }
+
+    @Test
+    void submit_ShouldReturnNullForMissingContact() {
+        when(contactService.getContactVersion(1L)).thenThrow(new ContactNotFoundException("Contact not found"));
+
+        assertNull(writeBehind.submit(1L, request("First")));
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void submit_ShouldRejectInvalidContact() {
+        assertThrows(IllegalArgumentException.class, () -> writeBehind.submit(1L, request("")));
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void submit_ShouldRejectWhenQueueIsFull() {
+        writeBehind = writeBehind(1);
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        when(contactService.getContactVersion(2L)).thenReturn(1L);
+        writeBehind.submit(1L, request("First"));
+
+        assertThrows(ServiceOverloadedException.class, () -> writeBehind.submit(2L, request("Second")));
+
+        writeBehind.flush();
+        assertEquals(2L, writeBehind.submit(2L, request("Second")).getVersion());
+    }
+
+    @Test
+    void flush_ShouldKeepUpdateAcceptedDuringSave() {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        writeBehind.submit(1L, request("First"));
+        onSave = batch -> {
+            onSave = ignored -> { };
+            assertEquals(3L, writeBehind.submit(1L, request("Second")).getVersion());
+        };
+
+        writeBehind.flush();
+
+        assertEquals("Second", pendingWrites.get(1L).getName());
+        writeBehind.flush();
+        assertEquals(2, savedBatches.size());
+        assertEquals("Second", savedBatches.get(1).get(0).getName());
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void flush_ShouldPromiseStoredVersionAfterFailedSave() {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        assertEquals(2L, writeBehind.submit(1L, request("First")).getVersion());
+        onSave = batch -> {
+            onSave = ignored -> { };
+            throw new IllegalStateException("Database unavailable");
+        };
+
+        assertThrows(IllegalStateException.class, writeBehind::flush);
+        ContactResponseDto promised = writeBehind.submit(1L, request("Second"));
+        writeBehind.flush();
+
+        assertEquals(2L, promised.getVersion());
+        assertEquals(2, savedBatches.size());
+        assertEquals("Second", savedBatches.get(1).get(0).getName());
+        assertEquals(promised.getVersion(), savedBatches.get(1).get(0).getVersion());
+        assertEquals(0, pendingWrites.size());
+    }
+
+    @Test
+    void flush_ShouldWaitForConcurrentSaveOfSameContact() throws Exception {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        when(contactService.getContactVersion(2L)).thenReturn(1L);
+        writeBehind.submit(1L, request("First"));
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        onSave = batch -> {
+            onSave = ignored -> { };
+            saving.countDown();
+            awaitQuietly(release);
+        };
+        Thread background = Thread.ofVirtual().start(writeBehind::flush);
+        saving.await();
+        writeBehind.submit(1L, request("Second"));
+        writeBehind.submit(2L, request("Other"));
+
+        Thread targeted = Thread.ofVirtual().start(() -> writeBehind.flush(List.of(1L)));
+        targeted.join(200);
+        assertEquals(1, savedBatches.size());
+        release.countDown();
+        background.join();
+        targeted.join();
+
+        assertEquals(2, savedBatches.size());
+        assertEquals("Second", savedBatches.get(1).get(0).getName());
+        assertEquals(3L, savedBatches.get(1).get(0).getVersion());
+        assertEquals("Other", pendingWrites.get(2L).getName());
+    }
+
+    @Test
+    void flush_ShouldDropUpdateOfDeletedContact() {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        when(contactService.savePendingUpdates(anyList())).thenReturn(Set.of(1L));
+        writeBehind.submit(1L, request("First"));
+
+        writeBehind.flush();
+
+        assertEquals(0, pendingWrites.size());
+        assertEquals(1.0, meterRegistry.counter(ContactWriteBehind.WRITES_COUNTER, "outcome", "dropped").count());
+        assertEquals(0.0, meterRegistry.counter(ContactWriteBehind.WRITES_COUNTER, "outcome", "flushed").count());
+    }
+
+    @Test
+    void flush_ShouldSaveOnlyCurrentOwnerIds() {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        OwnerContext.runAs("alice", () -> writeBehind.submit(1L, request("Alice")));
+        writeBehind.submit(1L, request("Default"));
+
+        writeBehind.flush(List.of(1L));
+
+        ArgumentCaptor<List<ContactResponseDto>> captor = ArgumentCaptor.captor();
+        verify(contactService, times(1)).savePendingUpdates(captor.capture());
+        assertEquals("Default", captor.getValue().get(0).getName());
+        assertEquals("Alice", OwnerContext.callAs("alice", () -> pendingWrites.get(1L)).getName());
+    }
+
+    @Test
+    void close_ShouldDrainPendingAndBypassQueue() throws InterruptedException {
+        when(contactService.getContactVersion(1L)).thenReturn(1L);
+        writeBehind.submit(1L, request("First"));
+
+        writeBehind.close();
+
+        assertEquals(0, pendingWrites.size());
+        assertEquals(1, savedBatches.size());
+        assertNull(writeBehind.submit(1L, request("Second")));
+    }
+
+    private ContactWriteBehind writeBehind(int capacity) {
+        return new ContactWriteBehind(contactService,
+                new DirectContactValidator(Validation.buildDefaultValidatorFactory().getValidator()),
+                pendingWrites, meterRegistry, capacity, 100, Duration.ZERO);
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ContactRequestDto request(String name) {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setName(name);
+        request.setPhoneNumber("+79001234567");
+        request.setEmail("john@example.com");
+        return request;
+    }
+}
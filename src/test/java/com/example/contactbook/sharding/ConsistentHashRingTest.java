@@ -0,0 +1,47 @@
+package com.example.contactbook.sharding;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int OWNERS = 20_000;
+
+    @Test
+    void shardOf_ShouldSpreadOwnersEvenlyAndStayStable() {
+        ConsistentHashRing ring = new ConsistentHashRing(4, ShardDirectory.DEFAULT_VIRTUAL_NODES);
+        int[] counts = new int[4];
+        for (int i = 0; i < OWNERS; i++) {
+            counts[ring.shardOf("owner-" + i)]++;
+        }
+        for (int count : counts) {
+            assertEquals(OWNERS / 4.0, count, OWNERS / 4.0 * 0.2);
+        }
+        assertEquals(ring.shardOf("alice"),
+                new ConsistentHashRing(4, ShardDirectory.DEFAULT_VIRTUAL_NODES).shardOf("alice"));
+        assertEquals(0, new ConsistentHashRing(1, 1).shardOf("alice"));
+    }
+
+    @Test
+    void shardOf_ShouldMoveOnlyOwnersOfNewShardWhenShardIsAdded() {
+        ConsistentHashRing before = new ConsistentHashRing(3, ShardDirectory.DEFAULT_VIRTUAL_NODES);
+        ConsistentHashRing after = new ConsistentHashRing(4, ShardDirectory.DEFAULT_VIRTUAL_NODES);
+        int moved = 0;
+        for (int i = 0; i < OWNERS; i++) {
+            String owner = "owner-" + i;
+            int shard = after.shardOf(owner);
+            if (shard != before.shardOf(owner)) {
+                assertEquals(3, shard, owner);
+                moved++;
+            }
+        }
+        assertEquals(OWNERS / 4.0, moved, OWNERS / 4.0 * 0.2);
+    }
+
+    @Test
+    void constructor_ShouldRejectEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(0, 1));
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(1, 0));
+    }
+}
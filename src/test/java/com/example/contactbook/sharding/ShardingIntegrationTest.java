@@ -0,0 +1,113 @@
+package com.example.contactbook.sharding;
+
+import com.example.contactbook.dto.ContactResponseDto;
+import com.example.contactbook.tenancy.OwnerContext;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Книги владельцев на трех базах H2: изоляция книг, размещение по кольцу и перенос книги.
+ */
+@SpringBootTest(properties = {
+        "contact-book.sharding.urls=jdbc:h2:mem:sharding_test_0;DB_CLOSE_DELAY=-1,"
+                + "jdbc:h2:mem:sharding_test_1;DB_CLOSE_DELAY=-1,jdbc:h2:mem:sharding_test_2;DB_CLOSE_DELAY=-1",
+        "contact-book.snapshot.restore-on-startup=false"
+})
+@ActiveProfiles("sharded")
+@AutoConfigureMockMvc
+class ShardingIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ShardDirectory directory;
+
+    @Test
+    void contacts_ShouldBeVisibleOnlyToOwnerAndStoredOnRingShard() throws Exception {
+        ContactResponseDto alice = create("alice", "Alice Johnson", "5550000001");
+        ContactResponseDto bob = create("bob", "Bob Smith", "5550000002");
+
+        mockMvc.perform(get("/contacts/{id}", alice.getId()).header(OwnerContext.OWNER_HEADER, "alice"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.VARY, OwnerContext.OWNER_HEADER))
+                .andExpect(jsonPath("$.owner").doesNotExist());
+        mockMvc.perform(get("/contacts/{id}", alice.getId()).header(OwnerContext.OWNER_HEADER, "bob"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(delete("/contacts/{id}", alice.getId()).header(OwnerContext.OWNER_HEADER, "bob"))
+                .andExpect(status().isNotFound());
+        mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "bob"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(bob.getId()));
+        mockMvc.perform(get("/contacts/search").param("q", "Alice").header(OwnerContext.OWNER_HEADER, "bob"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+
+        assertEquals(1L, directory.ownersOn(directory.ringShardOf("alice")).get("alice"));
+        assertEquals(1L, directory.ownersOn(directory.ringShardOf("bob")).get("bob"));
+    }
+
+    @Test
+    void rebalance_ShouldMoveMisplacedBookWithItsIds() throws Exception {
+        String owner = "carol";
+        int ringShard = directory.ringShardOf(owner);
+        int otherShard = (ringShard + 1) % directory.shardCount();
+        directory.place(owner, otherShard);
+        ContactResponseDto first = create(owner, "Carol White", "5550000003");
+        ContactResponseDto second = create(owner, "Carl Black", "5550000004");
+        assertEquals(2L, directory.ownersOn(otherShard).get(owner));
+
+        mockMvc.perform(post("/admin/shards/rebalance"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.movedOwners").value(1))
+                .andExpect(jsonPath("$.movedContacts").value(2));
+
+        assertEquals(ringShard, directory.shardOf(owner));
+        assertNull(directory.ownersOn(otherShard).get(owner));
+        assertEquals(2L, directory.ownersOn(ringShard).get(owner));
+        mockMvc.perform(get("/contacts/{id}", second.getId()).header(OwnerContext.OWNER_HEADER, owner))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Carl Black"));
+        mockMvc.perform(get("/contacts/changes").header(OwnerContext.OWNER_HEADER, owner))
+                .andExpect(status().is2xxSuccessful());
+        mockMvc.perform(delete("/contacts/{id}", first.getId()).header(OwnerContext.OWNER_HEADER, owner))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(get("/admin/shards"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[*].misplacedOwners").value(org.hamcrest.Matchers.everyItem(
+                        org.hamcrest.Matchers.is(0))));
+    }
+
+    @Test
+    void request_ShouldRejectInvalidOwner() throws Exception {
+        mockMvc.perform(get("/contacts").header(OwnerContext.OWNER_HEADER, "../etc"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").exists());
+    }
+
+    private ContactResponseDto create(String owner, String name, String phoneNumber) throws Exception {
+        String body = mockMvc.perform(post("/contacts")
+                        .header(OwnerContext.OWNER_HEADER, owner)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"" + name + "\",\"phoneNumber\":\"" + phoneNumber + "\"}"))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(body, ContactResponseDto.class);
+    }
+}
@@ -0,0 +1,201 @@
+package com.example.contactbook.validation;
+
+import com.example.contactbook.dto.ContactRequestDto;
+import com.example.contactbook.model.Contact;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Соответствие {@link DirectContactValidator} проверке через Hibernate Validator ({@link BeanContactValidator}).
+ */
+class DirectContactValidatorTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private final ContactValidator direct = new DirectContactValidator(VALIDATOR);
+    private final ContactValidator bean = new BeanContactValidator(VALIDATOR);
+
+    @Test
+    void findViolations_ShouldMatchBeanValidationOnEdgeCases() {
+        List<String> names = Arrays.asList(null, "", " ", "\t\n\u0001", "\u00a0", "\u2003", " x ", "John Doe");
+        List<String> phones = Arrays.asList(null, "", "   ", "unknown", "+", "1234567890", "+1 (555) 010-0100",
+                "12345678901234567890");
+        List<String> emails = Arrays.asList(null, "", " ", "@", "a@", "@b", "a@b", "john.doe@example.com",
+                "John.Doe+tag@Example.COM", "a..b@example.com", ".a@example.com", "a.@example.com",
+                "a@b@example.com", "a@example..com", "a@example.com.", "a@.example.com", "a@-example.com",
+                "a@example-.com", "a@ex--ample.com", "a@exa_mple.com", "a b@example.com", "a@exa mple.com",
+                "!#$%&'*+/=?^_`{|}~-@example.com", "a@!#$%&'*+/=?^_`{|}~.com", "a(b)@example.com",
+                "a@[127.0.0.1]", "a@[IPv6:::1]", "a@[300.0.0.1x]", "\"john doe\"@example.com", "\"a\"b@example.com",
+                "jöhn@example.com", "john@exämple.com", "john@例え.jp", "john@xn--80ak6aa92e.com",
+                "a".repeat(64) + "@example.com", "a".repeat(65) + "@example.com",
+                "a@" + "b".repeat(63) + ".com", "a@" + "b".repeat(64) + ".com",
+                "a@" + ("b".repeat(62) + ".").repeat(4) + "com", "a@" + ("b".repeat(61) + ".").repeat(4) + "com",
+                "a@example.com\n", "a\n@example.com");
+        for (String name : names) {
+            for (String phone : phones) {
+                assertConforms(name, phone, "john.doe@example.com");
+            }
+        }
+        for (String email : emails) {
+            assertConforms("John Doe", "1234567890", email);
+            assertConforms("", null, email);
+        }
+    }
+
+    @Test
+    void findViolations_ShouldMatchBeanValidationOnRandomEmails() {
+        Random random = new Random(17);
+        String alphabet = "ab9Z.-@_+\"[]: !é\u0000";
+        for (int i = 0; i < 20_000; i++) {
+            StringBuilder email = new StringBuilder();
+            int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                email.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            // чаще получаем адреса с одним @ и доменом, чтобы проверять правила меток
+            if (random.nextBoolean()) {
+                email.insert(random.nextInt(email.length() + 1), '@');
+            }
+            assertConforms("John Doe", "1234567890", email.toString());
+        }
+    }
+
+    @Test
+    void findViolations_ShouldListMessagesInFieldOrderAndValidateBatchesAndPatches() {
+        ContactRequestDto invalid = request(" ", null, "invalid-email");
+        ContactRequestDto valid = request("John Doe", "1234567890", "john.doe@example.com");
+
+        assertEquals("Validation failed for Contact: Name must not be blank; Phone number must not be blank; "
+                + "Invalid email format; ", direct.findViolations(invalid));
+        assertNull(direct.findViolations(request("John Doe", "n/a", null)));
+        assertNull(direct.findViolations(request("John Doe", "1234567890123456", null)));
+        assertNull(direct.findPatchViolations(request(null, "unknown", null)));
+        assertArrayEquals(new String[]{null, direct.findViolations(invalid), null},
+                direct.findViolations(List.of(valid, invalid, valid)));
+        assertNull(direct.findPatchViolations(request(null, null, "john.doe@example.com")));
+        assertEquals("Validation failed for Contact: Invalid email format; ",
+                direct.findPatchViolations(request(null, null, "invalid-email")));
+    }
+
+    @Test
+    void findViolations_ShouldNotUseBeanValidationForPlainAddresses() {
+        Validator fallback = mock(Validator.class);
+        ContactValidator validator = new DirectContactValidator(fallback);
+
+        assertNull(validator.findViolations(request("John Doe", "1234567890", "john.doe@mail.example.com")));
+        assertNotNull(validator.findViolations(request("John Doe", "1234567890", "john..doe@example.com")));
+        assertNotNull(validator.findViolations(new Contact(1L, "John Doe", "", "john@-example.com")));
+        verifyNoInteractions(fallback);
+    }
+
+    @Test
+    void findViolations_ShouldValidateLargeBatchesInParallel() {
+        ContactRequestDto valid = request("John Doe", "1234567890", "john.doe@example.com");
+        ContactRequestDto invalid = request(" ", null, "invalid-email");
+        List<ContactRequestDto> batch = IntStream.range(0, ContactValidator.PARALLEL_THRESHOLD)
+                .mapToObj(i -> i % 2 == 0 ? valid : invalid)
+                .toList();
+        String[] expected = batch.stream().map(direct::findViolations).toArray(String[]::new);
+
+        ConcurrencyProbe directProbe = new ConcurrencyProbe();
+        ContactValidator probedDirect = new DirectContactValidator(VALIDATOR) {
+            @Override
+            public String findViolations(ContactRequestDto request) {
+                directProbe.enter();
+                return super.findViolations(request);
+            }
+        };
+        assertArrayEquals(expected, probedDirect.findViolations(batch));
+        assertTrue(directProbe.sawConcurrentThreads(), "direct batch validation must run in parallel");
+
+        ConcurrencyProbe beanProbe = new ConcurrencyProbe();
+        ContactValidator probedBean = new BeanContactValidator(VALIDATOR) {
+            @Override
+            public String findViolations(ContactRequestDto request) {
+                beanProbe.enter();
+                return super.findViolations(request);
+            }
+        };
+        String[] beanErrors = probedBean.findViolations(batch);
+        assertEquals(expected.length, beanErrors.length);
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(messages(expected[i]), messages(beanErrors[i]), "record " + i);
+        }
+        assertTrue(beanProbe.sawConcurrentThreads(), "bean batch validation must run in parallel");
+    }
+
+    private void assertConforms(String name, String phoneNumber, String email) {
+        ContactRequestDto request = request(name, phoneNumber, email);
+        Contact contact = new Contact(null, name, phoneNumber, email);
+        String expected = bean.findViolations(contact);
+        String message = "name=" + name + ", phone=" + phoneNumber + ", email=" + email;
+        assertEquals(messages(expected), messages(direct.findViolations(contact)), message);
+        assertEquals(messages(expected), messages(direct.findViolations(request)), message);
+        assertEquals(messages(expected), messages(bean.findViolations(request)), message);
+        assertEquals(messages(bean.findPatchViolations(request)), messages(direct.findPatchViolations(request)), message);
+    }
+
+    /**
+     * Сообщения без учета порядка: Hibernate Validator возвращает нарушения в {@link Set}.
+     */
+    private static Set<String> messages(String errorMessage) {
+        if (errorMessage == null) {
+            return null;
+        }
+        assertTrue(errorMessage.startsWith(ContactValidator.MESSAGE_PREFIX) && errorMessage.endsWith("; "), errorMessage);
+        return Arrays.stream(errorMessage.substring(ContactValidator.MESSAGE_PREFIX.length()).split("; "))
+                .collect(Collectors.toSet());
+    }
+
+    private static ContactRequestDto request(String name, String phoneNumber, String email) {
+        ContactRequestDto request = new ContactRequestDto();
+        request.setName(name);
+        request.setPhoneNumber(phoneNumber);
+        request.setEmail(email);
+        return request;
+    }
+
+    /**
+     * Ждет, пока проверку не начнет второй поток; при последовательной проверке ожидание истекает
+     * один раз, после чего остальные записи проверяются без ожидания.
+     */
+    private static final class ConcurrencyProbe {
+
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        private final CountDownLatch secondThread = new CountDownLatch(2);
+        private volatile boolean timedOut;
+
+        void enter() {
+            if (threads.add(Thread.currentThread())) {
+                secondThread.countDown();
+            }
+            if (timedOut) {
+                return;
+            }
+            try {
+                timedOut = !secondThread.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        boolean sawConcurrentThreads() {
+            return secondThread.getCount() == 0;
+        }
+    }
+}